@@ -69,22 +69,199 @@
                         (set/subset? ps done))]
          id)))
 
+;; ------------------------------------------------------------
+;; 3) DFS with sound reductions
+;; ------------------------------------------------------------
+;; Two reductions are available; both preserve the verdict:
+;;
+;; :memo?  caches configurations [done state] already shown to fail.
+;;         Interleavings of independent ops (different keys, ops that
+;;         commute) reach the same configuration, so only the first
+;;         order is explored and the rest are cut at the cache.
+;;
+;; :read-only?  fn op -> bool telling which ops can never change the
+;;         state when their observed result is legal (empty polls,
+;;         get, contains...). If such an op is ready and legal in the
+;;         current state, any linearization can be rearranged to take
+;;         it first (it has no pending predecessors and leaves the
+;;         state unchanged), so it is fired without branching.
+;;
+;; :budget  a phd.distributed.verifier.SearchBudget ticked once per node;
+;;          when it runs out (steps, deadline or cancel) the search stops
+;;          and returns :unknown instead of true/false. It also counts
+;;          backtracks and memo hits and gets the candidates of the node
+;;          being expanded (frontier), for the search profile and progress.
+(defn- out-of-steam! []
+  (throw (ex-info "search budget exhausted" {::out-of-steam true})))
+
 (defn check-linearizable-dfs
-  [ops-by-id preds init-state step-fn & {:keys [limit]}]
-  (letfn [(dfs [state done]
-            (let [n-ops (count ops-by-id)]
+  [ops-by-id preds init-state step-fn & {:keys [limit memo? read-only? budget]}]
+  (let [n-ops  (count ops-by-id)
+        ^phd.distributed.verifier.SearchBudget budget budget
+        ro-ids (if read-only?
+                 (set (filter #(read-only? (ops-by-id %)) (keys ops-by-id)))
+                 #{})
+        failed (when memo? (java.util.HashSet.))]
+    (letfn [(legal [state op-id]
+              (let [res (step-fn state (ops-by-id op-id))]
+                (when (:ok? res) res)))
+            (try-op [state done op-id]
+              (when-let [res (legal state op-id)]
+                (dfs (:state res) (conj done op-id))))
+            (dfs [state done]
+              (when (and budget (not (.tick budget (count done))))
+                (out-of-steam!))
               (cond
                 (= (count done) n-ops) true
                 (and limit (> (count done) limit)) false
+                (and failed (.contains failed [done state]))
+                (do (when budget (.memoHit budget)) false)
                 :else
-                (let [cands (ready-ops preds done)]
-                  (if (empty? cands)
-                    false
-                    (some
-                     (fn [op-id]
-                       (let [op  (ops-by-id op-id)
-                             res (step-fn state op)]
-                         (when (:ok? res)
-                           (dfs (:state res) (conj done op-id)))))
-                     cands))))))]
-    (dfs init-state #{})))
\ No newline at end of file
+                (let [cands (ready-ops preds done)
+                      _     (when budget (.frontier budget (count cands)))
+                      eager (some (fn [op-id]
+                                    (when (and (ro-ids op-id) (legal state op-id))
+                                      op-id))
+                                  cands)
+                      ok?   (if eager
+                              (try-op state done eager)
+                              (some #(try-op state done %) cands))]
+                  (when-not ok?
+                    (when failed (.add failed [done state]))
+                    (when budget (.backtrack budget)))
+                  ok?)))]
+      (when budget
+        (.setTotalOps budget n-ops))
+      (try
+        (dfs init-state #{})
+        (catch clojure.lang.ExceptionInfo e
+          (if (::out-of-steam (ex-data e))
+            :unknown
+            (throw e)))))))
+
+;; ------------------------------------------------------------
+;; 4) Parallel DFS (work stealing)
+;; ------------------------------------------------------------
+;; Same search as check-linearizable-dfs, but the candidates of a node
+;; (ready-ops) are forked as ForkJoin tasks while the pool has few queued
+;; tasks, so idle workers steal whole subtrees. Workers share:
+;;   - a concurrent visited set: a configuration is claimed on entry and
+;;     skipped by everybody else (if it leads to success, its owner finds it);
+;;   - a found flag: the first success cancels every other subtree.
+;; The verdict is the found flag, not the value returned by the root task.
+
+(def ^:private shared-pools (atom {}))
+
+(defn shared-pool
+  "ForkJoinPool of the given parallelism, created once and reused."
+  ^java.util.concurrent.ForkJoinPool [parallelism]
+  (or (get @shared-pools parallelism)
+      (get (swap! shared-pools
+                  (fn [pools]
+                    (if (contains? pools parallelism)
+                      pools
+                      (assoc pools parallelism
+                             (java.util.concurrent.ForkJoinPool. (int parallelism))))))
+           parallelism)))
+
+(def ^:private fork-surplus
+  "Fork a subtree only while the worker has fewer surplus tasks than this."
+  2)
+
+(defn- worker-index []
+  (let [t (Thread/currentThread)]
+    (if (instance? java.util.concurrent.ForkJoinWorkerThread t)
+      (.getPoolIndex ^java.util.concurrent.ForkJoinWorkerThread t)
+      0)))
+
+(defn check-linearizable-parallel
+  "Parallel version of check-linearizable-dfs.
+   Options: :parallelism (default: available processors), :pool (a
+   ForkJoinPool to run on), :memo?, :read-only? and :budget as in the
+   sequential DFS.
+
+   Returns {:linearizable? bool
+            :unknown?      true when the budget ran out before a verdict
+            :stats {:nodes n :elapsed-ms ms
+                    :workers [{:worker i :nodes n :nodes-per-sec r} ...]}}"
+  [ops-by-id preds init-state step-fn & {:keys [parallelism pool memo? read-only? budget]}]
+  (let [parallelism (or parallelism (.availableProcessors (Runtime/getRuntime)))
+        ^java.util.concurrent.ForkJoinPool pool (or pool (shared-pool parallelism))
+        n-ops   (count ops-by-id)
+        ro-ids  (if read-only?
+                  (set (filter #(read-only? (ops-by-id %)) (keys ops-by-id)))
+                  #{})
+        visited (when memo? (java.util.concurrent.ConcurrentHashMap/newKeySet))
+        found   (java.util.concurrent.atomic.AtomicBoolean. false)
+        ^phd.distributed.verifier.SearchBudget budget budget
+        slots   (max 64 (* 2 (.getParallelism pool)))
+        nodes   (java.util.concurrent.atomic.AtomicLongArray. (int slots))
+        start   (System/nanoTime)]
+    (letfn [(legal [state op-id]
+              (let [res (step-fn state (ops-by-id op-id))]
+                (when (:ok? res) res)))
+            (child [state done op-id]
+              (when-let [res (legal state op-id)]
+                (dfs (:state res) (conj done op-id))))
+            (dfs [state done]
+              (.incrementAndGet nodes (mod (worker-index) slots))
+              (cond
+                (.get found) false
+                (and budget (not (.tick budget (count done)))) false
+                (= (count done) n-ops) (do (.set found true) true)
+                (and visited (not (.add visited [done state])))
+                (do (when budget (.memoHit budget)) false)
+                :else
+                (let [cands (ready-ops preds done)
+                      _     (when budget (.frontier budget (count cands)))
+                      eager (some (fn [op-id]
+                                    (when (and (ro-ids op-id) (legal state op-id))
+                                      op-id))
+                                  cands)
+                      ok?   (if eager
+                              (child state done eager)
+                              (loop [cs (seq cands) forked []]
+                                (cond
+                                  (.get found)
+                                  (do (doseq [^java.util.concurrent.ForkJoinTask t forked] (.cancel t false))
+                                      false)
+
+                                  (nil? cs)
+                                  (boolean (some (fn [^java.util.concurrent.ForkJoinTask t]
+                                                   (and (not (.isCancelled t)) (.join t)))
+                                                 forked))
+
+                                  (and (next cs)
+                                       (< (java.util.concurrent.ForkJoinTask/getSurplusQueuedTaskCount)
+                                          fork-surplus))
+                                  (let [op-id (first cs)
+                                        t     (.fork (java.util.concurrent.ForkJoinTask/adapt
+                                                      ^java.util.concurrent.Callable
+                                                      (fn [] (boolean (child state done op-id)))))]
+                                    (recur (next cs) (conj forked t)))
+
+                                  :else
+                                  (if (child state done (first cs))
+                                    true
+                                    (recur (next cs) forked)))))]
+                  ;; a finished search (found) is not a backtrack
+                  (when (and budget (not ok?) (not (.get found)))
+                    (.backtrack budget))
+                  ok?)))]
+      (when budget
+        (.setTotalOps budget n-ops))
+      (.invoke pool (java.util.concurrent.ForkJoinTask/adapt
+                     ^java.util.concurrent.Callable
+                     (fn [] (boolean (dfs init-state #{})))))
+      (let [elapsed (max 1 (- (System/nanoTime) start))
+            workers (vec (for [i (range slots)
+                               :let [n (.get nodes i)]
+                               :when (pos? n)]
+                           {:worker        i
+                            :nodes         n
+                            :nodes-per-sec (long (/ (* n 1e9) elapsed))}))]
+        {:linearizable? (.get found)
+         :unknown?      (boolean (and budget (not (.get found)) (.isExhausted budget)))
+         :stats {:nodes      (reduce + (map :nodes workers))
+                 :elapsed-ms (quot elapsed 1000000)
+                 :workers    workers}}))))
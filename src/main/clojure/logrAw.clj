@@ -1,104 +1,60 @@
 (ns logrAw
   (:gen-class)
   (:require [clojure.set :as set]
-            [clojure.pprint :as pp])
-  (:import [java.util ArrayList]))
+            [clojure.pprint :as pp]))
 
 ;; ============================================================
-;; Global state: dos listas Java de vectores de Clojure
+;; 1. Logs
 ;; ============================================================
+;; No hay estado global: CollectRAW registra cada corrida en sus propios
+;; buffers por hilo y los pasa aquí al construir X_E:
+;;   invs    vector (por tid) de vectores de invocaciones
+;;           {:type :invoke, :op-id ..., :tid ..., :op ..., :arg ...}
+;;   returns vector (por tid) de vectores de respuestas
+;;           {:type :return, :op-id ..., :tid ..., :res ..., :view-counts [...]}
 
-(def invs-var
-  "Java ArrayList: en la posición tid está un vector de invocaciones del hilo tid."
-  (ArrayList.))
-
-(def returns-var
-  "Java ArrayList: en la posición tid está un vector de respuestas del hilo tid."
-  (ArrayList.))
-
-(defn init-logs!
-  "Inicializa invs-var y returns-var con nthreads vectores vacíos."
-  [nthreads]
-  (.clear invs-var)
-  (.clear returns-var)
-  (dotimes [_ nthreads]
-    (.add invs-var [])
-    (.add returns-var []))
-  nil)
-
-;; ============================================================
-;; 1. Escribir invocaciones y respuestas
-;; ============================================================
-
-(defn log-invoke!
-  "Append INVOCATION event to invs-var[tid].
-   Estructura:
-   {:type :invoke, :op-id ..., :tid ..., :op ..., :arg ...}"
-  [tid op-id op arg]
-  (let [event   {:type  :invoke
-                 :op-id op-id
-                 :tid   tid
-                 :op    op
-                 :arg   arg}
-        old-vec (.get invs-var tid)
-        new-vec (conj old-vec event)]
-    (.set invs-var tid new-vec)
-    nil))
-
-(defn log-return!
-  "Append RESPONSE event to returns-var[tid].
-   Toma automáticamente un snapshot de TODAS las invocaciones en invs-var
-   y lo guarda en :view.
-
-   Estructura:
-   {:type :return, :op-id ..., :tid ..., :res ..., :view snapshot}"
-  [tid op-id res]
-  ;; snapshot = copia inmutable de las invocaciones de todos los hilos
-  (let [snapshot (->> (seq invs-var)
-                      (mapv vec))
-        event    {:type :return
-                  :op-id op-id
-                  :tid   tid
-                  :res   res
-                  :view  snapshot}
-        old-vec  (.get returns-var tid)
-        new-vec  (conj old-vec event)]
-    (.set returns-var tid new-vec)
-    nil))
-    
 ;; ============================================================
 ;; 2. Helpers para agrupar por op-id
 ;; ============================================================
 
 (defn all-invs
   "Devuelve una secuencia de TODAS las invocaciones (events) en todos los hilos."
-  []
-  (mapcat identity (seq invs-var)))
+  [invs]
+  (mapcat identity (seq invs)))
 
 (defn all-returns
   "Devuelve una secuencia de TODAS las respuestas (events) en todos los hilos."
-  []
-  (mapcat identity (seq returns-var)))
+  [returns]
+  (mapcat identity (seq returns)))
 
 (defn inv-by-op-id
   "Mapea op-id ↦ evento de invocación (asumimos un inv por op-id)."
-  []
+  [invs]
   (into {}
-        (for [ev (all-invs)]
+        (for [ev (all-invs invs)]
           [(:op-id ev) ev])))
 (defn ret-info
   "Mapea op-id ↦ {:ret <evento-return> :inv-set #{op-ids vistos en :view}}.
 
-   Soporta dos formatos de :view:
-   1) Mapa: {op-id op-id, ...}
-   2) Vector de vectores de invocaciones: [[{:op-id ...} ...] [...]]"
-  []
+   Soporta tres formatos de vista:
+   1) :view mapa: {op-id op-id, ...}
+   2) :view vector de vectores de invocaciones: [[{:op-id ...} ...] [...]]
+   3) :view-counts, número de invocaciones de cada hilo (CollectRAW):
+      la vista son los primeros n eventos de invs[tid]"
+  [invs returns]
   (into {}
-        (for [ret-ev (all-returns)
+        (for [ret-ev (all-returns returns)
               :let [op-id (:op-id ret-ev)
                     view  (:view ret-ev)
+                    counts (:view-counts ret-ev)
                     inv-set
                     (cond
+                      ;; Caso 3: contadores por hilo
+                      counts
+                      (set (mapcat (fn [tid n]
+                                     (map :op-id (subvec (vec (nth invs tid)) 0 n)))
+                                   (range) counts))
+
                       ;; Caso 1: mapa {op-id op-id}
                       (map? view)
                       (set (keys view))
@@ -123,9 +79,9 @@
    - (b) ret_i → inv_j si view(i) ⊂ view(j), view(j) ≠ view(i)
          y op-id de inv_j NO está en view(i).
    - (c) inv_k → ret_i si el op-id k aparece en la vista (:inv-set) de ret_i."
-  []
-  (let [inv-map (inv-by-op-id)   ;; op-id ↦ evento de invocación
-        ret-map (ret-info)]      ;; op-id ↦ {:ret ret-event :inv-set #{...}}
+  [invs returns]
+  (let [inv-map (inv-by-op-id invs)          ;; op-id ↦ evento de invocación
+        ret-map (ret-info invs returns)]     ;; op-id ↦ {:ret ret-event :inv-set #{...}}
 
     (let [;; (a) invX -> retX
           edges-own
@@ -235,7 +191,7 @@
   "Convierte X_E (vector de eventos, típicamente salido de topo-order-events)
    a un formato plano para el verificador:
    - Mantiene :op tal cual viene de Java (sin normalizar nombres).
-   - Elimina el campo :view de los eventos de tipo :return.
+   - Elimina los campos :view / :view-counts de los eventos de tipo :return.
    - Conserva :type, :op-id, :tid, :arg, :res."
   [xe]
   (mapv
@@ -258,28 +214,30 @@
        ev))
    xe))
 
-(defn xe-for-jit-from-logs []
-  (-> (build-edges-as-events)
+(defn xe-for-jit-from-logs
+  "X_E a partir de las invocaciones y respuestas por hilo que registra CollectRAW."
+  [invs returns]
+  (-> (build-edges-as-events invs returns)
       (topo-order-events)
       (xe-for-jit)))
       
-;; (defn xe-for-jit-from-logs []
+;; (defn xe-for-jit-from-logs [invs returns]
 ;;   ;; ============================================================
-;;   ;; 1. PRINT invs-var y returns-var
+;;   ;; 1. PRINT invs y returns
 ;;   ;; ============================================================
-;;   (println "\n=== invs-var ===")
-;;   (doseq [i (range (.size invs-var))]
-;;     (println "tid" i ":" (.get invs-var i)))
+;;   (println "\n=== invs ===")
+;;   (doseq [i (range (count invs))]
+;;     (println "tid" i ":" (nth invs i)))
 
-;;   (println "\n=== returns-var ===")
-;;   (doseq [i (range (.size returns-var))]
-;;     (println "tid" i ":" (.get returns-var i)))
+;;   (println "\n=== returns ===")
+;;   (doseq [i (range (count returns))]
+;;     (println "tid" i ":" (nth returns i)))
 
 
 ;;   ;; ============================================================
 ;;   ;; 2. Build edges
 ;;   ;; ============================================================
-;;   (let [edges (build-edges-as-events)]
+;;   (let [edges (build-edges-as-events invs returns)]
 ;;     (println "\n=== EDGES ===")
 ;;     (doseq [e edges] (println e))
 
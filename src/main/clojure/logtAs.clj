@@ -1,53 +1,30 @@
 (ns logtAs
   (:gen-class)
   (:require [clojure.pprint :as pp]
-                [spec.queue :as q])
-  (:import [java.util ArrayList]))
+                [spec.queue :as q]))
 
 ;; ============================================================
-;; Global state: Java ArrayList of Clojure vectors
+;; Logs
 ;; ============================================================
-
-(def logs-var
-  (ArrayList.))
-
-(defn init-logs!
-  "Initialize logs-var to a Java ArrayList of nthreads empty vectors."
-  [nthreads]
-  (.clear logs-var)
-  (dotimes [_ nthreads]
-    (.add logs-var []))
-  logs-var)
-
-(defn write-log-tAs!
-  "Append event to logs-var[tid].
-   Each thread owns its own vector."
-  [type tid op-id op arg count]
-  (let [event {:type  type
-               :op-id op-id
-               :tid   tid
-               :op    op
-               :arg   arg
-               :count count}
-        old-vec (.get logs-var tid)
-        new-vec (conj old-vec event)]
-    (.set logs-var tid new-vec)
-    nil))
-
+;; There is no global state: CollectFAInc records each run in its own
+;; per-thread buffers and passes them here when it builds X_E, as a
+;; vector (one entry per thread) of vectors of events
+;;   {:type :invoke|:return :op-id ... :tid ... :op ... :arg ... :count ...}
+;; with the result of a return in :arg.
 
 ;; ============================================================
 ;; Build XE (global ordering)
 ;; ============================================================
 
 (defn build-xe
-  "Builds a flattened, globally ordered execution (XE) from logs-var
-   (a Java ArrayList of per-thread Clojure vectors).
+  "Builds a flattened, globally ordered execution (XE) from per-thread
+   event vectors (the logs recorded by CollectFAInc).
 
    Returns a vector of maps:
      {:type :invoke :op-id ... :tid ... :op ... :arg ...}
      {:type :return :op-id ... :tid ... :res ...}."
-  []
-  (let [flat          (apply concat (seq logs-var))
+  [logs]
+  (let [flat          (apply concat (seq logs))
         sorted-events (sort-by (juxt :count :tid) flat)]
     (mapv
      (fn [{:keys [type op-id tid op arg] :as ev}]
@@ -86,8 +63,8 @@
    - keeps all events
    - normalizes arg/res null-like values
    - leaves op names untouched"
-  []
-  (let [xe (build-xe)]
+  [logs]
+  (let [xe (build-xe logs)]
     (mapv
      (fn [{:keys [type op-id tid op arg res] :as ev}]
        (case type
@@ -105,4 +82,4 @@
           :res   (normalize-null res)}
 
          ev))
-     xe)))
\ No newline at end of file
+     xe)))
@@ -0,0 +1,201 @@
+(ns sanity
+  (:require [spec.queue :as q]
+            [spec.deque :as dq]
+            [spec.set :as s]
+            [spec.map :as m]))
+
+;; ------------------------------------------------------------
+;; Linear-time sanity pre-pass over X_E
+;; ------------------------------------------------------------
+;; Before the DFS we stream once over the history and check
+;; value-conservation / causality invariants that every legal
+;; linearization must satisfy. Each op is classified by the rule set
+;; of its spec into zero or more "effects" on an abstract token:
+;;
+;;   [:produce v]  the op puts a token v in the object    (at invoke)
+;;   [:consume v]  the op takes a distinct token v out    (at return)
+;;   [:observe v]  the op saw v, so some producer of v
+;;                 must have been invoked before it returned
+;;   [:reject r]   the observed result is impossible in any state
+;;
+;; Producers are counted at their invocation and consumers are checked
+;; at their return, so a greedy match in X_E order is exact: if no
+;; token is available when a consumer returns, no linearization can
+;; exist. The check is sound (it never rejects a linearizable history)
+;; but not complete; surviving histories still go through the search.
+
+;; ------------------------------------------------------------
+;; 1) Rule sets per spec-type
+;; ------------------------------------------------------------
+(defn- container-effects
+  [kind {:keys [arg res]}]
+  (case kind
+    :enqueue (if (true? (q/normalize-bool res))
+               [[:produce (q/queue-value arg)]]
+               [[:reject :enqueue-returned-false]])
+    :dequeue (let [r (q/queue-value (q/normalize-nil res))]
+               (when (some? r)
+                 [[:consume r]]))
+    nil))
+
+(defn queue-effects [{:keys [op] :as o}]
+  (container-effects (q/queue-op-kind op) o))
+
+(defn deque-effects [{:keys [op] :as o}]
+  (container-effects (case (dq/deque-op-kind op)
+                       (:enqueue-front :enqueue-back) :enqueue
+                       (:dequeue-front :dequeue-back) :dequeue
+                       nil)
+                     o))
+
+(defn set-effects [{:keys [op arg res]}]
+  (let [r (s/normalize-bool res)]
+    (case op
+      ;; add(x)=true inserts x; add(x)=false means x was already there
+      :add      [(if (true? r) [:produce arg] [:observe arg])]
+      ;; remove(x)=true takes out one successful add of x
+      :remove   (when (true? r) [[:consume arg]])
+      :contains (when (true? r) [[:observe arg]])
+      nil)))
+
+(defn map-effects [{:keys [op arg res]}]
+  (let [old (m/normalize-val res)]
+    (case op
+      ;; put(k,v) binds (k,v) and replaces the binding it returned
+      :put    (let [[k v] (m/normalize-kv-arg arg)]
+                (cond-> [[:produce [k v]]]
+                  (some? old) (conj [:consume [k old]])))
+      :get    (when (some? old)
+                [[:observe [(m/normalize-key arg) old]]])
+      :remove (when (some? old)
+                [[:consume [(m/normalize-key arg) old]]])
+      nil)))
+
+(def rule-sets
+  {:queue queue-effects
+   :deque deque-effects
+   :set   set-effects
+   :map   map-effects})
+
+;; ------------------------------------------------------------
+;; 2) Streaming check
+;; ------------------------------------------------------------
+(defn- witness
+  [rule op value related]
+  {:rule    rule
+   :op      (select-keys op [:id :tid :op :arg :res])
+   :value   value
+   :related (vec related)})
+
+(defn- missing-token-rule
+  "Explains why a consumer found no token for v."
+  [produced-total consumed v]
+  (cond
+    (zero? (get produced-total v 0))              :value-never-produced
+    (>= (get consumed v 0) (get produced-total v)) :value-consumed-twice
+    :else                                          :consumed-before-produced))
+
+(defn check
+  "Runs the sanity rules of spec-type over xe (events in X_E order) and
+   ops-by-id (complete ops, as returned by jitlin/build-ops).
+
+   Returns {:ok? true  :forced-edges [[from-id to-id] ...]}
+        or {:ok? false :witness {...}}.
+
+   :forced-edges lists precedences that hold in every linearization:
+   when a token has exactly one producer, that producer must come
+   before every op that consumes or observes it."
+  [spec-type xe ops-by-id]
+  (if-let [effects-of (get rule-sets spec-type)]
+    (let [effects   (persistent!
+                     (reduce-kv (fn [acc id o] (assoc! acc id (effects-of o)))
+                                (transient {}) ops-by-id))
+          producers (persistent!
+                     (reduce-kv (fn [acc id effs]
+                                  (reduce (fn [acc [kind v]]
+                                            (if (= kind :produce)
+                                              (assoc! acc v (conj (get acc v []) id))
+                                              acc))
+                                          acc effs))
+                                (transient {}) effects))
+          produced-total (update-vals producers count)]
+      (loop [evs      (seq xe)
+             avail    (transient {})
+             invoked  (transient {})
+             consumed (transient {})
+             users    (transient {})]
+        (if-let [{:keys [type op-id]} (first evs)]
+          (let [op   (ops-by-id op-id)
+                effs (when op (effects op-id))]
+            (cond
+              (nil? op)
+              (recur (next evs) avail invoked consumed users)
+
+              (= type :invoke)
+              (let [[avail invoked]
+                    (reduce (fn [[a i] [kind v]]
+                              (if (= kind :produce)
+                                [(assoc! a v (inc (get a v 0)))
+                                 (assoc! i v (inc (get i v 0)))]
+                                [a i]))
+                            [avail invoked] effs)]
+                (recur (next evs) avail invoked consumed users))
+
+              (= type :return)
+              (let [step
+                    (reduce
+                     (fn [[a c u _] [kind v]]
+                       (case kind
+                         :reject
+                         (reduced [a c u (witness :impossible-result op v [])])
+
+                         :consume
+                         (if (pos? (get a v 0))
+                           [(assoc! a v (dec (get a v)))
+                            (assoc! c v (inc (get c v 0)))
+                            (assoc! u v (conj (get u v []) op-id))
+                            nil]
+                           (reduced
+                            [a c u (witness (missing-token-rule produced-total c v)
+                                            op v (get producers v []))]))
+
+                         :observe
+                         (if (pos? (get invoked v 0))
+                           [a c (assoc! u v (conj (get u v []) op-id)) nil]
+                           (reduced
+                            [a c u (witness (if (zero? (get produced-total v 0))
+                                              :value-never-produced
+                                              :observed-before-produced)
+                                            op v (get producers v []))]))
+
+                         [a c u nil]))
+                     [avail consumed users nil]
+                     effs)
+                    [avail consumed users w] step]
+                (if w
+                  {:ok? false :witness w}
+                  (recur (next evs) avail invoked consumed users)))
+
+              :else
+              (recur (next evs) avail invoked consumed users)))
+          ;; every consumer found a token: report unambiguous precedences
+          {:ok?          true
+           :forced-edges (vec
+                          (for [[v ids] (persistent! users)
+                                :let [ps (producers v)]
+                                :when (= 1 (count ps))
+                                :let [p (first ps)]
+                                id ids
+                                :when (not= p id)]
+                            [p id]))})))
+    {:ok? true :forced-edges []}))
+
+(defn add-edges
+  "Adds [from to] precedences to a preds map (id -> #{pred-ids})."
+  [preds edges]
+  (reduce (fn [ps [a b]]
+            (if (and (contains? ps a) (contains? ps b))
+              (update ps b conj a)
+              ps))
+          preds
+          edges))
@@ -1,8 +1,20 @@
 (ns spec.deque
   (:require [spec.queue :as qspec]))
 
-;; Estado inicial: deque vacía (vector [front ... back])
-(defn deque-init [] [])
+;; Estado: {:lo i :items {i x, i+1 y, ...}} con los elementos en las
+;; posiciones [lo, lo + (count items)). Push/pop por ambos extremos son
+;; un assoc/dissoc en un hash-map persistente (O(log32 n)).
+;; Al vaciarse se vuelve a :lo 0, así que dos deques vacías son iguales
+;; para el memo de la búsqueda; con elementos, el desplazamiento forma
+;; parte del estado (sólo se pierde algo de memo, nunca un veredicto).
+(def ^:private empty-deque {:lo 0 :items {}})
+
+(defn deque-init [] empty-deque)
+
+(defn deque-seq
+  "Elementos de frente a fondo (para depuración y pruebas)."
+  [{:keys [lo items]}]
+  (map items (range lo (+ lo (count items)))))
 
 (def normalize-nil  qspec/normalize-nil)
 (def normalize-bool qspec/normalize-bool)
@@ -38,74 +50,89 @@
     ;; no reconocida
     nil))
 
-;; Helpers para sacar frente / fondo de un vector
-(defn- pop-front [v]
-  (let [v (vec v)]
-    (if (seq v)
-      {:elem (first v)
-       :rest (subvec v 1)}
-      {:elem nil
-       :rest v})))
-
-(defn- pop-back [v]
-  (let [v (vec v)]
-    (if (seq v)
-      (let [n (dec (count v))]
-        {:elem (nth v n)
-         :rest (subvec v 0 n)})
-      {:elem nil
-       :rest v})))
+;; Helpers para meter / sacar por frente y fondo
+(defn- push-front [{:keys [lo items]} x]
+  {:lo (dec lo) :items (assoc items (dec lo) x)})
+
+(defn- push-back [{:keys [lo items]} x]
+  {:lo lo :items (assoc items (+ lo (count items)) x)})
+
+(defn- shrink [{:keys [items] :as d}]
+  (if (empty? items) empty-deque d))
+
+(defn- pop-front [{:keys [lo items] :as d}]
+  (if (seq items)
+    {:elem (items lo)
+     :rest (shrink {:lo (inc lo) :items (dissoc items lo)})}
+    {:elem nil
+     :rest d}))
+
+(defn- pop-back [{:keys [lo items] :as d}]
+  (if (seq items)
+    (let [hi (+ lo (dec (count items)))]
+      {:elem (items hi)
+       :rest (shrink {:lo lo :items (dissoc items hi)})})
+    {:elem nil
+     :rest d}))
+
+(defn deque-prepare
+  "Canonicaliza res una sola vez, antes de la búsqueda: booleano para
+   los enqueue, nil-normalizado para los dequeue."
+  [{:keys [op res] :as o}]
+  (case (deque-op-kind op)
+    (:enqueue-front :enqueue-back) (assoc o :res (normalize-bool res))
+    (:dequeue-front :dequeue-back) (assoc o :res (normalize-nil res))
+    o))
+
+(defn deque-read-only?
+  "True when the op cannot change the deque wherever its observed result
+   is legal: a poll (front or back) that found the deque empty."
+  [op arg res]
+  (and (#{:dequeue-front :dequeue-back} (deque-op-kind op))
+       (nil? (normalize-nil res))))
 
 (defn deque-step
   "Especificación secuencial de una DEQUE:
 
    - offerFirst(x), offerLast(x)  → encolan en frente / fondo y devuelven true
-   - pollFirst(),  pollLast()     → devuelven elemento en frente / fondo o nil"
+   - pollFirst(),  pollLast()     → devuelven elemento en frente / fondo o nil
+   res ya viene canonicalizado por deque-prepare."
   [q op arg res]
-  (let [kind (deque-op-kind op)]
-    (case kind
-
-      ;; Enqueue al frente
-      :enqueue-front
-      (let [res*     (normalize-bool res)
-            success? true
-            q'       (into [arg] q)]      ;; arg :: frente
-        {:ok?  (= res* success?)
-         :res  success?
-         :state q'})
-
-      ;; Enqueue al fondo
-      :enqueue-back
-      (let [res*     (normalize-bool res)
-            success? true
-            q'       (conj q arg)]        ;; arg :: fondo
-        {:ok?  (= res* success?)
-         :res  success?
-         :state q'})
-
-      ;; Dequeue desde el frente
-      :dequeue-front
-      (let [res* (normalize-nil res)
-            {:keys [elem rest]} (pop-front q)]
-        (if (some? elem)
-          {:ok?  (= res* elem)
-           :res  elem
-           :state rest}
-          {:ok?  (= res* nil)
-           :res  nil
-           :state q}))
-
-      ;; Dequeue desde el fondo
-      :dequeue-back
-      (let [res* (normalize-nil res)
-            {:keys [elem rest]} (pop-back q)]
-        (if (some? elem)
-          {:ok?  (= res* elem)
-           :res  elem
-           :state rest}
-          {:ok?  (= res* nil)
-           :res  nil
-           :state q}))
-
-      ;; Operación no soportada
-      {:ok? false :res ::unsupported :state q})))
\ No newline at end of file
+  (case (deque-op-kind op)
+
+    ;; Enqueue al frente
+    :enqueue-front
+    {:ok?   (true? res)
+     :res   true
+     :state (push-front q arg)}
+
+    ;; Enqueue al fondo
+    :enqueue-back
+    {:ok?   (true? res)
+     :res   true
+     :state (push-back q arg)}
+
+    ;; Dequeue desde el frente
+    :dequeue-front
+    (let [{:keys [elem rest]} (pop-front q)]
+      (if (some? elem)
+        {:ok?  (= res elem)
+         :res  elem
+         :state rest}
+        {:ok?  (nil? res)
+         :res  nil
+         :state q}))
+
+    ;; Dequeue desde el fondo
+    :dequeue-back
+    (let [{:keys [elem rest]} (pop-back q)]
+      (if (some? elem)
+        {:ok?  (= res elem)
+         :res  elem
+         :state rest}
+        {:ok?  (nil? res)
+         :res  nil
+         :state q}))
+
+    ;; Operación no soportada
+    {:ok? false :res ::unsupported :state q}))
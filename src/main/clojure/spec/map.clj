@@ -78,6 +78,28 @@
     :else
     [(normalize-key arg) nil]))
 
+(defn map-prepare
+  "Canonicaliza arg/res una sola vez, antes de la búsqueda:
+   :put → arg [k v] normalizado; :get/:remove → arg clave normalizada;
+   res → valor normalizado (o nil)."
+  [{:keys [op arg res] :as o}]
+  (case op
+    :put              (assoc o :arg (normalize-kv-arg arg) :res (normalize-val res))
+    (:get :remove)    (assoc o :arg (normalize-key arg) :res (normalize-val res))
+    o))
+
+(defn map-read-only?
+  "True when the op cannot change the map wherever its observed result
+   is legal: get, remove(k) that found nothing, and put(k,v) that
+   returned v (it rebinds k to the value it already had)."
+  [op arg res]
+  (case op
+    :get    true
+    :remove (nil? (normalize-val res))
+    :put    (let [[_ v] (normalize-kv-arg arg)]
+              (and (some? v) (= v (normalize-val res))))
+    false))
+
 ;; ---------------- especificación secuencial ----------------
 
 (defn map-step
@@ -85,43 +107,38 @@
 
    q   : estado actual (map Clojure key→val)
    op  : :put / :get / :remove
-   arg : para :put → [k v] o string \"[k, v]\"
-         para :get/:remove → k
+   arg : para :put → [k v]; para :get/:remove → k
    res : resultado observado (valor anterior o nil)
+   arg y res ya vienen canonicalizados por map-prepare.
 
    Devuelve:
    {:ok?  <bool>
     :res  <expected-result>
     :state <q'>}."
   [q op arg res]
-  (let [res* (normalize-val res)]
-    (case op
-
-      ;; put(k,v) → oldVal (o nil si no había)
-      :put
-      (let [[k v] (normalize-kv-arg arg)
-            old   (some-> (get q k) normalize-val)
-            q'    (assoc q k v)]
-        {:ok?  (= res* old)
-         :res  old
-         :state q'})
-
-      ;; get(k) → currentVal (o nil si no hay)
-      :get
-      (let [k   (normalize-key arg)
-            val (some-> (get q k) normalize-val)]
-        {:ok?  (= res* val)
-         :res  val
-         :state q})
-
-      ;; remove(k) → oldVal (o nil si no había)
-      :remove
-      (let [k   (normalize-key arg)
-            old (some-> (get q k) normalize-val)
-            q'  (dissoc q k)]
-        {:ok?  (= res* old)
-         :res  old
-         :state q'})
-
-      ;; Operación no soportada
-      {:ok? false :res ::unsupported :state q})))
\ No newline at end of file
+  (case op
+
+    ;; put(k,v) → oldVal (o nil si no había)
+    :put
+    (let [[k v] arg
+          old   (get q k)]
+      {:ok?  (= res old)
+       :res  old
+       :state (assoc q k v)})
+
+    ;; get(k) → currentVal (o nil si no hay)
+    :get
+    (let [val (get q arg)]
+      {:ok?  (= res val)
+       :res  val
+       :state q})
+
+    ;; remove(k) → oldVal (o nil si no había)
+    :remove
+    (let [old (get q arg)]
+      {:ok?  (= res old)
+       :res  old
+       :state (dissoc q arg)})
+
+    ;; Operación no soportada
+    {:ok? false :res ::unsupported :state q}))
@@ -2,47 +2,47 @@
 (:require [clojure.string :as str]
             [spec.queue :as qspec]))
             
-(defn pqueue-init [] [])
+;; Estado: sorted-map valor -> multiplicidad. Insertar y sacar el mínimo
+;; cuestan O(log n); el orden es el de `compare`, como antes.
+(defn pqueue-init [] (sorted-map))
 
 (def normalize-nil qspec/normalize-nil)
 (def normalize-bool qspec/normalize-bool)
 
 (def queue-op-kind qspec/queue-op-kind) ;; si quieres la misma normalización
 
-(defn insert-sorted [v x]
-  (let [idx (->> v
-                 (map-indexed vector)
-                 (some (fn [[i e]]
-                         (when (pos? (compare e x))
-                           i))))]
-    (if (nil? idx)
-      (conj v x)
-      (into (subvec v 0 idx)
-            (cons x (subvec v idx))))))
+(defn insert-sorted
+  "Agrega una ocurrencia de x al estado (sorted-map valor -> cuenta)."
+  [m x]
+  (assoc m x (inc (get m x 0))))
+
+(defn- remove-min
+  "Quita una ocurrencia del mínimo; m no vacío."
+  [m]
+  (let [[x c] (first m)]
+    (if (= 1 c) (dissoc m x) (assoc m x (dec c)))))
+
+(def pqueue-prepare qspec/queue-prepare)
 
 (defn pqueue-step
+  "Cola de prioridad (mínimo primero); arg/res canonicalizados por
+   pqueue-prepare."
   [q op arg res]
-  (let [kind (queue-op-kind op)]
-    (case kind
-
-      :enqueue
-      (let [res*     (normalize-bool res)
-            success? true
-            q'       (insert-sorted q arg)]
-        {:ok?  (= res* success?)
-         :res  success?
-         :state q'})
-
-      :dequeue
-      (let [res* (normalize-nil res)]
-        (if (seq q)
-          (let [r  (first q)
-                q' (vec (rest q))]
-            {:ok?  (= res* r)
-             :res  r
-             :state q'})
-          {:ok?  (= res* nil)
-           :res  nil
-           :state q}))
-
-      {:ok? false :res ::unsupported :state q})))
\ No newline at end of file
+  (case (queue-op-kind op)
+
+    :enqueue
+    {:ok?  (true? res)
+     :res  true
+     :state (insert-sorted q arg)}
+
+    :dequeue
+    (if (seq q)
+      (let [r (key (first q))]
+        {:ok?  (= res r)
+         :res  r
+         :state (remove-min q)})
+      {:ok?  (nil? res)
+       :res  nil
+       :state q})
+
+    {:ok? false :res ::unsupported :state q}))
@@ -1,7 +1,9 @@
 (ns spec.queue
   (:require [clojure.string :as str]))
 
-(defn queue-init [] [])
+;; Estado: clojure.lang.PersistentQueue (conj al fondo, peek/pop del frente
+;; en O(1)); se compara por contenido, así que sirve como clave del memo.
+(defn queue-init [] clojure.lang.PersistentQueue/EMPTY)
 
 (defn normalize-nil
   [v]
@@ -50,52 +52,63 @@
     ;; por ahora no soportamos más (take, etc.)
     nil))
 
+(defn queue-value
+  "Los args encolados se comparan sin envoltorio: 3 y [3] son lo mismo."
+  [v]
+  (if (and (vector? v) (= 1 (count v))) (first v) v))
+
+(defn queue-prepare
+  "Canonicaliza arg/res de una op una sola vez, antes de la búsqueda,
+   para que queue-step compare con igualdad simple:
+   enqueue → arg sin envoltorio, res booleano;
+   dequeue → res sin envoltorio o nil."
+  [{:keys [op arg res] :as o}]
+  (case (queue-op-kind op)
+    :enqueue (assoc o :arg (queue-value arg) :res (normalize-bool res))
+    :dequeue (assoc o :res (queue-value (normalize-nil res)))
+    o))
+
+(defn queue-read-only?
+  "True when the op cannot change the queue wherever its observed result
+   is legal: a dequeue that found the queue empty."
+  [op arg res]
+  (and (= :dequeue (queue-op-kind op))
+       (nil? (normalize-nil res))))
+
 (defn queue-step
   "Especificación secuencial de una cola (FIFO).
 
-   q   : estado actual (vector)
+   q   : estado actual (PersistentQueue)
    op  : nombre ‘bruto’ de la operación (:offer, :poll, :add, ...)
-   arg : argumento (para enqueue/offer/add) — lo dejamos tal cual (p.ej. [3])
+   arg : argumento (para enqueue/offer/add)
    res : resultado observado (para poll/remove)
+   arg y res ya vienen canonicalizados por queue-prepare.
 
    Devuelve:
    {:ok?  bool
     :res  resultado esperado
     :state nuevo-estado}."
   [q op arg res]
-  (let [kind (queue-op-kind op)]
-    (case kind
+  (case (queue-op-kind op)
 
-      ;; ===================== ENQUEUE =====================
-      :enqueue
-      (let [res*     (normalize-bool res)
-            success? true
-            ;; Importante: guardamos arg TAL CUAL (p.ej. [3])
-            q'       (if success? (conj q arg) q)]
-        {:ok?  (= res* success?)
-         :res  success?
-         :state q'})
+    ;; ===================== ENQUEUE =====================
+    :enqueue
+    {:ok?   (true? res)
+     :res   true
+     :state (conj q arg)}
 
-      ;; ===================== DEQUEUE =====================
-      :dequeue
-      (let [res-norm (normalize-nil res)]
-        (if (seq q)
-          ;; Cola NO vacía
-          (let [r       (first q)      ;; lo que hay en la cabeza, p.ej. [3] o 3
-                q'      (vec (rest q))
-                ;; Ajuste clave: comparamos tanto con res como con [res]
-                ;; para aceptar 3 vs [3] y [3] vs 3.
-                res-as-vec [res-norm]
-                ok?     (or (= res-norm r)
-                            (= res-as-vec r))]
-            {:ok?  ok?
-             :res  r         ;; valor “esperado” según la cola
-             :state q'})
-          ;; Cola vacía: esperamos nil (sin corchetes)
-          (let [ok? (= res-norm nil)]
-            {:ok?  ok?
-             :res  nil
-             :state q})))
+    ;; ===================== DEQUEUE =====================
+    :dequeue
+    (if (pos? (count q))
+      ;; Cola NO vacía: la cabeza debe ser el resultado observado
+      (let [r (peek q)]
+        {:ok?   (= res r)
+         :res   r
+         :state (pop q)})
+      ;; Cola vacía: esperamos nil
+      {:ok?   (nil? res)
+       :res   nil
+       :state q})
 
-      ;; ===================== OPERACIÓN NO SOPORTADA =====
-      {:ok? false :res ::unsupported :state q})))
\ No newline at end of file
+    ;; ===================== OPERACIÓN NO SOPORTADA =====
+    {:ok? false :res ::unsupported :state q}))
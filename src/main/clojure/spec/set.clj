@@ -38,46 +38,55 @@
 
     :else v))
 
+(defn set-prepare
+  "Canonicaliza res a booleano una sola vez, antes de la búsqueda."
+  [o]
+  (update o :res normalize-bool))
+
+(defn set-read-only?
+  "True when the op cannot change the set wherever its observed result
+   is legal: contains, and add/remove that reported no change."
+  [op arg res]
+  (case op
+    :contains true
+    (:add :remove) (false? (normalize-bool res))
+    false))
+
 (defn set-step
   "Especificación secuencial de un conjunto estilo Java Set.
 
    q   : estado actual (set)
    op  : :add / :remove / :contains
    arg : elemento (para add/remove/contains)
-   res : resultado observado (boolean-like)
+   res : resultado observado, ya booleano (ver set-prepare)
 
    Devuelve:
    {:ok?  <bool>   ; si res coincide con la especificación
     :res  <value>  ; resultado esperado según la especificación
     :state <q'>}   ; siguiente estado del conjunto."
   [q op arg res]
-  (let [res* (normalize-bool res)]
-    (case op
+  (case op
 
-      ;; add(x): true si x no estaba, false si ya estaba
-      :add
-      (let [present? (contains? q arg)
-            success? (not present?)
-            q'       (if success? (conj q arg) q)]
-        {:ok?  (= res* success?)
-         :res  success?
-         :state q'})
+    ;; add(x): true si x no estaba, false si ya estaba
+    :add
+    (let [success? (not (contains? q arg))]
+      {:ok?  (= res success?)
+       :res  success?
+       :state (if success? (conj q arg) q)})
 
-      ;; remove(x): true si x estaba, false si no
-      :remove
-      (let [present? (contains? q arg)
-            success? present?
-            q'       (if success? (disj q arg) q)]
-        {:ok?  (= res* success?)
-         :res  success?
-         :state q'})
+    ;; remove(x): true si x estaba, false si no
+    :remove
+    (let [success? (contains? q arg)]
+      {:ok?  (= res success?)
+       :res  success?
+       :state (if success? (disj q arg) q)})
 
-      ;; contains(x): true si x ∈ q, false en otro caso
-      :contains
-      (let [present? (contains? q arg)]
-        {:ok?  (= res* present?)
-         :res  present?
-         :state q})
+    ;; contains(x): true si x ∈ q, false en otro caso
+    :contains
+    (let [present? (contains? q arg)]
+      {:ok?  (= res present?)
+       :res  present?
+       :state q})
 
-      ;; Operación no soportada
-      {:ok? false :res ::unsupported :state q})))
\ No newline at end of file
+    ;; Operación no soportada
+    {:ok? false :res ::unsupported :state q}))
@@ -2,56 +2,119 @@
   (:gen-class)
   (:require [clojure.pprint :as pp]
             [jitlin :as jl]
+            [sanity :as sanity]
             [spec.queue :as q]
             [spec.set :as s]
             [spec.map :as m]
             [spec.deque :as dq]))
 
-;; Tabla de especificaciones por tipo de estructura
+;; Tabla de especificaciones por tipo de estructura.
+;; :prepare canonicaliza arg/res de cada op una sola vez; :step asume
+;; valores ya canonicalizados y compara con igualdad simple.
 (def specs
   {;; Cola FIFO estándar
-   :queue {:init q/queue-init
-           :step q/queue-step}
+   :queue {:init       q/queue-init
+           :prepare    q/queue-prepare
+           :step       q/queue-step
+           :read-only? q/queue-read-only?}
 
    ;; Deque (offerFirst/offerLast/pollFirst/pollLast)
-   :deque {:init dq/deque-init
-           :step dq/deque-step}
+   :deque {:init       dq/deque-init
+           :prepare    dq/deque-prepare
+           :step       dq/deque-step
+           :read-only? dq/deque-read-only?}
 
    ;; Conjunto
-   :set   {:init s/set-init
-           :step s/set-step}
+   :set   {:init       s/set-init
+           :prepare    s/set-prepare
+           :step       s/set-step
+           :read-only? s/set-read-only?}
 
    ;; Mapa
-   :map   {:init m/map-init
-           :step m/map-step}})
+   :map   {:init       m/map-init
+           :prepare    m/map-prepare
+           :step       m/map-step
+           :read-only? m/map-read-only?}})
+
+(defn- budget-progress
+  [^phd.distributed.verifier.SearchBudget budget]
+  {:steps     (.getSteps budget)
+   :max-depth (.getMaxDepth budget)
+   :ops       (.getTotalOps budget)})
+
+(defn check-history
+  "Checks XE against spec-type and explains the outcome.
+   spec-type: :queue, :deque, :set, :map
+   opts (optional): sound search reductions, see jitlin/check-linearizable-dfs
+     {:memo? bool :eager-read-only? bool}
+   plus the parallel search, see jitlin/check-linearizable-parallel
+     {:parallelism n :parallel-min-ops n :pool ForkJoinPool}
+   The parallel search is used when :parallelism > 1 and the history has at
+   least :parallel-min-ops complete operations (default 32).
+   :budget (a phd.distributed.verifier.SearchBudget) bounds the search.
+
+   Returns a map:
+   {:linearizable? bool (false when the verdict is :unknown)
+    :verdict       :linearizable, :violation or :unknown (budget exhausted)
+    :stage         :prefilter (rejected by the sanity pre-pass)
+                   or :search (decided by the DFS)
+    :witness       sanity witness when :stage is :prefilter
+    :progress      {:steps n :max-depth d :ops n} when a budget was given
+    :search-stats  per-worker node counts when the parallel search ran}"
+  ([spec-type xe]
+   (check-history spec-type xe {}))
+  ([spec-type xe {:keys [memo? eager-read-only? parallelism parallel-min-ops pool budget]
+                  :or   {parallelism 1 parallel-min-ops 32}}]
+   (let [{:keys [init prepare step read-only?]} (get specs spec-type)]
+
+     (when (nil? init)
+       (throw (ex-info (str "Unknown spec-type: " spec-type)
+                       {:spec-type spec-type})))
+
+     (let [ops-by-id (update-vals (:ops-by-id (jl/build-ops xe)) prepare)
+           {:keys [ok? witness forced-edges]} (sanity/check spec-type xe ops-by-id)]
+       (if-not ok?
+         {:linearizable? false
+          :verdict       :violation
+          :stage         :prefilter
+          :witness       witness}
+         (let [{:keys [preds]} (jl/build-precedence-graph ops-by-id)
+               preds      (sanity/add-edges preds forced-edges)
+               step-fn    (fn [state {:keys [op arg res]}]
+                            (step state op arg res))
+               init-state (init)
+               ro-fn      (when eager-read-only?
+                            (fn [{:keys [op arg res]}]
+                              (read-only? op arg res)))
+               parallel?  (and (> parallelism 1)
+                               (>= (count ops-by-id) parallel-min-ops))]
+           (cond-> (if parallel?
+                     (let [{:keys [linearizable? unknown? stats]}
+                           (jl/check-linearizable-parallel ops-by-id preds init-state step-fn
+                                                           :parallelism parallelism
+                                                           :pool pool
+                                                           :memo? memo?
+                                                           :read-only? ro-fn
+                                                           :budget budget)]
+                       {:verdict      (cond linearizable? :linearizable
+                                            unknown?      :unknown
+                                            :else         :violation)
+                        :search-stats stats})
+                     (let [result (jl/check-linearizable-dfs ops-by-id preds init-state step-fn
+                                                             :memo? memo?
+                                                             :read-only? ro-fn
+                                                             :budget budget)]
+                       {:verdict (case result
+                                   :unknown :unknown
+                                   true     :linearizable
+                                   :violation)}))
+             true   (as-> r (assoc r
+                                   :linearizable? (= :linearizable (:verdict r))
+                                   :stage         :search))
+             budget (assoc :progress (budget-progress budget)))))))))
 
 (defn linearizable?
   "Returns true if XE is linearizable w.r.t. the given spec-type.
    spec-type: :queue, :deque, :set, :map"
   [spec-type xe]
-  ;;(println "==================================================")
-  ;;(println ">>> linearizable? called with X_E of" (count xe) "events\n")
-  ;;(println ">>> Spec type:" spec-type)
-  ;;(println ">>> X_E received (RAW):")
-  ;;(doseq [ev xe]
-  ;;  (pp/pprint ev))
-  ;;(println "--------------------------------------------------")
-
-  (let [{:keys [ops-by-id]} (jl/build-ops xe)
-        {:keys [preds]}     (jl/build-precedence-graph ops-by-id)
-        {:keys [init step]} (get specs spec-type)]
-
-    (when (nil? init)
-      (throw (ex-info (str "Unknown spec-type: " spec-type)
-                      {:spec-type spec-type})))
-
-    (let [step-fn   (fn [state {:keys [op arg res]}]
-                      (step state op arg res))
-          init-state (init)
-          result     (jl/check-linearizable-dfs ops-by-id preds init-state step-fn)]
-
-    ;; (if result
-    ;;    (println ">>> RESULT:  The history IS LINEARIZABLE.\n")
-    ;;    (println ">>> RESULT:  The history is NOT linearizable.\n"))
-
-      result)))
\ No newline at end of file
+  (:linearizable? (check-history spec-type xe)))
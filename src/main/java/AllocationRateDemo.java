@@ -0,0 +1,53 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import phd.distributed.api.A;
+import phd.distributed.api.DistAlgorithm;
+import phd.distributed.config.SystemConfig;
+import phd.distributed.core.Executioner;
+
+/**
+ * Heap allocation of the recording path (producers only, no verification),
+ * in bytes per operation, at 8 and 32 threads.
+ *
+ * Run it once with -Dfeature.object.pooling=false and once with
+ * -Dfeature.object.pooling=true to compare. Allocation is read from
+ * com.sun.management.ThreadMXBean, which also counts threads that have
+ * already terminated.
+ */
+public class AllocationRateDemo {
+
+    private static final int[] THREADS = {8, 32};
+    private static final int OPS = 20_000;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean mx =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        mx.setThreadAllocatedMemoryEnabled(true);
+
+        DistAlgorithm alg =
+            new A(ConcurrentLinkedQueue.class.getName(), "offer", "poll");
+
+        System.out.println("=== Recording-path allocation ===");
+        System.out.println("Object pooling : " + SystemConfig.FEATURES.objectPooling);
+        System.out.println("Operations/run : " + OPS);
+
+        // Warm-up (JIT, Clojure namespaces, pools)
+        for (int i = 0; i < 3; i++) {
+            new Executioner(8, OPS, alg, "queue", "gAIsnap").taskProducers();
+        }
+
+        for (int threads : THREADS) {
+            double best = Double.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long before = mx.getTotalThreadAllocatedBytes();
+                new Executioner(threads, OPS, alg, "queue", "gAIsnap").taskProducers();
+                long after = mx.getTotalThreadAllocatedBytes();
+                best = Math.min(best, (double) (after - before) / OPS);
+            }
+            System.out.printf("threads=%-3d bytes/op (best of %d) = %.0f%n", threads, RUNS, best);
+        }
+        System.exit(0);
+    }
+}
@@ -5,7 +5,7 @@ import phd.distributed.api.WorkloadPattern;
 
 /**
  * High-performance linearizability testing using custom workload patterns.
- * This version uses WorkloadPattern so that Executioner.taskProducersSeed() is used.
+ * This version uses WorkloadPattern so that Executioner.taskProducers(pattern) is used.
  */
 public class BatchWorkloadTest {
 
@@ -69,7 +69,7 @@ public class BatchWorkloadTest {
                 .withObjectType(objectType)
                 .withMethods(methods)
                 .withSnapshot("rAwsnap")              // snapshot por defecto estilo RAW
-                .withWorkload(workload)               // ← activa taskProducersSeed
+                .withWorkload(workload)               // ← activa taskProducers(pattern)
                 .run();
 
             durationMs = result.getExecutionTime().toMillis();
@@ -0,0 +1,54 @@
+import java.nio.file.Path;
+import java.time.Duration;
+
+import phd.distributed.campaign.Campaign;
+import phd.distributed.campaign.CampaignRunner;
+import phd.distributed.campaign.ResultWriter;
+import phd.distributed.campaign.WorkloadSpec;
+
+/**
+ * The BatchExecution / BatchWorkloadTest matrix as one parallel campaign.
+ *
+ * Usage: CampaignDemo [output.csv|output.jsonl] [--resume]
+ *
+ * Results are appended as runs finish; with --resume, runs already in the
+ * output file are skipped, so an interrupted campaign can be continued.
+ */
+public class CampaignDemo {
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 && !args[0].startsWith("--") ? args[0] : "campaign-results.csv");
+        boolean resume = java.util.Arrays.asList(args).contains("--resume");
+
+        Campaign campaign = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .algorithm("LinkedBlockingQueue")
+            .algorithm("LinkedTransferQueue")
+            .algorithm("ConcurrentLinkedDeque")
+            .algorithm("LinkedBlockingDeque")
+            .algorithm("ConcurrentSkipListSet")
+            .algorithm("ConcurrentHashMap")
+            .algorithm("ConcurrentSkipListMap")
+            .algorithm("NonLinearizableQueue")
+            .threads(2, 4)
+            .operations(20, 100)
+            .workloads(WorkloadSpec.random(), WorkloadSpec.writeHeavy(0.7))
+            .snapshots("gAIsnap", "rAwsnap")
+            .timeout(Duration.ofMinutes(2))
+            .build();
+
+        try (ResultWriter writer = ResultWriter.open(output, resume)) {
+            CampaignRunner.Summary summary = new CampaignRunner(campaign).run(writer);
+
+            System.out.println("\n=== Campaign Summary ===");
+            System.out.println("Output       : " + output.toAbsolutePath());
+            System.out.println("Runs         : " + summary.runs() + " (" + summary.skipped() + " resumed)");
+            System.out.println("Linearizable : " + summary.linearizable());
+            System.out.println("Violations   : " + summary.violations());
+            System.out.println("Unknown      : " + summary.unknown());
+            System.out.println("Errors       : " + summary.errors());
+            System.out.println("Elapsed      : " + summary.elapsed().toMillis() + " ms");
+        }
+        System.exit(0);
+    }
+}
@@ -115,7 +115,7 @@ public class ComprehensiveDemo {
             .withOperations(ops)
             .withObjectType("queue")
             .withMethods("offer", "poll")
-            .withWorkload(pc) // internally uses taskProducersSeed(...)
+            .withWorkload(pc) // internally uses taskProducers(pattern)
             .run();
 
         System.out.println("│  Workload     : producer-consumer (70% writes)");
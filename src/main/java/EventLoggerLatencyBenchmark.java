@@ -0,0 +1,101 @@
+import phd.distributed.datamodel.Event;
+import phd.distributed.logging.DisruptorEventLogger;
+import phd.distributed.logging.EventSink;
+import phd.distributed.logging.LoggerWaitStrategy;
+import phd.distributed.monitoring.LatencyHistogram;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Producer-side latency of DisruptorEventLogger.logEvent: the shared multi-producer
+ * ring against one single-producer ring per thread, with every consumer wait
+ * strategy, at 4 to 64 producer threads.
+ *
+ * Each producer logs EVENTS_PER_THREAD events and times every call; the sink
+ * discards the events, so only publishing and the consumer's wake-ups are measured.
+ * Percentiles in nanoseconds.
+ *
+ * Usage: EventLoggerLatencyBenchmark [eventsPerThread]
+ */
+public class EventLoggerLatencyBenchmark {
+
+    private static final int[] THREADS = {4, 8, 16, 32, 64};
+    private static final int DEFAULT_EVENTS_PER_THREAD = 100_000;
+    private static final int PRODUCER_RING = 4096;
+
+    public static void main(String[] args) throws InterruptedException {
+        int eventsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS_PER_THREAD;
+
+        System.out.println("=== DisruptorEventLogger producer latency (ns per logEvent) ===");
+        System.out.printf("%-14s%-11s%8s%10s%10s%10s%12s%14s%n",
+                          "mode", "wait", "threads", "p50", "p99", "p99.9", "max", "events/s");
+
+        for (boolean perProducer : new boolean[]{false, true}) {
+            for (LoggerWaitStrategy wait : LoggerWaitStrategy.values()) {
+                for (int threads : THREADS) {
+                    run(perProducer, wait, threads, eventsPerThread);
+                }
+            }
+        }
+    }
+
+    private static void run(boolean perProducer, LoggerWaitStrategy wait, int threads, int eventsPerThread)
+            throws InterruptedException {
+        DisruptorEventLogger logger = new DisruptorEventLogger(new DiscardingSink(), perProducer, wait, PRODUCER_RING);
+        // warm-up round, not recorded
+        produce(logger, threads, Math.min(eventsPerThread, 20_000), null);
+
+        LatencyHistogram histogram = new LatencyHistogram("logEvent");
+        long start = System.nanoTime();
+        produce(logger, threads, eventsPerThread, histogram);
+        long elapsed = System.nanoTime() - start;
+        logger.shutdown();
+
+        LatencyHistogram.Summary s = histogram.summary();
+        double throughput = (double) threads * eventsPerThread / (elapsed / 1e9);
+        System.out.printf("%-14s%-11s%8d%10d%10d%10d%12d%14.0f%n",
+                          perProducer ? "per-producer" : "shared", wait.name().toLowerCase(),
+                          threads, s.p50(), s.p99(), s.p999(), s.max(), throughput);
+    }
+
+    private static void produce(DisruptorEventLogger logger, int threads, int events, LatencyHistogram histogram)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            producers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < events; i++) {
+                    Event event = new Event(id, i, i);
+                    long begin = System.nanoTime();
+                    logger.logEvent(event);
+                    if (histogram != null) {
+                        histogram.record(System.nanoTime() - begin);
+                    }
+                }
+            }, "producer-" + t);
+            producers[t].start();
+        }
+        start.countDown();
+        for (Thread p : producers) {
+            p.join();
+        }
+    }
+
+    private static final class DiscardingSink implements EventSink {
+        @Override
+        public void write(int threadId, Object payload, int counter) { }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() { }
+    }
+}
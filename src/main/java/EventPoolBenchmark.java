@@ -0,0 +1,107 @@
+import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.EventPool;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Cost of recycling events through EventPool with object pooling on, at 1 to 32
+ * threads.
+ *
+ * Every thread takes a burst of events and hands them back, as a snapshot and a
+ * Disruptor logger do on the recording thread; half of the threads release their
+ * burst through a shared slot instead, so events also cross threads as with the
+ * async logger's consumer. Wall-clock nanoseconds per obtain+release pair over all
+ * threads, and pairs per second.
+ *
+ * Usage: EventPoolBenchmark [pairsPerThread]
+ */
+public class EventPoolBenchmark {
+
+    private static final int[] THREADS = {1, 8, 32};
+    private static final int DEFAULT_PAIRS_PER_THREAD = 2_000_000;
+    private static final int BURST = 16;
+
+    public static void main(String[] args) throws InterruptedException {
+        // antes de cargar SystemConfig
+        System.setProperty("feature.object.pooling", "true");
+        int pairsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PAIRS_PER_THREAD;
+        if (!EventPool.isEnabled()) {
+            throw new IllegalStateException("object pooling is off");
+        }
+
+        System.out.println("=== EventPool obtain+release (ns per pair) ===");
+        System.out.printf("%8s%12s%16s%n", "threads", "ns/pair", "pairs/s");
+        for (int threads : THREADS) {
+            // warm-up round, not reported
+            run(threads, Math.min(pairsPerThread, 200_000));
+            long elapsed = run(threads, pairsPerThread);
+            double pairs = (double) threads * pairsPerThread;
+            System.out.printf("%8d%12.1f%16.0f%n", threads, elapsed / pairs, pairs / (elapsed / 1e9));
+        }
+    }
+
+    private static long run(int threads, int pairsPerThread) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Mailbox[] mailboxes = new Mailbox[threads];
+        for (int t = 0; t < threads; t++) {
+            mailboxes[t] = new Mailbox();
+        }
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                Event[] burst = new Event[BURST];
+                // los hilos impares sueltan lo que obtuvo su vecino par
+                Mailbox out = id % 2 == 0 && id + 1 < threads ? mailboxes[id + 1] : null;
+                Mailbox in = id % 2 == 1 ? mailboxes[id] : null;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < pairsPerThread; n += BURST) {
+                    for (int i = 0; i < BURST; i++) {
+                        burst[i] = EventPool.obtain(id, burst, i);
+                    }
+                    if (out != null && out.offer(burst)) {
+                        burst = new Event[BURST];
+                    } else {
+                        for (int i = 0; i < BURST; i++) {
+                            EventPool.release(burst[i]);
+                        }
+                    }
+                    Event[] taken = in != null ? in.take() : null;
+                    if (taken != null) {
+                        for (Event e : taken) {
+                            EventPool.release(e);
+                        }
+                    }
+                }
+                done.countDown();
+            }, "pool-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - t0;
+    }
+
+    /** One-slot handoff of a burst between two threads. */
+    private static final class Mailbox {
+        private volatile Event[] slot;
+
+        boolean offer(Event[] burst) {
+            if (slot != null) return false;
+            slot = burst;
+            return true;
+        }
+
+        Event[] take() {
+            Event[] burst = slot;
+            if (burst != null) slot = null;
+            return burst;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging cost of the recording phase per operation: the calls Wrapper made before
+ * the phase loggers (three INFO events with ANSI colour arguments) under the default
+ * log4j2.xml, against the current calls (one INFO event, start and end at DEBUG) on
+ * the garbage-free JSON setup of log4j2-async.xml.
+ *
+ * Each mode runs in its own JVM, since log4j reads its configuration once. Reported:
+ * ns per operation on the producers, bytes allocated per operation on the producers,
+ * and the time to drain what is still queued when they finish. Console output of
+ * the children is discarded.
+ *
+ * Usage: LoggingModeBenchmark [operationsPerThread] [threads]
+ */
+public class LoggingModeBenchmark {
+
+    private static final int DEFAULT_OPERATIONS = 200_000;
+    private static final int DEFAULT_THREADS = 4;
+    private static final String RESULT = "RESULT ";
+
+    private static final String GREEN = "\u001B[32m";
+    private static final String RESET = "\u001B[0m";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            child(args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_THREADS;
+
+        System.out.println("=== Recording-phase logging, " + threads + " threads x " + operations + " operations ===");
+        System.out.printf("%-12s%-18s%12s%14s%12s%n", "mode", "config", "ns/op", "bytes/op", "drain ms");
+        runChild("current", "log4j2.xml", operations, threads);
+        runChild("structured", "log4j2-async.xml", operations, threads);
+    }
+
+    private static void runChild(String mode, String config, int operations, int threads)
+            throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        // el perfil asíncrono va con su reloj; el actual conserva el de por defecto
+        String clock = config.equals("log4j2-async.xml") ? "SystemMillisClock" : "SystemClock";
+        ProcessBuilder pb = new ProcessBuilder(List.of(
+            java,
+            "-Dlog4j.configurationFile=" + config,
+            "-Dlog4j2.clock=" + clock,
+            "-Dphd.log.dir=" + System.getProperty("java.io.tmpdir") + File.separator + "logging-benchmark",
+            "-cp", System.getProperty("java.class.path"),
+            LoggingModeBenchmark.class.getName(), "--child", mode,
+            Integer.toString(operations), Integer.toString(threads)));
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        Process process = pb.start();
+        try (BufferedReader err = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+            String line;
+            while ((line = err.readLine()) != null) {
+                if (line.startsWith(RESULT)) {
+                    String[] r = line.substring(RESULT.length()).split(" ");
+                    System.out.printf("%-12s%-18s%12s%14s%12s%n", mode, config, r[0], r[1], r[2]);
+                }
+            }
+        }
+        process.waitFor();
+    }
+
+    private static void child(String mode, int operations, int threads) throws InterruptedException {
+        Logger logger = LogManager.getLogger(mode.equals("current")
+                                                 ? "phd.distributed.core.Wrapper"
+                                                 : "phd.distributed.phase.recording");
+        boolean current = mode.equals("current");
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // warm-up round, not measured
+        produce(logger, current, mx, threads, Math.min(operations, 50_000), new AtomicLong());
+
+        AtomicLong allocated = new AtomicLong();
+        long start = System.nanoTime();
+        produce(logger, current, mx, threads, operations, allocated);
+        long produced = System.nanoTime() - start;
+        LogManager.shutdown();
+        long drained = System.nanoTime() - start - produced;
+
+        long total = (long) operations * threads;
+        // the producers run concurrently: time per operation of one producer
+        System.err.printf("%s%.1f %.1f %d%n", RESULT, (double) produced * threads / total,
+                          (double) allocated.get() / total, drained / 1_000_000);
+    }
+
+    private static void produce(Logger logger, boolean current, com.sun.management.ThreadMXBean mx,
+                                int threads, int operations, AtomicLong allocated) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] producers = new Thread[threads];
+        Object[] results = {Boolean.TRUE, 17, null, "x"};
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            producers[t] = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long before = mx.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < operations; i++) {
+                    Object result = results[i & 3];
+                    if (current) {
+                        logger.info("Thread {} is  going to execute the write", id, "offer", result);
+                        logger.info("{}Thread {} execute {} and obtained {}{}", GREEN, id, "offer", result, RESET);
+                        logger.info("Thread {} end the wrapper", id);
+                    } else {
+                        logger.debug("Thread {} is going to execute {}", id, "offer");
+                        logger.info("Thread {} executed {} and obtained {}", id, "offer", result);
+                        logger.debug("Thread {} end the wrapper", id);
+                    }
+                }
+                allocated.addAndGet(mx.getCurrentThreadAllocatedBytes() - before);
+            }, "producer-" + t);
+            producers[t].start();
+        }
+        go.countDown();
+        for (Thread p : producers) {
+            p.join();
+        }
+    }
+}
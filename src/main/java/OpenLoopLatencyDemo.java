@@ -0,0 +1,44 @@
+import phd.distributed.api.LoadProfile;
+import phd.distributed.api.VerificationFramework;
+import phd.distributed.api.VerificationResult;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Same queue, same verification, three arrival shapes: a steady rate, the same rate
+ * with bursts, and Poisson arrivals. Prints the latency from the intended start
+ * (response) next to the latency from the actual start (service); the gap between
+ * them is the queueing a closed-loop benchmark would not see.
+ */
+public class OpenLoopLatencyDemo {
+
+    private static final int THREADS    = 4;
+    private static final int OPERATIONS = 400;
+
+    public static void main(String[] args) {
+        LoadProfile steady = LoadProfile.constant(500);
+        run("steady 500 ops/s per thread", steady);
+        run("bursts of 10000 ops/s, 20 ms every 100 ms",
+            steady.withBursts(10_000, Duration.ofMillis(100), Duration.ofMillis(20)));
+        run("poisson 500 ops/s per thread", steady.withPoissonArrivals());
+    }
+
+    private static void run(String label, LoadProfile profile) {
+        VerificationResult result = VerificationFramework
+            .verify(ConcurrentLinkedQueue.class)
+            .withThreads(THREADS)
+            .withOperations(OPERATIONS)
+            .withObjectType("queue")
+            .withSeed(42L)
+            .withOpenLoop(profile)
+            .run();
+
+        VerificationResult.ExecutionStatistics stats = result.getStatistics();
+        System.out.println("── " + label + " ──");
+        System.out.println("  verdict  : " + result.getVerdict()
+                           + " (producers " + result.getProdExecutionTime().toMillis() + " ms)");
+        System.out.println("  response : " + stats.getResponseLatency());
+        System.out.println("  service  : " + stats.getServiceLatency());
+    }
+}
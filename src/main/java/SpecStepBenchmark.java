@@ -0,0 +1,73 @@
+import clojure.java.api.Clojure;
+import clojure.lang.IFn;
+import clojure.lang.ILookup;
+import clojure.lang.Keyword;
+
+/**
+ * Per-step cost of the sequential specs used by the linearizability search.
+ *
+ * For each state length n, builds a queue / deque / priority queue holding n
+ * values and then times enqueue + dequeue steps taken from that state (the
+ * search applies steps to persistent states it keeps around, so every step
+ * starts from the same base). The cost per step should stay flat as n grows.
+ */
+public class SpecStepBenchmark {
+
+    private static final int[] LENGTHS = {10, 100, 1_000, 10_000, 100_000};
+    private static final int STEPS = 200_000;
+    private static final int WARMUP_STEPS = 50_000;
+
+    private static final Keyword STATE = Keyword.intern(null, "state");
+
+    public static void main(String[] args) {
+        System.out.println("=== Sequential spec step cost (ns/step) ===");
+        System.out.printf("%-16s", "length");
+        for (int n : LENGTHS) System.out.printf("%12d", n);
+        System.out.println();
+
+        run("queue", "spec.queue", "queue-init", "queue-step", "offer", "poll");
+        run("deque (front)", "spec.deque", "deque-init", "deque-step", "offerFirst", "pollFirst");
+        run("deque (back)", "spec.deque", "deque-init", "deque-step", "offerLast", "pollLast");
+        run("priority queue", "spec.priorityqueue", "pqueue-init", "pqueue-step", "offer", "poll");
+    }
+
+    private static void run(String label, String ns, String initName, String stepName,
+                            String enqueueOp, String dequeueOp) {
+        Clojure.var("clojure.core", "require").invoke(Clojure.read(ns));
+        IFn init = Clojure.var(ns, initName);
+        IFn step = Clojure.var(ns, stepName);
+        Keyword enq = Keyword.intern(null, enqueueOp);
+        Keyword deq = Keyword.intern(null, dequeueOp);
+
+        System.out.printf("%-16s", label);
+        for (int n : LENGTHS) {
+            Object base = init.invoke();
+            for (long i = 0; i < n; i++) {
+                base = state(step.invoke(base, enq, i, true));
+            }
+            measure(step, base, enq, deq, WARMUP_STEPS);
+            double nsPerStep = measure(step, base, enq, deq, STEPS);
+            System.out.printf("%12.1f", nsPerStep);
+        }
+        System.out.println();
+    }
+
+    /** Average ns per step over {@code steps} enqueue/dequeue steps from {@code base}. */
+    private static double measure(IFn step, Object base, Keyword enq, Keyword deq, int steps) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < steps / 2; i++) {
+            Object s = state(step.invoke(base, enq, (long) i, true));
+            // the observed result is not checked here: only the state update matters
+            Object r = step.invoke(s, deq, null, null);
+            sink += System.identityHashCode(r);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return (double) elapsed / steps;
+    }
+
+    private static Object state(Object stepResult) {
+        return ((ILookup) stepResult).valAt(STATE);
+    }
+}
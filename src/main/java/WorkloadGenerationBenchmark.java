@@ -0,0 +1,59 @@
+import phd.distributed.api.A;
+import phd.distributed.api.DistAlgorithm;
+import phd.distributed.api.KeyDistribution;
+import phd.distributed.api.WorkloadPattern;
+import phd.distributed.datamodel.OperationCall;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized vs streamed workload generation: heap held by the operation list of
+ * {@code generateOperations} against the per-process streams, which keep nothing but
+ * one SplittableRandom per process.
+ *
+ * Usage: java WorkloadGenerationBenchmark [operations] [threads]
+ */
+public class WorkloadGenerationBenchmark {
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        DistAlgorithm map = new A(ConcurrentHashMap.class.getName(), "put", "get", "remove");
+        WorkloadPattern pattern = WorkloadPattern.readHeavy(operations, threads, 0.9, 42L)
+            .withKeys(KeyDistribution.zipfian(100_000, 0.99));
+
+        long before = usedHeap();
+        long t0 = System.nanoTime();
+        List<OperationCall> list = pattern.generateOperations(map, "map");
+        long listNanos = System.nanoTime() - t0;
+        long listBytes = usedHeap() - before;
+        System.out.printf("materialized: %,d ops in %d ms, %,d MB held%n",
+                          list.size(), listNanos / 1_000_000, listBytes >> 20);
+        list = null;
+
+        before = usedHeap();
+        t0 = System.nanoTime();
+        WorkloadPattern.OperationStream stream = pattern.stream(map, "map", threads);
+        long checksum = 0;
+        int perThread = operations / threads;
+        for (int pid = 0; pid < threads; pid++) {
+            for (int i = 0; i < perThread; i++) {
+                checksum += stream.next(pid, pid * perThread + i).method().getId();
+            }
+        }
+        long streamNanos = System.nanoTime() - t0;
+        long streamBytes = usedHeap() - before;
+        System.out.printf("streamed:     %,d ops in %d ms, %,d MB held (checksum %d)%n",
+                          (long) perThread * threads, streamNanos / 1_000_000, Math.max(0, streamBytes) >> 20,
+                          checksum);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -53,7 +53,7 @@ public class A implements DistAlgorithm {
                     continue;
                 }
 
-                lista.add(new MethodInf(method));
+                lista.add(new MethodInf(method, lista.size()));
             }
         } catch (ClassNotFoundException | IllegalAccessException | IllegalArgumentException | InstantiationException | NoSuchMethodException | SecurityException | InvocationTargetException e) {
             LOGGER.error("We got an error in class A", e);
@@ -132,8 +132,10 @@ public class A implements DistAlgorithm {
                 }
             }
 
-            // Pasar del mapa a la lista final
-            lista.addAll(unique.values());
+            // Pasar del mapa a la lista final; el id de cada método es su posición
+            for (MethodInf mi : unique.values()) {
+                lista.add(new MethodInf(mi.getMethod(), lista.size()));
+            }
 
             // Revisar cuáles nombres pedidos NO se encontraron
             for (String wanted : desired) {
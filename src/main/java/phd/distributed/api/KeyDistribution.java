@@ -0,0 +1,220 @@
+package phd.distributed.api;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Skew of the keys a {@link WorkloadPattern} hands to the operations: each operation
+ * gets a key in {@code [0, keySpace)} that becomes the base of its arguments (see
+ * {@link phd.distributed.datamodel.ValueGenerator}), so ops on the same key hit the
+ * same bin of a {@code ConcurrentHashMap} or the same tower of a skip list.
+ *
+ * Everything a sampler needs is computed when it is built; drawing a key is O(1),
+ * allocates nothing and keeps no state, so one distribution can be shared by many
+ * patterns and threads. Meant for maps and sets: a queue fed repeated values makes
+ * the checker's histories ambiguous.
+ */
+public abstract class KeyDistribution {
+
+    private final int keySpace;
+
+    private KeyDistribution(int keySpace) {
+        if (keySpace <= 0) {
+            throw new IllegalArgumentException("keySpace must be > 0: " + keySpace);
+        }
+        this.keySpace = keySpace;
+    }
+
+    /**
+     * Key of the {@code index}-th operation of a workload.
+     * @param random source of the draw (only {@link #sequential} ignores it)
+     */
+    public abstract int key(long index, RandomGenerator random);
+
+    /** Name understood by {@link #byName(String)}. */
+    public abstract String getName();
+
+    public int getKeySpace() {
+        return keySpace;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    // ---------- Fábricas ----------
+
+    /** Every key with the same probability. */
+    public static KeyDistribution uniform(int keySpace) {
+        return new Uniform(keySpace);
+    }
+
+    /** Keys 0, 1, 2, ... in operation order, wrapping at {@code keySpace}. */
+    public static KeyDistribution sequential(int keySpace) {
+        return new Sequential(keySpace);
+    }
+
+    /**
+     * Key k drawn with probability proportional to {@code 1 / (k + 1)^theta}: key 0 is
+     * the hottest. {@code theta} close to 1 (YCSB uses 0.99) is heavily skewed.
+     * @param theta in (0, 1)
+     */
+    public static KeyDistribution zipfian(int keySpace, double theta) {
+        return new Zipfian(keySpace, theta);
+    }
+
+    /**
+     * The first {@code hotKeys} fraction of the key space receives {@code hotOps} of the
+     * operations, uniformly; the rest of the keys share the remaining operations.
+     * E.g. {@code hotspot(1000, 0.2, 0.8)} is the 80/20 rule.
+     */
+    public static KeyDistribution hotspot(int keySpace, double hotKeys, double hotOps) {
+        return new Hotspot(keySpace, hotKeys, hotOps);
+    }
+
+    /**
+     * Distribution from its name: {@code uniform-N}, {@code sequential-N},
+     * {@code zipfian-N-THETA} or {@code hotspot-N-HOTKEYS-HOTOPS}, N being the key space.
+     */
+    public static KeyDistribution byName(String name) {
+        String[] parts = name.split("-");
+        try {
+            switch (parts[0]) {
+                case "uniform":
+                    if (parts.length == 2) return uniform(Integer.parseInt(parts[1]));
+                    break;
+                case "sequential":
+                    if (parts.length == 2) return sequential(Integer.parseInt(parts[1]));
+                    break;
+                case "zipfian":
+                    if (parts.length == 3) return zipfian(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]));
+                    break;
+                case "hotspot":
+                    if (parts.length == 4) {
+                        return hotspot(Integer.parseInt(parts[1]),
+                                       Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Unknown key distribution '" + name + "'");
+    }
+
+    // ======================================================
+    //  Samplers
+    // ======================================================
+
+    private static final class Uniform extends KeyDistribution {
+        Uniform(int keySpace) {
+            super(keySpace);
+        }
+
+        @Override
+        public int key(long index, RandomGenerator random) {
+            return random.nextInt(getKeySpace());
+        }
+
+        @Override
+        public String getName() {
+            return "uniform-" + getKeySpace();
+        }
+    }
+
+    private static final class Sequential extends KeyDistribution {
+        Sequential(int keySpace) {
+            super(keySpace);
+        }
+
+        @Override
+        public int key(long index, RandomGenerator random) {
+            return (int) (index % getKeySpace());
+        }
+
+        @Override
+        public String getName() {
+            return "sequential-" + getKeySpace();
+        }
+    }
+
+    // Gray et al., "Quickly Generating Billion-Record Synthetic Databases" (SIGMOD '94),
+    // el mismo generador que YCSB: zeta(n) se calcula una vez y cada muestra es O(1)
+    private static final class Zipfian extends KeyDistribution {
+        private final double theta;
+        private final double zetaN;
+        private final double alpha;
+        private final double eta;
+        private final double secondKeyBound;
+
+        Zipfian(int keySpace, double theta) {
+            super(keySpace);
+            if (!(theta > 0.0 && theta < 1.0)) {
+                throw new IllegalArgumentException("theta must be in (0, 1): " + theta);
+            }
+            this.theta = theta;
+            double zeta = 0.0;
+            for (int i = 1; i <= keySpace; i++) {
+                zeta += 1.0 / Math.pow(i, theta);
+            }
+            this.zetaN = zeta;
+            double zeta2 = 1.0 + Math.pow(0.5, theta);
+            this.alpha = 1.0 / (1.0 - theta);
+            this.eta = keySpace == 1 ? 0.0
+                : (1.0 - Math.pow(2.0 / keySpace, 1.0 - theta)) / (1.0 - zeta2 / zetaN);
+            this.secondKeyBound = 1.0 + Math.pow(0.5, theta);
+        }
+
+        @Override
+        public int key(long index, RandomGenerator random) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1.0) {
+                return 0;
+            }
+            if (uz < secondKeyBound) {
+                return 1;
+            }
+            int k = (int) (getKeySpace() * Math.pow(eta * u - eta + 1.0, alpha));
+            return Math.min(k, getKeySpace() - 1);
+        }
+
+        @Override
+        public String getName() {
+            return "zipfian-" + getKeySpace() + "-" + theta;
+        }
+    }
+
+    private static final class Hotspot extends KeyDistribution {
+        private final double hotKeys;
+        private final double hotOps;
+        private final int hotSize;
+
+        Hotspot(int keySpace, double hotKeys, double hotOps) {
+            super(keySpace);
+            if (!(hotKeys > 0.0 && hotKeys <= 1.0) || !(hotOps >= 0.0 && hotOps <= 1.0)) {
+                throw new IllegalArgumentException("hotKeys must be in (0, 1] and hotOps in [0, 1]: "
+                                                   + hotKeys + ", " + hotOps);
+            }
+            this.hotKeys = hotKeys;
+            this.hotOps = hotOps;
+            this.hotSize = Math.max(1, (int) (keySpace * hotKeys));
+        }
+
+        @Override
+        public int key(long index, RandomGenerator random) {
+            int coldSize = getKeySpace() - hotSize;
+            if (coldSize == 0 || random.nextDouble() < hotOps) {
+                return random.nextInt(hotSize);
+            }
+            return hotSize + random.nextInt(coldSize);
+        }
+
+        @Override
+        public String getName() {
+            return "hotspot-" + getKeySpace() + "-" + hotKeys + "-" + hotOps;
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package phd.distributed.api;
 
 import phd.distributed.core.Executioner;
-import phd.distributed.core.Verifier;
-import phd.distributed.snapshot.CollectFAInc;
-import phd.distributed.snapshot.Snapshot;
 
 /**
  * Bridge between the new API and the actual linearizability verification system.
@@ -25,16 +22,12 @@ public class LinearizabilityChecker {
             // Create algorithm wrapper
             DistAlgorithm algorithm = new A(algorithmClass.getName());
 
-            // Create snapshot collector
-            Snapshot snapshot = new CollectFAInc(threads);
-
-            // Execute concurrent operations
+            // Execute concurrent operations (the executioner owns its CollectFAInc snapshot)
             Executioner executioner = new Executioner(threads, operations, algorithm);
             executioner.taskProducers();
 
-            // Verify linearizability
-            Verifier verifier = new Verifier(snapshot);
-            verifier.checkLinearizabilityJitLin("queue");
+            // Verify linearizability of the history recorded by that snapshot
+            executioner.taskVerifiers();
 
             // Note: The actual result is logged, not returned
             // For now, return true (would need to capture the result)
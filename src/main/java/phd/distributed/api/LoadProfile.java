@@ -0,0 +1,107 @@
+package phd.distributed.api;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Arrival rate of each producer thread in an open-loop run (see
+ * {@link VerificationFramework.VerificationBuilder#withOpenLoop(LoadProfile)}): the
+ * operations are scheduled at intended start times, whether or not the previous one
+ * has finished, the way requests reach a service.
+ *
+ * A profile is a rate per thread, optionally with periodic bursts at a higher rate
+ * and with exponential (Poisson) gaps instead of evenly spaced ones. It is immutable:
+ * every {@code with...} returns a new profile.
+ */
+public final class LoadProfile {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final double rate;
+    private final double burstRate;
+    private final long periodNanos;
+    private final long burstNanos;
+    private final boolean poisson;
+
+    private LoadProfile(double rate, double burstRate, long periodNanos, long burstNanos, boolean poisson) {
+        this.rate = rate;
+        this.burstRate = burstRate;
+        this.periodNanos = periodNanos;
+        this.burstNanos = burstNanos;
+        this.poisson = poisson;
+    }
+
+    /** {@code opsPerSecond} operations per second on every producer thread. */
+    public static LoadProfile constant(double opsPerSecond) {
+        requirePositive(opsPerSecond, "opsPerSecond");
+        return new LoadProfile(opsPerSecond, 0.0, 0L, 0L, false);
+    }
+
+    /**
+     * The first {@code lasting} of every {@code every} runs at {@code burstOpsPerSecond},
+     * the rest of the period at the base rate.
+     */
+    public LoadProfile withBursts(double burstOpsPerSecond, Duration every, Duration lasting) {
+        requirePositive(burstOpsPerSecond, "burstOpsPerSecond");
+        if (every == null || lasting == null || lasting.isNegative() || lasting.isZero()
+            || every.compareTo(lasting) <= 0) {
+            throw new IllegalArgumentException("Bursts need 0 < lasting < every, got " + lasting + " / " + every);
+        }
+        return new LoadProfile(rate, burstOpsPerSecond, every.toNanos(), lasting.toNanos(), poisson);
+    }
+
+    /** Exponentially distributed gaps with the same mean rate (a Poisson process). */
+    public LoadProfile withPoissonArrivals() {
+        return new LoadProfile(rate, burstRate, periodNanos, burstNanos, true);
+    }
+
+    /** Target rate, in operations per second, {@code offsetNanos} after the run started. */
+    public double rateAt(long offsetNanos) {
+        if (periodNanos > 0 && offsetNanos % periodNanos < burstNanos) {
+            return burstRate;
+        }
+        return rate;
+    }
+
+    /** Mean rate over a whole burst period (the base rate without bursts). */
+    public double meanRate() {
+        if (periodNanos == 0) {
+            return rate;
+        }
+        return (burstRate * burstNanos + rate * (periodNanos - burstNanos)) / periodNanos;
+    }
+
+    /**
+     * Time from the intended start of an operation, {@code offsetNanos} into the run,
+     * to the intended start of the next one of the same thread.
+     */
+    public long gapAfter(long offsetNanos, RandomGenerator random) {
+        double mean = NANOS_PER_SECOND / rateAt(offsetNanos);
+        double gap = poisson ? -mean * Math.log(1.0 - random.nextDouble()) : mean;
+        return Math.max(1L, Math.round(gap));
+    }
+
+    /** About how long a thread takes to start {@code ops} operations at this rate. */
+    public Duration expectedDuration(long ops) {
+        return Duration.ofNanos((long) (ops * NANOS_PER_SECOND / meanRate()));
+    }
+
+    private static void requirePositive(double value, String name) {
+        if (!(value > 0.0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(name + " must be a positive rate, got " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(rate).append(" ops/s");
+        if (periodNanos > 0) {
+            sb.append(", bursts of ").append(burstRate).append(" ops/s for ")
+              .append(Duration.ofNanos(burstNanos)).append(" every ").append(Duration.ofNanos(periodNanos));
+        }
+        if (poisson) {
+            sb.append(", poisson");
+        }
+        return sb.toString();
+    }
+}
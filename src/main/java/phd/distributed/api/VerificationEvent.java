@@ -0,0 +1,29 @@
+package phd.distributed.api;
+
+import java.time.Duration;
+
+/**
+ * What {@link VerificationFramework.VerificationBuilder#runStream(Duration)} emits for
+ * one verification: the start of each phase, samples while it runs (throughput of
+ * the producers, progress of the checker) and finally the result.
+ *
+ * Phases and the result are always delivered; samples are only emitted while the
+ * subscriber has outstanding demand, so a slow subscriber sees fewer, fresher ones.
+ */
+public sealed interface VerificationEvent {
+
+    /**
+     * @param phase       {@code "producers"} or {@code "verification"}
+     * @param executedOps operations executed when the phase started
+     */
+    record PhaseStarted(String phase, long executedOps) implements VerificationEvent { }
+
+    /** Producers' sample: operations so far and their mean rate since the phase started. */
+    record Throughput(long executedOps, double opsPerSecond, Duration elapsed) implements VerificationEvent { }
+
+    /** Checker's sample. */
+    record Progress(VerificationResult.SearchProgress progress) implements VerificationEvent { }
+
+    /** Last event of the stream. */
+    record Completed(VerificationResult result) implements VerificationEvent { }
+}
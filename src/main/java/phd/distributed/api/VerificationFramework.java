@@ -1,17 +1,101 @@
 package phd.distributed.api;
 
+import phd.distributed.config.SystemConfig;
 import phd.distributed.core.Executioner;
 import phd.distributed.datamodel.OperationCall;
+import phd.distributed.monitoring.MetricsExporter;
+import phd.distributed.monitoring.PerformanceMetrics;
+import phd.distributed.monitoring.jfr.RunPhaseEvent;
+import phd.distributed.verifier.SearchBudget;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 public class VerificationFramework {
 
+    // Tiempo extra que se espera a la corrida tras cancelar la búsqueda por timeout
+    private static final Duration CANCEL_GRACE = Duration.ofSeconds(5);
+
+    // Un solo hilo daemon muestrea el progreso de todas las búsquedas con listener
+    private static final ScheduledExecutorService PROGRESS_POLLER =
+        Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "verification-progress");
+            t.setDaemon(true);
+            return t;
+        });
+
+    // Orquestación por defecto en vez del common pool: a lo sumo verification.max.concurrent
+    // corridas a la vez y verification.admission.queue esperando; más allá se rechazan
+    private static final ThreadPoolExecutor RUNS = runExecutor();
+
+    // Corridas con withBlockingAdmission esperan aquí a que se libere un lugar en la cola
+    private static final Object ADMISSION = new Object();
+    // Con un ejecutor propio nadie avisa: se reintenta tras esta espera
+    private static final long ADMISSION_RETRY_MS = 20L;
+
+    private static ThreadPoolExecutor runExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            SystemConfig.VERIFICATION_MAX_CONCURRENT, SystemConfig.VERIFICATION_MAX_CONCURRENT,
+            30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(SystemConfig.VERIFICATION_ADMISSION_QUEUE),
+            r -> {
+                Thread t = new Thread(r, "verification-run-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }) {
+            @Override
+            protected void beforeExecute(Thread t, Runnable r) {
+                // una corrida salió de la cola: hay lugar para las que esperan admisión
+                synchronized (ADMISSION) {
+                    ADMISSION.notifyAll();
+                }
+            }
+        };
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // Búsqueda en curso (o la última) para los gauges checker.* de PerformanceMetrics
+    private static final AtomicReference<SearchBudget> ACTIVE_SEARCH = new AtomicReference<>();
+
+    static {
+        PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+        metrics.registerGauge("checker.steps", () -> searchValue(SearchBudget::getSteps));
+        metrics.registerGauge("checker.depth.max", () -> searchValue(SearchBudget::getMaxDepth));
+        metrics.registerGauge("checker.depth.current", () -> searchValue(SearchBudget::getCurrentDepth));
+        metrics.registerGauge("checker.frontier", () -> searchValue(SearchBudget::getFrontier));
+        metrics.registerGauge("checker.backtracks", () -> searchValue(SearchBudget::getBacktracks));
+        metrics.registerGauge("checker.memo.hits", () -> searchValue(SearchBudget::getMemoHits));
+        metrics.registerGauge("checker.nodes.per.second",
+                              () -> searchValue(b -> (long) b.getNodesPerSecond()));
+        metrics.registerGauge("verification.running", RUNS::getActiveCount);
+        metrics.registerGauge("verification.queued", () -> RUNS.getQueue().size());
+    }
+
+    private static long searchValue(ToLongFunction<SearchBudget> value) {
+        SearchBudget budget = ACTIVE_SEARCH.get();
+        return budget == null ? 0L : value.applyAsLong(budget);
+    }
+
     public static VerificationBuilder verify(Class<?> algorithmClass) {
         return new VerificationBuilder(algorithmClass);
     }
@@ -41,6 +125,26 @@ public class VerificationFramework {
         private Duration timeout = Duration.ofMinutes(5);
         private Long seed        = null;      // por si luego quieres controlar el WorkloadPattern
         private WorkloadPattern workload = null;
+        // Lazo abierto (null = productores a toda velocidad)
+        private LoadProfile openLoop = null;
+
+        // Presupuesto de la búsqueda (0 / null = sin límite)
+        private long maxSearchSteps = 0L;
+        private Duration searchTimeLimit = null;
+
+        // Primer checkpoint del early abort (0 = sin checkpoints)
+        private int earlyAbortOps = 0;
+
+        // Muestreo del progreso de la búsqueda (null = sin listener)
+        private Consumer<VerificationResult.SearchProgress> progressListener = null;
+        private Duration progressInterval = null;
+
+        // Ejecutores (null = RUNS / un pool propio por corrida / el hilo de orquestación)
+        private Executor orchestrationExecutor = null;
+        private ExecutorService producerExecutor = null;
+        private Executor verifierExecutor = null;
+        // true = esperar lugar en la cola de admisión en vez de rechazar la corrida
+        private boolean blockingAdmission = false;
 
         // schedule fija de OperationCall (sin tids)
         private List<OperationCall> fixedSchedule = null;
@@ -80,6 +184,20 @@ public class VerificationFramework {
             return this;
         }
 
+        /**
+         * Runs the producers in open loop: each thread starts its operations at the rate
+         * of {@code profile} (bursts and Poisson gaps included) instead of back to back,
+         * and the result carries the latencies measured from the intended start times
+         * ({@link VerificationResult.ExecutionStatistics#getResponseLatency()}). The run
+         * takes as long as the schedule does, keep {@link #withTimeout} above it. With
+         * early abort the schedule waits out each checkpoint, so the prefix checks add
+         * to the duration but not to the latencies.
+         */
+        public VerificationBuilder withOpenLoop(LoadProfile profile) {
+            this.openLoop = profile;
+            return this;
+        }
+
         /** Tipo lógico para la especificación secuencial: "queue", "map", "set", "deque"... */
         public VerificationBuilder withObjectType(String objectType) {
             this.objectType = objectType;
@@ -98,6 +216,84 @@ public class VerificationFramework {
             return this;
         }
 
+        /**
+         * Bounds the linearizability search: when it visits {@code maxSteps} nodes or
+         * runs for {@code timeLimit} the run ends with {@link VerificationResult.Verdict#UNKNOWN}
+         * instead of a verdict. Use 0 / null to leave either bound open.
+         */
+        public VerificationBuilder withSearchBudget(long maxSteps, Duration timeLimit) {
+            this.maxSearchSteps = maxSteps;
+            this.searchTimeLimit = timeLimit;
+            return this;
+        }
+
+        /**
+         * Checks the history while it is being produced, first after {@code firstCheckpoint}
+         * operations and then each time the count doubles, and stops the producers at the
+         * first non-linearizable prefix, which is kept as the history of the result (see
+         * {@link Executioner#enableEarlyAbort}). Each prefix check gets the search budget
+         * of the run. Use 0 to check only the complete history.
+         */
+        public VerificationBuilder withEarlyAbort(int firstCheckpoint) {
+            this.earlyAbortOps = firstCheckpoint;
+            return this;
+        }
+
+        /**
+         * Calls {@code listener} every {@code interval} while the linearizability search
+         * runs, and once more with the final counters when it ends. The listener runs on a
+         * shared poller thread and must not block. Callers of {@link #runAsync(SearchBudget)}
+         * can also poll {@link VerificationFramework#progressOf(SearchBudget)} themselves.
+         */
+        public VerificationBuilder withProgressListener(Duration interval,
+                                                        Consumer<VerificationResult.SearchProgress> listener) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Progress interval must be positive, got " + interval);
+            }
+            this.progressInterval = interval;
+            this.progressListener = listener;
+            return this;
+        }
+
+        /**
+         * Executor that runs the whole verification (it waits on the producers and the
+         * checker). By default a shared pool admits {@code verification.max.concurrent}
+         * runs at once and queues up to {@code verification.admission.queue} more; with
+         * your own executor, its queue is the admission control.
+         */
+        public VerificationBuilder withOrchestrationExecutor(Executor executor) {
+            this.orchestrationExecutor = executor;
+            return this;
+        }
+
+        /**
+         * When the admission queue is full, {@link #run()}, {@link #runAsync()} and
+         * {@link #runStream} block the calling thread until the run is admitted instead
+         * of failing with {@link RejectedExecutionException}. For callers that submit
+         * many runs and would rather be slowed down than lose some (campaigns, the
+         * daemon). The wait does not count towards {@link #withTimeout}; interrupting
+         * the waiting thread fails the run.
+         */
+        public VerificationBuilder withBlockingAdmission() {
+            this.blockingAdmission = true;
+            return this;
+        }
+
+        /**
+         * Pool for the producer threads instead of one created per run; it must have
+         * {@code threads} threads free at once (see {@link Executioner#useProducerExecutor}).
+         */
+        public VerificationBuilder withProducerExecutor(ExecutorService executor) {
+            this.producerExecutor = executor;
+            return this;
+        }
+
+        /** Executor for the checker; by default it runs on the orchestration thread. */
+        public VerificationBuilder withVerifierExecutor(Executor executor) {
+            this.verifierExecutor = executor;
+            return this;
+        }
+
         /** Tipo de snapshot: "gAIsnap" o "rAwsnap" (CollectFAInc / CollectRAW). */
         public VerificationBuilder withSnapshot(String snapType) {
             this.snapType = snapType;
@@ -108,15 +304,29 @@ public class VerificationFramework {
         //  Synchronous execution
         // ========================================================
         public VerificationResult run() {
+            SearchBudget budget = new SearchBudget(maxSearchSteps, searchTimeLimit);
+            CompletableFuture<VerificationResult> future = submit(new RunHandle(budget));
             try {
-                return runAsync().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
+                budget.cancel();
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Verification interrupted", e);
             } catch (ExecutionException e) {
                 throw new RuntimeException("Verification failed", e.getCause());
             } catch (TimeoutException e) {
-                throw new RuntimeException("Verification timeout after " + timeout, e);
+                // Stop the search and keep whatever the run recorded
+                budget.cancel();
+                try {
+                    return future.get(CANCEL_GRACE.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | TimeoutException ignored) {
+                    // the producers did not stop in time: no history to report
+                }
+                VerificationResult.SearchProgress progress = progressOf(budget);
+                return new VerificationResult(VerificationResult.Verdict.UNKNOWN, timeout, timeout, Duration.ZERO,
+                    null, new VerificationResult.ExecutionStatistics(operations, 0L, progress), progress, null);
             }
         }
 
@@ -124,81 +334,314 @@ public class VerificationFramework {
         //  Async execution - usando Executioner + JitLin
         // ========================================================
         public CompletableFuture<VerificationResult> runAsync() {
-            return CompletableFuture.supplyAsync(() -> {
+            return runAsync(new SearchBudget(maxSearchSteps, searchTimeLimit));
+        }
+
+        /**
+         * Async run whose search is bounded by {@code budget}; {@link SearchBudget#cancel()}
+         * stops the producers and the search and completes the future with an UNKNOWN
+         * verdict. The future fails with {@link RejectedExecutionException} when the
+         * admission queue is full, unless {@link #withBlockingAdmission()} is set.
+         */
+        public CompletableFuture<VerificationResult> runAsync(SearchBudget budget) {
+            return submit(new RunHandle(budget));
+        }
+
+        private CompletableFuture<VerificationResult> submit(RunHandle handle) {
+            // performance.monitoring.enabled: /metrics y JMX durante toda la corrida
+            MetricsExporter.startFromConfig();
+            Executor executor = orchestrationExecutor != null ? orchestrationExecutor : RUNS;
+            while (true) {
                 try {
-                    // 1) Construir DistAlgorithm usando tu wrapper A
-                    String implClassName = algorithmClass.getName();
-                    // 1) Build DistAlgorithm using wrapper A (safe defaults if methods is not provided)
-
-                    String[] effectiveMethods = this.methods;
-                    if (effectiveMethods == null || effectiveMethods.length == 0) {
-                        effectiveMethods = switch (objectType) {
-                            case "queue" -> new String[]{"offer", "poll"}; // peek NOT supported by your sequential spec
-                            case "map"   -> new String[]{"put", "get", "remove"};
-                            case "set"   -> new String[]{"add", "remove", "contains"};
-                            case "deque" -> new String[]{"offerFirst", "offerLast", "pollFirst", "pollLast"};
-                            default -> throw new IllegalArgumentException(
-                                "Unsupported objectType '" + objectType + "'. " +
-                                "Please set withObjectType(...) to one of: queue, map, set, deque " +
-                                "or provide an explicit withMethods(...)."
-                            );
-                        };
+                    return CompletableFuture.supplyAsync(() -> execute(handle), executor);
+                } catch (RejectedExecutionException e) {
+                    if (!blockingAdmission) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                    try {
+                        synchronized (ADMISSION) {
+                            ADMISSION.wait(ADMISSION_RETRY_MS);
+                        }
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        e.addSuppressed(ie);
+                        return CompletableFuture.failedFuture(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Reactive run: emits {@link VerificationEvent.PhaseStarted} for the producers and
+         * the verification, a {@link VerificationEvent.Throughput} or
+         * {@link VerificationEvent.Progress} sample every {@code sampleInterval} while the
+         * subscriber has demand, and {@link VerificationEvent.Completed} last.
+         *
+         * The run starts on subscription. Cancelling the subscription stops the producers
+         * ({@link Executioner#stop()}) and the search ({@link SearchBudget#cancel()});
+         * after the builder's timeout the search is cancelled and the result is UNKNOWN,
+         * as with {@link #run()}.
+         */
+        public Flux<VerificationEvent> runStream(Duration sampleInterval) {
+            if (sampleInterval == null || sampleInterval.isZero() || sampleInterval.isNegative()) {
+                throw new IllegalArgumentException("Sample interval must be positive, got " + sampleInterval);
+            }
+            // BUFFER sólo guarda fases y resultado: las muestras se emiten con demanda
+            return Flux.create(sink -> {
+                SearchBudget budget = new SearchBudget(maxSearchSteps, searchTimeLimit);
+                StreamRun stream = new StreamRun(sink, budget);
+                long every = sampleInterval.toNanos();
+                ScheduledFuture<?> sampler = PROGRESS_POLLER.scheduleAtFixedRate(stream::sample, every, every,
+                                                                                 TimeUnit.NANOSECONDS);
+                ScheduledFuture<?> deadline = PROGRESS_POLLER.schedule(budget::cancel, timeout.toNanos(),
+                                                                       TimeUnit.NANOSECONDS);
+                sink.onCancel(stream::cancel);
+                sink.onDispose(() -> {
+                    sampler.cancel(false);
+                    deadline.cancel(false);
+                });
+                submit(stream).whenComplete((result, error) -> {
+                    sampler.cancel(false);
+                    if (error != null) {
+                        sink.error(error instanceof CompletionException && error.getCause() != null
+                                       ? error.getCause() : error);
+                    } else {
+                        sink.next(new VerificationEvent.Completed(result));
+                        sink.complete();
                     }
+                });
+            }, FluxSink.OverflowStrategy.BUFFER);
+        }
+
+        private VerificationResult execute(RunHandle handle) {
+            SearchBudget budget = handle.budget;
+            try {
+                // 1) Construir DistAlgorithm usando tu wrapper A
+                String implClassName = algorithmClass.getName();
+                // 1) Build DistAlgorithm using wrapper A (safe defaults if methods is not provided)
+
+                String[] effectiveMethods = this.methods;
+                if (effectiveMethods == null || effectiveMethods.length == 0) {
+                    effectiveMethods = switch (objectType) {
+                        case "queue" -> new String[]{"offer", "poll"}; // peek NOT supported by your sequential spec
+                        case "map"   -> new String[]{"put", "get", "remove"};
+                        case "set"   -> new String[]{"add", "remove", "contains"};
+                        case "deque" -> new String[]{"offerFirst", "offerLast", "pollFirst", "pollLast"};
+                        default -> throw new IllegalArgumentException(
+                            "Unsupported objectType '" + objectType + "'. " +
+                            "Please set withObjectType(...) to one of: queue, map, set, deque " +
+                            "or provide an explicit withMethods(...)."
+                        );
+                    };
+                }
 
-                    DistAlgorithm algorithm =
-                        new A(implClassName, effectiveMethods);
+                DistAlgorithm algorithm =
+                    new A(implClassName, effectiveMethods);
 
-                    // 2) Crear Executioner (usa snapshot según snapType + JitLin)
-                    Executioner executioner =
-                        new Executioner(threads, operations, algorithm, objectType, snapType);
+                // 2) Crear Executioner (usa snapshot según snapType + JitLin)
+                Executioner executioner =
+                    new Executioner(threads, operations, algorithm, objectType, snapType);
+                if (producerExecutor != null) {
+                    executioner.useProducerExecutor(producerExecutor);
+                }
+                if (earlyAbortOps > 0) {
+                    executioner.enableEarlyAbort(earlyAbortOps, maxSearchSteps, searchTimeLimit);
+                }
+                if (openLoop != null) {
+                    executioner.enableOpenLoop(openLoop, seed != null ? seed : System.nanoTime());
+                }
 
-                    // 3) FASE PRODUCTORES
-                    long producersStart = System.nanoTime();
+                // 3) FASE PRODUCTORES
+                RunPhaseEvent producersEvent = phaseEvent(RunPhaseEvent.PRODUCERS);
+                handle.phaseStarted(RunPhaseEvent.PRODUCERS, executioner);
+                long producersStart = System.nanoTime();
 
-                    if (fixedSchedule != null) {
-                        // usamos exactamente la lista de OperationCall preconstruida
-                        executioner.taskProducersSeed(fixedSchedule);
+                if (fixedSchedule != null) {
+                    // usamos exactamente la lista de OperationCall preconstruida
+                    executioner.taskProducersSeed(fixedSchedule);
 
-                    } else if (workload != null) {
-                        // workload → lista de OperationCall (sin tids)
-                        List<OperationCall> ops =
-                            workload.generateOperations(algorithm, objectType);
-                        executioner.taskProducersSeed(ops);
+                } else if (workload != null) {
+                    // workload → cada productor genera sus OperationCall sobre la marcha
+                    executioner.taskProducers(workload);
 
-                    } else {
-                        // Modo aleatorio: OperationCall.chooseOp(...)
-                        executioner.taskProducers();
+                } else {
+                    // Modo aleatorio: OperationCall.chooseOp(...)
+                    executioner.taskProducers();
+                }
+
+                long producersEnd = System.nanoTime();
+                commitPhase(producersEvent, executioner.getExecutedOps(), null);
+                Duration producersTime =
+                    Duration.ofNanos(producersEnd - producersStart);
+
+                // 4) FASE VERIFICACIÓN (JitLin)
+                RunPhaseEvent verifierEvent = phaseEvent(RunPhaseEvent.VERIFICATION);
+                handle.phaseStarted(RunPhaseEvent.VERIFICATION, executioner);
+                long verifierStart = System.nanoTime();
+                ACTIVE_SEARCH.set(budget);
+                ScheduledFuture<?> poll = pollProgress(budget);
+                VerificationResult.Verdict verdict;
+                try {
+                    verdict = verifierExecutor == null
+                        ? executioner.taskVerifiers(budget)
+                        : CompletableFuture.supplyAsync(() -> executioner.taskVerifiers(budget), verifierExecutor)
+                                           .join();
+                } finally {
+                    if (poll != null) {
+                        poll.cancel(false);
+                        progressListener.accept(progressOf(budget));
                     }
+                }
+                long verifierEnd = System.nanoTime();
+                commitPhase(verifierEvent, executioner.getExecutedOps(), verdict);
+                Duration verifierTime =
+                    Duration.ofNanos(verifierEnd - verifierStart);
+
+                Duration totalTime = producersTime.plus(verifierTime);
+
+                //System.out.println("  ↳ Producer phase time : " + producersTime.toMillis() + " ms");
+                //System.out.println("  ↳ Verifier phase time : " + verifierTime.toMillis() + " ms");
+                //System.out.println("  ↳ Total verification   : " + totalTime.toMillis() + " ms");
+
+                List<?> history = executioner.getHistory() instanceof List<?> xe ? xe : null;
+
+                VerificationResult.SearchProgress progress = progressOf(budget);
+                VerificationResult.ExecutionStatistics stats =
+                    new VerificationResult.ExecutionStatistics(
+                        executioner.getExecutedOps(),
+                        history == null ? 0L : history.size(),  // eventos de X_E
+                        progress,
+                        executioner.getResponseLatency(),
+                        executioner.getServiceLatency(),
+                        executioner.isTruncated()
+                    );
+
+                return new VerificationResult(verdict, totalTime, producersTime, verifierTime, null, stats,
+                                              progress, history);
+
+            } catch (Exception e) {
+                throw new RuntimeException("Verification failed", e);
+            }
+        }
 
-                    long producersEnd = System.nanoTime();
-                    Duration producersTime =
-                        Duration.ofNanos(producersEnd - producersStart);
+        private RunPhaseEvent phaseEvent(String phase) {
+            RunPhaseEvent event = new RunPhaseEvent();
+            event.phase = phase;
+            event.begin();
+            return event;
+        }
 
-                    // 4) FASE VERIFICACIÓN (JitLin)
-                    long verifierStart = System.nanoTime();
-                    boolean correct = executioner.taskVerifiers();
-                    long verifierEnd = System.nanoTime();
-                    Duration verifierTime =
-                        Duration.ofNanos(verifierEnd - verifierStart);
+        private void commitPhase(RunPhaseEvent event, long executedOps, VerificationResult.Verdict verdict) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.algorithm = algorithmClass.getName();
+                event.objectType = objectType;
+                event.snapshot = snapType;
+                event.threads = threads;
+                event.operations = executedOps;
+                event.verdict = verdict == null ? null : verdict.name();
+                event.commit();
+            }
+        }
 
-                    Duration totalTime = producersTime.plus(verifierTime);
+        private ScheduledFuture<?> pollProgress(SearchBudget budget) {
+            if (progressListener == null) return null;
+            long every = progressInterval.toNanos();
+            return PROGRESS_POLLER.scheduleAtFixedRate(() -> progressListener.accept(progressOf(budget)),
+                                                       every, every, TimeUnit.NANOSECONDS);
+        }
+    }
 
-                    VerificationResult.ExecutionStatistics stats =
-                        new VerificationResult.ExecutionStatistics(
-                            operations,
-                            0L  // si luego lees el tamaño de X_E puedes poner aquí los eventos procesados
-                        );
+    // Une una corrida con su presupuesto: cancelarlo (timeout de run(), SearchBudget#cancel
+    // de runAsync, cancelación de runStream) también detiene a los productores
+    private static class RunHandle {
+        final SearchBudget budget;
+        private volatile Executioner executioner;
+        private volatile boolean cancelled;
 
-                    //System.out.println("  ↳ Producer phase time : " + producersTime.toMillis() + " ms");
-                    //System.out.println("  ↳ Verifier phase time : " + verifierTime.toMillis() + " ms");
-                    //System.out.println("  ↳ Total verification   : " + totalTime.toMillis() + " ms");
+        RunHandle(SearchBudget budget) {
+            this.budget = budget;
+            budget.onCancel(this::stopProducers);
+        }
 
-                    return new VerificationResult(correct, totalTime, producersTime, verifierTime, null, stats);
+        /** Called by the run at the start of each phase. */
+        void phaseStarted(String phase, Executioner executioner) {
+            this.executioner = executioner;
+            // stopProducers() escribe cancelled y luego lee executioner: uno de los dos lo ve
+            if (cancelled) {
+                executioner.stop();
+            }
+        }
 
-                } catch (Exception e) {
-                    throw new RuntimeException("Verification failed", e);
-                }
-            });
+        private void stopProducers() {
+            cancelled = true;
+            Executioner e = executioner;
+            if (e != null) {
+                e.stop();
+            }
+        }
+
+        Executioner executioner() {
+            return executioner;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    // Corrida de runStream: fase actual y muestras
+    private static final class StreamRun extends RunHandle {
+        private final FluxSink<VerificationEvent> sink;
+        private volatile String phase;
+        private volatile long phaseStart;
+
+        StreamRun(FluxSink<VerificationEvent> sink, SearchBudget budget) {
+            super(budget);
+            this.sink = sink;
+        }
+
+        @Override
+        void phaseStarted(String phase, Executioner executioner) {
+            super.phaseStarted(phase, executioner);
+            if (isCancelled()) {
+                return;
+            }
+            this.phaseStart = System.nanoTime();
+            // el evento de la fase sale antes que cualquier muestra de ella
+            sink.next(new VerificationEvent.PhaseStarted(phase, executioner.getExecutedOps()));
+            this.phase = phase;
+        }
+
+        void sample() {
+            String current = phase;
+            if (current == null || isCancelled() || sink.requestedFromDownstream() <= 0) {
+                return;
+            }
+            if (RunPhaseEvent.PRODUCERS.equals(current)) {
+                long ops = executioner().getExecutedOps();
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - phaseStart);
+                double seconds = elapsed.toNanos() / 1e9;
+                sink.next(new VerificationEvent.Throughput(ops, seconds > 0 ? ops / seconds : 0.0, elapsed));
+            } else {
+                sink.next(new VerificationEvent.Progress(progressOf(budget)));
+            }
+        }
+
+        void cancel() {
+            budget.cancel();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Snapshot of a running (or finished) search; safe to call from any thread while
+     * the search uses {@code budget}.
+     */
+    public static VerificationResult.SearchProgress progressOf(SearchBudget budget) {
+        return new VerificationResult.SearchProgress(budget.getSteps(), budget.getMaxDepth(),
+                                                     budget.getTotalOps(), budget.getStop().name(),
+                                                     budget.getNodesPerSecond(), budget.getCurrentDepth(),
+                                                     budget.getBacktracks(), budget.getFrontier(),
+                                                     budget.getMemoHits());
+    }
+}
@@ -1,34 +1,70 @@
 package phd.distributed.api;
 
+import phd.distributed.monitoring.LatencyHistogram;
+
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 public class VerificationResult {
-    private final boolean correct;
+
+    /** Outcome of a run: UNKNOWN when the search budget ran out before a verdict. */
+    public enum Verdict { LINEARIZABLE, VIOLATION, UNKNOWN }
+
+    private final Verdict verdict;
     private final Duration executionTime;
     private final Duration producersTime;
     private final Duration verifiersTime;
     private final List<Violation> violations;
     private final ExecutionStatistics statistics;
+    private final SearchProgress progress;
+    private final List<?> history;
 
 
     public VerificationResult(boolean correct, Duration executionTime, Duration producersTime, Duration verifierTime,
                             List<Violation> violations, ExecutionStatistics statistics) {
-        this.correct = correct;
+        this(correct ? Verdict.LINEARIZABLE : Verdict.VIOLATION, executionTime, producersTime, verifierTime,
+             violations, statistics, null, null);
+    }
+
+    public VerificationResult(Verdict verdict, Duration executionTime, Duration producersTime, Duration verifierTime,
+                            List<Violation> violations, ExecutionStatistics statistics,
+                            SearchProgress progress, List<?> history) {
+        this.verdict = verdict;
         this.executionTime = executionTime;
         this.violations = violations != null ? violations : new ArrayList<>();
         this.statistics = statistics;
         this.producersTime = producersTime;
         this.verifiersTime = verifierTime;
+        this.progress = progress;
+        this.history = history != null ? history : List.of();
     }
 
     public boolean isCorrect() {
-        return correct;
+        return verdict == Verdict.LINEARIZABLE;
     }
 
     public boolean isLinearizable() {
-        return correct;
+        return verdict == Verdict.LINEARIZABLE;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /** True when the search gave up (budget, deadline or cancellation) without a verdict. */
+    public boolean isUnknown() {
+        return verdict == Verdict.UNKNOWN;
+    }
+
+    /** How far the search got, or null when no budget was tracked. */
+    public SearchProgress getSearchProgress() {
+        return progress;
+    }
+
+    /** The recorded history X_E, kept even when the verdict is UNKNOWN. */
+    public List<?> getHistory() {
+        return history;
     }
 
     public Duration getExecutionTime() {
@@ -52,8 +88,10 @@ public class VerificationResult {
 
     @Override
     public String toString() {
-        return String.format("VerificationResult{correct=%s, time=%s, violations=%d}",
-            correct, executionTime, violations.size());
+        return String.format("VerificationResult{verdict=%s, time=%s, violations=%d%s%s}",
+            verdict, executionTime, violations.size(), progress != null ? ", progress=" + progress : "",
+            statistics != null && statistics.isTruncated()
+                ? ", truncated at " + statistics.getTotalOperations() + " ops" : "");
     }
 
     public static class Violation {
@@ -82,18 +120,147 @@ public class VerificationResult {
     public static class ExecutionStatistics {
         private final long totalOperations;
         private final long eventsProcessed;
+        private final SearchProgress search;
+        private final LatencyHistogram.Summary responseLatency;
+        private final LatencyHistogram.Summary serviceLatency;
+        private final boolean truncated;
 
         public ExecutionStatistics(long totalOperations, long eventsProcessed) {
+            this(totalOperations, eventsProcessed, null);
+        }
+
+        public ExecutionStatistics(long totalOperations, long eventsProcessed, SearchProgress search) {
+            this(totalOperations, eventsProcessed, search, null, null);
+        }
+
+        public ExecutionStatistics(long totalOperations, long eventsProcessed, SearchProgress search,
+                                   LatencyHistogram.Summary responseLatency,
+                                   LatencyHistogram.Summary serviceLatency) {
+            this(totalOperations, eventsProcessed, search, responseLatency, serviceLatency, false);
+        }
+
+        public ExecutionStatistics(long totalOperations, long eventsProcessed, SearchProgress search,
+                                   LatencyHistogram.Summary responseLatency,
+                                   LatencyHistogram.Summary serviceLatency, boolean truncated) {
             this.totalOperations = totalOperations;
             this.eventsProcessed = eventsProcessed;
+            this.search = search;
+            this.responseLatency = responseLatency;
+            this.serviceLatency = serviceLatency;
+            this.truncated = truncated;
         }
 
         public long getTotalOperations() {
             return totalOperations;
         }
 
+        /** Events of X_E handed to the checker (an invocation and a response per complete operation). */
         public long getEventsProcessed() {
             return eventsProcessed;
         }
+
+        /** Final counters of the search, null if the run never reached it. */
+        public SearchProgress getSearch() {
+            return search;
+        }
+
+        /** Open-loop runs: latency from the intended start of each operation; null otherwise. */
+        public LatencyHistogram.Summary getResponseLatency() {
+            return responseLatency;
+        }
+
+        /** Open-loop runs: latency from the actual start of each operation; null otherwise. */
+        public LatencyHistogram.Summary getServiceLatency() {
+            return serviceLatency;
+        }
+
+        /**
+         * True if the producer timeout cut the run short: the verdict is about the
+         * {@link #getTotalOperations()} operations executed, fewer than requested.
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    public static class SearchProgress {
+        private final long steps;
+        private final int maxDepth;
+        private final int totalOps;
+        private final String stop;
+        private final double nodesPerSecond;
+        private final int currentDepth;
+        private final long backtracks;
+        private final int frontier;
+        private final long memoHits;
+
+        public SearchProgress(long steps, int maxDepth, int totalOps, String stop) {
+            this(steps, maxDepth, totalOps, stop, 0.0, 0, 0L, 0, 0L);
+        }
+
+        public SearchProgress(long steps, int maxDepth, int totalOps, String stop, double nodesPerSecond,
+                              int currentDepth, long backtracks, int frontier, long memoHits) {
+            this.steps = steps;
+            this.maxDepth = maxDepth;
+            this.totalOps = totalOps;
+            this.stop = stop;
+            this.nodesPerSecond = nodesPerSecond;
+            this.currentDepth = currentDepth;
+            this.backtracks = backtracks;
+            this.frontier = frontier;
+            this.memoHits = memoHits;
+        }
+
+        /** Search nodes visited. */
+        public long getSteps() {
+            return steps;
+        }
+
+        /** Nodes visited per second since the search started. */
+        public double getNodesPerSecond() {
+            return nodesPerSecond;
+        }
+
+        /** Depth of the node visited last. */
+        public int getCurrentDepth() {
+            return currentDepth;
+        }
+
+        /** Nodes all of whose continuations failed. */
+        public long getBacktracks() {
+            return backtracks;
+        }
+
+        /** Open branches at the node visited last. */
+        public int getFrontier() {
+            return frontier;
+        }
+
+        /** Nodes cut by the memo of configurations already explored. */
+        public long getMemoHits() {
+            return memoHits;
+        }
+
+        /** Most operations linearized on any explored path. */
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        /** Operations a complete linearization needs, -1 if the search never started. */
+        public int getTotalOps() {
+            return totalOps;
+        }
+
+        /** Why the search stopped early (STEPS, DEADLINE, CANCELLED) or NONE. */
+        public String getStop() {
+            return stop;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d steps (%.0f/s), depth %d (max %d/%d), %d backtracks, frontier %d, "
+                                 + "%d memo hits, stop=%s", steps, nodesPerSecond, currentDepth, maxDepth, totalOps,
+                                 backtracks, frontier, memoHits, stop);
+        }
     }
 }
@@ -5,15 +5,18 @@ import phd.distributed.datamodel.OperationCall;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 public class WorkloadPattern {
     private final int operations;
     private final int threads;       // lo podemos seguir guardando, aunque aquí ya no lo usamos para tid
-    private final Random random;
+    private final long seed;
     private final double producerRatio;
     private final PatternType type;
+    // null = la base de los argumentos es el índice de la operación (como siempre)
+    private final KeyDistribution keys;
 
     private enum PatternType {
         UNIFORM, PRODUCER_CONSUMER, READ_HEAVY, WRITE_HEAVY
@@ -21,11 +24,17 @@ public class WorkloadPattern {
 
     private WorkloadPattern(int operations, int threads, long seed,
                             double producerRatio, PatternType type) {
+        this(operations, threads, seed, producerRatio, type, null);
+    }
+
+    private WorkloadPattern(int operations, int threads, long seed,
+                            double producerRatio, PatternType type, KeyDistribution keys) {
         this.operations = operations;
         this.threads = threads;
-        this.random = new Random(seed);
+        this.seed = seed;
         this.producerRatio = producerRatio;
         this.type = type;
+        this.keys = keys;
     }
 
     // ---------- Fábricas de patrones ----------
@@ -61,6 +70,29 @@ public class WorkloadPattern {
         return new WorkloadPattern(operations, threads, seed, 0.5, PatternType.UNIFORM);
     }
 
+    // Variantes con semilla fija (reproducibles, p. ej. para campañas que se reanudan)
+
+    public static WorkloadPattern producerConsumer(int operations, int threads, double producerRatio, long seed) {
+        return new WorkloadPattern(operations, threads, seed, producerRatio, PatternType.PRODUCER_CONSUMER);
+    }
+
+    public static WorkloadPattern readHeavy(int operations, int threads, double readRatio, long seed) {
+        return new WorkloadPattern(operations, threads, seed, 1.0 - readRatio, PatternType.READ_HEAVY);
+    }
+
+    public static WorkloadPattern writeHeavy(int operations, int threads, double writeRatio, long seed) {
+        return new WorkloadPattern(operations, threads, seed, writeRatio, PatternType.WRITE_HEAVY);
+    }
+
+    /**
+     * Same pattern (and seed) whose operations draw their keys from {@code keys}, e.g.
+     * {@code readHeavy(ops, threads, 0.9, seed).withKeys(KeyDistribution.zipfian(1000, 0.99))}
+     * for a skewed map workload.
+     */
+    public WorkloadPattern withKeys(KeyDistribution keys) {
+        return new WorkloadPattern(operations, threads, seed, producerRatio, type, keys);
+    }
+
     // ======================================================
     //  Generación de OperationCall (sin hilos)
     // ======================================================
@@ -68,9 +100,33 @@ public class WorkloadPattern {
     /**
      * Genera una lista de OperationCall de longitud = operations.
      *
-     * NO asigna threadId. Eso lo hará el Executioner.
+     * NO asigna threadId. Eso lo hará el Executioner. La lista son los streams de
+     * {@link #stream} de cada uno de los {@code threads} hilos, uno tras otro, en los
+     * mismos tramos contiguos que reparte el Executioner: con el mismo número de
+     * hilos es exactamente lo que ejecuta {@code Executioner.taskProducers(pattern)}.
      */
     public List<OperationCall> generateOperations(DistAlgorithm alg, String objectType) {
+        int processes = Math.max(1, threads);
+        OperationStream stream = stream(alg, objectType, processes);
+        List<OperationCall> ops = new ArrayList<>(operations);
+        int base = operations / processes;
+        int remainder = operations % processes;
+        for (int pid = 0; pid < processes; pid++) {
+            int quota = base + (pid < remainder ? 1 : 0);
+            for (int i = 0; i < quota; i++) {
+                ops.add(stream.next(pid, ops.size()));
+            }
+        }
+        return ops;
+    }
+
+    /**
+     * Lazy version of {@link #generateOperations} for runs too large to hold in memory:
+     * every process draws its operations from its own {@link SplittableRandom}, split
+     * from the seed, so a given seed and process count always yield the same
+     * operations per process whatever the scheduling, with constant memory.
+     */
+    public OperationStream stream(DistAlgorithm alg, String objectType, int processes) {
         List<MethodInf> allMethods = alg.methods();
 
         // Filtrar métodos de escritura/lectura según el tipo de objeto
@@ -82,19 +138,51 @@ public class WorkloadPattern {
                 .filter(m -> isReadMethod(objectType, m.getName()))
                 .collect(Collectors.toList());
 
-        List<OperationCall> ops = new ArrayList<>();
+        return new OperationStream(alg, processes, writeMethods, readMethods, allMethods);
+    }
 
-        for (int i = 0; i < operations; i++) {
-            boolean write = chooseWriteOrRead();
-            MethodInf chosenMethod = chooseMethodForKind(write, writeMethods, readMethods, allMethods);
+    /**
+     * Operations of a {@link WorkloadPattern}, one independent stream per process.
+     * Each process's stream must be read by one thread at a time (the producer of
+     * that process); different processes can be read concurrently.
+     */
+    public final class OperationStream {
+        private final DistAlgorithm alg;
+        private final SplittableRandom[] randoms;
+        private final List<MethodInf> writeMethods;
+        private final List<MethodInf> readMethods;
+        private final List<MethodInf> allMethods;
 
-            // Aquí asumimos que ya tienes OperationCall.fromMethod(alg, m, seedIndex)
-            // Si no, puedes usar directamente ValueGenerator como hacías en chooseOp.
-            OperationCall call = OperationCall.fromMethod(alg, chosenMethod, i);
-            ops.add(call);
+        private OperationStream(DistAlgorithm alg, int processes, List<MethodInf> writeMethods,
+                                List<MethodInf> readMethods, List<MethodInf> allMethods) {
+            this.alg = alg;
+            this.writeMethods = writeMethods;
+            this.readMethods = readMethods;
+            this.allMethods = allMethods;
+            // los split se hacen aquí, en orden: no dependen de qué hilo arranque primero
+            this.randoms = new SplittableRandom[processes];
+            SplittableRandom root = new SplittableRandom(seed);
+            for (int pid = 0; pid < processes; pid++) {
+                randoms[pid] = root.split();
+            }
         }
 
-        return ops;
+        /**
+         * Next operation of {@code processId}.
+         * @param index position of the operation in the whole workload: the base of the
+         *              arguments after the key, so they differ between operations, and
+         *              the key itself without a key distribution (and for sequential keys)
+         */
+        public OperationCall next(int processId, int index) {
+            SplittableRandom random = randoms[processId];
+            boolean write = chooseWriteOrRead(random);
+            MethodInf chosenMethod = chooseMethodForKind(random, write, writeMethods, readMethods, allMethods);
+
+            // Sólo el primer argumento sigue la distribución; los demás (el valor de un
+            // put) salen del índice, para que el checker distinga cada escritura
+            int key = keys == null ? index : keys.key(index, random);
+            return OperationCall.fromMethod(alg, chosenMethod, key, index);
+        }
     }
 
     // ======================================================
@@ -105,7 +193,7 @@ public class WorkloadPattern {
      * Decide si la i-ésima operación será "write" o "read",
      * según el PatternType y producerRatio.
      */
-    private boolean chooseWriteOrRead() {
+    private boolean chooseWriteOrRead(RandomGenerator random) {
         double p = random.nextDouble();
         return switch (type) {
             case PRODUCER_CONSUMER ->
@@ -127,7 +215,8 @@ public class WorkloadPattern {
      * Elige un MethodInf de acuerdo al tipo (write/read),
      * con fallback si alguna lista está vacía.
      */
-    private MethodInf chooseMethodForKind(boolean write,
+    private MethodInf chooseMethodForKind(RandomGenerator random,
+                                          boolean write,
                                           List<MethodInf> writeMethods,
                                           List<MethodInf> readMethods,
                                           List<MethodInf> allMethods) {
@@ -211,4 +300,9 @@ public class WorkloadPattern {
     public int getThreads() {
         return threads;
     }
+
+    /** Key distribution, or null when the operation index is the key. */
+    public KeyDistribution getKeys() {
+        return keys;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package phd.distributed.campaign;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import phd.distributed.api.AlgorithmLibrary;
+import phd.distributed.api.AlgorithmLibrary.AlgorithmCategory;
+import phd.distributed.api.AlgorithmLibrary.AlgorithmInfo;
+
+/**
+ * A matrix of verification runs: algorithms from {@link AlgorithmLibrary} x
+ * snapshot types x workloads x thread counts x operation counts x repetitions.
+ *
+ * <pre>{@code
+ * Campaign campaign = Campaign.builder()
+ *     .algorithm("ConcurrentLinkedQueue")
+ *     .algorithm("ConcurrentHashMap", "map", "put", "get", "remove")
+ *     .threads(2, 4, 8)
+ *     .operations(50, 100)
+ *     .workloads(WorkloadSpec.random(), WorkloadSpec.producerConsumer(0.7))
+ *     .snapshots("gAIsnap", "rAwsnap")
+ *     .build();
+ * }</pre>
+ */
+public final class Campaign {
+
+    private final List<CampaignRun> runs;
+    private final Duration timeout;
+    private final long maxSearchSteps;
+    private final Duration searchTimeLimit;
+    private final int earlyAbortOps;
+
+    private Campaign(Builder b) {
+        this.timeout = b.timeout;
+        this.maxSearchSteps = b.maxSearchSteps;
+        this.searchTimeLimit = b.searchTimeLimit;
+        this.earlyAbortOps = b.earlyAbortOps;
+
+        List<CampaignRun> all = new ArrayList<>();
+        for (Target target : b.targets) {
+            for (String snapshot : b.snapshots) {
+                for (WorkloadSpec workload : b.workloads) {
+                    for (int threads : b.threads) {
+                        for (int ops : b.operations) {
+                            for (int rep = 0; rep < b.repetitions; rep++) {
+                                CampaignRun run = new CampaignRun(target.algorithm, target.objectType,
+                                    target.methods, snapshot, workload, threads, ops, rep, 0L);
+                                all.add(withSeed(run, b.seed));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        this.runs = Collections.unmodifiableList(all);
+    }
+
+    // The seed depends only on the campaign seed and the run key, not on the position
+    // of the run in the matrix, so adding a dimension does not reshuffle old runs
+    private static CampaignRun withSeed(CampaignRun run, long campaignSeed) {
+        long seed = new SplittableRandom(campaignSeed ^ run.id().hashCode()).nextLong();
+        return new CampaignRun(run.algorithm(), run.objectType(), run.methods(), run.snapshot(),
+                               run.workload(), run.threads(), run.operations(), run.repetition(), seed);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<CampaignRun> getRuns() {
+        return runs;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public long getMaxSearchSteps() {
+        return maxSearchSteps;
+    }
+
+    public Duration getSearchTimeLimit() {
+        return searchTimeLimit;
+    }
+
+    /** First checkpoint of the early abort of each run, 0 when off. */
+    public int getEarlyAbortOps() {
+        return earlyAbortOps;
+    }
+
+    private record Target(String algorithm, String objectType, List<String> methods) { }
+
+    // ============================================================
+    //  Builder
+    // ============================================================
+    public static final class Builder {
+        private final List<Target> targets = new ArrayList<>();
+        private int[] threads = {4};
+        private int[] operations = {100};
+        private List<WorkloadSpec> workloads = List.of(WorkloadSpec.random());
+        private List<String> snapshots = List.of("gAIsnap");
+        private int repetitions = 1;
+        private long seed = 42L;
+        private Duration timeout = Duration.ofMinutes(5);
+        private long maxSearchSteps = 0L;
+        private Duration searchTimeLimit = null;
+        private int earlyAbortOps = 0;
+
+        private Builder() { }
+
+        /**
+         * Adds an algorithm of the library; the object type is taken from its category
+         * (see {@link Campaign#objectTypeOf}) and the methods are the framework
+         * defaults for that type.
+         */
+        public Builder algorithm(String name) {
+            return algorithm(name, objectTypeOf(name));
+        }
+
+        /** Adds an algorithm of the library checked against {@code objectType}. */
+        public Builder algorithm(String name, String objectType, String... methods) {
+            info(name);
+            targets.add(new Target(name, objectType, List.of(methods)));
+            return this;
+        }
+
+        /** Adds every algorithm of a category. */
+        public Builder category(AlgorithmCategory category) {
+            AlgorithmLibrary.byCategory(category).stream()
+                .map(AlgorithmInfo::getName)
+                .sorted()
+                .forEach(this::algorithm);
+            return this;
+        }
+
+        public Builder threads(int... threads) {
+            this.threads = threads.clone();
+            return this;
+        }
+
+        public Builder operations(int... operations) {
+            this.operations = operations.clone();
+            return this;
+        }
+
+        public Builder workloads(WorkloadSpec... workloads) {
+            this.workloads = List.of(workloads);
+            return this;
+        }
+
+        /** Snapshot types: "gAIsnap" (CollectFAInc) and/or "rAwsnap" (CollectRAW). */
+        public Builder snapshots(String... snapshots) {
+            this.snapshots = List.of(snapshots);
+            return this;
+        }
+
+        public Builder repetitions(int repetitions) {
+            this.repetitions = repetitions;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Wall-clock limit of each run (see VerificationBuilder.withTimeout). */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /** Search budget of each run (see VerificationBuilder.withSearchBudget). */
+        public Builder searchBudget(long maxSteps, Duration timeLimit) {
+            this.maxSearchSteps = maxSteps;
+            this.searchTimeLimit = timeLimit;
+            return this;
+        }
+
+        /**
+         * Stops each run at its first non-linearizable prefix (see
+         * VerificationBuilder.withEarlyAbort); worth it when hunting bugs in
+         * implementations expected to fail.
+         */
+        public Builder earlyAbort(int firstCheckpoint) {
+            this.earlyAbortOps = firstCheckpoint;
+            return this;
+        }
+
+        public Campaign build() {
+            if (targets.isEmpty()) {
+                throw new IllegalStateException("A campaign needs at least one algorithm");
+            }
+            return new Campaign(this);
+        }
+
+        private static AlgorithmInfo info(String name) {
+            AlgorithmInfo info = AlgorithmLibrary.getInfo(name);
+            if (info == null) {
+                throw new IllegalArgumentException("Algorithm not found: " + name);
+            }
+            return info;
+        }
+    }
+
+    /**
+     * Sequential specification an algorithm of the library is checked against:
+     * its category, with queues implementing {@link Deque} checked as deques.
+     */
+    public static String objectTypeOf(String algorithm) {
+        AlgorithmInfo info = Builder.info(algorithm);
+        return switch (info.getCategory()) {
+            case MAPS -> "map";
+            case SETS -> "set";
+            case QUEUES -> Deque.class.isAssignableFrom(info.getImplementationClass()) ? "deque" : "queue";
+            default -> throw new IllegalArgumentException(
+                "No sequential specification for category " + info.getCategory()
+                + " of " + info.getName() + "; give the object type explicitly");
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package phd.distributed.campaign;
+
+import phd.distributed.api.VerificationResult;
+
+/**
+ * Outcome of one {@link CampaignRun}.
+ *
+ * @param verdict LINEARIZABLE, VIOLATION, UNKNOWN, or ERROR when the run itself failed
+ * @param error   message of the failure, null otherwise
+ */
+public record CampaignResult(CampaignRun run, String verdict, long producerMillis, long verifierMillis,
+                             long totalMillis, long searchSteps, String error) {
+
+    public static final String ERROR = "ERROR";
+
+    static CampaignResult of(CampaignRun run, VerificationResult result) {
+        VerificationResult.SearchProgress progress = result.getSearchProgress();
+        return new CampaignResult(run, result.getVerdict().name(),
+                                  result.getProdExecutionTime().toMillis(),
+                                  result.getVerifierExecutionTime().toMillis(),
+                                  result.getExecutionTime().toMillis(),
+                                  progress == null ? -1L : progress.getSteps(),
+                                  null);
+    }
+
+    static CampaignResult failed(CampaignRun run, Throwable error, long totalMillis) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        String message = cause.getClass().getSimpleName()
+                         + (cause.getMessage() == null ? "" : ": " + cause.getMessage().replace('\n', ' '));
+        return new CampaignResult(run, ERROR, -1L, -1L, totalMillis, -1L, message);
+    }
+}
@@ -0,0 +1,20 @@
+package phd.distributed.campaign;
+
+import java.util.List;
+
+/**
+ * One cell of a campaign matrix: a single verification run.
+ *
+ * @param methods methods of the algorithm to exercise; empty for the framework
+ *                defaults of {@code objectType}
+ * @param seed    seed of the workload, derived from the campaign seed and {@link #id()}
+ */
+public record CampaignRun(String algorithm, String objectType, List<String> methods, String snapshot,
+                          WorkloadSpec workload, int threads, int operations, int repetition, long seed) {
+
+    /** Stable key of the run, used to skip it when a campaign is resumed. */
+    public String id() {
+        return String.join("/", algorithm, snapshot, workload.getName(),
+                           "t" + threads, "ops" + operations, "r" + repetition);
+    }
+}
@@ -0,0 +1,212 @@
+package phd.distributed.campaign;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import phd.distributed.api.AlgorithmLibrary;
+import phd.distributed.api.VerificationFramework;
+import phd.distributed.api.VerificationFramework.VerificationBuilder;
+import phd.distributed.api.WorkloadPattern;
+import phd.distributed.config.SystemConfig;
+
+/**
+ * Runs the verifications of a {@link Campaign} concurrently and streams each
+ * result to a {@link ResultWriter} as soon as it completes.
+ *
+ * Runs are admitted against a budget of cores. The parallel search is one pool
+ * shared by every run of the JVM, so its {@link SystemConfig#SEARCH_PARALLELISM}
+ * workers are reserved from the budget once; the rest (at least one core) goes to
+ * producers: a run holds one core per producer thread until it finishes, so the
+ * recording threads of concurrent runs plus the search workers never add up to
+ * more than the budget. A run larger than the producer budget runs alone. Runs
+ * already present in the writer (resumed campaign) are skipped.
+ */
+public final class CampaignRunner {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Campaign campaign;
+    private final int cores;
+    private final int producerCores;
+    private final Function<CampaignRun, CampaignResult> executor;
+
+    public CampaignRunner(Campaign campaign) {
+        this(campaign, SystemConfig.DEFAULT_THREAD_POOL_SIZE);
+    }
+
+    /** @param cores core budget shared by the concurrent runs */
+    public CampaignRunner(Campaign campaign, int cores) {
+        this(campaign, cores, run -> execute(run, campaign.getTimeout(), campaign.getMaxSearchSteps(),
+                                             campaign.getSearchTimeLimit(), campaign.getEarlyAbortOps()));
+    }
+
+    // executor: lo que hace cada corrida admitida (los tests lo sustituyen)
+    CampaignRunner(Campaign campaign, int cores, Function<CampaignRun, CampaignResult> executor) {
+        this(campaign, cores, SystemConfig.SEARCH_PARALLELISM, executor);
+    }
+
+    // searchThreads: núcleos reservados al pool de búsqueda compartido
+    CampaignRunner(Campaign campaign, int cores, int searchThreads,
+                   Function<CampaignRun, CampaignResult> executor) {
+        this.campaign = campaign;
+        this.cores = Math.max(1, cores);
+        this.producerCores = Math.max(1, this.cores - Math.max(0, searchThreads));
+        this.executor = executor;
+    }
+
+    /** Cores held by a run while it executes: its producer threads. */
+    int costOf(CampaignRun run) {
+        return Math.min(producerCores, Math.max(1, run.threads()));
+    }
+
+    /** Cores left to producers once the search pool is reserved. */
+    int producerCores() {
+        return producerCores;
+    }
+
+    /**
+     * Executes every run of the campaign not yet in {@code writer} and waits for all of them.
+     */
+    public Summary run(ResultWriter writer) throws InterruptedException {
+        Set<String> done = writer.completedRunIds();
+        List<CampaignRun> pending = new ArrayList<>();
+        for (CampaignRun run : campaign.getRuns()) {
+            if (!done.contains(run.id())) pending.add(run);
+        }
+        int skipped = campaign.getRuns().size() - pending.size();
+        LOGGER.info("[campaign] {} runs, {} already done, core budget {} ({} for producers)",
+                    campaign.getRuns().size(), skipped, cores, producerCores);
+
+        Counters counters = new Counters();
+        long start = System.nanoTime();
+        if (!pending.isEmpty()) {
+            // fair, so a large run waiting for cores is not overtaken forever by small ones
+            Semaphore budget = new Semaphore(producerCores, true);
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(producerCores, pending.size()),
+                                                                   workerThreads());
+            try {
+                for (CampaignRun run : pending) {
+                    workers.submit(() -> runAdmitted(run, budget, writer, counters, pending.size()));
+                }
+                workers.shutdown();
+                while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                    LOGGER.info("[campaign] {}/{} runs finished", counters.finished.get(), pending.size());
+                }
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Summary summary = new Summary(campaign.getRuns().size(), skipped, counters.linearizable.get(),
+                                      counters.violations.get(), counters.unknown.get(), counters.errors.get(), elapsed);
+        LOGGER.info("[campaign] {}", summary);
+        return summary;
+    }
+
+    private void runAdmitted(CampaignRun run, Semaphore budget, ResultWriter writer, Counters counters, int total) {
+        int cost = costOf(run);
+        try {
+            budget.acquire(cost);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        CampaignResult result;
+        try {
+            result = executor.apply(run);
+        } finally {
+            budget.release(cost);
+        }
+        writer.write(result);
+        counters.count(result.verdict());
+        LOGGER.info("[campaign] {}/{} {} -> {} ({} ms)", counters.finished.get(), total, run.id(),
+                    result.verdict(), result.totalMillis());
+    }
+
+    /**
+     * Executes one run synchronously in the calling thread; failures become an ERROR
+     * result. {@code run.algorithm()} is a name of {@link AlgorithmLibrary} or a
+     * fully qualified class name.
+     *
+     * @param earlyAbortOps first checkpoint of the early abort, 0 when off
+     */
+    public static CampaignResult execute(CampaignRun run, Duration timeout, long maxSearchSteps,
+                                         Duration searchTimeLimit, int earlyAbortOps) {
+        long start = System.nanoTime();
+        try {
+            AlgorithmLibrary.AlgorithmInfo info = AlgorithmLibrary.getInfo(run.algorithm());
+            VerificationBuilder builder = (info != null
+                    ? VerificationFramework.verify(info.getImplementationClass())
+                    : VerificationFramework.verify(run.algorithm()))
+                .withThreads(run.threads())
+                .withOperations(run.operations())
+                .withObjectType(run.objectType())
+                .withSnapshot(run.snapshot())
+                .withSeed(run.seed())
+                .withTimeout(timeout)
+                .withSearchBudget(maxSearchSteps, searchTimeLimit)
+                .withEarlyAbort(earlyAbortOps)
+                // esperar admisión: una corrida rechazada no es un resultado
+                .withBlockingAdmission();
+            if (!run.methods().isEmpty()) {
+                builder.withMethods(run.methods().toArray(String[]::new));
+            }
+            WorkloadPattern workload = run.workload().create(run.operations(), run.threads(), run.seed());
+            if (workload != null) {
+                builder.withWorkload(workload);
+            }
+            return CampaignResult.of(run, builder.run());
+        } catch (RuntimeException e) {
+            LOGGER.warn("[campaign] run {} failed", run.id(), e);
+            return CampaignResult.failed(run, e, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "campaign-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static final class Counters {
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicInteger linearizable = new AtomicInteger();
+        final AtomicInteger violations = new AtomicInteger();
+        final AtomicInteger unknown = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+
+        void count(String verdict) {
+            finished.incrementAndGet();
+            switch (verdict) {
+                case "LINEARIZABLE" -> linearizable.incrementAndGet();
+                case "VIOLATION" -> violations.incrementAndGet();
+                case "UNKNOWN" -> unknown.incrementAndGet();
+                default -> errors.incrementAndGet();
+            }
+        }
+    }
+
+    /** Totals of one {@link #run(ResultWriter)}; {@code skipped} runs were already in the output. */
+    public record Summary(int runs, int skipped, int linearizable, int violations, int unknown, int errors,
+                          Duration elapsed) {
+
+        public int executed() {
+            return linearizable + violations + unknown + errors;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package phd.distributed.campaign;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Appends campaign results to a CSV or JSON-lines file, one line per run,
+ * flushed as soon as the run completes so an interrupted campaign loses nothing.
+ * The format follows the file extension ({@code .jsonl} / {@code .json} or CSV).
+ *
+ * Opening an existing file in resume mode reads back the ids of the runs it
+ * already holds, so the runner can skip them.
+ */
+public final class ResultWriter implements Closeable {
+
+    public enum Format { CSV, JSON_LINES }
+
+    private static final List<String> COLUMNS = List.of(
+        "run_id", "algorithm", "object_type", "snapshot", "workload", "threads", "operations",
+        "repetition", "seed", "verdict", "producer_ms", "verifier_ms", "total_ms", "search_steps", "error");
+
+    private static final Pattern JSON_RUN_ID = Pattern.compile("\"run_id\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final Format format;
+    private final BufferedWriter out;
+    private final Set<String> completed;
+
+    private ResultWriter(Format format, BufferedWriter out, Set<String> completed) {
+        this.format = format;
+        this.out = out;
+        this.completed = completed;
+    }
+
+    /**
+     * @param resume keep the runs already in {@code file} and append to it; otherwise
+     *               the file is truncated
+     */
+    public static ResultWriter open(Path file, boolean resume) throws IOException {
+        Format format = formatOf(file);
+        Set<String> completed = new HashSet<>();
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        boolean cutShort = false;
+        if (resume && exists) {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                String id = runIdOf(format, line);
+                if (id != null) completed.add(id);
+            }
+            // a line cut short by a crash is ignored; start the next one on its own line
+            cutShort = !content.endsWith("\n");
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        BufferedWriter out = resume
+            ? Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+            : Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        ResultWriter writer = new ResultWriter(format, out, completed);
+        if (cutShort) {
+            writer.writeLine("");
+        }
+        if (format == Format.CSV && !(resume && exists)) {
+            writer.writeLine(String.join(",", COLUMNS));
+        }
+        return writer;
+    }
+
+    static Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".json") ? Format.JSON_LINES : Format.CSV;
+    }
+
+    /** Ids of the runs found in the file when it was opened for resuming. */
+    public Set<String> completedRunIds() {
+        return Set.copyOf(completed);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public synchronized void write(CampaignResult r) {
+        Object[] values = values(r);
+        writeLine(format == Format.CSV ? csv(values) : json(values));
+        completed.add(r.run().id());
+    }
+
+    /**
+     * The JSON-lines record of a result, with a leading {@code "job"} field when
+     * {@code job} is not null.
+     */
+    public static String toJson(CampaignResult r, String job) {
+        String record = json(values(r));
+        return job == null ? record : "{\"job\":\"" + escapeJson(job) + "\"," + record.substring(1);
+    }
+
+    /** JSON-lines record of a job that could not be run at all (for example, a malformed request). */
+    public static String errorJson(String job, String message) {
+        return "{" + (job == null ? "" : "\"job\":\"" + escapeJson(job) + "\",")
+            + "\"verdict\":\"" + CampaignResult.ERROR + "\",\"error\":\""
+            + escapeJson(message == null ? "" : message.replace('\n', ' ').replace('\r', ' ')) + "\"}";
+    }
+
+    private static Object[] values(CampaignResult r) {
+        CampaignRun run = r.run();
+        return new Object[] {
+            run.id(), run.algorithm(), run.objectType(), run.snapshot(), run.workload().getName(),
+            run.threads(), run.operations(), run.repetition(), run.seed(), r.verdict(),
+            r.producerMillis(), r.verifierMillis(), r.totalMillis(), r.searchSteps(), r.error()
+        };
+    }
+
+    private void writeLine(String line) {
+        try {
+            out.write(line);
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    // ------------------------------------------------------------
+    // Encoding
+    // ------------------------------------------------------------
+
+    private static String csv(Object[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            Object v = values[i];
+            if (v == null) continue;
+            String s = v.toString();
+            if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0) {
+                sb.append('"').append(s.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(s);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String json(Object[] values) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(COLUMNS.get(i)).append("\":");
+            Object v = values[i];
+            if (v == null) {
+                sb.append("null");
+            } else if (v instanceof Number) {
+                sb.append(v);
+            } else {
+                sb.append('"').append(escapeJson(v.toString())).append('"');
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    static String escapeJson(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Id of the run recorded on {@code line}, or null for headers and incomplete lines. */
+    private static String runIdOf(Format format, String line) {
+        if (line.isBlank()) return null;
+        if (format == Format.JSON_LINES) {
+            if (!line.stripTrailing().endsWith("}")) return null;
+            Matcher m = JSON_RUN_ID.matcher(line);
+            return m.find() ? m.group(1).replace("\\\"", "\"").replace("\\\\", "\\") : null;
+        }
+        if (csvFieldCount(line) < COLUMNS.size()) return null;
+        // Run ids never contain commas or quotes, so the first CSV column is plain
+        int comma = line.indexOf(',');
+        String id = comma < 0 ? line : line.substring(0, comma);
+        return id.equals(COLUMNS.get(0)) ? null : id;
+    }
+
+    private static int csvFieldCount(String line) {
+        int fields = 1;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ',' && !quoted) fields++;
+        }
+        return quoted ? -1 : fields;
+    }
+}
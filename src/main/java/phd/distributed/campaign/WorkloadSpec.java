@@ -0,0 +1,108 @@
+package phd.distributed.campaign;
+
+import phd.distributed.api.KeyDistribution;
+import phd.distributed.api.WorkloadPattern;
+
+/**
+ * A named workload of a campaign. Each run gets its own pattern, built from the
+ * run's seed, so a resumed campaign replays exactly the same operations.
+ */
+public final class WorkloadSpec {
+
+    @FunctionalInterface
+    public interface Factory {
+        WorkloadPattern create(int operations, int threads, long seed);
+    }
+
+    private final String name;
+    private final Factory factory;
+
+    public WorkloadSpec(String name, Factory factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /** No pattern: every thread picks its operations at random (OperationCall.chooseOp). */
+    public static WorkloadSpec random() {
+        return new WorkloadSpec("random", null);
+    }
+
+    public static WorkloadSpec uniform() {
+        return new WorkloadSpec("uniform", WorkloadPattern::withSeed);
+    }
+
+    public static WorkloadSpec producerConsumer(double producerRatio) {
+        return new WorkloadSpec("producer-consumer-" + producerRatio,
+            (ops, threads, seed) -> WorkloadPattern.producerConsumer(ops, threads, producerRatio, seed));
+    }
+
+    public static WorkloadSpec readHeavy(double readRatio) {
+        return new WorkloadSpec("read-heavy-" + readRatio,
+            (ops, threads, seed) -> WorkloadPattern.readHeavy(ops, threads, readRatio, seed));
+    }
+
+    public static WorkloadSpec writeHeavy(double writeRatio) {
+        return new WorkloadSpec("write-heavy-" + writeRatio,
+            (ops, threads, seed) -> WorkloadPattern.writeHeavy(ops, threads, writeRatio, seed));
+    }
+
+    /**
+     * This workload with its keys drawn from {@code keys}; named {@code <name>+<keys>},
+     * e.g. {@code read-heavy-0.9+zipfian-1000-0.99}.
+     */
+    public WorkloadSpec withKeys(KeyDistribution keys) {
+        if (factory == null) {
+            throw new IllegalArgumentException("The random workload has no key distribution");
+        }
+        Factory base = factory;
+        return new WorkloadSpec(name + "+" + keys.getName(),
+            (ops, threads, seed) -> base.create(ops, threads, seed).withKeys(keys));
+    }
+
+    /**
+     * Workload from its name: {@code random}, {@code uniform}, or
+     * {@code producer-consumer-R}, {@code read-heavy-R}, {@code write-heavy-R}
+     * with a ratio R in [0, 1]; optionally followed by {@code +} and a key
+     * distribution (see {@link KeyDistribution#byName}).
+     */
+    public static WorkloadSpec byName(String name) {
+        int plus = name.indexOf('+');
+        if (plus > 0) {
+            return byName(name.substring(0, plus)).withKeys(KeyDistribution.byName(name.substring(plus + 1)));
+        }
+        switch (name) {
+            case "random": return random();
+            case "uniform": return uniform();
+            default: break;
+        }
+        int dash = name.lastIndexOf('-');
+        if (dash > 0) {
+            try {
+                double ratio = Double.parseDouble(name.substring(dash + 1));
+                switch (name.substring(0, dash)) {
+                    case "producer-consumer": return producerConsumer(ratio);
+                    case "read-heavy": return readHeavy(ratio);
+                    case "write-heavy": return writeHeavy(ratio);
+                    default: break;
+                }
+            } catch (NumberFormatException e) {
+                // fall through to the error below
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload '" + name + "'");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Pattern for one run, or null for {@link #random()}. */
+    public WorkloadPattern create(int operations, int threads, long seed) {
+        return factory == null ? null : factory.create(operations, threads, seed);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
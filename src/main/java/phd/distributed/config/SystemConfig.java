@@ -18,6 +18,13 @@ public class SystemConfig {
     public static final boolean USE_DISRUPTOR;
     public static final int LOGGING_BUFFER_SIZE;
     public static final int EVENT_BUFFER_SIZE;
+    public static final String LOGGING_SINK;
+    public static final String LOGGING_BINARY_DIR;
+    public static final String LOGGING_OVERFLOW_POLICY;
+    public static final int LOGGING_SPILL_SEGMENT_BYTES;
+    public static final String DISRUPTOR_MODE;
+    public static final String DISRUPTOR_WAIT_STRATEGY;
+    public static final int DISRUPTOR_PRODUCER_RING_SIZE;
 
     // Test Configuration
     public static final TestMode TEST_MODE;
@@ -28,9 +35,19 @@ public class SystemConfig {
     // Feature Flags
     public static final FeatureFlags FEATURES;
 
+    // Verification Configuration
+    public static final int SEARCH_PARALLELISM;
+    public static final int SEARCH_PARALLEL_MIN_OPS;
+    public static final int VERIFICATION_MAX_CONCURRENT;
+    public static final int VERIFICATION_ADMISSION_QUEUE;
+
     // Performance Configuration
     public static final boolean PERFORMANCE_MONITORING_ENABLED;
     public static final boolean PERFORMANCE_PROFILING_ENABLED;
+    public static final int JFR_OPERATION_SAMPLE_INTERVAL;
+    public static final String METRICS_HOST;
+    public static final int METRICS_PORT;
+    public static final boolean METRICS_JMX_ENABLED;
 
     static {
         loadConfiguration();
@@ -44,6 +61,13 @@ public class SystemConfig {
         USE_DISRUPTOR = getBoolean("logging.use.disruptor", true);
         LOGGING_BUFFER_SIZE = getInt("logging.buffer.size", 8192);
         EVENT_BUFFER_SIZE = getInt("logging.event.buffer.size", 16384);
+        LOGGING_SINK = getString("logging.sink", "binary");
+        LOGGING_BINARY_DIR = getString("logging.binary.dir", "logs");
+        LOGGING_OVERFLOW_POLICY = getString("logging.overflow.policy", "block");
+        LOGGING_SPILL_SEGMENT_BYTES = getInt("logging.spill.segment.bytes", 64 << 20);
+        DISRUPTOR_MODE = getString("logging.disruptor.mode", "shared");
+        DISRUPTOR_WAIT_STRATEGY = getString("logging.disruptor.wait.strategy", "blocking");
+        DISRUPTOR_PRODUCER_RING_SIZE = getInt("logging.disruptor.producer.ring.size", 4096);
 
         TEST_MODE = TestMode.fromString(getString("test.mode", "fast"));
         FAST_TEST_ITERATIONS = getInt("test.fast.iterations", 100);
@@ -52,8 +76,18 @@ public class SystemConfig {
 
         FEATURES = new FeatureFlags();
 
+        SEARCH_PARALLELISM = getInt("verifier.search.parallelism",
+                                    FEATURES.parallelVerification ? DEFAULT_THREAD_POOL_SIZE : 1);
+        SEARCH_PARALLEL_MIN_OPS = getInt("verifier.search.parallel.min.ops", 32);
+        VERIFICATION_MAX_CONCURRENT = getInt("verification.max.concurrent", Math.max(4, DEFAULT_THREAD_POOL_SIZE));
+        VERIFICATION_ADMISSION_QUEUE = getInt("verification.admission.queue", 256);
+
         PERFORMANCE_MONITORING_ENABLED = getBoolean("performance.monitoring.enabled", false);
         PERFORMANCE_PROFILING_ENABLED = getBoolean("performance.profiling.enabled", false);
+        JFR_OPERATION_SAMPLE_INTERVAL = getInt("performance.jfr.operation.sample.interval", 64);
+        METRICS_HOST = getString("performance.metrics.host", "127.0.0.1");
+        METRICS_PORT = getInt("performance.metrics.port", 9404);
+        METRICS_JMX_ENABLED = getBoolean("performance.metrics.jmx.enabled", true);
     }
 
     private static void loadConfiguration() {
@@ -1,18 +1,25 @@
 package phd.distributed.core;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import clojure.lang.IPersistentVector;
 import phd.distributed.api.DistAlgorithm;
+import phd.distributed.api.LoadProfile;
+import phd.distributed.api.VerificationResult.Verdict;
 import phd.distributed.api.WorkloadPattern;
 import phd.distributed.datamodel.OperationCall;
+import phd.distributed.monitoring.LatencyHistogram;
 import phd.distributed.snapshot.CollectFAInc;
 import phd.distributed.snapshot.CollectRAW;
 import phd.distributed.snapshot.Snapshot;
+import phd.distributed.verifier.SearchBudget;
 
 public class Executioner {
     final int processes;
@@ -24,21 +31,41 @@ public class Executioner {
     private final Wrapper wrapper;
     private volatile long verifierNanos = -1L;
 
+    // Tiempo máximo que se espera a los productores antes de verificar lo registrado
+    private static final Duration PRODUCERS_WAIT = Duration.ofSeconds(10);
+
+    // Early abort (0 = off) y cancelación cooperativa
+    private int firstCheckpoint = 0;
+    private long checkpointSteps = 0L;
+    private Duration checkpointTimeLimit = null;
+    private volatile boolean stopRequested = false;
+    private volatile SearchBudget checkpointBudget = null;
+    // Pool externo de productores (null = uno propio por corrida, cerrado al terminar)
+    private ExecutorService producerPool = null;
+    // Lazo abierto (null = cada productor ejecuta tan rápido como puede)
+    private OpenLoopDriver openLoop = null;
+    private volatile Verdict prefixVerdict = null;
+    private Duration producersWait = PRODUCERS_WAIT;
+    // El tiempo de espera detuvo a los productores antes de terminar (no el early abort)
+    private volatile boolean truncated = false;
+    // Por operación (no por ronda) para que el progreso de runStream sea visible en vivo
+    private final LongAdder executedOps = new LongAdder();
+
  // ========= Helper para elegir snapshot según snapType =========
-    private static Snapshot createSnapshot(String snapType, int processes) {
+    private static Snapshot createSnapshot(String snapType, int processes, int opsPerThread) {
         if (snapType == null) {
             // default
-            return new CollectFAInc(processes);
+            return new CollectFAInc(processes, opsPerThread);
         }
         String s = snapType.trim().toLowerCase();
         switch (s) {
             case "gaisnap":
-                return new CollectFAInc(processes);
+                return new CollectFAInc(processes, opsPerThread);
             case "rawsnap":
-                return new CollectRAW(processes);
+                return new CollectRAW(processes, opsPerThread);
             default:
                 // fallback razonable: GAIsnap
-                return new CollectFAInc(processes);
+                return new CollectFAInc(processes, opsPerThread);
         }
     }
 
@@ -61,7 +88,10 @@ public class Executioner {
         this.objectType = objectType;
 
         // elegir implementación de snapshot según snapType
-        this.c = createSnapshot(snapType, processes);
+        // los logs por hilo se dimensionan para la corrida y los ids de método salen de A
+        int opsPerThread = processes > 0 ? (op + processes - 1) / processes : 0;
+        this.c = createSnapshot(snapType, processes, opsPerThread);
+        this.c.registerMethods(A.methods());
 
         this.wrapper  = new Wrapper(A, c);
         this.verifier = new Verifier(c);
@@ -71,28 +101,7 @@ public class Executioner {
         if (processes <= 0 || this.totalOps <= 0) {
             return;
         }
-        ExecutorService pool = Executors.newFixedThreadPool(processes);
-
-        int baseOpsPerProc = totalOps / processes;
-        int remainder = totalOps % processes;
-
-        for (int pid = 0; pid < processes; pid++) {
-            final int processId = pid;
-            final int opsForThisProc = baseOpsPerProc + (pid < remainder ? 1 : 0);
-
-            pool.submit(() -> {
-                for (int i = 0; i < opsForThisProc; i++) {
-                    OperationCall call = OperationCall.chooseOp(A, processId);
-                    wrapper.execute(processId, call);
-                }
-            });
-        }
-        pool.shutdown();
-        try {
-            pool.awaitTermination(10, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        runProducers((pid, i) -> OperationCall.chooseOp(A, pid));
     }
 
     public void taskProducersSeed(List<OperationCall> ops) {
@@ -107,47 +116,287 @@ public class Executioner {
             );
         }
 
-        ExecutorService pool = Executors.newFixedThreadPool(processes);
+        // cada proceso toma un tramo contiguo de la lista
+        int[] startIndex = startIndices();
+        // aquí el tid lógico es processId, igual que en taskProducers()
+        runProducers((pid, i) -> ops.get(startIndex[pid] + i));
+    }
 
-        int baseOpsPerProc = totalOps / processes;
-        int remainder      = totalOps % processes;
+    /**
+     * Runs the operations of {@code pattern} without materializing them: each process
+     * generates its own lazily (see {@link WorkloadPattern#stream}), so memory does not
+     * grow with the length of the run and a seed always gives the same operations per
+     * process. Same operations as {@code taskProducersSeed(pattern.generateOperations(...))}
+     * when the pattern has as many threads as this executioner.
+     */
+    public void taskProducers(WorkloadPattern pattern) {
+        if (processes <= 0 || this.totalOps <= 0) {
+            return;
+        }
+        if (pattern.getOperations() < totalOps) {
+            throw new IllegalArgumentException(
+                "Workload provides " + pattern.getOperations() +
+                " operations, but Executioner requires " + totalOps
+            );
+        }
+        WorkloadPattern.OperationStream stream = pattern.stream(A, objectType, processes);
+        int[] startIndex = startIndices();
+        runProducers((pid, i) -> stream.next(pid, startIndex[pid] + i));
+    }
+
+    /**
+     * Checks the history at checkpoints while the producers run and stops them as
+     * soon as a prefix is not linearizable; the failing prefix is then the history
+     * of the run (see {@link #getHistory()}) and {@link #taskVerifiers} reports the
+     * violation without checking anything else.
+     *
+     * At a checkpoint every producer has finished its current operation and waits,
+     * so the prefix has no pending operations and its verdict is final: a history
+     * with a non-linearizable prefix is not linearizable. Checkpoints come after
+     * {@code firstCheckpoint} operations and then every time the count doubles, so
+     * the prefix checks cost at most about as much as checking the whole history.
+     * A prefix check that runs out of its budget (0 / null for none) is inconclusive
+     * and the producers go on.
+     */
+    public void enableEarlyAbort(int firstCheckpoint, long maxSteps, Duration timeLimit) {
+        this.firstCheckpoint = firstCheckpoint;
+        this.checkpointSteps = maxSteps;
+        this.checkpointTimeLimit = timeLimit;
+    }
+
+    /**
+     * Cooperative cancellation: producers stop before their next operation, the
+     * snapshot records nothing after the ones in flight and no further checkpoint
+     * runs. What was recorded up to then stays available to {@link #taskVerifiers}.
+     */
+    public void stop() {
+        stopRequested = true;
+        SearchBudget checkpoint = checkpointBudget;
+        if (checkpoint != null) {
+            checkpoint.cancel();
+        }
+    }
 
-        int globalIndex = 0; // índice en la lista ops
+    /**
+     * Runs the producers on {@code pool} instead of a fixed pool of {@code processes}
+     * threads created (and shut down) by every run. The pool is not shut down here; it
+     * needs {@code processes} threads free at once, or each round waits for the
+     * producer timeout.
+     */
+    public void useProducerExecutor(ExecutorService pool) {
+        this.producerPool = pool;
+    }
+
+    /**
+     * Open loop: every producer starts its operations at the rate of {@code profile}
+     * instead of back to back, on the same Wrapper/Snapshot path, so the run still
+     * records a verifiable history. Latencies are measured from the intended start
+     * of each operation (see {@link #getResponseLatency()}); the producer timeout
+     * grows by the time the schedule is expected to take.
+     * @param seed seed of the Poisson gaps, if the profile has them
+     */
+    public void enableOpenLoop(LoadProfile profile, long seed) {
+        LoadProfile[] perProcess = new LoadProfile[processes];
+        Arrays.fill(perProcess, profile);
+        enableOpenLoop(List.of(perProcess), seed);
+    }
+
+    /** Open loop with one profile per process (see {@link #enableOpenLoop(LoadProfile, long)}). */
+    public void enableOpenLoop(List<LoadProfile> perProcess, long seed) {
+        if (perProcess.size() != processes) {
+            throw new IllegalArgumentException(
+                "Open loop needs one profile per process: " + perProcess.size() + " for " + processes);
+        }
+        this.openLoop = new OpenLoopDriver(perProcess.toArray(new LoadProfile[0]), seed);
+    }
+
+    /**
+     * Latency from the intended start of each operation to its end in an open-loop
+     * run, queueing behind slow operations included; null in closed loop.
+     */
+    public LatencyHistogram.Summary getResponseLatency() {
+        return openLoop == null ? null : openLoop.responseLatency();
+    }
 
+    /** Latency from the actual start of each operation in an open-loop run; null in closed loop. */
+    public LatencyHistogram.Summary getServiceLatency() {
+        return openLoop == null ? null : openLoop.serviceLatency();
+    }
+
+    public boolean isStopped() {
+        return stopRequested;
+    }
+
+    /** True if a checkpoint found a non-linearizable prefix. */
+    public boolean isAbortedEarly() {
+        return prefixVerdict == Verdict.VIOLATION;
+    }
+
+    /**
+     * True if the producer timeout stopped the run before every operation was
+     * executed; the history verified is then only a prefix of the workload. A run
+     * stopped by early abort or by {@link #stop()} is not truncated.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    // Tests: tiempo de espera de los productores más corto que PRODUCERS_WAIT
+    void setProducersWait(Duration wait) {
+        this.producersWait = wait;
+    }
+
+    /** Operations the producers actually executed (less than requested after a stop). */
+    public long getExecutedOps() {
+        return executedOps.sum();
+    }
+
+    @FunctionalInterface
+    private interface OpSource {
+        OperationCall op(int processId, int index);
+    }
+
+    private int[] opsPerProcess() {
+        int[] quota = new int[processes];
+        int baseOpsPerProc = totalOps / processes;
+        int remainder = totalOps % processes;
         for (int pid = 0; pid < processes; pid++) {
-            final int processId      = pid;
-            final int opsForThisProc = baseOpsPerProc + (pid < remainder ? 1 : 0);
-            final int startIndex     = globalIndex;
-
-            globalIndex += opsForThisProc;
-
-            pool.submit(() -> {
-                for (int i = 0; i < opsForThisProc; i++) {
-                    int idx = startIndex + i;      // índice global en la lista
-                    OperationCall call = ops.get(idx);
-                    // aquí el tid lógico es processId, igual que en taskProducers()
-                    wrapper.execute(processId, call);
-                }
-            });
+            quota[pid] = baseOpsPerProc + (pid < remainder ? 1 : 0);
         }
+        return quota;
+    }
 
-        pool.shutdown();
+    // Primer índice (en el workload completo) del tramo contiguo de cada proceso
+    private int[] startIndices() {
+        int[] startIndex = new int[processes];
+        int[] quota = opsPerProcess();
+        for (int pid = 1; pid < processes; pid++) {
+            startIndex[pid] = startIndex[pid - 1] + quota[pid - 1];
+        }
+        return startIndex;
+    }
+
+    // Runs the operations of every process in rounds that end at the checkpoints
+    // (a single round when early abort is off). The timeout only counts the time the
+    // producers run: the deadline moves forward by the time spent at checkpoints.
+    private void runProducers(OpSource source) {
+        ExecutorService pool = producerPool != null ? producerPool : Executors.newFixedThreadPool(processes);
+        int[] quota = opsPerProcess();
+        int[] done = new int[processes];
+        long deadline = System.nanoTime() + producersWait.toNanos();
+        OpenLoopDriver driver = openLoop;
+        if (driver != null) {
+            deadline += driver.expectedDuration(quota).toNanos();
+            driver.start();
+        }
+        long checkpoint = firstCheckpoint > 0 ? firstCheckpoint : totalOps;
         try {
-            pool.awaitTermination(10, TimeUnit.SECONDS);
+            while (!stopRequested) {
+                long target = Math.min(checkpoint, totalOps);
+                CountDownLatch round = new CountDownLatch(processes);
+                for (int pid = 0; pid < processes; pid++) {
+                    final int processId = pid;
+                    final int from = done[pid];
+                    final int to = (int) ((quota[pid] * target + totalOps - 1) / totalOps);
+                    done[pid] = to;
+
+                    pool.submit(() -> {
+                        try {
+                            for (int i = from; i < to && !stopRequested; i++) {
+                                OperationCall call = source.op(processId, i);
+                                if (driver == null) {
+                                    wrapper.execute(processId, call);
+                                } else {
+                                    long intended = driver.awaitTurn(processId, this::isStopped);
+                                    if (intended < 0) {
+                                        break;
+                                    }
+                                    long begin = System.nanoTime();
+                                    wrapper.execute(processId, call);
+                                    driver.completed(processId, intended, begin);
+                                }
+                                executedOps.increment();
+                            }
+                        } finally {
+                            round.countDown();
+                        }
+                    });
+                }
+                long left = deadline - System.nanoTime();
+                if (!round.await(Math.max(0L, left), TimeUnit.NANOSECONDS)) {
+                    // como antes: tras el tiempo de espera se verifica lo registrado, pero los
+                    // productores se detienen en vez de seguir escribiendo en el snapshot
+                    truncated = !stopRequested;
+                    stop();
+                    break;
+                }
+                if (target >= totalOps) {
+                    break;
+                }
+                long pauseStart = System.nanoTime();
+                Verdict verdict = atCheckpoint();
+                long pause = System.nanoTime() - pauseStart;
+                deadline += pause;
+                if (driver != null) {
+                    // el lazo abierto no cuenta la pausa: ni como latencia ni como atraso
+                    driver.pause(pause);
+                }
+                if (verdict == Verdict.VIOLATION) {
+                    break;
+                }
+                checkpoint *= 2;
+            }
         } catch (InterruptedException e) {
+            stop();
             Thread.currentThread().interrupt();
+        } finally {
+            if (pool != producerPool) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Producers are parked between rounds: check everything recorded so far
+    private Verdict atCheckpoint() {
+        SearchBudget budget = new SearchBudget(checkpointSteps, checkpointTimeLimit);
+        checkpointBudget = budget;
+        if (stopRequested) {
+            // stop() llegó antes de publicar el presupuesto
+            budget.cancel();
+        }
+        Verdict verdict = verifier.checkPrefix(objectType, budget);
+        checkpointBudget = null;
+        prefixVerdict = verdict;
+        if (verdict == Verdict.VIOLATION) {
+            stop();
         }
+        return verdict;
     }
 
     public boolean taskVerifiers() {
+        return taskVerifiers(null) == Verdict.LINEARIZABLE;
+    }
+
+    /** Runs the checker under {@code budget} (null for no limit). */
+    public Verdict taskVerifiers(SearchBudget budget) {
         long start = System.nanoTime();
-        boolean ok;
         try {
-            ok = verifier.checkLinearizabilityJitLin(this.objectType);
+            if (isAbortedEarly()) {
+                // the failing prefix already decides the run
+                return Verdict.VIOLATION;
+            }
+            return verifier.checkLinearizabilityJitLin(this.objectType, budget);
         } finally {
             this.verifierNanos = System.nanoTime() - start;
         }
-        return ok;
+    }
+
+    /**
+     * X_E built by the last {@link #taskVerifiers()}, or the failing prefix when the
+     * run was aborted early; null if neither ran.
+     */
+    public IPersistentVector getHistory() {
+        return verifier.getHistory();
     }
 
     public long getVerifierTimeMillis() {
@@ -5,50 +5,155 @@ import org.apache.logging.log4j.Logger;
 import clojure.java.api.Clojure;
 import clojure.lang.IFn;
 import clojure.lang.IPersistentVector;
+import clojure.lang.Keyword;
+import clojure.lang.ILookup;
+import clojure.lang.IPersistentMap;
+import clojure.lang.PersistentArrayMap;
+import phd.distributed.api.VerificationResult.Verdict;
+import phd.distributed.config.SystemConfig;
+import phd.distributed.monitoring.jfr.SearchEvent;
+import phd.distributed.snapshot.Snapshot;
+import phd.distributed.verifier.PruningStrategy;
+import phd.distributed.verifier.SearchBudget;
 
 public class JitLinChecker {
 
-    private static final IFn linFn;
+    private static final IFn checkFn;
     private static final IFn keywordFn;
 
-    static {
-        // 1) Cargar el namespace typelin
-        Clojure.var("clojure.core", "require").invoke(Clojure.read("typelin"));
+    private static final Keyword KW_LINEARIZABLE = Keyword.intern(null, "linearizable?");
+    private static final Keyword KW_STAGE = Keyword.intern(null, "stage");
+    private static final Keyword KW_WITNESS = Keyword.intern(null, "witness");
+    private static final Keyword KW_MEMO = Keyword.intern(null, "memo?");
+    private static final Keyword KW_EAGER_READ_ONLY = Keyword.intern(null, "eager-read-only?");
+    private static final Keyword KW_PARALLELISM = Keyword.intern(null, "parallelism");
+    private static final Keyword KW_PARALLEL_MIN_OPS = Keyword.intern(null, "parallel-min-ops");
+    private static final Keyword KW_SEARCH_STATS = Keyword.intern(null, "search-stats");
+    private static final Keyword KW_BUDGET = Keyword.intern(null, "budget");
+    private static final Keyword KW_VERDICT = Keyword.intern(null, "verdict");
+    private static final Keyword KW_UNKNOWN = Keyword.intern(null, "unknown");
+    private static final Keyword KW_PROGRESS = Keyword.intern(null, "progress");
 
-        // 2) Obtener la función typelin/linearizable?
-        linFn = Clojure.var("typelin", "linearizable?");
+    static {
+        // Cargar typelin y obtener typelin/check-history (con el lock de carga de Clojure)
+        checkFn = Snapshot.resolve("typelin/check-history");
         keywordFn = Clojure.var("clojure.core", "keyword");
     }
 
+    /**
+     * Search options for typelin/check-history derived from a pruning strategy,
+     * with the search parallelism from {@link SystemConfig}.
+     */
+    public static IPersistentMap searchOptions(PruningStrategy pruning) {
+        return searchOptions(pruning, SystemConfig.SEARCH_PARALLELISM);
+    }
+
+    /**
+     * Search options for typelin/check-history; {@code parallelism > 1} enables the
+     * work-stealing search for histories of at least
+     * {@link SystemConfig#SEARCH_PARALLEL_MIN_OPS} operations.
+     */
+    public static IPersistentMap searchOptions(PruningStrategy pruning, int parallelism) {
+        return PersistentArrayMap.createAsIfByAssoc(new Object[] {
+            KW_MEMO, pruning.memoizeConfigurations(),
+            KW_EAGER_READ_ONLY, pruning.fireReadOnlyEagerly(),
+            KW_PARALLELISM, (long) parallelism,
+            KW_PARALLEL_MIN_OPS, (long) SystemConfig.SEARCH_PARALLEL_MIN_OPS
+        });
+    }
+
     /**
      * Check if the given history X_E is linearizable w.r.t. a sequential queue.
      * @param xe Clojure vector of events (output of xe-for-jit)
      * @return true if linearizable, false otherwise.
      */
     public static boolean checkLinearizable(IPersistentVector xe, Logger LOGGER, String objectType) {
+        return checkLinearizable(xe, LOGGER, objectType, PruningStrategy.getDefault());
+    }
+
+    /**
+     * Same as {@link #checkLinearizable(IPersistentVector, Logger, String)} with the
+     * search reductions selected by {@code pruning}.
+     */
+    public static boolean checkLinearizable(IPersistentVector xe, Logger LOGGER, String objectType,
+                                            PruningStrategy pruning) {
+        return check(xe, LOGGER, objectType, pruning, null) == Verdict.LINEARIZABLE;
+    }
+
+    /**
+     * Budgeted check: the search gives up when {@code budget} runs out or is
+     * cancelled and the verdict is then {@link Verdict#UNKNOWN}.
+     * @param budget step/time budget, or null for an unbounded search
+     */
+    public static Verdict check(IPersistentVector xe, Logger LOGGER, String objectType,
+                                PruningStrategy pruning, SearchBudget budget) {
 
         // Debug antes de llamar a Clojure
-        LOGGER.info("[JitLinChecker] About to call typelin/linearizable? with {} events against {}",
+        LOGGER.info("[JitLinChecker] About to call typelin/check-history with {} events against {}",
                     xe.count(), objectType);
 
         Object specType = keywordFn.invoke(objectType); // => :queue
 
-        Object ret;
+        SearchEvent event = new SearchEvent();
+        // the search counts nodes, backtracks and memo hits in its budget
+        if (budget == null && event.isEnabled()) {
+            budget = SearchBudget.unlimited();
+        }
+
+        IPersistentMap options = searchOptions(pruning);
+        if (budget != null) {
+            options = options.assoc(KW_BUDGET, budget.start());
+        }
+
+        ILookup ret;
+        event.begin();
         try {
-            ret = linFn.invoke(specType, xe);
+            ret = (ILookup) checkFn.invoke(specType, xe, options);
         } catch (Throwable t) {
-            LOGGER.error("[JitLinChecker] Error calling typelin/linearizable?", t);
-            return false;
+            LOGGER.error("[JitLinChecker] Error calling typelin/check-history", t);
+            return Verdict.VIOLATION;
+        } finally {
+            if (budget != null) budget.finish();
         }
+        event.end();
+        Verdict verdict = verdictOf(ret, LOGGER, objectType);
+        if (event.shouldCommit()) {
+            event.objectType = objectType;
+            event.events = xe.count();
+            event.stage = ret.valAt(KW_STAGE) instanceof Keyword stage ? stage.getName() : null;
+            event.verdict = verdict.name();
+            if (budget != null) {
+                event.operations = budget.getTotalOps();
+                event.nodes = budget.getSteps();
+                event.backtracks = budget.getBacktracks();
+                event.memoHits = budget.getMemoHits();
+                event.memoHitRate = event.nodes == 0 ? 0.0 : (double) event.memoHits / event.nodes;
+                event.maxDepth = budget.getMaxDepth();
+            }
+            event.commit();
+        }
+        return verdict;
+    }
 
-        Boolean result = (ret instanceof Boolean) ? (Boolean) ret : null;
+    private static Verdict verdictOf(ILookup ret, Logger LOGGER, String objectType) {
+        if (ret.valAt(KW_SEARCH_STATS) != null) {
+            LOGGER.info("[JitLinChecker] Parallel search stats: {}", ret.valAt(KW_SEARCH_STATS));
+        }
 
-        if (Boolean.TRUE.equals(result)) {
+        if (Boolean.TRUE.equals(ret.valAt(KW_LINEARIZABLE))) {
             LOGGER.info("[JitLinChecker] History *is* LINEARIZABLE with respect to {} ", objectType);
+            return Verdict.LINEARIZABLE;
+        } else if (KW_UNKNOWN.equals(ret.valAt(KW_VERDICT))) {
+            LOGGER.warn("[JitLinChecker] Search budget exhausted before a verdict for {}: {}",
+                        objectType, ret.valAt(KW_PROGRESS));
+            return Verdict.UNKNOWN;
+        } else if (ret.valAt(KW_WITNESS) != null) {
+            LOGGER.error("[JitLinChecker] History is NOT linearizable with respect to {} (rejected at {} stage): {}",
+                         objectType, ret.valAt(KW_STAGE), ret.valAt(KW_WITNESS));
         } else {
             LOGGER.error("[JitLinChecker] History is NOT linearizable with respect to {} ", objectType);
         }
 
-        return Boolean.TRUE.equals(result);
+        return Verdict.VIOLATION;
     }
-}
\ No newline at end of file
+}
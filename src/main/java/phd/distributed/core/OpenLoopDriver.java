@@ -0,0 +1,113 @@
+package phd.distributed.core;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import phd.distributed.api.LoadProfile;
+import phd.distributed.monitoring.LatencyHistogram;
+
+/**
+ * Paces the producers of an {@link Executioner} in open loop: every operation has an
+ * intended start time that follows from the previous intended start and the thread's
+ * {@link LoadProfile}, never from when the previous operation finished.
+ *
+ * Response latency is measured from the intended start to the end of the operation,
+ * so time spent waiting behind a slow operation is counted instead of hidden: no
+ * coordinated omission. Service latency, from the actual start, is kept beside it.
+ * Checkpoints are not part of the load: the schedule is shifted past each one (see
+ * {@link #pause(long)}), so they neither show up as latency nor leave a backlog that
+ * the producers would then run in a burst. Each process's slot is only touched by
+ * the producer running it; rounds of the same process are ordered by the
+ * executioner's latch.
+ */
+final class OpenLoopDriver {
+
+    // Espera máxima de un park: un stop() se ve a lo sumo con este retraso
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final LoadProfile[] profiles;
+    private final SplittableRandom[] randoms;
+    private final long[] next;
+    private final LatencyHistogram response = new LatencyHistogram("openloop.response");
+    private final LatencyHistogram service = new LatencyHistogram("openloop.service");
+    private long start;
+
+    OpenLoopDriver(LoadProfile[] profiles, long seed) {
+        this.profiles = profiles.clone();
+        this.randoms = new SplittableRandom[profiles.length];
+        this.next = new long[profiles.length];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int pid = 0; pid < profiles.length; pid++) {
+            randoms[pid] = root.split();
+        }
+    }
+
+    /** Schedules the first operation of every process; call before the producers start. */
+    void start() {
+        start = System.nanoTime();
+        int processes = profiles.length;
+        for (int pid = 0; pid < processes; pid++) {
+            // escalonados dentro del primer intervalo para no arrancar todos a la vez
+            next[pid] = start + profiles[pid].gapAfter(0L, randoms[pid]) * pid / processes;
+        }
+    }
+
+    /**
+     * Waits for the intended start of the next operation of {@code processId}.
+     * @return the intended start (System.nanoTime), or -1 if {@code stopped} turned
+     *         true while waiting
+     */
+    long awaitTurn(int processId, BooleanSupplier stopped) {
+        long intended = next[processId];
+        long wait;
+        while ((wait = intended - System.nanoTime()) > 0) {
+            if (stopped.getAsBoolean()) {
+                return -1L;
+            }
+            LockSupport.parkNanos(Math.min(wait, MAX_PARK_NANOS));
+        }
+        return intended;
+    }
+
+    /**
+     * Moves the schedule {@code nanos} later, as if the run had been suspended for that
+     * long. Call only while every producer is parked between rounds.
+     */
+    void pause(long nanos) {
+        start += nanos;
+        for (int pid = 0; pid < next.length; pid++) {
+            next[pid] += nanos;
+        }
+    }
+
+    /** Records an operation that started at {@code actualStart} and schedules the next one. */
+    void completed(int processId, long intended, long actualStart) {
+        long end = System.nanoTime();
+        response.record(end - intended);
+        service.record(end - actualStart);
+        next[processId] = intended + profiles[processId].gapAfter(intended - start, randoms[processId]);
+    }
+
+    /** Time the slowest process needs to start its share of {@code quota} operations. */
+    Duration expectedDuration(int[] quota) {
+        Duration longest = Duration.ZERO;
+        for (int pid = 0; pid < quota.length; pid++) {
+            Duration d = profiles[pid].expectedDuration(quota[pid]);
+            if (d.compareTo(longest) > 0) {
+                longest = d;
+            }
+        }
+        return longest;
+    }
+
+    LatencyHistogram.Summary responseLatency() {
+        return response.summary();
+    }
+
+    LatencyHistogram.Summary serviceLatency() {
+        return service.summary();
+    }
+}
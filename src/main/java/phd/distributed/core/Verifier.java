@@ -5,12 +5,18 @@ import org.apache.logging.log4j.Logger;
 
 import clojure.lang.IPersistentVector;
 import clojure.lang.ISeq;
+import phd.distributed.api.VerificationResult.Verdict;
+import phd.distributed.logging.PhaseLoggers;
+import phd.distributed.monitoring.jfr.BuildXEEvent;
 import phd.distributed.snapshot.Snapshot;
+import phd.distributed.verifier.PruningStrategy;
+import phd.distributed.verifier.SearchBudget;
 
 public class Verifier {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private final Snapshot c;
+    private volatile IPersistentVector history = null;
 
     public Verifier(Snapshot snapshot) {
         this.c = snapshot;
@@ -18,26 +24,75 @@ public class Verifier {
 
 
     public boolean checkLinearizabilityJitLin(String objectType) {
+        return checkLinearizabilityJitLin(objectType, null) == Verdict.LINEARIZABLE;
+    }
+
+    /**
+     * Budgeted variant: returns {@link Verdict#UNKNOWN} when {@code budget} runs out
+     * or is cancelled before the search decides.
+     */
+    public Verdict checkLinearizabilityJitLin(String objectType, SearchBudget budget) {
 
 
         // Construir X_E desde el snapshot (CollectFAInc o CollectRAW)
-        IPersistentVector xe = this.c.buildXE();
+        IPersistentVector xe = buildXE(false);
+        this.history = xe;
 
         // === Log X_E ===
+        // Evento por evento sólo en DEBUG de la fase de verificación: en INFO domina la corrida
         LOGGER.info("==== X_E history ({} events) ====", xe.count());
-        for (ISeq s = xe.seq(); s != null; s = s.next()) {
-            Object ev = s.first();
-            LOGGER.info("X_E event: {}", ev);
+        Logger events = PhaseLoggers.VERIFICATION;
+        if (events.isDebugEnabled()) {
+            for (ISeq s = xe.seq(); s != null; s = s.next()) {
+                events.debug("X_E event: {}", s.first());
+            }
         }
 
-        boolean ok = JitLinChecker.checkLinearizable(xe, LOGGER,objectType);
+        Verdict verdict = JitLinChecker.check(xe, LOGGER, objectType, PruningStrategy.getDefault(), budget);
 
-        if (ok) {
+        if (verdict == Verdict.LINEARIZABLE) {
             LOGGER.info("\n History is LINEARIZABLE (JitLin checker).");
+        } else if (verdict == Verdict.UNKNOWN) {
+            LOGGER.warn("\n History could not be decided within the search budget (JitLin checker).");
         } else {
             LOGGER.error("\n History is NOT linearizable (JitLin checker).");
         }
-        return ok;
+        return verdict;
+    }
+
+    /**
+     * Checks the history recorded so far, while the producers wait at a checkpoint
+     * (see {@link Executioner#enableEarlyAbort}). A non-linearizable prefix becomes
+     * the history of the run.
+     */
+    public Verdict checkPrefix(String objectType, SearchBudget budget) {
+        IPersistentVector xe = buildXE(true);
+        LOGGER.info("[early-abort] checking a prefix of {} events", xe.count());
+        Verdict verdict = JitLinChecker.check(xe, LOGGER, objectType, PruningStrategy.getDefault(), budget);
+        if (verdict == Verdict.VIOLATION) {
+            this.history = xe;
+            LOGGER.error("\n Prefix of {} events is NOT linearizable: stopping the producers.", xe.count());
+        }
+        return verdict;
+    }
+
+    private IPersistentVector buildXE(boolean prefix) {
+        BuildXEEvent event = new BuildXEEvent();
+        event.begin();
+        IPersistentVector xe = this.c.buildXE();
+        event.end();
+        if (event.shouldCommit()) {
+            event.snapshot = this.c.getClass().getSimpleName();
+            event.events = xe.count();
+            event.prefix = prefix;
+            event.commit();
+        }
+        return xe;
+    }
+
+    /** X_E of the last check, or null if none ran yet. */
+    public IPersistentVector getHistory() {
+        return history;
     }
 
 
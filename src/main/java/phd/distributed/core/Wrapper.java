@@ -1,10 +1,15 @@
 package phd.distributed.core;
 
-import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import phd.distributed.api.DistAlgorithm;
+import phd.distributed.config.SystemConfig;
+import phd.distributed.datamodel.MethodInf;
 import phd.distributed.datamodel.OperationCall;
+import phd.distributed.logging.PhaseLoggers;
+import phd.distributed.monitoring.LatencyHistogram;
+import phd.distributed.monitoring.PerformanceMetrics;
+import phd.distributed.monitoring.jfr.OperationEvent;
 import phd.distributed.snapshot.Snapshot;
 
 
@@ -12,15 +17,39 @@ public class Wrapper {
 
     private final Snapshot c;
     private final DistAlgorithm alg;
-    private static final String GREEN = "\u001B[32m";
-    private static final String RED = "\u001B[31m";
-    private static final String RESET = "\u001B[0m";
+    // Fase de grabación: un evento INFO por operación, sin varargs ni colores
+    // (%highlight del Console ya colorea por nivel), inicio y fin en DEBUG
+    private static final Logger LOGGER = PhaseLoggers.RECORDING;
 
-    private static final Logger LOGGER = LogManager.getLogger();
+    // Con performance.profiling.enabled=false el JIT elimina las mediciones
+    private static final boolean PROFILING = SystemConfig.PERFORMANCE_PROFILING_ENABLED;
+    private static final String[] PHASES = {"write", "apply", "return"};
+
+    // Histogramas por id de método y fase (snapshot write, apply, snapshot return)
+    private final LatencyHistogram[][] latencies;
 
     public Wrapper(DistAlgorithm alg, Snapshot snapshot) {
         this.alg = alg;
         this.c = snapshot;
+        this.latencies = PROFILING ? histograms(alg) : null;
+    }
+
+    private static LatencyHistogram[][] histograms(DistAlgorithm alg) {
+        LatencyHistogram[][] byMethod = new LatencyHistogram[alg.methods().size()][];
+        for (MethodInf m : alg.methods()) {
+            if (m.getId() >= 0 && m.getId() < byMethod.length) {
+                byMethod[m.getId()] = histogramsOf(m);
+            }
+        }
+        return byMethod;
+    }
+
+    private static LatencyHistogram[] histogramsOf(MethodInf m) {
+        LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+        for (int p = 0; p < PHASES.length; p++) {
+            phases[p] = PerformanceMetrics.getInstance().histogram("latency." + m.getName() + "." + PHASES[p]);
+        }
+        return phases;
     }
 
     /**
@@ -37,8 +66,14 @@ public class Wrapper {
      */
     public void execute(int processId, OperationCall call) {
         Object result = null;
-        LOGGER.info("Thread {} is  going to execute the write", processId, call.method(), call.args());
+        LOGGER.debug("Thread {} is going to execute {}", processId, call.method().getName());
+        OperationEvent event = OperationEvent.sampled() ? new OperationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long t0 = PROFILING ? System.nanoTime() : 0L;
         this.c.write(processId, call);
+        long t1 = PROFILING ? System.nanoTime() : 0L;
         try {
             Object args = call.args();
             if (args instanceof Object[]) {
@@ -48,14 +83,39 @@ public class Wrapper {
             } else {
                 result = this.alg.apply(call.method(), args);
             }
-            LOGGER.info("{}Thread {} execute {} and obtained {}{}", GREEN, processId, call.method().getName(), result, RESET);
+            LOGGER.info("Thread {} executed {} and obtained {}", processId, call.method().getName(), result);
             //System.out.println(GREEN +"Thread " + processId + " execute: " + call.method().getName() + " and obtained" + result + RESET);
         } catch (Exception e) {
-            LOGGER.error("{}Thread {} failed with: {} - {}{}", RED, processId, e.getClass().getSimpleName(), e.getMessage(), RESET, e);
+            LOGGER.error("Thread {} failed executing {}", processId, call.method().getName(), e);
             //System.err.println(RED+"Thread " + processId + " failed with: " + e.getClass().getSimpleName() + " - " + e.getMessage() + RESET);
             //e.printStackTrace();
         }
+        long t2 = PROFILING ? System.nanoTime() : 0L;
         this.c.snapshot(processId, result);
-        LOGGER.info("Thread {} end the wrapper", processId);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = call.method().getName();
+                event.processId = processId;
+                event.commit();
+            }
+        }
+        if (PROFILING) {
+            long t3 = System.nanoTime();
+            LatencyHistogram[] phases = phasesOf(call.method());
+            phases[0].record(t1 - t0);
+            phases[1].record(t2 - t1);
+            phases[2].record(t3 - t2);
+        }
+        LOGGER.debug("Thread {} end the wrapper", processId);
+    }
+
+    private LatencyHistogram[] phasesOf(MethodInf m) {
+        int id = m.getId();
+        if (id >= 0 && id < latencies.length && latencies[id] != null) {
+            return latencies[id];
+        }
+        // MethodInf que no viene de alg (sin id): búsqueda por nombre
+        return histogramsOf(m);
     }
 }
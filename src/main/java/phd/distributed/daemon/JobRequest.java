@@ -0,0 +1,117 @@
+package phd.distributed.daemon;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import phd.distributed.api.AlgorithmLibrary;
+import phd.distributed.campaign.Campaign;
+import phd.distributed.campaign.CampaignRun;
+import phd.distributed.campaign.WorkloadSpec;
+
+/**
+ * One verification job of the daemon protocol: a line of whitespace separated
+ * {@code key=value} tokens named after the VerificationBuilder parameters.
+ *
+ * <pre>
+ * id=q1 algorithm=ConcurrentLinkedQueue threads=4 operations=200 snapshot=rAwsnap
+ * id=m1 algorithm=ConcurrentHashMap methods=put,get,remove workload=read-heavy-0.8 seed=7
+ * </pre>
+ *
+ * {@code algorithm} is a name of {@link AlgorithmLibrary} or a fully qualified class
+ * name (which the daemon only runs for the packages it allows); the other keys are optional and default to the values of the builder:
+ * objectType (the category of a library algorithm, else queue), methods, threads (8),
+ * operations (1000), snapshot (gAIsnap), workload (random, see {@link WorkloadSpec#byName}),
+ * seed (random), timeoutMs (300000), maxSteps and searchTimeMs (no search budget),
+ * earlyAbort (first checkpoint of VerificationBuilder.withEarlyAbort, 0 = off).
+ */
+record JobRequest(String id, CampaignRun run, Duration timeout, long maxSearchSteps, Duration searchTimeLimit,
+                  int earlyAbortOps) {
+
+    private static final List<String> KEYS = List.of(
+        "id", "algorithm", "objectType", "methods", "threads", "operations", "snapshot",
+        "workload", "seed", "timeoutMs", "maxSteps", "searchTimeMs", "earlyAbort");
+
+    /** Id of a request line, or null if it has none; used to answer requests that do not parse. */
+    static String idOf(String line) {
+        for (String token : line.trim().split("\\s+")) {
+            if (token.startsWith("id=")) return token.substring(3);
+        }
+        return null;
+    }
+
+    /**
+     * @param fallbackId id of the job when the line does not give one
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static JobRequest parse(String line, String fallbackId) {
+        Map<String, String> params = new HashMap<>();
+        for (String token : line.trim().split("\\s+")) {
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got '" + token + "'");
+            }
+            String key = token.substring(0, eq);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown parameter '" + key + "'");
+            }
+            params.put(key, token.substring(eq + 1));
+        }
+
+        String algorithm = params.get("algorithm");
+        if (algorithm == null || algorithm.isEmpty()) {
+            throw new IllegalArgumentException("Missing algorithm=");
+        }
+        String objectType = params.get("objectType");
+        if (objectType == null) {
+            objectType = AlgorithmLibrary.getInfo(algorithm) != null ? Campaign.objectTypeOf(algorithm) : "queue";
+        }
+        List<String> methods = new ArrayList<>();
+        if (params.containsKey("methods")) {
+            for (String m : params.get("methods").split(",")) {
+                if (!m.isEmpty()) methods.add(m);
+            }
+        }
+        int threads = intParam(params, "threads", 8);
+        int operations = intParam(params, "operations", 1000);
+        String snapshot = params.getOrDefault("snapshot", "gAIsnap");
+        WorkloadSpec workload = WorkloadSpec.byName(params.getOrDefault("workload", "random"));
+        long seed = params.containsKey("seed")
+            ? longParam(params, "seed", 0L)
+            : ThreadLocalRandom.current().nextLong();
+
+        Duration timeout = Duration.ofMillis(longParam(params, "timeoutMs", Duration.ofMinutes(5).toMillis()));
+        long maxSteps = longParam(params, "maxSteps", 0L);
+        Duration searchTime = params.containsKey("searchTimeMs")
+            ? Duration.ofMillis(longParam(params, "searchTimeMs", 0L))
+            : null;
+
+        int earlyAbort = params.containsKey("earlyAbort") ? intParam(params, "earlyAbort", 1) : 0;
+
+        CampaignRun run = new CampaignRun(algorithm, objectType, List.copyOf(methods), snapshot, workload,
+                                          threads, operations, 0, seed);
+        return new JobRequest(params.getOrDefault("id", fallbackId), run, timeout, maxSteps, searchTime,
+                              earlyAbort);
+    }
+
+    private static int intParam(Map<String, String> params, String key, int defaultValue) {
+        long value = longParam(params, key, defaultValue);
+        if (value <= 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(key + " must be a positive int, got " + value);
+        }
+        return (int) value;
+    }
+
+    private static long longParam(Map<String, String> params, String key, long defaultValue) {
+        String value = params.get(key);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: '" + value + "'");
+        }
+    }
+}
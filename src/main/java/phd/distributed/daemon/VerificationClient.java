@@ -0,0 +1,143 @@
+package phd.distributed.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Client of a {@link VerificationDaemon}.
+ *
+ * <pre>{@code
+ * try (VerificationClient client = VerificationClient.connect(daemon.getAddress())) {
+ *     client.submit(List.of("id=a algorithm=ConcurrentLinkedQueue threads=4 operations=200"),
+ *                   System.out::println);
+ * }
+ * }</pre>
+ *
+ * Usage: VerificationClient [--port N | --socket PATH] key=value... | -
+ *
+ * With {@code -} jobs are read from stdin, one per line. Results are printed as
+ * they arrive; the exit code is 0 if every job was linearizable, 1 if some job
+ * found a violation and 2 otherwise.
+ */
+public final class VerificationClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final BufferedReader in;
+    private final Writer out;
+
+    private VerificationClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+        this.out = Channels.newWriter(channel, StandardCharsets.UTF_8);
+    }
+
+    public static VerificationClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+            ? SocketChannel.open(StandardProtocolFamily.UNIX)
+            : SocketChannel.open();
+        channel.connect(address);
+        return new VerificationClient(channel);
+    }
+
+    /** Sends a command (PING, STATS) and returns its one-line answer. */
+    public String command(String command) throws IOException {
+        send(command);
+        return in.readLine();
+    }
+
+    /**
+     * Sends {@code jobs}, then QUIT, and hands every result line to {@code onResult}
+     * as the daemon streams it back. Returns once all of them have arrived; the
+     * connection is closed afterwards.
+     */
+    public void submit(List<String> jobs, Consumer<String> onResult) throws IOException {
+        for (String job : jobs) {
+            out.write(job);
+            out.write('\n');
+        }
+        send("QUIT");
+        String line;
+        while ((line = in.readLine()) != null) {
+            onResult.accept(line);
+        }
+    }
+
+    /** {@link #submit(List, Consumer)} collecting the results. */
+    public List<String> submit(List<String> jobs) throws IOException {
+        List<String> results = new ArrayList<>();
+        submit(jobs, results::add);
+        return results;
+    }
+
+    /** Asks the daemon to stop once its running jobs finish. */
+    public void shutdownDaemon() throws IOException {
+        send("SHUTDOWN");
+        in.readLine();
+    }
+
+    private void send(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        SocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                                      VerificationDaemon.DEFAULT_PORT);
+        List<String> tokens = new ArrayList<>();
+        boolean fromStdin = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                                                 Integer.parseInt(args[++i]));
+                case "--socket" -> address = UnixDomainSocketAddress.of(Path.of(args[++i]));
+                case "-" -> fromStdin = true;
+                default -> tokens.add(args[i]);
+            }
+        }
+        List<String> jobs = new ArrayList<>();
+        if (fromStdin) {
+            BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = stdin.readLine()) != null) {
+                if (!line.isBlank()) jobs.add(line);
+            }
+        } else if (!tokens.isEmpty()) {
+            jobs.add(String.join(" ", tokens));
+        } else {
+            System.err.println("Usage: VerificationClient [--port N | --socket PATH] key=value... | -");
+            System.exit(2);
+        }
+
+        int[] verdicts = new int[3]; // linearizable, violation, other
+        try (VerificationClient client = connect(address)) {
+            client.submit(jobs, line -> {
+                System.out.println(line);
+                if (line.contains("\"verdict\":\"LINEARIZABLE\"")) verdicts[0]++;
+                else if (line.contains("\"verdict\":\"VIOLATION\"")) verdicts[1]++;
+                else verdicts[2]++;
+            });
+        }
+        System.exit(verdicts[2] > 0 ? 2 : verdicts[1] > 0 ? 1 : 0);
+    }
+}
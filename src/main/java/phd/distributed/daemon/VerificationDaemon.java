@@ -0,0 +1,370 @@
+package phd.distributed.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import phd.distributed.api.AlgorithmLibrary;
+import phd.distributed.campaign.CampaignResult;
+import phd.distributed.campaign.CampaignRunner;
+import phd.distributed.campaign.ResultWriter;
+
+/**
+ * Long-lived verification server. Starting a JVM, loading the Clojure runtime and
+ * requiring logtAs, logrAw and typelin costs seconds per run; the daemon pays it
+ * once and keeps the namespaces loaded and the recording and search paths
+ * JIT-compiled across jobs.
+ *
+ * Clients connect over TCP on the loopback interface or over a Unix domain socket
+ * and send one job per line (see {@link JobRequest}). Jobs run on a bounded pool
+ * through {@link CampaignRunner#execute}, and each result is written back as one
+ * JSON line, in the format of {@link ResultWriter}, as soon as it finishes, so
+ * results of a connection may arrive out of order; the {@code job} field names the
+ * request. Besides jobs, a line may be one of the commands
+ * <ul>
+ *   <li>{@code PING}: answers {@code PONG};</li>
+ *   <li>{@code STATS}: jobs submitted, running and completed since start;</li>
+ *   <li>{@code QUIT}: waits for the jobs of the connection and closes it;</li>
+ *   <li>{@code SHUTDOWN}: stops accepting jobs, waits for the running ones and stops.</li>
+ * </ul>
+ *
+ * A job names an algorithm of {@link phd.distributed.api.AlgorithmLibrary}. Classes
+ * outside the library are loaded and instantiated only if they belong to a package
+ * the daemon was started with ({@code --allow-package}); any other name is answered
+ * with an ERROR result before a class is looked up, so clients cannot have the
+ * daemon run the static initializer or constructor of an arbitrary class.
+ *
+ * Usage: VerificationDaemon [--port N | --socket PATH] [--jobs N] [--no-warmup]
+ *                           [--allow-package P]...
+ */
+public final class VerificationDaemon implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final int DEFAULT_PORT = 7717;
+    private static final Duration SHUTDOWN_GRACE = Duration.ofMinutes(5);
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final ExecutorService jobs;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicInteger connectionIds = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    // Paquetes cuyas clases se pueden verificar por nombre además de la biblioteca
+    private final List<String> allowedPackages;
+    private final long startNanos = System.nanoTime();
+    private volatile boolean closing;
+
+    private VerificationDaemon(ServerSocketChannel server, int parallelJobs, List<String> allowedPackages)
+            throws IOException {
+        this.server = server;
+        this.allowedPackages = List.copyOf(allowedPackages);
+        this.address = server.getLocalAddress();
+        AtomicInteger n = new AtomicInteger();
+        this.jobs = Executors.newFixedThreadPool(parallelJobs, r -> {
+            Thread t = new Thread(r, "daemon-job-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Binds {@code address} (an {@link InetSocketAddress}, port 0 for an ephemeral
+     * one, or a {@link UnixDomainSocketAddress}) and starts accepting connections.
+     *
+     * @param parallelJobs jobs verified at the same time; each one already keeps its
+     *                     producer threads busy, so this is usually small
+     * @param warmup       run a few small jobs before accepting connections
+     */
+    public static VerificationDaemon start(SocketAddress address, int parallelJobs, boolean warmup)
+            throws IOException {
+        return start(address, parallelJobs, warmup, List.of());
+    }
+
+    /**
+     * Like {@link #start(SocketAddress, int, boolean)}, also accepting jobs on the
+     * classes of {@code allowedPackages} (and their subpackages) by fully qualified name.
+     */
+    public static VerificationDaemon start(SocketAddress address, int parallelJobs, boolean warmup,
+                                           List<String> allowedPackages) throws IOException {
+        if (warmup) {
+            warmup();
+        }
+        ServerSocketChannel server;
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+        }
+        server.bind(address);
+        VerificationDaemon daemon = new VerificationDaemon(server, Math.max(1, parallelJobs), allowedPackages);
+        Thread acceptor = new Thread(daemon::acceptLoop, "daemon-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("[daemon] listening on {} with {} job slots", daemon.address, Math.max(1, parallelJobs));
+        return daemon;
+    }
+
+    /** Address the daemon is bound to, with the actual port when started on port 0. */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /** Blocks until the daemon is closed (by {@link #close()} or a SHUTDOWN command). */
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    // Loads the namespaces and lets the JIT see both snapshot types and the map
+    // specification, so the first client job does not pay for it
+    private static void warmup() {
+        long start = System.nanoTime();
+        String[] jobs = {
+            "algorithm=ConcurrentLinkedQueue threads=2 operations=50 snapshot=gAIsnap seed=1",
+            "algorithm=ConcurrentLinkedQueue threads=2 operations=50 snapshot=rAwsnap seed=2",
+            "algorithm=ConcurrentHashMap threads=2 operations=50 seed=3",
+        };
+        for (int round = 0; round < 3; round++) {
+            for (String line : jobs) {
+                JobRequest job = JobRequest.parse(line, "warmup");
+                CampaignRunner.execute(job.run(), job.timeout(), job.maxSearchSteps(), job.searchTimeLimit(),
+                                       job.earlyAbortOps());
+            }
+        }
+        LOGGER.info("[daemon] warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void acceptLoop() {
+        while (!closing) {
+            try {
+                SocketChannel channel = server.accept();
+                connections.add(channel);
+                Thread t = new Thread(() -> serve(channel), "daemon-conn-" + connectionIds.incrementAndGet());
+                t.setDaemon(true);
+                t.start();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!closing) LOGGER.warn("[daemon] accept failed", e);
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        List<Future<?>> pending = new ArrayList<>();
+        int lineNo = 0;
+        try (BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+             Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                String command = line.trim();
+                if (command.isEmpty() || command.startsWith("#")) continue;
+                switch (command) {
+                    case "PING" -> send(out, "PONG");
+                    case "STATS" -> send(out, stats());
+                    case "QUIT" -> {
+                        awaitAll(pending);
+                        return;
+                    }
+                    case "SHUTDOWN" -> {
+                        awaitAll(pending);
+                        send(out, "BYE");
+                        close();
+                        return;
+                    }
+                    default -> pending.add(submit(command, "job-" + lineNo, out));
+                }
+            }
+            // client closed its side: still deliver what it asked for
+            awaitAll(pending);
+        } catch (IOException e) {
+            if (!closing) LOGGER.debug("[daemon] connection closed: {}", e.getMessage());
+        } finally {
+            connections.remove(channel);
+        }
+    }
+
+    private Future<?> submit(String line, String fallbackId, Writer out) throws IOException {
+        JobRequest job;
+        try {
+            job = JobRequest.parse(line, fallbackId);
+        } catch (RuntimeException e) {
+            String id = JobRequest.idOf(line);
+            send(out, ResultWriter.errorJson(id != null ? id : fallbackId, e.getMessage()));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (closing) {
+            send(out, ResultWriter.errorJson(job.id(), "daemon is shutting down"));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!isAllowed(job.run().algorithm())) {
+            send(out, ResultWriter.errorJson(job.id(), "algorithm '" + job.run().algorithm()
+                                                       + "' is not in the library nor in an allowed package"));
+            return CompletableFuture.completedFuture(null);
+        }
+        submitted.incrementAndGet();
+        return jobs.submit(() -> {
+            running.incrementAndGet();
+            CampaignResult result;
+            try {
+                result = CampaignRunner.execute(job.run(), job.timeout(), job.maxSearchSteps(),
+                                                job.searchTimeLimit(), job.earlyAbortOps());
+            } finally {
+                running.decrementAndGet();
+                completed.incrementAndGet();
+            }
+            LOGGER.info("[daemon] {} {} -> {} ({} ms)", job.id(), job.run().id(), result.verdict(),
+                        result.totalMillis());
+            try {
+                send(out, ResultWriter.toJson(result, job.id()));
+            } catch (IOException e) {
+                LOGGER.debug("[daemon] client of {} went away", job.id());
+            }
+        });
+    }
+
+    // Checked on the name only: nothing is loaded for a rejected algorithm
+    boolean isAllowed(String algorithm) {
+        if (AlgorithmLibrary.getInfo(algorithm) != null) {
+            return true;
+        }
+        for (String pkg : allowedPackages) {
+            if (algorithm.startsWith(pkg + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void send(Writer out, String line) throws IOException {
+        // results of different jobs share the connection
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> pending) {
+        for (Future<?> f : pending) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOGGER.warn("[daemon] job failed", e.getCause());
+            }
+        }
+    }
+
+    private String stats() {
+        return "{\"submitted\":" + submitted.get()
+            + ",\"running\":" + running.get()
+            + ",\"completed\":" + completed.get()
+            + ",\"uptime_ms\":" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "}";
+    }
+
+    /**
+     * Stops accepting connections and jobs, waits for the running jobs and closes
+     * every connection. Idempotent.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closing) return;
+            closing = true;
+        }
+        try {
+            server.close();
+            jobs.shutdown();
+            if (!jobs.awaitTermination(SHUTDOWN_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+                jobs.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            jobs.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.warn("[daemon] closing the server socket failed", e);
+        } finally {
+            for (SocketChannel c : connections) {
+                try {
+                    c.close();
+                } catch (IOException ignored) {
+                    // closing anyway
+                }
+            }
+            if (address instanceof UnixDomainSocketAddress unix) {
+                try {
+                    Files.deleteIfExists(unix.getPath());
+                } catch (IOException ignored) {
+                    // a stale socket file is replaced on the next start
+                }
+            }
+            LOGGER.info("[daemon] stopped after {} jobs", completed.get());
+            stopped.countDown();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+        int parallelJobs = 1;
+        boolean warmup = true;
+        List<String> allowedPackages = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                                                 Integer.parseInt(args[++i]));
+                case "--socket" -> address = UnixDomainSocketAddress.of(Path.of(args[++i]));
+                case "--jobs" -> parallelJobs = Integer.parseInt(args[++i]);
+                case "--no-warmup" -> warmup = false;
+                case "--allow-package" -> allowedPackages.add(args[++i]);
+                default -> {
+                    System.err.println("Usage: VerificationDaemon [--port N | --socket PATH] [--jobs N] [--no-warmup]"
+                                       + " [--allow-package P]...");
+                    System.exit(2);
+                }
+            }
+        }
+        VerificationDaemon daemon = start(address, parallelJobs, warmup, allowedPackages);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::close, "daemon-shutdown"));
+        System.out.println("Verification daemon listening on " + daemon.getAddress());
+        daemon.awaitShutdown();
+        System.exit(0);
+    }
+}
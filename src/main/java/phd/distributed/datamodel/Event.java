@@ -5,12 +5,21 @@ public class Event {
     private int id;
     private int counter;
 
+    // true for instances owned by EventPool
+    boolean pooled;
+
     public Event(int id, Object event, int counter){
         this.id = id;
         this.event = event;
         this.counter = counter;
     }
 
+    void set(int id, Object event, int counter) {
+        this.id = id;
+        this.event = event;
+        this.counter = counter;
+    }
+
     public Object getEvent() {
         return event;
     }
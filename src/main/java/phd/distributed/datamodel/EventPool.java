@@ -0,0 +1,171 @@
+package phd.distributed.datamodel;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import phd.distributed.config.SystemConfig;
+
+/**
+ * Recycles the {@link Event} objects created on the recording path when
+ * {@code feature.object.pooling} is on.
+ *
+ * Snapshots take events with {@link #obtain(int, Object, int)} and the event
+ * loggers hand them back with {@link #release(Event)} once they have copied or
+ * printed them, so a steady run reuses a bounded set of instances instead of
+ * allocating two events per operation. With the flag off, obtain is a plain
+ * constructor call and release does nothing.
+ *
+ * Every thread keeps a small stack of free events, so obtain and release touch
+ * nothing shared while it lasts (the Disruptor loggers release on the producer
+ * thread itself). A thread whose stack fills up (the consumer of the async
+ * logger) moves half of it to a shared lock-free ring, and a thread whose stack
+ * runs dry refills half of it from there. Neither structure allocates once
+ * created.
+ */
+public final class EventPool {
+
+    private static final boolean ENABLED = SystemConfig.FEATURES.objectPooling;
+    private static final int LOCAL_CAPACITY = 64;
+    private static final int BATCH = LOCAL_CAPACITY / 2;
+
+    private static final FreeRing SHARED = new FreeRing(SystemConfig.EVENT_BUFFER_SIZE);
+    private static final ThreadLocal<LocalStack> LOCAL = ThreadLocal.withInitial(LocalStack::new);
+
+    private EventPool() { }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static Event obtain(int id, Object payload, int counter) {
+        if (!ENABLED) {
+            return new Event(id, payload, counter);
+        }
+        LocalStack local = LOCAL.get();
+        if (local.size == 0) {
+            local.refill();
+        }
+        if (local.size == 0) {
+            Event e = new Event(id, payload, counter);
+            e.pooled = true;
+            return e;
+        }
+        Event e = local.items[--local.size];
+        local.items[local.size] = null;
+        e.set(id, payload, counter);
+        return e;
+    }
+
+    /**
+     * Returns an event to the pool; the caller must not touch it afterwards.
+     * Events that were not obtained from the pool are ignored.
+     */
+    public static void release(Event e) {
+        if (e != null && e.pooled) {
+            e.set(0, null, 0);
+            LocalStack local = LOCAL.get();
+            if (local.size == LOCAL_CAPACITY) {
+                local.spill();
+            }
+            local.items[local.size++] = e;
+        }
+    }
+
+    /** Free instances reachable from the calling thread (for tests and diagnostics). */
+    public static int available() {
+        return LOCAL.get().size + SHARED.size();
+    }
+
+    private static final class LocalStack {
+        final Event[] items = new Event[LOCAL_CAPACITY];
+        int size;
+
+        void refill() {
+            Event e;
+            while (size < BATCH && (e = SHARED.poll()) != null) {
+                items[size++] = e;
+            }
+        }
+
+        // la mitad de abajo (la más fría) pasa al anillo; si está lleno, la recoge el GC
+        void spill() {
+            for (int i = 0; i < BATCH; i++) {
+                SHARED.offer(items[i]);
+            }
+            System.arraycopy(items, BATCH, items, 0, size - BATCH);
+            Arrays.fill(items, size - BATCH, size, null);
+            size -= BATCH;
+        }
+    }
+
+    /**
+     * Bounded multi-producer multi-consumer ring: each slot carries the position it
+     * expects next, so offer and poll claim a slot with one CAS on their own cursor
+     * and never take a lock. An offer that meets a slot still being emptied by a
+     * preempted poll fails as if the ring were full: the event is left to the GC.
+     */
+    static final class FreeRing {
+        private final int mask;
+        private final AtomicReferenceArray<Event> slots;
+        private final AtomicLongArray expected;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        FreeRing(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.mask = size - 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.expected = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                expected.set(i, i);
+            }
+        }
+
+        boolean offer(Event e) {
+            long pos = tail.get();
+            while (true) {
+                int i = (int) pos & mask;
+                long diff = expected.get(i) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots.lazySet(i, e);
+                        expected.lazySet(i, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        Event poll() {
+            long pos = head.get();
+            while (true) {
+                int i = (int) pos & mask;
+                long diff = expected.get(i) - (pos + 1);
+                if (diff == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        Event e = slots.get(i);
+                        slots.lazySet(i, null);
+                        expected.lazySet(i, pos + mask + 1);
+                        return e;
+                    }
+                    pos = head.get();
+                } else if (diff < 0) {
+                    return null;
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+
+        int size() {
+            return (int) Math.max(0, Math.min(mask + 1, tail.get() - head.get()));
+        }
+    }
+}
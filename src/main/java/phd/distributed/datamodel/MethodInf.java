@@ -9,17 +9,39 @@ public class MethodInf {
     private String name;
     private final List<Type> typeParam;
     private final Type typeReturn;
+    private final Class<?>[] parameterTypes;
+    private final int id;
+
+    // Shared OperationCall for a method without arguments (see OperationCall.fromMethod)
+    volatile OperationCall noArgCall;
 
     public MethodInf(Method method) {
+        this(method, -1);
+    }
+
+    /**
+     * @param id position of the method in the list returned by
+     *           {@code DistAlgorithm.methods()}; used by the snapshots as a compact
+     *           method id while recording
+     */
+    public MethodInf(Method method, int id) {
+        this.id = id;
         this.name = method.getName();
         this.method = method;
         this.typeParam = Arrays.asList(method.getGenericParameterTypes());
         this.typeReturn = method.getGenericReturnType();
+        this.parameterTypes = method.getParameterTypes();
     }
 
+    /** Parameter types of the method; the array is shared, do not modify it. */
     public Class<?>[] getParameterTypes() {
-    return method.getParameterTypes();
-}
+        return parameterTypes;
+    }
+
+    /** Method id assigned by the algorithm, or -1 if none was assigned. */
+    public int getId() {
+        return id;
+    }
 
     public String getName() {
         return name;
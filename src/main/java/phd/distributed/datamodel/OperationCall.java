@@ -4,9 +4,14 @@ import java.util.Arrays;
 import java.util.List;
 
 import phd.distributed.api.DistAlgorithm;
+import phd.distributed.config.SystemConfig;
 
 public class OperationCall {
 
+    // Calls without arguments are immutable and identical for a given method,
+    // so with feature.object.pooling on they are shared instead of rebuilt per op
+    private static final boolean POOLING = SystemConfig.FEATURES.objectPooling;
+
     private final Object args;
     private final MethodInf method;
 
@@ -44,16 +49,38 @@ public class OperationCall {
     public static OperationCall fromMethod(DistAlgorithm alg,
                                            MethodInf methodInf,
                                            int processId) {
+        return fromMethod(alg, methodInf, processId, processId);
+    }
+
+    /**
+     * Como {@link #fromMethod(DistAlgorithm, MethodInf, int)}, pero con la clave
+     * (primer argumento) separada de la base del resto: {@code put(k, v)} sobre una
+     * clave repetida escribe valores distintos si {@code valueBase} lo es.
+     */
+    public static OperationCall fromMethod(DistAlgorithm alg,
+                                           MethodInf methodInf,
+                                           int key,
+                                           int valueBase) {
         Class<?>[] paramTypes = methodInf.getParameterTypes();
 
+        if (POOLING && paramTypes.length == 0) {
+            OperationCall call = methodInf.noArgCall;
+            if (call == null) {
+                call = new OperationCall(null, methodInf);
+                methodInf.noArgCall = call;
+            }
+            return call;
+        }
+
         Object args;
         switch (paramTypes.length) {
             case 0 -> args = null;
-            case 1 -> args = ValueGenerator.getValue(paramTypes[0], processId);
+            case 1 -> args = ValueGenerator.getValue(paramTypes[0], key);
             default -> {
                 Object[] multiArgs = new Object[paramTypes.length];
-                for (int i = 0; i < paramTypes.length; i++) {
-                    multiArgs[i] = ValueGenerator.getValue(paramTypes[i], processId + i);
+                multiArgs[0] = ValueGenerator.getValue(paramTypes[0], key);
+                for (int i = 1; i < paramTypes.length; i++) {
+                    multiArgs[i] = ValueGenerator.getValue(paramTypes[i], valueBase + i);
                 }
                 args = multiArgs;
             }
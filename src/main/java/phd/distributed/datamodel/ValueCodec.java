@@ -0,0 +1,113 @@
+package phd.distributed.datamodel;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import clojure.lang.PersistentVector;
+
+/**
+ * Converts operation arguments and results into canonical typed values, so the
+ * sequential specs can compare them with plain equality instead of re-parsing
+ * strings on every search step.
+ *
+ * <ul>
+ *   <li>{@code null} stays {@code nil}; {@link Boolean} stays boolean</li>
+ *   <li>integral numbers and characters become {@link Long}, other numbers {@link Double}</li>
+ *   <li>strings and enums become canonical (deduplicated) strings</li>
+ *   <li>arrays and lists become tuples (Clojure vectors of encoded values)</li>
+ *   <li>any other object becomes a long id; objects that are {@code equals}
+ *       share the same id</li>
+ * </ul>
+ *
+ * Encoding is split in two so the recording threads share nothing: {@link #capture}
+ * runs on the recording path and only copies arrays and lists, keeping scalars,
+ * strings, enums and other objects by reference in the per-thread log; {@link #encode}
+ * finishes the job with the codec's tables when the history is built. Ids and
+ * canonical strings are scoped to one codec instance (one run); an instance is used
+ * by one thread at a time, the one building the history.
+ */
+public final class ValueCodec {
+
+    // Object ids start far from small integers so they are easy to tell apart in a trace
+    private static final long FIRST_OBJECT_ID = 1L << 40;
+    private static final Object NOT_SCALAR = new Object();
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<Object, Long> objectIds = new HashMap<>();
+    private long nextId = FIRST_OBJECT_ID;
+
+    /**
+     * Recording-path half of {@link #encode}: stateless and thread-safe. Mutable
+     * containers are copied now; scalars are immutable and are normalized (without
+     * boxing on the recording thread) and objects compared when encoded.
+     */
+    public static Object capture(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.getClass().isArray() || value instanceof List<?>) {
+            return tuple(value, ValueCodec::capture);
+        }
+        return value;
+    }
+
+    /** Canonical value of {@code value}, raw or already {@link #capture captured}. */
+    public Object encode(Object value) {
+        Object scalar = scalar(value);
+        if (scalar != NOT_SCALAR) {
+            return scalar;
+        }
+        if (value instanceof String s) {
+            return canonical(s);
+        }
+        if (value instanceof Enum<?> e) {
+            return canonical(e.name());
+        }
+        if (value.getClass().isArray() || value instanceof List<?>) {
+            return tuple(value, this::encode);
+        }
+        return objectIds.computeIfAbsent(value, k -> nextId++);
+    }
+
+    private static Object scalar(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Long || value instanceof Double) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Character c) {
+            return (long) c;
+        }
+        return NOT_SCALAR;
+    }
+
+    private static Object tuple(Object value, UnaryOperator<Object> item) {
+        List<Object> items;
+        if (value instanceof List<?> list) {
+            items = new ArrayList<>(list.size());
+            for (Object o : list) {
+                items.add(item.apply(o));
+            }
+        } else {
+            int n = Array.getLength(value);
+            items = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                items.add(item.apply(Array.get(value, i)));
+            }
+        }
+        return PersistentVector.create(items);
+    }
+
+    private String canonical(String s) {
+        String prev = strings.putIfAbsent(s, s);
+        return prev != null ? prev : s;
+    }
+}
@@ -2,31 +2,89 @@ package phd.distributed.logging;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import phd.distributed.config.SystemConfig;
 import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.EventPool;
+import phd.distributed.monitoring.PerformanceMetrics;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Queue-based event logger: producers enqueue, one consumer thread drains the queue
+ * into an {@link EventSink}.
+ *
+ * The queue holds {@code logging.buffer.size} events; what happens when it is full is
+ * set by {@code logging.overflow.policy} (see {@link OverflowPolicy}). Every overflow
+ * is counted, so a history log with gaps is always reported as such
+ * ({@link #getStatistics()}, counters {@code logging.events.*} of PerformanceMetrics).
+ */
 public class AsyncEventLogger implements EventLogger {
     private static final Logger EVENT_LOGGER = LogManager.getLogger("phd.distributed.events");
-    private static final int BUFFER_SIZE = 8192;
     private static final int BATCH_SIZE = 100;
+    // Blocked producers re-check that the consumer is still running this often
+    private static final long BLOCK_POLL_MS = 10;
 
     private final BlockingQueue<Event> eventQueue;
+    private final int capacity;
     private final Thread processorThread;
     private final AtomicBoolean running;
+    private final EventSink sink;
+    private final OverflowPolicy policy;
 
-    private static final AsyncEventLogger INSTANCE = new AsyncEventLogger();
+    // SPILL: null if the segment could not be mapped (the logger blocks instead)
+    private final SpillSegment spill;
+    // true while the spill holds events: new events go behind them, not to the queue
+    private volatile boolean spilling = false;
 
-    private AsyncEventLogger() {
-        this.eventQueue = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    // true while the consumer is (about to be) parked; producers only unpark it then
+    private volatile boolean consumerParked = false;
+
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private static final AsyncEventLogger INSTANCE = new AsyncEventLogger(
+        SystemConfig.LOGGING_BUFFER_SIZE,
+        OverflowPolicy.fromString(SystemConfig.LOGGING_OVERFLOW_POLICY),
+        EventSink.fromConfig("AsyncEventLogger"),
+        Path.of(SystemConfig.LOGGING_BINARY_DIR, "AsyncEventLogger.spill"));
+
+    static {
+        PerformanceMetrics.getInstance().registerGauge("logging.async.queue.depth", INSTANCE::getQueueDepth);
+        PerformanceMetrics.getInstance().registerGauge("logging.async.spill.depth", INSTANCE::getSpillDepth);
+    }
+
+    AsyncEventLogger(int capacity, OverflowPolicy policy, EventSink sink, Path spillFile) {
+        this.capacity = capacity;
+        this.eventQueue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.sink = sink;
+        this.spill = policy == OverflowPolicy.SPILL ? openSpill(spillFile) : null;
         this.running = new AtomicBoolean(true);
         this.processorThread = new Thread(this::processEvents, "AsyncEventLogger");
         this.processorThread.setDaemon(true);
         this.processorThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "AsyncEventLogger-flush"));
+    }
+
+    private static SpillSegment openSpill(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            return new SpillSegment(file, SystemConfig.LOGGING_SPILL_SEGMENT_BYTES);
+        } catch (IOException e) {
+            EVENT_LOGGER.warn("Cannot map the overflow segment {}, full queues will block", file, e);
+            return null;
+        }
     }
 
     public static AsyncEventLogger getInstance() {
@@ -34,48 +92,171 @@ public class AsyncEventLogger implements EventLogger {
     }
 
     public void logEvent(Event event) {
-        if (!eventQueue.offer(event)) {
-            // Queue full, log synchronously as fallback
-            EVENT_LOGGER.warn("Event queue full, logging synchronously: {}", event);
+        if ((spilling || !eventQueue.offer(event)) && !overflow(event)) {
+            return;
+        }
+        if (consumerParked) {
+            LockSupport.unpark(processorThread);
         }
     }
 
+    /** Slow path of {@link #logEvent}: the queue is full or the spill holds older events. */
+    private boolean overflow(Event event) {
+        if (policy == OverflowPolicy.DROP) {
+            drop(event);
+            return false;
+        }
+        if (policy == OverflowPolicy.SPILL && spill != null) {
+            return spill(event);
+        }
+        return block(event);
+    }
+
+    private boolean block(Event event) {
+        blocked.increment();
+        PerformanceMetrics.getInstance().incrementCounter("logging.events.blocked");
+        if (consumerParked) {
+            LockSupport.unpark(processorThread);
+        }
+        try {
+            while (!eventQueue.offer(event, BLOCK_POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (!processorThread.isAlive()) {
+                    drop(event);
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop(event);
+            return false;
+        }
+    }
+
+    private boolean spill(Event event) {
+        synchronized (spill) {
+            // the spill may have been drained since spilling was read
+            if (!spilling && eventQueue.offer(event)) return true;
+
+            boolean waited = false;
+            while (!spill.append(event.getId(), event.getEvent(), event.getCounter())) {
+                // larger than the whole segment, or nobody left to drain it
+                if (spill.isEmpty() || !processorThread.isAlive()) {
+                    drop(event);
+                    return false;
+                }
+                if (!waited) {
+                    waited = true;
+                    blocked.increment();
+                    PerformanceMetrics.getInstance().incrementCounter("logging.events.blocked");
+                }
+                // segment full: wait behind the spilled events (wait releases the lock)
+                LockSupport.unpark(processorThread);
+                try {
+                    spill.wait(BLOCK_POLL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(event);
+                    return false;
+                }
+            }
+            spilling = true;
+            spilled.increment();
+            PerformanceMetrics.getInstance().incrementCounter("logging.events.spilled");
+            EventPool.release(event);
+            return true;
+        }
+    }
+
+    private void drop(Event event) {
+        dropped.increment();
+        PerformanceMetrics.getInstance().incrementCounter("logging.events.dropped");
+        if (dropped.sum() == 1) {
+            EVENT_LOGGER.warn("Event queue full, dropping events (first: {}); further drops are only counted", event);
+        }
+        EventPool.release(event);
+    }
+
     private void processEvents() {
         List<Event> batch = new ArrayList<>(BATCH_SIZE);
 
-        while (running.get() || !eventQueue.isEmpty()) {
-            try {
-                Event event = eventQueue.poll();
-                if (event != null) {
-                    batch.add(event);
-
-                    // Drain more events if available
-                    eventQueue.drainTo(batch, BATCH_SIZE - batch.size());
-
-                    if (!batch.isEmpty()) {
-                        processBatch(batch);
-                        batch.clear();
-                    }
-                } else {
-                    Thread.sleep(10);
+        try {
+            while (running.get() || !eventQueue.isEmpty() || spilling) {
+                if (eventQueue.drainTo(batch, BATCH_SIZE) > 0) {
+                    processBatch(batch);
+                    batch.clear();
+                    continue;
+                }
+                // The queue only holds events older than the spilled ones
+                if (spilling) {
+                    drainSpill();
+                    continue;
+                }
+                // Idle: push the buffered records out, then park until a producer
+                // unparks us. The flag is set before re-checking the queue, and
+                // producers read it after their offer, so no wake-up is lost.
+                sink.flush();
+                consumerParked = true;
+                if (eventQueue.isEmpty() && !spilling && running.get()) {
+                    LockSupport.park(this);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+                consumerParked = false;
             }
+        } finally {
+            sink.close();
+        }
+    }
+
+    private void drainSpill() {
+        synchronized (spill) {
+            // producers that got in between may have queued older events: those go first
+            if (!eventQueue.isEmpty()) return;
+            spill.drainTo(sink);
+            spilling = false;
+            spill.notifyAll();
         }
     }
 
     private void processBatch(List<Event> events) {
-        StringBuilder sb = new StringBuilder(events.size() * 100);
         for (Event event : events) {
-            sb.append(event.toString()).append('\n');
+            sink.write(event.getId(), event.getEvent(), event.getCounter());
+            EventPool.release(event);
         }
-        EVENT_LOGGER.info("Batch[{}]: {}", events.size(), sb.toString());
     }
 
+    /** Overflow policy in use; SPILL falls back to blocking when the segment cannot be mapped. */
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /** Events waiting in the queue right now. */
+    public int getQueueDepth() {
+        return eventQueue.size();
+    }
+
+    /** Events waiting in the overflow segment right now; does not take the spill lock. */
+    public int getSpillDepth() {
+        return spill == null ? 0 : spill.size();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(eventQueue.size(), capacity, getSpillDepth(),
+                              blocked.sum(), spilled.sum(), dropped.sum());
+    }
+
+    /**
+     * @param queueDepth events waiting in the queue
+     * @param spillDepth events waiting in the overflow segment
+     * @param blocked    events whose producer had to wait for room
+     * @param spilled    events that went through the overflow segment
+     * @param dropped    events lost (DROP policy, or logged after the consumer stopped)
+     */
+    public record Statistics(int queueDepth, int capacity, int spillDepth,
+                             long blocked, long spilled, long dropped) { }
+
     public void shutdown() {
         running.set(false);
+        LockSupport.unpark(processorThread);
         try {
             processorThread.join(5000);
         } catch (InterruptedException e) {
@@ -0,0 +1,176 @@
+package phd.distributed.logging;
+
+import phd.distributed.datamodel.OperationCall;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes events as fixed-width binary records, decoded offline by {@link EventLogDecoder}.
+ *
+ * <pre>
+ * header : magic (long) | record size (int)
+ * event  : kind (byte) | value tag (byte) | 0 (short) | thread (int) | counter (int) | method (int) | value (long)
+ * symbol : SYMBOL (byte) | 0 (3 bytes) | id (int) | length (int) | UTF-8 bytes
+ * </pre>
+ *
+ * Method names and values that are not integers, booleans or null are interned
+ * as symbols; a symbol record is written once, before the first event that uses
+ * it. Records go to a reusable direct buffer and symbols to a second one; a flush
+ * hands both to one gathering {@link FileChannel#write(ByteBuffer[])}, symbols
+ * first, so the file never references a symbol before defining it. Nothing is
+ * allocated per event once the symbols of a run are known.
+ */
+public final class BinaryEventSink implements EventSink {
+
+    static final long MAGIC = 0x45564C4F47420001L; // "EVLOGB", version 1
+    static final int RECORD_BYTES = 24;
+
+    static final byte INVOKE = 1;
+    static final byte RESPONSE = 2;
+    static final byte SYMBOL = 3;
+
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_LONG = 1;
+    static final byte VALUE_BOOLEAN = 2;
+    static final byte VALUE_SYMBOL = 3;
+
+    // Distinct values beyond this are still written, but as a fresh symbol each time
+    private static final int MAX_INTERNED = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer records;
+    private ByteBuffer symbols = ByteBuffer.allocateDirect(4096);
+    private final ByteBuffer[] gather = new ByteBuffer[2];
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private int nextSymbol = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates (or truncates) {@code file}.
+     * @param bufferedRecords events buffered before the sink flushes on its own
+     */
+    public BinaryEventSink(Path file, int bufferedRecords) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.records = ByteBuffer.allocateDirect(Math.max(1, bufferedRecords) * RECORD_BYTES);
+        ByteBuffer header = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        header.putLong(MAGIC).putInt(RECORD_BYTES).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    @Override
+    public void write(int threadId, Object payload, int counter) {
+        if (closed) return;
+        if (!records.hasRemaining()) {
+            flush();
+        }
+
+        Object value = payload;
+        byte kind = RESPONSE;
+        int method = -1;
+        if (payload instanceof OperationCall call) {
+            kind = INVOKE;
+            method = symbol(call.method().getName());
+            value = call.args();
+        } else if (payload instanceof SpillSegment.Call call) {
+            kind = INVOKE;
+            method = symbol(call.method());
+            value = call.args();
+        }
+
+        byte tag;
+        long bits;
+        if (value == null) {
+            tag = VALUE_NULL;
+            bits = 0L;
+        } else if (value instanceof Integer || value instanceof Long
+                   || value instanceof Short || value instanceof Byte) {
+            tag = VALUE_LONG;
+            bits = ((Number) value).longValue();
+        } else if (value instanceof Boolean b) {
+            tag = VALUE_BOOLEAN;
+            bits = b ? 1L : 0L;
+        } else {
+            tag = VALUE_SYMBOL;
+            bits = symbol(valueString(value, kind == INVOKE));
+        }
+
+        records.put(kind).put(tag).putShort((short) 0)
+               .putInt(threadId).putInt(counter).putInt(method).putLong(bits);
+    }
+
+    // Arguments are printed as OperationCall.toString does: a, b without brackets
+    private static String valueString(Object value, boolean args) {
+        if (value instanceof Object[] array) {
+            String text = Arrays.deepToString(array);
+            return args ? text.substring(1, text.length() - 1) : text;
+        }
+        return String.valueOf(value);
+    }
+
+    private int symbol(String text) {
+        Integer known = symbolIds.get(text);
+        if (known != null) return known;
+
+        int id = nextSymbol++;
+        if (symbolIds.size() < MAX_INTERNED) {
+            symbolIds.put(text, id);
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int needed = 3 * Integer.BYTES + bytes.length;
+        if (symbols.remaining() < needed) {
+            ByteBuffer bigger = ByteBuffer.allocateDirect(Math.max(2 * symbols.capacity(), symbols.position() + needed));
+            symbols.flip();
+            bigger.put(symbols);
+            symbols = bigger;
+        }
+        symbols.put(SYMBOL).put((byte) 0).putShort((short) 0)
+               .putInt(id).putInt(bytes.length).put(bytes);
+        return id;
+    }
+
+    @Override
+    public void flush() {
+        if (closed || (records.position() == 0 && symbols.position() == 0)) return;
+        symbols.flip();
+        records.flip();
+        gather[0] = symbols;
+        gather[1] = records;
+        try {
+            while (symbols.hasRemaining() || records.hasRemaining()) {
+                channel.write(gather);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the binary event log", e);
+        } finally {
+            symbols.clear();
+            records.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        try {
+            flush();
+        } finally {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // nothing left to write
+            }
+        }
+    }
+}
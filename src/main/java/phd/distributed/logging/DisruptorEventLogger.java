@@ -1,50 +1,88 @@
 package phd.distributed.logging;
 
-import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.lmax.disruptor.TimeoutException;
+import phd.distributed.config.SystemConfig;
 import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.EventPool;
+import phd.distributed.monitoring.PerformanceMetrics;
 
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Disruptor-based event logger, in one of two modes ({@code logging.disruptor.mode}):
+ * <ul>
+ *   <li>{@code shared} - one multi-producer ring of {@value #BUFFER_SIZE} slots; every
+ *       producer claims slots by CAS on the same sequence</li>
+ *   <li>{@code per-producer} - one single-producer ring per recording thread
+ *       ({@code logging.disruptor.producer.ring.size} slots), drained by one consumer
+ *       (see {@link ProducerRings})</li>
+ * </ul>
+ * The consumer waits with {@code logging.disruptor.wait.strategy}
+ * (see {@link LoggerWaitStrategy}) and writes to the configured {@link EventSink}.
+ */
 public class DisruptorEventLogger implements EventLogger {
-    private static final Logger EVENT_LOGGER = LogManager.getLogger("phd.distributed.events");
     private static final int BUFFER_SIZE = 65536; // Must be power of 2
 
     private final Disruptor<LogEvent> disruptor;
     private final RingBuffer<LogEvent> ringBuffer;
+    private final ProducerRings producerRings;
+    private final EventSink sink;
 
-    private static final DisruptorEventLogger INSTANCE = new DisruptorEventLogger();
+    private static final DisruptorEventLogger INSTANCE = new DisruptorEventLogger(
+        EventSink.fromConfig("DisruptorEventLogger"),
+        "per-producer".equalsIgnoreCase(SystemConfig.DISRUPTOR_MODE),
+        LoggerWaitStrategy.fromString(SystemConfig.DISRUPTOR_WAIT_STRATEGY),
+        SystemConfig.DISRUPTOR_PRODUCER_RING_SIZE);
 
-    private DisruptorEventLogger() {
-        ThreadFactory threadFactory = new ThreadFactory() {
-            private final AtomicInteger counter = new AtomicInteger(0);
-
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread t = new Thread(r, "DisruptorEventLogger-" + counter.incrementAndGet());
-                t.setDaemon(true);
-                return t;
-            }
-        };
-
-        disruptor = new Disruptor<>(
-            LogEvent::new,
-            BUFFER_SIZE,
-            threadFactory,
-            ProducerType.MULTI,
-            new BlockingWaitStrategy()
-        );
-
-        disruptor.handleEventsWith(new EventLogHandler());
-        disruptor.start();
+    static {
+        PerformanceMetrics.getInstance().registerGauge("logging.disruptor.queue.depth", INSTANCE::getQueueDepth);
+    }
 
-        ringBuffer = disruptor.getRingBuffer();
+    /**
+     * Loggers other than {@link #getInstance()} are for benchmarks and tests.
+     * @param perProducer  one ring per recording thread instead of a shared ring
+     * @param producerRing slots of each per-producer ring (a power of 2)
+     */
+    public DisruptorEventLogger(EventSink sink, boolean perProducer, LoggerWaitStrategy waitStrategy,
+                                int producerRing) {
+        this.sink = sink;
+        if (perProducer) {
+            this.disruptor = null;
+            this.ringBuffer = null;
+            this.producerRings = new ProducerRings(sink, waitStrategy, producerRing);
+        } else {
+            ThreadFactory threadFactory = new ThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger(0);
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "DisruptorEventLogger-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            };
+
+            this.disruptor = new Disruptor<>(
+                LogEvent::new,
+                BUFFER_SIZE,
+                threadFactory,
+                ProducerType.MULTI,
+                waitStrategy.create()
+            );
+
+            disruptor.handleEventsWith(new EventLogHandler(sink));
+            disruptor.start();
+
+            this.ringBuffer = disruptor.getRingBuffer();
+            this.producerRings = null;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "DisruptorEventLogger-flush"));
     }
 
     public static DisruptorEventLogger getInstance() {
@@ -52,16 +90,41 @@ public class DisruptorEventLogger implements EventLogger {
     }
 
     public void logEvent(Event event) {
+        if (producerRings != null) {
+            producerRings.publish(event);
+            return;
+        }
         ringBuffer.publishEvent((logEvent, sequence, arg) -> {
             logEvent.threadId = arg.getId();
             logEvent.operation = arg.getEvent();
             logEvent.counter = arg.getCounter();
             logEvent.timestamp = System.nanoTime();
         }, event);
+        // the ring slot holds a copy of the fields, so the event can be reused now
+        EventPool.release(event);
     }
 
-    public void shutdown() {
-        disruptor.shutdown();
+    /** Events published but not yet handed to the sink (over every ring in per-producer mode). */
+    public long getQueueDepth() {
+        if (producerRings != null) {
+            return producerRings.depth();
+        }
+        return BUFFER_SIZE - ringBuffer.remainingCapacity();
+    }
+
+    public synchronized void shutdown() {
+        if (producerRings != null) {
+            // the consumer closes the sink once the rings are drained
+            producerRings.shutdown();
+            return;
+        }
+        try {
+            // waits for the handler to drain the ring before the sink is closed
+            disruptor.shutdown(5, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            disruptor.halt();
+        }
+        sink.close();
     }
 
     static class LogEvent {
@@ -72,28 +135,19 @@ public class DisruptorEventLogger implements EventLogger {
     }
 
     static class EventLogHandler implements EventHandler<LogEvent> {
-        private static final int BATCH_SIZE = 100;
-        private final StringBuilder batchBuffer = new StringBuilder(BATCH_SIZE * 100);
-        private int batchCount = 0;
+        private final EventSink sink;
 
-        @Override
-        public void onEvent(LogEvent event, long sequence, boolean endOfBatch) {
-            batchBuffer.append("Thread[").append(event.threadId)
-                      .append("] Op[").append(event.operation)
-                      .append("] Counter[").append(event.counter)
-                      .append("]\n");
-            batchCount++;
-
-            if (endOfBatch || batchCount >= BATCH_SIZE) {
-                flush();
-            }
+        EventLogHandler(EventSink sink) {
+            this.sink = sink;
         }
 
-        private void flush() {
-            if (batchCount > 0) {
-                EVENT_LOGGER.info("Batch[{}]:\n{}", batchCount, batchBuffer.toString());
-                batchBuffer.setLength(0);
-                batchCount = 0;
+        @Override
+        public void onEvent(LogEvent event, long sequence, boolean endOfBatch) {
+            sink.write(event.threadId, event.operation, event.counter);
+            // the slot is reused, do not keep the payload alive
+            event.operation = null;
+            if (endOfBatch) {
+                sink.flush();
             }
         }
     }
@@ -0,0 +1,121 @@
+package phd.distributed.logging;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline decoder of the files written by {@link BinaryEventSink}: one line per event,
+ * in the text format of {@link TextEventSink}.
+ *
+ * <pre>
+ * T2: op offer(17) [41]
+ * T2: true [42]
+ * </pre>
+ *
+ * Usage: {@code EventLogDecoder <events.bin> [<out.txt>]}; without an output file the
+ * events are printed to standard output.
+ */
+public final class EventLogDecoder {
+
+    private EventLogDecoder() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: EventLogDecoder <events.bin> [<out.txt>]");
+            System.exit(2);
+        }
+        Path in = Path.of(args[0]);
+        if (args.length == 2) {
+            try (Writer out = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)) {
+                long events = decode(in, out);
+                System.err.println(events + " events decoded to " + args[1]);
+            }
+        } else {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            decode(in, out);
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes the events of {@code file} to {@code out}.
+     * @return events decoded
+     * @throws IOException if the file is not a binary event log; a record cut short at
+     *                     the end (a run that did not close its sink) ends the decoding
+     */
+    public static long decode(Path file, Appendable out) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            if (in.readLong() != BinaryEventSink.MAGIC) {
+                throw new IOException(file + " is not a binary event log");
+            }
+            int recordBytes = in.readInt();
+            if (recordBytes != BinaryEventSink.RECORD_BYTES) {
+                throw new IOException("Unsupported record size " + recordBytes + " in " + file);
+            }
+
+            Map<Integer, String> symbols = new HashMap<>();
+            long events = 0;
+            StringBuilder line = new StringBuilder(64);
+            while (true) {
+                int kind = in.read();
+                if (kind < 0) break;
+                try {
+                    if (kind == BinaryEventSink.SYMBOL) {
+                        in.skipBytes(3);
+                        int id = in.readInt();
+                        byte[] bytes = new byte[in.readInt()];
+                        in.readFully(bytes);
+                        symbols.put(id, new String(bytes, StandardCharsets.UTF_8));
+                        continue;
+                    }
+                    if (kind != BinaryEventSink.INVOKE && kind != BinaryEventSink.RESPONSE) {
+                        throw new IOException("Corrupt event log: record kind " + kind + " after " + events + " events");
+                    }
+                    byte tag = in.readByte();
+                    in.skipBytes(2);
+                    int thread = in.readInt();
+                    int counter = in.readInt();
+                    int method = in.readInt();
+                    long bits = in.readLong();
+
+                    line.setLength(0);
+                    line.append('T').append(thread).append(": ");
+                    String value = valueOf(tag, bits, symbols);
+                    if (kind == BinaryEventSink.INVOKE) {
+                        line.append("op ").append(symbols.get(method)).append('(').append(value).append(')');
+                    } else {
+                        line.append(value);
+                    }
+                    line.append(" [").append(counter).append("]\n");
+                    out.append(line);
+                    events++;
+                } catch (EOFException truncated) {
+                    break;
+                }
+            }
+            return events;
+        }
+    }
+
+    private static String valueOf(byte tag, long bits, Map<Integer, String> symbols) throws IOException {
+        return switch (tag) {
+            case BinaryEventSink.VALUE_NULL -> null;
+            case BinaryEventSink.VALUE_LONG -> Long.toString(bits);
+            case BinaryEventSink.VALUE_BOOLEAN -> Boolean.toString(bits != 0L);
+            case BinaryEventSink.VALUE_SYMBOL -> symbols.get((int) bits);
+            default -> throw new IOException("Corrupt event log: value tag " + tag);
+        };
+    }
+}
@@ -3,6 +3,10 @@ package phd.distributed.logging;
 import phd.distributed.datamodel.Event;
 
 public interface EventLogger {
+    /**
+     * Queues {@code event} for logging. The logger owns the event afterwards and
+     * hands pooled events back to {@link phd.distributed.datamodel.EventPool}.
+     */
     void logEvent(Event event);
     void shutdown();
 }
@@ -0,0 +1,50 @@
+package phd.distributed.logging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import phd.distributed.config.SystemConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Destination of the events drained by an {@link EventLogger}.
+ *
+ * A sink is written by the single consumer thread of its logger: {@link #write}
+ * buffers one event (an invocation when the payload is an
+ * {@link phd.distributed.datamodel.OperationCall}, a response otherwise) and
+ * {@link #flush()} pushes what is buffered out, typically when the consumer runs
+ * out of events. Sinks are not thread-safe.
+ */
+public interface EventSink extends AutoCloseable {
+
+    void write(int threadId, Object payload, int counter);
+
+    void flush();
+
+    /** Flushes and releases the sink; later writes are ignored. */
+    @Override
+    void close();
+
+    /**
+     * Sink chosen by {@code logging.sink}: {@code binary} (default) writes
+     * {@code <logging.binary.dir>/<name>.events.bin}, readable with
+     * {@link EventLogDecoder}; {@code text} prints through log4j. Falls back to
+     * text if the file cannot be opened.
+     */
+    static EventSink fromConfig(String name) {
+        if ("text".equalsIgnoreCase(SystemConfig.LOGGING_SINK)) {
+            return new TextEventSink();
+        }
+        Path file = Path.of(SystemConfig.LOGGING_BINARY_DIR, name + ".events.bin");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            return new BinaryEventSink(file, SystemConfig.LOGGING_BUFFER_SIZE);
+        } catch (IOException e) {
+            Logger logger = LogManager.getLogger(EventSink.class);
+            logger.warn("Cannot open binary event log {}, logging events as text", file, e);
+            return new TextEventSink();
+        }
+    }
+}
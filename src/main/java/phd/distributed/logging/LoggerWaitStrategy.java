@@ -0,0 +1,70 @@
+package phd.distributed.logging;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the consumer of {@link DisruptorEventLogger} waits for events
+ * ({@code logging.disruptor.wait.strategy}), from lowest latency and a busy core
+ * to an idle core and a wake-up on every publish.
+ *
+ * The shared ring uses the Disruptor strategy of the same name; the per-producer
+ * rings, which one consumer polls in turn, use {@link #idle(int)} between rounds
+ * that found nothing, with the same spin / yield / sleep progression.
+ */
+public enum LoggerWaitStrategy {
+    BUSY_SPIN,
+    YIELDING,
+    SLEEPING,
+    /** The consumer parks; producers pay a fence and, when it sleeps, an unpark. */
+    BLOCKING;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    // SleepingWaitStrategy's default pause
+    private static final long SLEEP_NANOS = 100;
+
+    public static LoggerWaitStrategy fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown wait strategy '" + value
+                + "', expected busy-spin, yielding, sleeping or blocking", e);
+        }
+    }
+
+    WaitStrategy create() {
+        return switch (this) {
+            case BUSY_SPIN -> new BusySpinWaitStrategy();
+            case YIELDING -> new YieldingWaitStrategy();
+            case SLEEPING -> new SleepingWaitStrategy();
+            case BLOCKING -> new BlockingWaitStrategy();
+        };
+    }
+
+    /**
+     * Waits once after {@code idleRounds} consecutive rounds without events; BLOCKING
+     * is handled by the caller, which must be woken up by the producers.
+     * @return the next value of {@code idleRounds}
+     */
+    int idle(int idleRounds) {
+        switch (this) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (idleRounds < SPIN_TRIES) Thread.onSpinWait();
+                else Thread.yield();
+            }
+            default -> {
+                if (idleRounds < SPIN_TRIES) Thread.onSpinWait();
+                else if (idleRounds < SPIN_TRIES + YIELD_TRIES) Thread.yield();
+                else LockSupport.parkNanos(SLEEP_NANOS);
+            }
+        }
+        return idleRounds == Integer.MAX_VALUE ? idleRounds : idleRounds + 1;
+    }
+}
@@ -0,0 +1,25 @@
+package phd.distributed.logging;
+
+/**
+ * What {@link AsyncEventLogger#logEvent} does when its queue is full
+ * ({@code logging.overflow.policy}).
+ */
+public enum OverflowPolicy {
+    /** The producer waits for a free slot: no event is lost, the run slows down. */
+    BLOCK,
+    /**
+     * Events go to a memory-mapped overflow segment until the consumer catches up;
+     * when the segment is full too the producer waits as with {@link #BLOCK}.
+     */
+    SPILL,
+    /** The event is dropped and counted (see {@link AsyncEventLogger#getStatistics()}). */
+    DROP;
+
+    public static OverflowPolicy fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown overflow policy '" + value + "', expected block, spill or drop", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package phd.distributed.logging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * One log4j logger per phase of a run, so each phase gets its own level (and, in
+ * log4j2-async.xml, its own async logger and JSON output) independently of the
+ * classes that log.
+ *
+ * The recording phase logs from the producer threads on every operation; its
+ * calls take at most three parameters (no varargs array), format nothing
+ * themselves, and pass small ints (boxed from the Integer cache), Strings and the
+ * operation results as they are. With the garbage-free setup of log4j2-async.xml a
+ * logged event then allocates nothing on the recording thread.
+ */
+public final class PhaseLoggers {
+
+    public static final String RECORDING_NAME = "phd.distributed.phase.recording";
+    public static final String XE_NAME = "phd.distributed.phase.xe";
+    public static final String VERIFICATION_NAME = "phd.distributed.phase.verification";
+
+    /** Operations as the producers run them (Wrapper, snapshot write/snapshot). */
+    public static final Logger RECORDING = LogManager.getLogger(RECORDING_NAME);
+    /** Construction of X_E from the snapshots. */
+    public static final Logger XE = LogManager.getLogger(XE_NAME);
+    /** The history handed to the checker, event by event (DEBUG). */
+    public static final Logger VERIFICATION = LogManager.getLogger(VERIFICATION_NAME);
+
+    private PhaseLoggers() { }
+}
@@ -0,0 +1,184 @@
+package phd.distributed.logging;
+
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.EventPool;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-producer mode of {@link DisruptorEventLogger}: every recording thread publishes
+ * to its own single-producer ring, so publishing is a plain sequence increment with
+ * no CAS shared with other producers, and one consumer thread drains the rings in
+ * turn into the sink.
+ *
+ * Events of one thread keep their order; events of different threads are interleaved
+ * by ring, not by time (their counter gives the order of the run). A ring is created
+ * on the first event of a thread and dropped once its thread has died and the ring
+ * is drained. A producer whose ring is full waits for the consumer.
+ */
+final class ProducerRings {
+
+    private final EventSink sink;
+    private final LoggerWaitStrategy waitStrategy;
+    private final int ringSize;
+
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Ring> ownRing = ThreadLocal.withInitial(this::register);
+    private final Thread consumer;
+    private volatile boolean running = true;
+    // BLOCKING only: true while the consumer is (about to be) parked
+    private volatile boolean consumerParked = false;
+
+    private static final class Ring {
+        final Thread owner = Thread.currentThread();
+        // the wait strategy of the ring is never used: the consumer does not wait on a
+        // barrier, and busy-spin has no signalling cost on publish
+        final RingBuffer<DisruptorEventLogger.LogEvent> buffer;
+        final Sequence consumed = new Sequence(-1L);
+
+        Ring(int size) {
+            buffer = RingBuffer.createSingleProducer(DisruptorEventLogger.LogEvent::new, size,
+                                                     new BusySpinWaitStrategy());
+            buffer.addGatingSequences(consumed);
+        }
+    }
+
+    ProducerRings(EventSink sink, LoggerWaitStrategy waitStrategy, int ringSize) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of 2, got " + ringSize);
+        }
+        this.sink = sink;
+        this.waitStrategy = waitStrategy;
+        this.ringSize = ringSize;
+        this.consumer = new Thread(this::consume, "DisruptorEventLogger-rings");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    private Ring register() {
+        Ring ring = new Ring(ringSize);
+        rings.add(ring);
+        return ring;
+    }
+
+    void publish(Event event) {
+        RingBuffer<DisruptorEventLogger.LogEvent> buffer = ownRing.get().buffer;
+        long sequence;
+        while (true) {
+            try {
+                sequence = buffer.tryNext();
+                break;
+            } catch (InsufficientCapacityException full) {
+                if (!consumer.isAlive()) {
+                    EventPool.release(event);
+                    return;
+                }
+                LockSupport.parkNanos(1L);
+            }
+        }
+        DisruptorEventLogger.LogEvent slot = buffer.get(sequence);
+        slot.threadId = event.getId();
+        slot.operation = event.getEvent();
+        slot.counter = event.getCounter();
+        buffer.publish(sequence);
+        EventPool.release(event);
+
+        if (waitStrategy == LoggerWaitStrategy.BLOCKING) {
+            // the cursor store must be visible before the flag is read (the consumer
+            // does the opposite), or a wake-up could be lost
+            VarHandle.fullFence();
+            if (consumerParked) {
+                LockSupport.unpark(consumer);
+            }
+        }
+    }
+
+    private void consume() {
+        int idleRounds = 0;
+        try {
+            while (running || pending()) {
+                if (drainRound()) {
+                    idleRounds = 0;
+                    continue;
+                }
+                if (idleRounds == 0) {
+                    sink.flush();
+                }
+                if (waitStrategy == LoggerWaitStrategy.BLOCKING) {
+                    consumerParked = true;
+                    if (running && !pending()) {
+                        LockSupport.park(this);
+                    }
+                    consumerParked = false;
+                    idleRounds = 1;
+                } else {
+                    idleRounds = waitStrategy.idle(idleRounds);
+                }
+            }
+        } finally {
+            sink.close();
+        }
+    }
+
+    /** One pass over every ring; true if any event was handed to the sink. */
+    private boolean drainRound() {
+        boolean progressed = false;
+        for (Ring ring : rings) {
+            // read liveness first: a dead owner published everything it ever will
+            boolean ownerDead = !ring.owner.isAlive();
+            long next = ring.consumed.get() + 1;
+            long available = ring.buffer.getCursor();
+            if (available >= next) {
+                for (long s = next; s <= available; s++) {
+                    DisruptorEventLogger.LogEvent slot = ring.buffer.get(s);
+                    sink.write(slot.threadId, slot.operation, slot.counter);
+                    // the slot is reused, do not keep the payload alive
+                    slot.operation = null;
+                }
+                ring.consumed.set(available);
+                progressed = true;
+            } else if (ownerDead) {
+                rings.remove(ring);
+            }
+        }
+        return progressed;
+    }
+
+    private boolean pending() {
+        for (Ring ring : rings) {
+            if (ring.buffer.getCursor() > ring.consumed.get()) return true;
+        }
+        return false;
+    }
+
+    /** Events published to the rings and not yet drained. */
+    long depth() {
+        long depth = 0;
+        for (Ring ring : rings) {
+            depth += Math.max(0L, ring.buffer.getCursor() - ring.consumed.get());
+        }
+        return depth;
+    }
+
+    /** Rings currently registered (one per live recording thread, plus undrained dead ones). */
+    int ringCount() {
+        return rings.size();
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
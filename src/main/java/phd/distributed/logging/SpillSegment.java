@@ -0,0 +1,163 @@
+package phd.distributed.logging;
+
+import phd.distributed.datamodel.OperationCall;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped overflow area of {@link AsyncEventLogger} for the {@link OverflowPolicy#SPILL}
+ * policy: producers append events the queue has no room for, the consumer reads them
+ * back in order and the segment starts over once it is empty.
+ *
+ * Payloads are encoded, not referenced, so spilled events neither keep objects alive
+ * nor take heap; they come back as {@link Call} (invocations), Long, Boolean, String or
+ * null, which the sinks print like the original objects. Appends and drains are
+ * synchronized by the logger; {@link #size()} can be read without the lock.
+ *
+ * <pre>
+ * event : kind (byte) | tag (byte) | thread (int) | counter (int) | [method (short length + UTF-8)] | value
+ * value : long (LONG) | byte (BOOLEAN) | int length + UTF-8 (TEXT) | nothing (NULL)
+ * </pre>
+ */
+final class SpillSegment implements AutoCloseable {
+
+    /** A spilled invocation; prints as {@link OperationCall#toString()}. */
+    record Call(String method, Object args) {
+        @Override
+        public String toString() {
+            return "op " + method + "(" + args + ")";
+        }
+    }
+
+    private static final byte INVOKE = 1;
+    private static final byte RESPONSE = 2;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte TEXT = 3;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    // volatile: only written under the logger's lock, read by its gauges without it
+    private volatile int events = 0;
+
+    SpillSegment(Path file, int capacityBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+    }
+
+    /** @return false if the event does not fit in what is left of the segment */
+    boolean append(int threadId, Object payload, int counter) {
+        Object value = payload;
+        byte kind = RESPONSE;
+        byte[] method = null;
+        if (payload instanceof OperationCall call) {
+            kind = INVOKE;
+            method = call.method().getName().getBytes(StandardCharsets.UTF_8);
+            value = call.args() instanceof Object[] array ? argsString(array) : call.args();
+        } else if (payload instanceof Call call) {
+            kind = INVOKE;
+            method = call.method().getBytes(StandardCharsets.UTF_8);
+            value = call.args();
+        }
+
+        byte tag;
+        byte[] text = null;
+        int valueBytes;
+        if (value == null) {
+            tag = NULL;
+            valueBytes = 0;
+        } else if (value instanceof Integer || value instanceof Long
+                   || value instanceof Short || value instanceof Byte) {
+            tag = LONG;
+            valueBytes = Long.BYTES;
+        } else if (value instanceof Boolean) {
+            tag = BOOLEAN;
+            valueBytes = 1;
+        } else {
+            tag = TEXT;
+            text = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+            valueBytes = Integer.BYTES + text.length;
+        }
+
+        int needed = 2 + 2 * Integer.BYTES + (method == null ? 0 : Short.BYTES + method.length) + valueBytes;
+        if (buffer.remaining() < needed) return false;
+
+        buffer.put(kind).put(tag).putInt(threadId).putInt(counter);
+        if (method != null) {
+            buffer.putShort((short) method.length).put(method);
+        }
+        switch (tag) {
+            case LONG -> buffer.putLong(((Number) value).longValue());
+            case BOOLEAN -> buffer.put((byte) ((Boolean) value ? 1 : 0));
+            case TEXT -> buffer.putInt(text.length).put(text);
+            default -> { }
+        }
+        events = events + 1;
+        return true;
+    }
+
+    // a, b without brackets, as OperationCall prints array arguments
+    private static String argsString(Object[] args) {
+        String text = Arrays.deepToString(args);
+        return text.substring(1, text.length() - 1);
+    }
+
+    /** Hands every spilled event to {@code sink} in append order and empties the segment. */
+    int drainTo(EventSink sink) {
+        int drained = events;
+        int end = buffer.position();
+        buffer.position(0);
+        while (buffer.position() < end) {
+            byte kind = buffer.get();
+            byte tag = buffer.get();
+            int threadId = buffer.getInt();
+            int counter = buffer.getInt();
+            String method = null;
+            if (kind == INVOKE) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                method = new String(name, StandardCharsets.UTF_8);
+            }
+            Object value = switch (tag) {
+                case LONG -> buffer.getLong();
+                case BOOLEAN -> buffer.get() != 0;
+                case TEXT -> {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    yield new String(bytes, StandardCharsets.UTF_8);
+                }
+                default -> null;
+            };
+            sink.write(threadId, method != null ? new Call(method, value) : value, counter);
+        }
+        buffer.clear();
+        events = 0;
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return events == 0;
+    }
+
+    int size() {
+        return events;
+    }
+
+    int usedBytes() {
+        return buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
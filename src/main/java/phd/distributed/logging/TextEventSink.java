@@ -0,0 +1,41 @@
+package phd.distributed.logging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Prints the events through the log4j logger {@code phd.distributed.events}, one
+ * message per batch of up to {@value #BATCH_SIZE} lines. This is the format the
+ * event loggers used before the binary sink; select it with {@code logging.sink=text}.
+ */
+public final class TextEventSink implements EventSink {
+
+    private static final Logger EVENT_LOGGER = LogManager.getLogger("phd.distributed.events");
+    private static final int BATCH_SIZE = 100;
+
+    private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 100);
+    private int count = 0;
+
+    @Override
+    public void write(int threadId, Object payload, int counter) {
+        batch.append('T').append(threadId).append(": ").append(payload)
+             .append(" [").append(counter).append("]\n");
+        if (++count >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (count > 0) {
+            EVENT_LOGGER.info("Batch[{}]:\n{}", count, batch.toString());
+            batch.setLength(0);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
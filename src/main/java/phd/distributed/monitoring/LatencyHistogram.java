@@ -0,0 +1,209 @@
+package phd.distributed.monitoring;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram, in nanoseconds.
+ *
+ * Each power of two is split into 2^{@value #SUB_BITS} linear buckets, so every
+ * recorded value is known to within 1/64 (about 1.6%) from 0 up to 2^40 ns
+ * (about 18 minutes); larger values go to the last bucket, the maximum is kept
+ * exactly. Every recording thread gets its own shard, written only by that thread
+ * with plain increments and ordered stores, so {@link #record(long)} takes no lock
+ * and no CAS; shards are merged when the histogram is read. The shard of a thread
+ * that has terminated is folded into a single retired shard (when another thread
+ * gets its shard, or on the next read), so a histogram fed by short-lived producer
+ * pools keeps one shard per live thread instead of one per thread ever seen.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BITS = 6;
+    private static final int CAP_BITS = 40;
+    private static final long MAX_TRACKABLE = (1L << CAP_BITS) - 1;
+    static final int BUCKETS = (CAP_BITS - SUB_BITS + 1) << SUB_BITS;
+
+    private final String name;
+    private final List<Shard> shards = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Shard> shard = ThreadLocal.withInitial(this::newShard);
+    // Suma de los shards de hilos terminados; sólo se escribe con el lock del histograma
+    private final Shard retired = new Shard(null);
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Records one latency in nanoseconds; negative values count as 0. */
+    public void record(long nanos) {
+        long v = Math.max(0L, nanos);
+        Shard s = shard.get();
+        // only this thread writes its shard: no lost updates, readers see ordered stores
+        int i = indexOf(Math.min(v, MAX_TRACKABLE));
+        s.counts.lazySet(i, s.counts.get(i) + 1);
+        s.sum.lazySet(s.sum.get() + v);
+        if (v > s.max.get()) {
+            s.max.lazySet(v);
+        }
+    }
+
+    /** Merges every shard into a summary with the usual percentiles. */
+    public Summary summary() {
+        Merged m = merge();
+        return new Summary(name, m.count, m.count == 0 ? 0.0 : (double) m.sum / m.count,
+                           m.valueAt(50.0), m.valueAt(99.0), m.valueAt(99.9), m.max);
+    }
+
+    /** Value at or below which {@code percentile} percent of the recorded values fall. */
+    public long valueAtPercentile(double percentile) {
+        return merge().valueAt(percentile);
+    }
+
+    /**
+     * Clears the counts in place: holders of this instance keep recording into it.
+     * Values recorded while the reset runs may survive it.
+     */
+    public synchronized void reset() {
+        retireDeadShards();
+        retired.clear();
+        for (Shard s : shards) {
+            s.clear();
+        }
+    }
+
+    // Shards alive, including the retired one (tests)
+    synchronized int shardCount() {
+        retireDeadShards();
+        return shards.size() + 1;
+    }
+
+    // Locked so that a shard is never seen both in the list and in retired
+    private synchronized Merged merge() {
+        retireDeadShards();
+        Merged m = new Merged(new long[BUCKETS]);
+        m.add(retired);
+        for (Shard s : shards) {
+            m.add(s);
+        }
+        return m;
+    }
+
+    // A terminated thread writes no more: its counts can be moved without racing it
+    private void retireDeadShards() {
+        for (Shard s : shards) {
+            if (!s.ownerAlive()) {
+                retired.addAll(s);
+                shards.remove(s);
+            }
+        }
+    }
+
+    private static final class Merged {
+        final long[] counts;
+        long count;
+        long sum;
+        long max;
+
+        Merged(long[] counts) {
+            this.counts = counts;
+        }
+
+        void add(Shard s) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = s.counts.get(i);
+                counts[i] += c;
+                count += c;
+            }
+            sum += s.sum.get();
+            max = Math.max(max, s.max.get());
+        }
+
+        long valueAt(double percentile) {
+            if (count == 0) return 0L;
+            long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestEquivalentValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+
+    // Buckets 0 .. 2^(SUB_BITS+1)-1 hold exact values; after that each power of two
+    // gets 2^SUB_BITS buckets of width 2^shift
+    static int indexOf(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = Math.max(0, magnitude - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        int shift = Math.max(0, (index >> SUB_BITS) - 1);
+        long lowest = (long) (index - (shift << SUB_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private synchronized Shard newShard() {
+        retireDeadShards();
+        Shard s = new Shard(Thread.currentThread());
+        shards.add(s);
+        return s;
+    }
+
+    private static final class Shard {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+        // Débil: el shard no debe retener al hilo que lo escribió
+        private final WeakReference<Thread> owner;
+
+        Shard(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        boolean ownerAlive() {
+            Thread t = owner.get();
+            return t != null && t.isAlive();
+        }
+
+        void addAll(Shard other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = other.counts.get(i);
+                if (c != 0) {
+                    counts.lazySet(i, counts.get(i) + c);
+                }
+            }
+            sum.lazySet(sum.get() + other.sum.get());
+            if (other.max.get() > max.get()) {
+                max.lazySet(other.max.get());
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.lazySet(i, 0L);
+            }
+            sum.lazySet(0L);
+            max.lazySet(0L);
+        }
+    }
+
+    /** Merged view of a histogram; latencies in nanoseconds. */
+    public record Summary(String name, long count, double mean, long p50, long p99, long p999, long max) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: n=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                name, count, mean / 1_000.0, p50 / 1_000.0, p99 / 1_000.0, p999 / 1_000.0, max / 1_000.0);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package phd.distributed.monitoring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import phd.distributed.config.SystemConfig;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live view of {@link PerformanceMetrics} for long runs: an HTTP endpoint serving
+ * {@code /metrics} in the Prometheus text format, and an MBean
+ * ({@value #OBJECT_NAME}) with one read-only attribute per metric.
+ *
+ * Every scrape works on a {@link PerformanceMetrics#snapshot()}, so it takes no lock
+ * the recording threads use. Counters, timers, gauges (logger queue depths, checker
+ * progress) and latency histograms are exported; names get the prefix {@code phd_}
+ * and every character other than letters, digits and '_' becomes '_'.
+ */
+public final class MetricsExporter implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    public static final String OBJECT_NAME = "phd.distributed:type=PerformanceMetrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static MetricsExporter fromConfig;
+
+    private final PerformanceMetrics metrics;
+    private final HttpServer server;
+    private final ObjectName objectName;
+
+    private MetricsExporter(PerformanceMetrics metrics, HttpServer server, ObjectName objectName) {
+        this.metrics = metrics;
+        this.server = server;
+        this.objectName = objectName;
+    }
+
+    /**
+     * Starts the exporter configured by {@code performance.metrics.*} once per JVM when
+     * {@code performance.monitoring.enabled} is set; a port already in use only logs
+     * a warning.
+     * @return the running exporter, or null when monitoring is off or it could not start
+     */
+    public static synchronized MetricsExporter startFromConfig() {
+        if (fromConfig == null && SystemConfig.PERFORMANCE_MONITORING_ENABLED) {
+            try {
+                fromConfig = start(PerformanceMetrics.getInstance(),
+                                   new InetSocketAddress(SystemConfig.METRICS_HOST, SystemConfig.METRICS_PORT),
+                                   SystemConfig.METRICS_JMX_ENABLED);
+                LOGGER.info("Metrics at http://{}:{}/metrics", SystemConfig.METRICS_HOST, fromConfig.getPort());
+            } catch (IOException e) {
+                LOGGER.warn("Cannot start the metrics endpoint on {}:{}",
+                            SystemConfig.METRICS_HOST, SystemConfig.METRICS_PORT, e);
+            }
+        }
+        return fromConfig;
+    }
+
+    /**
+     * @param address port 0 picks a free port (see {@link #getPort()})
+     * @param jmx     also register the MBean; skipped if another exporter holds the name
+     */
+    public static MetricsExporter start(PerformanceMetrics metrics, InetSocketAddress address, boolean jmx)
+            throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> serve(metrics, exchange));
+
+        // The dispatcher thread inherits the daemon flag of the thread calling start():
+        // started from a daemon thread, the endpoint does not keep the JVM alive
+        Thread starter = new Thread(server::start, "metrics-exporter-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ObjectName name = jmx ? register(metrics) : null;
+        return new MetricsExporter(metrics, server, name);
+    }
+
+    private static ObjectName register(PerformanceMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+            if (mbeans.isRegistered(name)) {
+                LOGGER.warn("{} already registered, the metrics are only served over HTTP", OBJECT_NAME);
+                return null;
+            }
+            mbeans.registerMBean(new MetricsMBean(metrics), name);
+            return name;
+        } catch (JMException e) {
+            LOGGER.warn("Cannot register {}", OBJECT_NAME, e);
+            return null;
+        }
+    }
+
+    private static void serve(PerformanceMetrics metrics, HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = prometheusText(metrics.snapshot()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.warn("Cannot unregister {}", objectName, e);
+            }
+        }
+    }
+
+    /**
+     * Prometheus text exposition of a snapshot: counters as {@code _total}, timers as
+     * {@code _seconds_total}, gauges as they are, histograms as summaries in seconds
+     * (quantiles 0.5, 0.99, 0.999) plus a {@code _max_seconds} gauge.
+     */
+    public static String prometheusText(PerformanceMetrics.Snapshot snapshot) {
+        StringBuilder sb = new StringBuilder(4096);
+        snapshot.counters().forEach((name, value) -> {
+            String metric = metricName(name) + "_total";
+            sb.append("# TYPE ").append(metric).append(" counter\n");
+            sb.append(metric).append(' ').append(value).append('\n');
+        });
+        snapshot.timers().forEach((name, nanos) -> {
+            String metric = metricName(name) + "_seconds_total";
+            sb.append("# TYPE ").append(metric).append(" counter\n");
+            sb.append(metric).append(' ').append(seconds(nanos)).append('\n');
+        });
+        snapshot.gauges().forEach((name, value) -> {
+            String metric = metricName(name);
+            sb.append("# TYPE ").append(metric).append(" gauge\n");
+            sb.append(metric).append(' ').append(value).append('\n');
+        });
+        for (LatencyHistogram.Summary h : snapshot.histograms()) {
+            String metric = metricName(h.name()) + "_seconds";
+            sb.append("# TYPE ").append(metric).append(" summary\n");
+            sb.append(metric).append("{quantile=\"0.5\"} ").append(seconds(h.p50())).append('\n');
+            sb.append(metric).append("{quantile=\"0.99\"} ").append(seconds(h.p99())).append('\n');
+            sb.append(metric).append("{quantile=\"0.999\"} ").append(seconds(h.p999())).append('\n');
+            sb.append(metric).append("_sum ").append(seconds(h.mean() * h.count())).append('\n');
+            sb.append(metric).append("_count ").append(h.count()).append('\n');
+            String max = metricName(h.name()) + "_max_seconds";
+            sb.append("# TYPE ").append(max).append(" gauge\n");
+            sb.append(max).append(' ').append(seconds(h.max())).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static String metricName(String name) {
+        StringBuilder sb = new StringBuilder("phd_".length() + name.length()).append("phd_");
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+            sb.append(valid ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static double seconds(double nanos) {
+        return nanos / 1e9;
+    }
+
+    /** Attributes named {@code counter.<name>}, {@code timer.<name>.nanos}, {@code gauge.<name>} and
+     *  {@code histogram.<name>.<count|mean|p50|p99|p999|max>} (nanoseconds). */
+    static Map<String, Object> attributes(PerformanceMetrics.Snapshot snapshot) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        snapshot.counters().forEach((name, value) -> attributes.put("counter." + name, value));
+        snapshot.timers().forEach((name, value) -> attributes.put("timer." + name + ".nanos", value));
+        snapshot.gauges().forEach((name, value) -> attributes.put("gauge." + name, value));
+        for (LatencyHistogram.Summary h : snapshot.histograms()) {
+            String prefix = "histogram." + h.name() + ".";
+            attributes.put(prefix + "count", h.count());
+            attributes.put(prefix + "mean", h.mean());
+            attributes.put(prefix + "p50", h.p50());
+            attributes.put(prefix + "p99", h.p99());
+            attributes.put(prefix + "p999", h.p999());
+            attributes.put(prefix + "max", h.max());
+        }
+        return attributes;
+    }
+
+    // Los atributos cambian a medida que aparecen métricas: se calculan en cada lectura
+    private static final class MetricsMBean implements DynamicMBean {
+        private final PerformanceMetrics metrics;
+
+        MetricsMBean(PerformanceMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Object value = attributes(metrics.snapshot()).get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            Map<String, Object> attributes = attributes(metrics.snapshot());
+            AttributeList list = new AttributeList();
+            for (String name : names) {
+                Object value = attributes.get(name);
+                if (value != null) {
+                    list.add(new Attribute(name, value));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(action));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            Map<String, Object> attributes = attributes(metrics.snapshot());
+            MBeanAttributeInfo[] infos = new MBeanAttributeInfo[attributes.size()];
+            int i = 0;
+            for (Map.Entry<String, Object> e : attributes.entrySet()) {
+                infos[i++] = new MBeanAttributeInfo(e.getKey(), e.getValue().getClass().getName(),
+                                                    e.getKey(), true, false, false);
+            }
+            return new MBeanInfo(MetricsMBean.class.getName(), "Performance metrics of the verification runs",
+                                 infos, null, null, null);
+        }
+    }
+}
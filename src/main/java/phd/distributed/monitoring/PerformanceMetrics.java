@@ -1,14 +1,21 @@
 package phd.distributed.monitoring;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 public class PerformanceMetrics {
     private static final PerformanceMetrics INSTANCE = new PerformanceMetrics();
 
     private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, AtomicLong> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    // Valores leídos al momento (profundidad de colas, progreso del checker); reset() no los borra
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
 
     public static PerformanceMetrics getInstance() {
         return INSTANCE;
@@ -22,6 +29,61 @@ public class PerformanceMetrics {
         timers.computeIfAbsent(name, k -> new AtomicLong()).addAndGet(nanos);
     }
 
+    /**
+     * Histogram for {@code name}, created on first use. Hot paths should keep the
+     * returned instance instead of looking it up on every call.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /** Adds one latency sample to the histogram {@code name}. */
+    public void recordLatency(String name, long nanos) {
+        histogram(name).record(nanos);
+    }
+
+    /** Merged summaries of every histogram, sorted by name. */
+    public List<LatencyHistogram.Summary> latencySummaries() {
+        return histograms.values().stream()
+            .map(LatencyHistogram::summary)
+            .sorted((a, b) -> a.name().compareTo(b.name()))
+            .toList();
+    }
+
+    /**
+     * Registers (or replaces) a gauge read on every {@link #snapshot()}. The supplier
+     * runs on the reading thread and must be cheap and thread-safe.
+     */
+    public void registerGauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Point-in-time copy of every metric, sorted by name, for exporters. Counters are
+     * summed, histogram shards merged and gauges read without taking any lock the
+     * recording threads use.
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, value) -> counterValues.put(name, value.sum()));
+        Map<String, Long> timerValues = new TreeMap<>();
+        timers.forEach((name, value) -> timerValues.put(name, value.get()));
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, value) -> gaugeValues.put(name, value.getAsLong()));
+        return new Snapshot(counterValues, timerValues, gaugeValues, latencySummaries());
+    }
+
+    /**
+     * @param timers     accumulated nanoseconds per timer
+     * @param histograms latency summaries in nanoseconds
+     */
+    public record Snapshot(Map<String, Long> counters, Map<String, Long> timers, Map<String, Long> gauges,
+                           List<LatencyHistogram.Summary> histograms) { }
+
     public long getCounter(String name) {
         LongAdder counter = counters.get(name);
         return counter != null ? counter.sum() : 0;
@@ -35,6 +97,8 @@ public class PerformanceMetrics {
     public void reset() {
         counters.clear();
         timers.clear();
+        // en su sitio: Wrapper y los productores guardan las instancias
+        histograms.values().forEach(LatencyHistogram::reset);
     }
 
     public String report() {
@@ -43,6 +107,7 @@ public class PerformanceMetrics {
             sb.append(String.format("  %s: %d%n", name, value.sum())));
         timers.forEach((name, value) ->
             sb.append(String.format("  %s: %.2f ms%n", name, value.get() / 1_000_000.0)));
+        latencySummaries().forEach(summary -> sb.append("  ").append(summary).append('\n'));
         return sb.toString();
     }
 }
@@ -0,0 +1,28 @@
+package phd.distributed.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Construction of X_E from the per-thread logs of a snapshot. */
+@Name("phd.distributed.BuildXE")
+@Label("Build X_E")
+@Category({"Distributed RV", "Recording"})
+@Description("Snapshot.buildXE: from the per-thread logs to the history the checker reads")
+@StackTrace(false)
+public class BuildXEEvent extends Event {
+
+    @Label("Snapshot")
+    public String snapshot;
+
+    @Label("Events")
+    @Description("Invocations and returns in X_E")
+    public int events;
+
+    @Label("Prefix")
+    @Description("Built at an early-abort checkpoint, while the producers wait")
+    public boolean prefix;
+}
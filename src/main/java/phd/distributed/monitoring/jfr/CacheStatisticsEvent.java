@@ -0,0 +1,48 @@
+package phd.distributed.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+import phd.distributed.monitoring.PerformanceMetrics;
+
+/** Periodic hit rate of the verification result cache (VerificationCache). */
+@Name("phd.distributed.CacheStatistics")
+@Label("Verification Cache Statistics")
+@Category({"Distributed RV", "Verification"})
+@Description("Hits and misses of the result cache since the metrics were last reset")
+@StackTrace(false)
+@Period("5 s")
+public class CacheStatisticsEvent extends Event {
+
+    @Label("Hits")
+    public long hits;
+
+    @Label("Misses")
+    public long misses;
+
+    @Label("Hit Rate")
+    public double hitRate;
+
+    private static boolean registered;
+
+    /** Registers the periodic hook; later calls do nothing. */
+    public static synchronized void register() {
+        if (registered) return;
+        registered = true;
+        FlightRecorder.addPeriodicEvent(CacheStatisticsEvent.class, () -> {
+            PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+            CacheStatisticsEvent event = new CacheStatisticsEvent();
+            event.hits = metrics.getCounter("cache.hits");
+            event.misses = metrics.getCounter("cache.misses");
+            long lookups = event.hits + event.misses;
+            event.hitRate = lookups == 0 ? 0.0 : (double) event.hits / lookups;
+            event.commit();
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package phd.distributed.monitoring.jfr;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import phd.distributed.config.SystemConfig;
+
+/**
+ * One operation executed by the Wrapper (snapshot write, apply and snapshot
+ * return). Only one operation in {@link SystemConfig#JFR_OPERATION_SAMPLE_INTERVAL}
+ * is timed, and of those only the ones above the threshold are committed, so a
+ * recording stays cheap on runs of millions of operations. With no recording
+ * enabling the event, {@link #sampled()} is a single flag read.
+ */
+@Name("phd.distributed.Operation")
+@Label("Wrapped Operation")
+@Category({"Distributed RV", "Recording"})
+@Description("Sampled operation of a producer thread, including its snapshot write and return")
+@StackTrace(false)
+@Threshold("100 us")
+public class OperationEvent extends Event {
+
+    private static final int SAMPLE_INTERVAL = Math.max(1, SystemConfig.JFR_OPERATION_SAMPLE_INTERVAL);
+    // isEnabled() sigue a las grabaciones que se inician y se detienen
+    private static final EventType TYPE = EventType.getEventType(OperationEvent.class);
+
+    @Label("Method")
+    public String method;
+
+    @Label("Process")
+    public int processId;
+
+    /**
+     * True for the operations to time: false while no recording enables the event,
+     * otherwise one in {@code SAMPLE_INTERVAL}, drawn per thread (uncontended, unlike
+     * a shared counter).
+     */
+    public static boolean sampled() {
+        return TYPE.isEnabled()
+               && (SAMPLE_INTERVAL == 1 || ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) == 0);
+    }
+}
@@ -0,0 +1,42 @@
+package phd.distributed.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One phase of a verification run: recording the history (producers) or checking it. */
+@Name("phd.distributed.RunPhase")
+@Label("Run Phase")
+@Category({"Distributed RV", "Run"})
+@Description("Producer or verification phase of a VerificationFramework run")
+@StackTrace(false)
+public class RunPhaseEvent extends Event {
+
+    public static final String PRODUCERS = "producers";
+    public static final String VERIFICATION = "verification";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Object Type")
+    public String objectType;
+
+    @Label("Snapshot")
+    public String snapshot;
+
+    @Label("Threads")
+    public int threads;
+
+    @Label("Operations")
+    public long operations;
+
+    @Label("Verdict")
+    @Description("Verdict of the verification phase; empty for the producers")
+    public String verdict;
+}
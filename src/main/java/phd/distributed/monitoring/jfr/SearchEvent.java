@@ -0,0 +1,51 @@
+package phd.distributed.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One linearizability search (typelin/check-history) with its node counts. */
+@Name("phd.distributed.Search")
+@Label("Linearizability Search")
+@Category({"Distributed RV", "Verification"})
+@Description("JitLinChecker.check: sanity pre-pass and DFS over the operations of X_E")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Object Type")
+    public String objectType;
+
+    @Label("Events")
+    public int events;
+
+    @Label("Operations")
+    @Description("Complete operations searched over; -1 when the pre-pass rejected the history")
+    public int operations;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Backtracks")
+    @Description("Nodes none of whose candidates led to a linearization")
+    public long backtracks;
+
+    @Label("Memo Hits")
+    @Description("Nodes cut because their configuration had already been explored")
+    public long memoHits;
+
+    @Label("Memo Hit Rate")
+    public double memoHitRate;
+
+    @Label("Max Depth")
+    public int maxDepth;
+
+    @Label("Stage")
+    @Description("prefilter or search")
+    public String stage;
+
+    @Label("Verdict")
+    public String verdict;
+}
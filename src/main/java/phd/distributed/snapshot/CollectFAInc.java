@@ -1,22 +1,29 @@
 package phd.distributed.snapshot;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import clojure.java.api.Clojure;
 import clojure.lang.IPersistentVector;
 import clojure.lang.IFn;
+import clojure.lang.ITransientCollection;
 import clojure.lang.Keyword;
+import clojure.lang.PersistentVector;
+import clojure.lang.RT;
 
 import phd.distributed.datamodel.OperationCall;
+import phd.distributed.datamodel.ValueCodec;
 import phd.distributed.config.SystemConfig;
 import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.EventPool;
 import phd.distributed.logging.AsyncEventLogger;
 import phd.distributed.logging.DisruptorEventLogger;
 import phd.distributed.logging.EventLogger;
+import phd.distributed.logging.PhaseLoggers;
 
 public class CollectFAInc extends Snapshot {
 
@@ -24,6 +31,13 @@ public class CollectFAInc extends Snapshot {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final EventLogger ASYNC_LOGGER = initLogger();
 
+    private static final Keyword KW_TYPE = Keyword.intern(null, "type");
+    private static final Keyword KW_OP_ID = Keyword.intern(null, "op-id");
+    private static final Keyword KW_TID = Keyword.intern(null, "tid");
+    private static final Keyword KW_OP = Keyword.intern(null, "op");
+    private static final Keyword KW_ARG = Keyword.intern(null, "arg");
+    private static final Keyword KW_COUNT = Keyword.intern(null, "count");
+
     private static EventLogger initLogger() {
         if (!SystemConfig.ASYNC_LOGGING_ENABLED) return null;
         return SystemConfig.USE_DISRUPTOR
@@ -31,75 +45,49 @@ public class CollectFAInc extends Snapshot {
             : AsyncEventLogger.getInstance();
     }
 
-    // Clojure interop
-    private final IFn initLogsFn;
-    private final IFn writeLogFn;
-    private final IFn xeForJitFn;
-    private final Keyword KW_INVOKE;
-    private final Keyword KW_RETURN;
-    // Per-thread last op-id (to reuse for the corresponding return)
-    private final String[] lastOpIdPerThread;
+    // Clojure interop; requiring-resolve loads the namespace under Clojure's load
+    // lock, so snapshots can be created from several threads at once
+    private static final IFn XE_FOR_JIT = Snapshot.resolve("logtAs/xe-for-jit");
+    private static final Keyword KW_INVOKE = Keyword.intern(null, "invoke");
+    private static final Keyword KW_RETURN = Keyword.intern(null, "return");
 
-    // Per-thread operation index (for generating unique op-ids)
-    private final int[] localOpIndex;
+    // Per-thread records (method id, typed arg/result, counter value per event)
+    private final ThreadLog[] logs;
 
-    public CollectFAInc(int numThreads) {
-        this.atomicCounter = new AtomicInteger(0);
+    // Tablas de la codificación de args/resultados; sólo las usa buildXE
+    private final ValueCodec codec = new ValueCodec();
 
-        // Require Clojure namespace log-tAs
-        Clojure.var("clojure.core", "require").invoke(Clojure.read("logtAs"));
-
-        // Get Clojure functions
-        this.initLogsFn = Clojure.var("logtAs", "init-logs!");
-        this.writeLogFn = Clojure.var("logtAs", "write-log-tAs!");
-        this.xeForJitFn = Clojure.var("logtAs", "xe-for-jit");
+    public CollectFAInc(int numThreads) {
+        this(numThreads, ThreadLog.DEFAULT_CAPACITY);
+    }
 
-        // Clojure keywords :invoke and :return
-        this.KW_INVOKE = Keyword.intern(null, "invoke");
-        this.KW_RETURN = Keyword.intern(null, "return");
+    /**
+     * @param opsPerThread expected operations per thread; the per-thread logs are
+     *                     sized for it up front so recording does not have to grow them
+     */
+    public CollectFAInc(int numThreads, int opsPerThread) {
+        this.atomicCounter = new AtomicInteger(0);
 
-        // Initialize logs-var in Clojure
-        initLogsFn.invoke(numThreads);
-        this.lastOpIdPerThread = new String[numThreads];
-        this.localOpIndex = new int[numThreads];
+        // All recording state belongs to this instance
+        this.logs = threadLogs(numThreads, opsPerThread, false);
     }
 
 
-    private String genOpId(int tid, int index) {
-        // Unique per (thread, operation index)
-        return "-" + tid + "-" + index;
-    }
 
     @Override
     public void write(int id, Object inv) {
         OperationCall call = (OperationCall) inv;
-        String opName = call.method().getName();
         Object arg    = call.args();
-        String args = call.argsAsString();
         int count = atomicCounter.incrementAndGet();
 
-        // Increase the per-thread operation index
-        int opIndex = ++localOpIndex[id];
-        String opId = genOpId(id, opIndex);  // unique operation id for this invocation
-
-        // Remember op-id for this thread, to reuse in the corresponding return
-        lastOpIdPerThread[id] = opId;
-
-        // Call Clojure: (write-log-tAs! :invoke tid op-id op arg count)
-        writeLogFn.invoke(
-                KW_INVOKE,                           // :invoke
-                id,                                  // tid
-                Keyword.intern(null, opId), // op-id as keyword
-                Keyword.intern(null, opName),        // op as keyword, e.g. :enqueue
-                args,                                 // arg
-                count                                // count
-        );
+        // Only ids and the captured argument are recorded; keywords and ids are made in buildXE
+        logs[id].invoke(methods.idOf(call.method()), ValueCodec.capture(arg), count);
 
         if (ASYNC_LOGGER != null) {
-            Event invEvent = new Event(id, inv, count);
+            Event invEvent = EventPool.obtain(id, inv, count);
             ASYNC_LOGGER.logEvent(invEvent);
         } else {
-            LOGGER.info("Thread {} will write an invocation: {}({})", id, opName, arg);
+            PhaseLoggers.RECORDING.info("Thread {} will write an invocation: {}({})", id, call.method().getName(), arg);
         }
 
 
@@ -109,24 +97,14 @@ public class CollectFAInc extends Snapshot {
     public void snapshot(int id, Object resObject) {
         int count = atomicCounter.incrementAndGet();
 
-        // You might later want to reuse the same op-id as the corresponding invocation.
-        String opId = lastOpIdPerThread[id];
-        String resString = objAsString(resObject);
-
-        writeLogFn.invoke(
-                KW_RETURN,                           // :return
-                id,                                  // tid
-                Keyword.intern(null, opId),          // op-id
-                Keyword.intern(null, "return"),      // op = :return
-                resString,                           // arg (used as :res in XE)
-                count                                // count
-        );
+        // The response belongs to the last invocation of this thread
+        logs[id].ret(ValueCodec.capture(resObject), count, null);
 
         if (ASYNC_LOGGER != null) {
-            Event resEvent = new Event(id, resObject, count);
+            Event resEvent = EventPool.obtain(id, resObject, count);
             ASYNC_LOGGER.logEvent(resEvent);
         } else {
-            LOGGER.info("Thread {} will write a response: {}", id, resString);
+            PhaseLoggers.RECORDING.info("Thread {} will write a response: {}", id, objAsString(resObject));
         }
     }
 
@@ -137,7 +115,32 @@ public class CollectFAInc extends Snapshot {
      */
     @Override
     public IPersistentVector buildXE() {
-        return (IPersistentVector) xeForJitFn.invoke();
+        return (IPersistentVector) XE_FOR_JIT.invoke(threadEvents());
+    }
+
+    /**
+     * Per-thread vectors of events as logtAs expects them:
+     * {:type :op-id :tid :op :arg :count}, with the result in :arg for returns.
+     */
+    private IPersistentVector threadEvents() {
+        List<Object> perThread = new ArrayList<>(logs.length);
+        for (ThreadLog log : logs) {
+            ITransientCollection events = PersistentVector.EMPTY.asTransient();
+            for (int i = 0; i < log.invoked(); i++) {
+                Keyword opId = OpIds.opId(log.tid, i + 1);
+                events = events.conj(RT.mapUniqueKeys(
+                    KW_TYPE, KW_INVOKE, KW_OP_ID, opId, KW_TID, log.tid,
+                    KW_OP, OpIds.method(methods.name(log.methodId(i))),
+                    KW_ARG, codec.encode(log.arg(i)), KW_COUNT, log.invStamp(i)));
+                if (i < log.returned()) {
+                    events = events.conj(RT.mapUniqueKeys(
+                        KW_TYPE, KW_RETURN, KW_OP_ID, opId, KW_TID, log.tid,
+                        KW_OP, KW_RETURN, KW_ARG, codec.encode(log.result(i)), KW_COUNT, log.retStamp(i)));
+                }
+            }
+            perThread.add(events.persistent());
+        }
+        return PersistentVector.create(perThread);
     }
 
     private String toResultString(Object resObject) {
@@ -1,20 +1,27 @@
 package phd.distributed.snapshot;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import clojure.java.api.Clojure;
 import clojure.lang.IFn;
 import clojure.lang.IPersistentVector;
+import clojure.lang.ITransientCollection;
 import clojure.lang.Keyword;
+import clojure.lang.PersistentVector;
+import clojure.lang.RT;
 import phd.distributed.config.SystemConfig;
 import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.EventPool;
 import phd.distributed.datamodel.OperationCall;
+import phd.distributed.datamodel.ValueCodec;
 import phd.distributed.logging.AsyncEventLogger;
 import phd.distributed.logging.DisruptorEventLogger;
 import phd.distributed.logging.EventLogger;
+import phd.distributed.logging.PhaseLoggers;
 
 public class CollectRAW extends Snapshot {
 
@@ -28,96 +35,68 @@ public class CollectRAW extends Snapshot {
             : AsyncEventLogger.getInstance();
     }
 
-    // Clojure interop
-    private final IFn initLogsFn;
-    private final IFn writeInvFn;
-    private final IFn writeResFn;
-    private final IFn xeForJitFn;
+    private static final Keyword KW_TYPE = Keyword.intern(null, "type");
+    private static final Keyword KW_INVOKE = Keyword.intern(null, "invoke");
+    private static final Keyword KW_RETURN = Keyword.intern(null, "return");
+    private static final Keyword KW_OP_ID = Keyword.intern(null, "op-id");
+    private static final Keyword KW_TID = Keyword.intern(null, "tid");
+    private static final Keyword KW_OP = Keyword.intern(null, "op");
+    private static final Keyword KW_ARG = Keyword.intern(null, "arg");
+    private static final Keyword KW_RES = Keyword.intern(null, "res");
+    private static final Keyword KW_VIEW_COUNTS = Keyword.intern(null, "view-counts");
 
-    // Per-thread last op-id (to reuse for the corresponding return)
-    private final String[] lastOpIdPerThread;
+    // Clojure interop (see CollectFAInc)
+    private static final IFn XE_FOR_JIT = Snapshot.resolve("logrAw/xe-for-jit-from-logs");
 
-    // Per-thread operation index (for generating unique op-ids)
-    private final int[] localOpIndex;
+    // Per-thread records; the view of a return is the invocation count of every thread
+    private final ThreadLog[] logs;
 
-    public CollectRAW(int numThreads) {
-        // Require Clojure namespace log-rAw
-        Clojure.var("clojure.core", "require").invoke(Clojure.read("logrAw"));
-
-        // Get Clojure functions
-        this.initLogsFn = Clojure.var("logrAw", "init-logs!");
-        this.writeInvFn = Clojure.var("logrAw", "log-invoke!");
-        this.writeResFn = Clojure.var("logrAw", "log-return!");
-        this.xeForJitFn = Clojure.var("logrAw", "xe-for-jit-from-logs");
-
-
-        // Initialize logs-var in Clojure
-        initLogsFn.invoke(numThreads);
+    // Tablas de la codificación de args/resultados; sólo las usa buildXE
+    private final ValueCodec codec = new ValueCodec();
 
-        this.lastOpIdPerThread = new String[numThreads];
-        this.localOpIndex = new int[numThreads];
+    public CollectRAW(int numThreads) {
+        this(numThreads, ThreadLog.DEFAULT_CAPACITY);
     }
 
-    private String genOpId(int tid, int index) {
-        // Unique per (thread, operation index)
-        return "-" + tid + "-" + index;
+    /**
+     * @param opsPerThread expected operations per thread; the per-thread logs are
+     *                     sized for it up front so recording does not have to grow them
+     */
+    public CollectRAW(int numThreads, int opsPerThread) {
+        // All recording state belongs to this instance
+        this.logs = threadLogs(numThreads, opsPerThread, true);
     }
 
+
     @Override
     public void write(int id, Object inv) {
         OperationCall call = (OperationCall) inv;
-        String opName = call.method().getName();
         Object arg    = call.args();
-        String args = call.argsAsString();
-
-        // Increase the per-thread operation index
-        int opIndex = ++localOpIndex[id];
-        String opId = genOpId(id, opIndex);  // unique operation id for this invocation
 
-        // Remember op-id for this thread, to reuse in the corresponding return
-        lastOpIdPerThread[id] = opId;
-
-        // Call Clojure: (log-invoke! tid op-id op arg)
-        writeInvFn.invoke(
-                id,                               // tid
-                Keyword.intern(null, opId),       // op-id as keyword
-                Keyword.intern(null, opName),     // op as keyword, e.g. :enqueue
-                args                              // arg
-        );
+        // Only ids and the captured argument are recorded; keywords and ids are made in buildXE
+        logs[id].invoke(methods.idOf(call.method()), ValueCodec.capture(arg), 0);
 
         if (ASYNC_LOGGER != null) {
-            Event invEvent = new Event(id, inv, id);
+            Event invEvent = EventPool.obtain(id, inv, id);
             ASYNC_LOGGER.logEvent(invEvent);
         } else {
-            LOGGER.info("Thread {} will write an invocation: {}({})", id, opName, arg);
+            PhaseLoggers.RECORDING.info("Thread {} will write an invocation: {}({})", id, call.method().getName(), arg);
         }
     }
 
     @Override
     public void snapshot(int id, Object resObject) {
-        // Reuse the same op-id as the last invocation of this thread
-        String opId = lastOpIdPerThread[id];
-        String resString = objAsString(resObject);
-
-
-        if (opId == null) {
-            // Optional: warn if snapshot is called before any invocation
+        // The response belongs to the last invocation of this thread; reading the
+        // invocation counts of all threads is the view
+        if (!logs[id].ret(ValueCodec.capture(resObject), 0, logs)) {
             LOGGER.warn("Thread {} snapshot called without a previous invocation op-id.", id);
-            // Got to throw here
         }
 
-        // Call Clojure: (log-return! tid op-id res)
-        writeResFn.invoke(
-                id,                               // tid
-                Keyword.intern(null, opId),       // op-id
-                resString                         // res
-        );
-
         if (ASYNC_LOGGER != null) {
-            Event resEvent = new Event(id, resObject, id);
+            Event resEvent = EventPool.obtain(id, resObject, id);
             ASYNC_LOGGER.logEvent(resEvent);
         } else {
-            LOGGER.info("Thread {} will write a response: {}", id, resString);
+            PhaseLoggers.RECORDING.info("Thread {} will write a response: {}", id, objAsString(resObject));
         }
     }
 
@@ -127,8 +106,32 @@ public class CollectRAW extends Snapshot {
      */
     @Override
     public IPersistentVector buildXE() {
-        LOGGER.info("-- In build");
-        return (IPersistentVector) xeForJitFn.invoke();
+        PhaseLoggers.XE.debug("-- In build");
+        List<Object> invs = new ArrayList<>(logs.length);
+        List<Object> returns = new ArrayList<>(logs.length);
+        for (ThreadLog log : logs) {
+            ITransientCollection inv = PersistentVector.EMPTY.asTransient();
+            ITransientCollection ret = PersistentVector.EMPTY.asTransient();
+            for (int i = 0; i < log.invoked(); i++) {
+                Keyword opId = OpIds.opId(log.tid, i + 1);
+                inv = inv.conj(RT.mapUniqueKeys(
+                    KW_TYPE, KW_INVOKE, KW_OP_ID, opId, KW_TID, log.tid,
+                    KW_OP, OpIds.method(methods.name(log.methodId(i))), KW_ARG, codec.encode(log.arg(i))));
+                if (i < log.returned()) {
+                    Object[] counts = new Object[logs.length];
+                    for (int t = 0; t < counts.length; t++) {
+                        counts[t] = log.view(i, t);
+                    }
+                    ret = ret.conj(RT.mapUniqueKeys(
+                        KW_TYPE, KW_RETURN, KW_OP_ID, opId, KW_TID, log.tid,
+                        KW_RES, codec.encode(log.result(i)), KW_VIEW_COUNTS, PersistentVector.create(counts)));
+                }
+            }
+            invs.add(inv.persistent());
+            returns.add(ret.persistent());
+        }
+        return (IPersistentVector) XE_FOR_JIT.invoke(
+            PersistentVector.create(invs), PersistentVector.create(returns));
     }
 
     public String objAsString(Object obj) {
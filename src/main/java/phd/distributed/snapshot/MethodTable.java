@@ -0,0 +1,57 @@
+package phd.distributed.snapshot;
+
+import java.util.Arrays;
+import java.util.List;
+
+import phd.distributed.datamodel.MethodInf;
+
+/**
+ * Compact method ids for one snapshot.
+ *
+ * Ids normally come from the algorithm ({@link MethodInf#getId()}, the position
+ * in {@code methods()}), registered once before the run. A method seen for the
+ * first time while recording (built by hand, or from another algorithm) gets the
+ * next free id. Lookups do not lock; only registration does.
+ */
+final class MethodTable {
+
+    private volatile MethodInf[] byId = new MethodInf[0];
+
+    /** Registers every method of an algorithm under its own id. */
+    void registerAll(List<MethodInf> methods) {
+        for (MethodInf m : methods) {
+            register(m);
+        }
+    }
+
+    int idOf(MethodInf m) {
+        MethodInf[] t = byId;
+        int id = m.getId();
+        if (id >= 0 && id < t.length && t[id] == m) {
+            return id;
+        }
+        for (int i = 0; i < t.length; i++) {
+            if (t[i] == m) return i;
+        }
+        return register(m);
+    }
+
+    private synchronized int register(MethodInf m) {
+        MethodInf[] t = byId;
+        for (int i = 0; i < t.length; i++) {
+            if (t[i] == m) return i;
+        }
+        int id = m.getId();
+        if (id < 0 || (id < t.length && t[id] != null)) {
+            id = t.length;
+        }
+        MethodInf[] grown = Arrays.copyOf(t, Math.max(t.length, id + 1));
+        grown[id] = m;
+        byId = grown;
+        return id;
+    }
+
+    String name(int id) {
+        return byId[id].getName();
+    }
+}
@@ -0,0 +1,98 @@
+package phd.distributed.snapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import clojure.lang.Keyword;
+import phd.distributed.config.SystemConfig;
+
+/**
+ * Operation ids and the keywords the X_E uses for them.
+ *
+ * While recording, an operation is identified by a long,
+ * {@code tid << 32 | index} (index starts at 1). The keywords
+ * ({@code :-tid-index} and operation names) are only materialized when a
+ * snapshot builds its X_E.
+ *
+ * With {@code feature.object.pooling} on, op-id keywords are kept in a
+ * per-thread table that survives across runs, so repeated runs stop building a
+ * String and a Symbol for every operation. Readers do not lock: a missing or
+ * not-yet-visible entry just falls back to the synchronized slow path.
+ */
+final class OpIds {
+
+    private static final boolean CACHED = SystemConfig.FEATURES.objectPooling;
+
+    private static final ConcurrentMap<String, Keyword> METHODS = new ConcurrentHashMap<>();
+    private static volatile Keyword[][] table = new Keyword[0][];
+
+    private OpIds() { }
+
+    /** Long op-id of operation {@code index} of thread {@code tid}. */
+    static long encode(int tid, int index) {
+        return ((long) tid << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    static int tid(long opId) {
+        return (int) (opId >>> 32);
+    }
+
+    static int index(long opId) {
+        return (int) opId;
+    }
+
+    /** Keyword for a long op-id. */
+    static Keyword opId(long opId) {
+        return opId(tid(opId), index(opId));
+    }
+
+    static String name(int tid, int index) {
+        return "-" + tid + "-" + index;
+    }
+
+    /** Keyword for operation {@code index} of thread {@code tid}. */
+    static Keyword opId(int tid, int index) {
+        if (!CACHED) {
+            return Keyword.intern(null, name(tid, index));
+        }
+        Keyword[][] t = table;
+        if (tid < t.length) {
+            Keyword[] row = t[tid];
+            if (row != null && index < row.length) {
+                Keyword k = row[index];
+                if (k != null) return k;
+            }
+        }
+        return intern(tid, index);
+    }
+
+    private static synchronized Keyword intern(int tid, int index) {
+        Keyword[][] t = table;
+        if (tid >= t.length) {
+            t = Arrays.copyOf(t, tid + 1);
+        } else {
+            t = t.clone();
+        }
+        Keyword[] row = t[tid];
+        if (row == null) {
+            row = new Keyword[Math.max(64, index + 1)];
+        } else if (index >= row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, index + 1));
+        }
+        Keyword k = row[index];
+        if (k == null) {
+            k = Keyword.intern(null, name(tid, index));
+            row[index] = k;
+        }
+        t[tid] = row;
+        table = t;
+        return k;
+    }
+
+    /** Keyword for an operation name, e.g. {@code :offer}. */
+    static Keyword method(String name) {
+        Keyword k = METHODS.get(name);
+        return k != null ? k : METHODS.computeIfAbsent(name, n -> Keyword.intern(null, n));
+    }
+}
@@ -1,10 +1,44 @@
 package phd.distributed.snapshot;
 
+import java.util.List;
+
+import clojure.java.api.Clojure;
+import clojure.lang.IFn;
 import clojure.lang.IPersistentVector;
+import clojure.lang.Symbol;
+import phd.distributed.datamodel.MethodInf;
 
 public abstract class Snapshot {
+
+    private static final IFn REQUIRING_RESOLVE = Clojure.var("clojure.core", "requiring-resolve");
+
+    // Compact ids of the recorded methods, resolved to names in buildXE
+    final MethodTable methods = new MethodTable();
+
     public abstract void write(int id, Object invocation);
     public abstract void snapshot(int id, Object response);
     public abstract IPersistentVector buildXE();
     //public abstract Set<Event> scanAll();
-}
\ No newline at end of file
+
+    /** Assigns method ids from the algorithm once, before the run starts. */
+    public void registerMethods(List<MethodInf> algorithmMethods) {
+        methods.registerAll(algorithmMethods);
+    }
+
+    /**
+     * Resolves a Clojure var, loading its namespace if needed. Unlike {@code require},
+     * {@code requiring-resolve} loads under Clojure's load lock, so it is safe when
+     * several snapshots (or checkers) are created concurrently.
+     */
+    public static IFn resolve(String qualifiedName) {
+        return (IFn) REQUIRING_RESOLVE.invoke(Symbol.intern(qualifiedName));
+    }
+
+    static ThreadLog[] threadLogs(int numThreads, int opsPerThread, boolean views) {
+        ThreadLog[] logs = new ThreadLog[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            logs[t] = new ThreadLog(t, opsPerThread, views ? numThreads : 0);
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,130 @@
+package phd.distributed.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Append-only record of the operations of one thread, kept in primitive arrays.
+ *
+ * Only the owning thread writes to it, so recording takes no lock; once the
+ * arrays have grown to the run size it does not allocate either. Other threads
+ * only read {@link #published()}, the number of invocations recorded so far,
+ * which is what a CollectRAW view needs. Everything else is read by
+ * {@code buildXE} after the producers are done.
+ */
+final class ThreadLog {
+
+    static final int DEFAULT_CAPACITY = 64;
+
+    final int tid;
+
+    private int[] methodIds;
+    private Object[] args;
+    private Object[] results;
+    // Global counter values (CollectFAInc); unused by CollectRAW
+    private int[] invStamps;
+    private int[] retStamps;
+    // Per-thread invocation counts seen at each return, viewWidth entries per op (CollectRAW)
+    private int[] views;
+    private final int viewWidth;
+
+    private int invoked;
+    private int returned;
+    private volatile int published;
+
+    ThreadLog(int tid, int capacity, int viewWidth) {
+        int n = Math.max(1, capacity);
+        this.tid = tid;
+        this.viewWidth = viewWidth;
+        this.methodIds = new int[n];
+        this.args = new Object[n];
+        this.results = new Object[n];
+        this.invStamps = new int[n];
+        this.retStamps = new int[n];
+        this.views = new int[viewWidth == 0 ? 0 : n * viewWidth];
+    }
+
+    /** Records an invocation and returns its long op-id. */
+    long invoke(int methodId, Object arg, int stamp) {
+        int i = invoked;
+        if (i == methodIds.length) {
+            grow();
+        }
+        methodIds[i] = methodId;
+        args[i] = arg;
+        invStamps[i] = stamp;
+        invoked = i + 1;
+        published = i + 1;
+        return OpIds.encode(tid, i + 1);
+    }
+
+    /**
+     * Records the result of the pending invocation. With {@code viewOf} non-null,
+     * also records how many invocations each of those logs had published.
+     * @return false (and records nothing) if there is no pending invocation
+     */
+    boolean ret(Object res, int stamp, ThreadLog[] viewOf) {
+        int i = returned;
+        if (i == invoked) {
+            return false;
+        }
+        results[i] = res;
+        retStamps[i] = stamp;
+        if (viewOf != null) {
+            int base = i * viewWidth;
+            for (int t = 0; t < viewWidth; t++) {
+                views[base + t] = viewOf[t].published();
+            }
+        }
+        returned = i + 1;
+        return true;
+    }
+
+    int published() {
+        return published;
+    }
+
+    int invoked() {
+        return invoked;
+    }
+
+    int returned() {
+        return returned;
+    }
+
+    int methodId(int i) {
+        return methodIds[i];
+    }
+
+    Object arg(int i) {
+        return args[i];
+    }
+
+    Object result(int i) {
+        return results[i];
+    }
+
+    int invStamp(int i) {
+        return invStamps[i];
+    }
+
+    int retStamp(int i) {
+        return retStamps[i];
+    }
+
+    /** Invocations of thread {@code t} visible when operation {@code i} returned. */
+    int view(int i, int t) {
+        return views[i * viewWidth + t];
+    }
+
+    private void grow() {
+        int n = methodIds.length * 2;
+        methodIds = Arrays.copyOf(methodIds, n);
+        args = Arrays.copyOf(args, n);
+        results = Arrays.copyOf(results, n);
+        invStamps = Arrays.copyOf(invStamps, n);
+        retStamps = Arrays.copyOf(retStamps, n);
+        if (viewWidth > 0) {
+            views = Arrays.copyOf(views, n * viewWidth);
+        }
+    }
+}
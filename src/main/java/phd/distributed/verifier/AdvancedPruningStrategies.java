@@ -2,86 +2,83 @@ package phd.distributed.verifier;
 
 import phd.distributed.datamodel.Event;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class AdvancedPruningStrategies {
 
+    /**
+     * Commutes independent operations only: two orders of operations on
+     * different keys (or otherwise commuting) reach the same configuration
+     * and the second one is cut by the configuration cache.
+     */
     public static class DependencyAwarePruning implements PruningStrategy {
         @Override
         public List<Event> prune(List<Event> events) {
-            if (events.size() < 100) return events;
-
-            // Keep first and last event per thread, plus events with unique operations
-            Map<Integer, List<Event>> byThread = events.stream()
-                .collect(Collectors.groupingBy(Event::getId));
-
-            List<Event> pruned = new ArrayList<>();
-            for (List<Event> threadEvents : byThread.values()) {
-                if (threadEvents.isEmpty()) continue;
-
-                pruned.add(threadEvents.get(0)); // First
-                if (threadEvents.size() > 2) {
-                    // Add middle events with unique operations
-                    Set<String> seen = new HashSet<>();
-                    for (int i = 1; i < threadEvents.size() - 1; i++) {
-                        String op = String.valueOf(threadEvents.get(i).getEvent());
-                        if (seen.add(op)) {
-                            pruned.add(threadEvents.get(i));
-                        }
-                    }
-                }
-                if (threadEvents.size() > 1) {
-                    pruned.add(threadEvents.get(threadEvents.size() - 1)); // Last
-                }
-            }
+            return events;
+        }
 
-            pruned.sort(Comparator.comparingInt(Event::getCounter));
-            return pruned;
+        @Override
+        public boolean memoizeConfigurations() {
+            return true;
         }
     }
 
-    public static class SamplingPruning implements PruningStrategy {
+    /**
+     * Used to keep a sample of the events, which can hide a violation.
+     *
+     * @deprecated the rate is ignored and the history is checked whole, with the
+     *             reductions of {@link DependencyAwarePruning}; use that instead.
+     */
+    @Deprecated(forRemoval = true)
+    public static class SamplingPruning extends DependencyAwarePruning {
         private final double sampleRate;
 
         public SamplingPruning(double sampleRate) {
             this.sampleRate = Math.max(0.1, Math.min(1.0, sampleRate));
         }
 
-        @Override
-        public List<Event> prune(List<Event> events) {
-            if (events.size() < 100) return events;
+        /** The rate it was created with; no longer applied. */
+        public double getSampleRate() {
+            return sampleRate;
+        }
+    }
 
-            int targetSize = (int) (events.size() * sampleRate);
-            int step = Math.max(1, events.size() / targetSize);
+    /**
+     * Skips the reductions for small histories, where building the
+     * configuration cache costs more than the interleavings it saves.
+     */
+    public static class AdaptivePruning implements PruningStrategy {
+        private static final int MIN_EVENTS = 100;
 
-            List<Event> pruned = new ArrayList<>();
-            for (int i = 0; i < events.size(); i += step) {
-                pruned.add(events.get(i));
-            }
+        private final int events;
 
-            return pruned;
+        /** @param events size of the history to check, which picks the reductions */
+        public AdaptivePruning(int events) {
+            this.events = events;
+        }
+
+        /**
+         * @deprecated the strategy no longer looks at the history it prunes, so without
+         *             its size every reduction is on; use {@link #AdaptivePruning(int)}.
+         */
+        @Deprecated
+        public AdaptivePruning() {
+            this(Integer.MAX_VALUE);
         }
-    }
 
-    public static class AdaptivePruning implements PruningStrategy {
         @Override
         public List<Event> prune(List<Event> events) {
-            if (events.size() < 100) return events;
+            return events;
+        }
 
-            // Choose strategy based on event count
-            if (events.size() < 1000) {
-                return new PartialOrderReduction().prune(events);
-            } else if (events.size() < 10000) {
-                return new DependencyAwarePruning().prune(events);
-            } else {
-                return new SamplingPruning(0.5).prune(events);
-            }
+        @Override
+        public boolean memoizeConfigurations() {
+            return events >= MIN_EVENTS;
+        }
+
+        @Override
+        public boolean fireReadOnlyEagerly() {
+            return true;
         }
     }
 }
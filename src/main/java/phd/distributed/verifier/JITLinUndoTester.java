@@ -25,6 +25,7 @@ public class JITLinUndoTester<S extends Undoable> {
     private Event[] events;
     private int maxReached = 0;
     private volatile boolean interrupted = false;
+    private SearchBudget budget = null;
 
     @SuppressWarnings("unchecked")
     public JITLinUndoTester(S seqObj, int p, long maxSize, boolean verbose) {
@@ -41,6 +42,28 @@ public class JITLinUndoTester<S extends Undoable> {
         }
     }
 
+    /**
+     * Bounds the search with a step/time budget; {@link #solve(Event[])} returns
+     * {@link Solver#OutOfSteam} when it runs out and {@link Solver#Interrupted}
+     * when the budget is cancelled.
+     */
+    public JITLinUndoTester<S> withBudget(SearchBudget budget) {
+        this.budget = budget;
+        // cancelling the run sets the interrupted flag as well
+        budget.onCancel(this::interrupt);
+        return this;
+    }
+
+    /** Cooperative cancellation: {@link #solve(Event[])} stops at its next step. */
+    public void interrupt() {
+        this.interrupted = true;
+    }
+
+    /** Index of the furthest event the search reached. */
+    public int getMaxReached() {
+        return maxReached;
+    }
+
     // Factories to be used in SharedLog
     public MkInvoke<S> mkInvoke() {
         return (t, msg, op) -> new InvokeEvent<>(t, msg, op);
@@ -123,10 +146,23 @@ public class JITLinUndoTester<S extends Undoable> {
     // ================== Main algorithm ==================
 
     public int solve(Event[] es) {
+        if (budget == null) return search(es);
+        budget.setTotalOps(es.length);
+        budget.start();
+        try {
+            return search(es);
+        } finally {
+            budget.finish();
+        }
+    }
+
+    private int search(Event[] es) {
         this.events = es;
         Deque<StackObject> stack = new ArrayDeque<>();
         StackObject current = new SolveObj(0);
         long count = 0L;
+        // event index of the last node, reported to the budget as the current depth
+        int depth = 0;
 
         while (current != null || !stack.isEmpty()) {
             if (interrupted) return Solver.Interrupted;
@@ -136,6 +172,14 @@ public class JITLinUndoTester<S extends Undoable> {
                 LOGGER.warn("JIT Tree Search giving up (maxSize={} reached).", maxSize);
                 return Solver.OutOfSteam;
             }
+            if (budget != null) {
+                if (!budget.tick(depth)) {
+                    LOGGER.warn("JIT Tree Search giving up ({}).", budget);
+                    return budget.getStop() == SearchBudget.Stop.CANCELLED
+                            ? Solver.Interrupted : Solver.OutOfSteam;
+                }
+                budget.frontier(stack.size());
+            }
 
             if (current == null) {
                 current = stack.pop();
@@ -143,6 +187,7 @@ public class JITLinUndoTester<S extends Undoable> {
 
             if (current instanceof SolveObj) {
                 int i = ((SolveObj) current).i;
+                depth = i;
 
                 // Base case
                 if (i == es.length) return Solver.Success;
@@ -205,6 +250,7 @@ public class JITLinUndoTester<S extends Undoable> {
                     LOGGER.info("Undoing: T{} invokes {}", u.t, u.msg);
 
                 config.uninvoke(u.t, u.msg, u.op, u.result);
+                if (budget != null) budget.backtrack();
                 current = null; // continue with top of stack
             }
 
@@ -214,6 +260,7 @@ public class JITLinUndoTester<S extends Undoable> {
                 int t = f.t;
                 int i = f.i;
                 int t1 = f.t1;
+                depth = i;
 
                 if (t1 >= p) {
                     current = null;
@@ -276,6 +323,8 @@ public class JITLinUndoTester<S extends Undoable> {
                     LOGGER.info("{}: Undoing: T{} firing", u.i, u.t1);
 
                 config.undo(u.t1, u.prev);
+                if (budget != null) budget.backtrack();
+                depth = u.i;
                 current = nextFireEvent(u.t, u.i, u.t1);
             }
         }
@@ -3,12 +3,29 @@ package phd.distributed.verifier;
 import phd.distributed.config.SystemConfig;
 import phd.distributed.datamodel.Event;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Selects how much the linearizability search may reduce its state space.
+ *
+ * Dropping events from a history can turn a violation into a pass, so
+ * {@link #prune(List)} must return the history unchanged; the reductions
+ * are applied inside the search (jitlin/check-linearizable-dfs), where they
+ * only skip interleavings that are equivalent to one already explored.
+ */
 public interface PruningStrategy {
     List<Event> prune(List<Event> events);
 
+    /** Cache failed (done-set, state) configurations so equivalent interleavings are explored once. */
+    default boolean memoizeConfigurations() {
+        return false;
+    }
+
+    /** Fire ready read-only operations whose result already matches without branching on them. */
+    default boolean fireReadOnlyEagerly() {
+        return false;
+    }
+
     static PruningStrategy getDefault() {
         return SystemConfig.FEATURES.smartPruning ?
             new PartialOrderReduction() : new NoPruning();
@@ -25,19 +42,17 @@ class NoPruning implements PruningStrategy {
 class PartialOrderReduction implements PruningStrategy {
     @Override
     public List<Event> prune(List<Event> events) {
-        if (events.size() < 100) return events;
-
-        // Simple pruning: remove redundant consecutive events from same thread
-        List<Event> pruned = new ArrayList<>();
-        Event prev = null;
+        // Every event constrains the search; reduction happens while searching.
+        return events;
+    }
 
-        for (Event e : events) {
-            if (prev == null || prev.getId() != e.getId()) {
-                pruned.add(e);
-            }
-            prev = e;
-        }
+    @Override
+    public boolean memoizeConfigurations() {
+        return true;
+    }
 
-        return pruned;
+    @Override
+    public boolean fireReadOnlyEagerly() {
+        return true;
     }
 }
@@ -0,0 +1,262 @@
+package phd.distributed.verifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Step and wall-clock budget for a linearizability search, plus a cancel flag.
+ *
+ * The same object is handed to the Clojure search (typelin/check-history,
+ * option {@code :budget}) and to {@link JITLinUndoTester}: both call
+ * {@link #tick(int)} once per node and give up as soon as it returns false.
+ * It also records how far the search got, so an aborted run can still report
+ * its progress; the counters are safe to read from any thread while the search
+ * runs, which is how progress is polled (see {@link #getNodesPerSecond()}).
+ *
+ * The parallel search ticks from several workers at once, so each worker counts
+ * its nodes locally and adds them to the shared total every {@code FLUSH_STRIDE}
+ * nodes; the step limit is checked against that total, and near the limit every
+ * node is flushed, so one worker stops exactly at {@code maxSteps} and parallel
+ * workers overshoot it by less than {@code FLUSH_STRIDE} nodes each. Progress
+ * reads add the nodes not yet flushed.
+ */
+public final class SearchBudget {
+
+    /** Why the search was stopped. */
+    public enum Stop { NONE, STEPS, DEADLINE, CANCELLED }
+
+    // nanoTime is only read once every CLOCK_STRIDE steps of a worker
+    private static final int CLOCK_STRIDE = 256;
+    // A worker publishes its count every FLUSH_STRIDE nodes, or every node once
+    // fewer than EXACT_MARGIN steps are left
+    private static final int FLUSH_STRIDE = 64;
+    private static final long EXACT_MARGIN = FLUSH_STRIDE * 64L;
+
+    private final long maxSteps;
+    private final long timeLimitNanos;
+
+    // Nodes flushed by the workers; each worker holds the rest in its Worker
+    private final AtomicLong steps = new AtomicLong();
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Worker> worker = ThreadLocal.withInitial(this::register);
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    // Nodes with no successful continuation, and nodes cut by the memo of failed configurations
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder memoHits = new LongAdder();
+    // Last reported values, overwritten by whichever search thread got there last
+    private volatile Worker lastWorker;
+    private volatile int frontier;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile long deadline = Long.MAX_VALUE;
+    private volatile int totalOps = -1;
+    private volatile Stop stop = Stop.NONE;
+    // Run on cancel(): solver interrupt flags, producers of the run
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param maxSteps  nodes the search may visit, {@code <= 0} for no limit
+     * @param timeLimit wall-clock time from {@link #start()}, {@code null} for no limit
+     */
+    public SearchBudget(long maxSteps, Duration timeLimit) {
+        this.maxSteps = maxSteps <= 0 ? Long.MAX_VALUE : maxSteps;
+        this.timeLimitNanos = timeLimit == null ? Long.MAX_VALUE : timeLimit.toNanos();
+    }
+
+    /** A budget that only stops on {@link #cancel()}. */
+    public static SearchBudget unlimited() {
+        return new SearchBudget(0, null);
+    }
+
+    /** Starts the wall-clock budget; called when the search begins. */
+    public SearchBudget start() {
+        long now = System.nanoTime();
+        this.startNanos = now;
+        this.endNanos = 0L;
+        this.deadline = timeLimitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + timeLimitNanos;
+        return this;
+    }
+
+    /**
+     * Accounts one search node at the given depth (operations linearized so far).
+     * @return false once the budget is exhausted or cancelled
+     */
+    public boolean tick(int depth) {
+        if (stop != Stop.NONE) return false;
+
+        Worker w = worker.get();
+        w.depth = depth;
+        if (depth > w.maxDepth) {
+            w.maxDepth = depth;
+            if (depth > maxDepth.get()) {
+                maxDepth.accumulateAndGet(depth, Math::max);
+            }
+        }
+
+        if (++w.pending >= w.stride) {
+            long n = steps.addAndGet(w.pending);
+            w.pending = 0;
+            w.stride = maxSteps - n > EXACT_MARGIN ? FLUSH_STRIDE : 1;
+            lastWorker = w;
+            if (n > maxSteps) {
+                exhaust(Stop.STEPS);
+                return false;
+            }
+        }
+        if (++w.ticks % CLOCK_STRIDE == 0 && System.nanoTime() - deadline > 0) {
+            exhaust(Stop.DEADLINE);
+            return false;
+        }
+        return true;
+    }
+
+    private Worker register() {
+        Worker w = new Worker();
+        w.stride = maxSteps > EXACT_MARGIN ? FLUSH_STRIDE : 1;
+        workers.add(w);
+        lastWorker = w;
+        return w;
+    }
+
+    // Contadores de un hilo de búsqueda; sólo él los escribe, los lectores toleran
+    // valores algo atrasados
+    private static final class Worker {
+        int pending;
+        int stride;
+        int depth;
+        int maxDepth;
+        long ticks;
+    }
+
+    /** Accounts a node all of whose candidates failed (the search backtracks from it). */
+    public void backtrack() {
+        backtracks.increment();
+    }
+
+    /**
+     * Reports the open branches of the search: candidates of the node being expanded
+     * for the Clojure search, entries of the undo stack for {@link JITLinUndoTester}.
+     */
+    public void frontier(int size) {
+        this.frontier = size;
+    }
+
+    /** Accounts a node cut because its configuration was already explored. */
+    public void memoHit() {
+        memoHits.increment();
+    }
+
+    /** Freezes the elapsed time once the search returns, so the rate stays that of the search. */
+    public void finish() {
+        if (startNanos != 0L) {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Cooperative cancellation: every search using this budget stops at its next node,
+     * and the {@link #onCancel(Runnable) hooks} run (once) on the calling thread.
+     */
+    public void cancel() {
+        exhaust(Stop.CANCELLED);
+        for (Runnable hook : cancelHooks) {
+            if (cancelHooks.remove(hook)) {
+                hook.run();
+            }
+        }
+    }
+
+    /**
+     * Runs {@code hook} when the budget is cancelled, right away if it already is.
+     * Hooks must be cheap and must not block: they run on the cancelling thread.
+     */
+    public void onCancel(Runnable hook) {
+        cancelHooks.add(hook);
+        // cancel() may have drained the hooks before this one was added
+        if (stop == Stop.CANCELLED && cancelHooks.remove(hook)) {
+            hook.run();
+        }
+    }
+
+    private synchronized void exhaust(Stop reason) {
+        if (stop == Stop.NONE) {
+            stop = reason;
+        }
+    }
+
+    public boolean isExhausted() {
+        return stop != Stop.NONE;
+    }
+
+    public Stop getStop() {
+        return stop;
+    }
+
+    public long getSteps() {
+        long n = steps.get();
+        for (Worker w : workers) {
+            n += w.pending;
+        }
+        return Math.min(n, maxSteps);
+    }
+
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    public long getMemoHits() {
+        return memoHits.sum();
+    }
+
+    /** Depth of the node visited last by the worker that reported last. */
+    public int getCurrentDepth() {
+        Worker w = lastWorker;
+        return w == null ? 0 : w.depth;
+    }
+
+    /** Open branches last reported with {@link #frontier(int)}. */
+    public int getFrontier() {
+        return frontier;
+    }
+
+    /** Time from {@link #start()} to {@link #finish()} or now, 0 if the search has not started. */
+    public long getElapsedNanos() {
+        long start = startNanos;
+        if (start == 0L) return 0L;
+        long end = endNanos;
+        return (end == 0L ? System.nanoTime() : end) - start;
+    }
+
+    /** Average search rate since {@link #start()}. */
+    public double getNodesPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed <= 0L ? 0.0 : getSteps() * 1e9 / elapsed;
+    }
+
+    /** Largest number of operations linearized on any explored path. */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Depth of a complete linearization: complete operations for the Clojure search,
+     * events for {@link JITLinUndoTester}; -1 before the search starts.
+     */
+    public int getTotalOps() {
+        return totalOps;
+    }
+
+    public void setTotalOps(int totalOps) {
+        this.totalOps = totalOps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchBudget{steps=%d, depth=%d/%d, stop=%s}",
+            getSteps(), getMaxDepth(), totalOps, stop);
+    }
+}
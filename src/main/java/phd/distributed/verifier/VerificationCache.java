@@ -5,6 +5,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import phd.distributed.config.SystemConfig;
 import phd.distributed.datamodel.Event;
 import phd.distributed.monitoring.PerformanceMetrics;
+import phd.distributed.monitoring.jfr.CacheStatisticsEvent;
 
 import java.time.Duration;
 import java.util.List;
@@ -20,6 +21,7 @@ public class VerificationCache {
             .expireAfterWrite(Duration.ofMinutes(30))
             .recordStats()
             .build();
+        CacheStatisticsEvent.register();
     }
 
     public Optional<CachedResult> get(List<Event> events) {
@@ -0,0 +1,138 @@
+package phd.distributed.api;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import phd.distributed.campaign.WorkloadSpec;
+import phd.distributed.datamodel.OperationCall;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class KeyDistributionTest {
+
+    private static final int SAMPLES = 200_000;
+
+    private static int[] histogram(KeyDistribution keys) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[keys.getKeySpace()];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[keys.key(i, random)]++;
+        }
+        return counts;
+    }
+
+    @Test
+    void testZipfianFavoursTheFirstKeys() {
+        int[] counts = histogram(KeyDistribution.zipfian(1000, 0.99));
+
+        double zeta = 0.0;
+        for (int i = 1; i <= 1000; i++) {
+            zeta += 1.0 / Math.pow(i, 0.99);
+        }
+        // P(key 0) = 1 / zeta(n)
+        assertEquals(1.0 / zeta, counts[0] / (double) SAMPLES, 0.01);
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[10] && counts[10] > counts[900]);
+        int top10 = 0;
+        for (int i = 0; i < 10; i++) {
+            top10 += counts[i];
+        }
+        assertTrue(top10 > SAMPLES * 0.35, "top 10 keys got " + top10);
+    }
+
+    @Test
+    void testHotspotSplitsOpsBetweenHotAndColdKeys() {
+        int[] counts = histogram(KeyDistribution.hotspot(1000, 0.2, 0.8));
+        int hot = 0;
+        for (int i = 0; i < 200; i++) {
+            hot += counts[i];
+        }
+        assertEquals(0.8, hot / (double) SAMPLES, 0.01);
+        assertTrue(counts[999] > 0);
+    }
+
+    @Test
+    void testUniformAndSequential() {
+        int[] counts = histogram(KeyDistribution.uniform(10));
+        for (int c : counts) {
+            assertEquals(0.1, c / (double) SAMPLES, 0.01);
+        }
+
+        KeyDistribution sequential = KeyDistribution.sequential(3);
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(List.of(0, 1, 2, 0, 1),
+                     List.of(sequential.key(0, random), sequential.key(1, random), sequential.key(2, random),
+                             sequential.key(3, random), sequential.key(4, random)));
+    }
+
+    @Test
+    void testNamesRoundTrip() {
+        for (KeyDistribution keys : List.of(KeyDistribution.uniform(50), KeyDistribution.sequential(7),
+                                            KeyDistribution.zipfian(100, 0.9),
+                                            KeyDistribution.hotspot(100, 0.1, 0.9))) {
+            assertEquals(keys.getName(), KeyDistribution.byName(keys.getName()).getName());
+        }
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.byName("zipfian-100"));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.byName("pareto-100"));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.zipfian(100, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.uniform(0));
+
+        WorkloadSpec spec = WorkloadSpec.byName("read-heavy-0.9+zipfian-100-0.9");
+        assertEquals("read-heavy-0.9+zipfian-100-0.9", spec.getName());
+        assertEquals("zipfian-100-0.9", spec.create(10, 2, 1L).getKeys().getName());
+    }
+
+    @Test
+    void testWorkloadPatternDrawsItsKeys() {
+        DistAlgorithm map = new A(ConcurrentHashMap.class.getName(), "put", "get");
+        WorkloadPattern pattern = WorkloadPattern.withSeed(500, 2, 7L)
+            .withKeys(KeyDistribution.hotspot(100, 0.05, 1.0));
+
+        List<OperationCall> ops = pattern.generateOperations(map, "map");
+        assertEquals(500, ops.size());
+        for (OperationCall op : ops) {
+            Object key = op.args() instanceof Object[] args ? args[0] : op.args();
+            int k = Integer.parseInt(key.toString().substring("obj-".length()));
+            assertTrue(k < 5, "key outside the hot set: " + key);
+        }
+
+        // same seed, same operations
+        List<OperationCall> again = pattern.withKeys(KeyDistribution.hotspot(100, 0.05, 1.0))
+            .generateOperations(map, "map");
+        assertEquals(ops.toString(), again.toString());
+    }
+
+    @Test
+    void testPutsOnTheSameKeyWriteDifferentValues() {
+        DistAlgorithm map = new A(ConcurrentHashMap.class.getName(), "put");
+        // every put on key 0
+        WorkloadPattern pattern = WorkloadPattern.withSeed(50, 1, 3L).withKeys(KeyDistribution.hotspot(100, 0.01, 1.0));
+
+        Set<Object> values = new HashSet<>();
+        for (OperationCall op : pattern.generateOperations(map, "map")) {
+            Object[] args = (Object[]) op.args();
+            assertEquals("obj-0", args[0].toString());
+            assertTrue(values.add(args[1]), "value " + args[1] + " written twice on " + args[0]);
+        }
+        assertEquals(50, values.size());
+    }
+
+    @Test
+    void testSkewedMapRunIsLinearizable() {
+        VerificationResult result = VerificationFramework.verify(ConcurrentHashMap.class)
+            .withThreads(2)
+            .withOperations(40)
+            .withObjectType("map")
+            .withWorkload(WorkloadPattern.readHeavy(40, 2, 0.5, 3L).withKeys(KeyDistribution.zipfian(8, 0.99)))
+            .run();
+        assertEquals(VerificationResult.Verdict.LINEARIZABLE, result.getVerdict());
+    }
+}
@@ -0,0 +1,114 @@
+package phd.distributed.api;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import phd.distributed.verifier.SearchBudget;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class SearchProgressTest {
+
+    @Test
+    void testBudgetReportsLiveCounters() throws Exception {
+        SearchBudget budget = SearchBudget.unlimited();
+        assertEquals(0L, budget.getElapsedNanos());
+        assertEquals(0.0, budget.getNodesPerSecond());
+
+        budget.start();
+        budget.tick(3);
+        budget.tick(5);
+        budget.tick(4);
+        budget.frontier(2);
+        budget.backtrack();
+        budget.memoHit();
+        Thread.sleep(2);
+        budget.finish();
+
+        VerificationResult.SearchProgress progress = VerificationFramework.progressOf(budget);
+        assertEquals(3, progress.getSteps());
+        assertEquals(4, progress.getCurrentDepth());
+        assertEquals(5, progress.getMaxDepth());
+        assertEquals(2, progress.getFrontier());
+        assertEquals(1, progress.getBacktracks());
+        assertEquals(1, progress.getMemoHits());
+        assertTrue(progress.getNodesPerSecond() > 0.0);
+        // the elapsed time stops with the search
+        long elapsed = budget.getElapsedNanos();
+        Thread.sleep(2);
+        assertEquals(elapsed, budget.getElapsedNanos());
+    }
+
+    @Test
+    void testWorkersCountLocallyAndStillStopAtTheLimit() throws Exception {
+        SearchBudget budget = SearchBudget.unlimited().start();
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_001; i++) {
+                    budget.tick(i % 7);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        // the nodes a worker has not flushed yet are counted too
+        assertEquals(40_004, budget.getSteps());
+        assertEquals(6, budget.getMaxDepth());
+
+        // near the limit every node is flushed: one worker stops exactly there
+        SearchBudget limited = new SearchBudget(10_000, null).start();
+        int visited = 0;
+        while (limited.tick(1)) {
+            visited++;
+        }
+        assertEquals(10_000, visited);
+        assertEquals(SearchBudget.Stop.STEPS, limited.getStop());
+        assertEquals(10_000, limited.getSteps());
+    }
+
+    @Test
+    void testListenerAndStatisticsSeeTheSearch() {
+        List<VerificationResult.SearchProgress> polled = new CopyOnWriteArrayList<>();
+
+        VerificationResult result = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+            .withThreads(2)
+            .withOperations(60)
+            .withObjectType("queue")
+            .withProgressListener(Duration.ofMillis(1), polled::add)
+            .run();
+
+        assertEquals(VerificationResult.Verdict.LINEARIZABLE, result.getVerdict());
+        assertFalse(polled.isEmpty());
+        // the last call carries the final counters
+        VerificationResult.SearchProgress last = polled.get(polled.size() - 1);
+        assertTrue(last.getSteps() > 0);
+        assertEquals(result.getSearchProgress().getSteps(), last.getSteps());
+
+        VerificationResult.ExecutionStatistics stats = result.getStatistics();
+        assertEquals(60, stats.getTotalOperations());
+        assertEquals(120, stats.getEventsProcessed());
+        assertNotNull(stats.getSearch());
+        assertEquals(last.getSteps(), stats.getSearch().getSteps());
+    }
+
+    @Test
+    void testProgressIntervalMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () ->
+            VerificationFramework.verify(ConcurrentLinkedQueue.class)
+                .withProgressListener(Duration.ZERO, p -> { }));
+    }
+}
@@ -0,0 +1,182 @@
+package phd.distributed.api;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import phd.distributed.verifier.SearchBudget;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class VerificationExecutorsTest {
+
+    private static ThreadPoolExecutor pool(int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @Test
+    void testCancellingTheBudgetStopsTheProducers() throws Exception {
+        ThreadPoolExecutor producers = pool(2);
+        SearchBudget budget = SearchBudget.unlimited();
+        try {
+            CompletableFuture<VerificationResult> future = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+                .withThreads(2)
+                .withOperations(1_000_000)
+                .withObjectType("queue")
+                .withProducerExecutor(producers)
+                .runAsync(budget);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (producers.getActiveCount() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, producers.getActiveCount(), "the producers did not start");
+
+            // same path as the timeout of run(): the producers must not keep running on the pool
+            budget.cancel();
+            assertEquals(VerificationResult.Verdict.UNKNOWN, future.get(5, TimeUnit.SECONDS).getVerdict());
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (producers.getActiveCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, producers.getActiveCount());
+            assertEquals(2, producers.getCompletedTaskCount());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFullAdmissionQueueRejects() throws Exception {
+        // one run at a time, one waiting
+        ThreadPoolExecutor admission = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                              new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            admission.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            VerificationFramework.VerificationBuilder builder = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+                .withThreads(2)
+                .withOperations(20)
+                .withObjectType("queue")
+                .withOrchestrationExecutor(admission);
+
+            CompletableFuture<VerificationResult> queued = builder.runAsync();
+            CompletableFuture<VerificationResult> rejected = builder.runAsync();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+            release.countDown();
+            assertEquals(VerificationResult.Verdict.LINEARIZABLE, queued.get(60, TimeUnit.SECONDS).getVerdict());
+        } finally {
+            release.countDown();
+            admission.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBlockingAdmissionWaitsForRoom() throws Exception {
+        ThreadPoolExecutor admission = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                              new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // one run holding the executor, one in the queue: the next one does not fit
+            admission.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            admission.execute(() -> { });
+            VerificationFramework.VerificationBuilder builder = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+                .withThreads(2)
+                .withOperations(20)
+                .withObjectType("queue")
+                .withOrchestrationExecutor(admission)
+                .withBlockingAdmission();
+
+            FutureTask<CompletableFuture<VerificationResult>> submitted = new FutureTask<>(builder::runAsync);
+            new Thread(submitted, "submitter").start();
+            Thread.sleep(100);
+            assertFalse(submitted.isDone(), "the run was not kept waiting for admission");
+
+            release.countDown();
+            VerificationResult result = submitted.get(10, TimeUnit.SECONDS).get(60, TimeUnit.SECONDS);
+            assertEquals(VerificationResult.Verdict.LINEARIZABLE, result.getVerdict());
+        } finally {
+            release.countDown();
+            admission.shutdownNow();
+        }
+    }
+
+    @Test
+    void testProducerAndVerifierExecutorsAreUsed() {
+        ThreadPoolExecutor producers = pool(2);
+        ThreadPoolExecutor verifiers = pool(1);
+        AtomicInteger verifications = new AtomicInteger();
+        Executor countingVerifier = task -> {
+            verifications.incrementAndGet();
+            verifiers.execute(task);
+        };
+        try {
+            VerificationResult result = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+                .withThreads(2)
+                .withOperations(40)
+                .withObjectType("queue")
+                .withOrchestrationExecutor(Executors.newSingleThreadExecutor())
+                .withProducerExecutor(producers)
+                .withVerifierExecutor(countingVerifier)
+                .run();
+
+            assertEquals(VerificationResult.Verdict.LINEARIZABLE, result.getVerdict());
+            assertEquals(40, result.getStatistics().getTotalOperations());
+            assertEquals(2, producers.getCompletedTaskCount());
+            assertEquals(1, verifications.get());
+            // a pool handed to the builder is not shut down by the run
+            assertTrue(!producers.isShutdown());
+        } finally {
+            producers.shutdownNow();
+            verifiers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCancelHooksRunOnce() {
+        SearchBudget budget = SearchBudget.unlimited();
+        AtomicInteger before = new AtomicInteger();
+        budget.onCancel(before::incrementAndGet);
+        budget.cancel();
+        budget.cancel();
+        assertEquals(1, before.get());
+
+        // registered after the cancellation: runs right away
+        AtomicInteger after = new AtomicInteger();
+        budget.onCancel(after::incrementAndGet);
+        assertEquals(1, after.get());
+    }
+}
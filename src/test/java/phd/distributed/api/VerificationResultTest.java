@@ -66,4 +66,28 @@ class VerificationResultTest {
         assertEquals("Test violation", result.getViolations().get(0).getDescription());
         assertEquals("trace", result.getViolations().get(0).getTrace());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUnknownResultKeepsProgressAndHistory() {
+        VerificationResult.SearchProgress progress =
+            new VerificationResult.SearchProgress(1000, 12, 40, "STEPS");
+
+        VerificationResult result = new VerificationResult(
+            VerificationResult.Verdict.UNKNOWN,
+            Duration.ofMillis(50),
+            Duration.ofMillis(10),
+            Duration.ofMillis(40),
+            null,
+            new VerificationResult.ExecutionStatistics(20, 40),
+            progress,
+            List.of("e1", "e2")
+        );
+
+        assertTrue(result.isUnknown());
+        assertFalse(result.isCorrect());
+        assertEquals(VerificationResult.Verdict.UNKNOWN, result.getVerdict());
+        assertEquals(12, result.getSearchProgress().getMaxDepth());
+        assertEquals("STEPS", result.getSearchProgress().getStop());
+        assertEquals(2, result.getHistory().size());
+    }
+}
@@ -0,0 +1,133 @@
+package phd.distributed.api;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class VerificationStreamTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(60);
+
+    private static boolean isPhase(VerificationEvent event, String phase) {
+        return event instanceof VerificationEvent.PhaseStarted started && started.phase().equals(phase);
+    }
+
+    private static boolean isSample(VerificationEvent event) {
+        return event instanceof VerificationEvent.Throughput || event instanceof VerificationEvent.Progress;
+    }
+
+    @Test
+    void testPhasesThenResult() {
+        Flux<VerificationEvent> events = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+            .withThreads(2)
+            .withOperations(60)
+            .withObjectType("queue")
+            .runStream(Duration.ofMillis(1))
+            .filter(e -> !isSample(e));
+
+        StepVerifier.create(events)
+            .expectNextMatches(e -> isPhase(e, "producers"))
+            .expectNextMatches(e -> isPhase(e, "verification")
+                                    && ((VerificationEvent.PhaseStarted) e).executedOps() == 60)
+            .expectNextMatches(e -> e instanceof VerificationEvent.Completed done
+                                    && done.result().getVerdict() == VerificationResult.Verdict.LINEARIZABLE)
+            .expectComplete()
+            .verify(WAIT);
+    }
+
+    @Test
+    void testSamplesFollowTheRun() {
+        Flux<VerificationEvent> events = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+            .withThreads(2)
+            .withOperations(300)
+            .withObjectType("queue")
+            .runStream(Duration.ofMillis(1));
+
+        StepVerifier.create(events)
+            .recordWith(ArrayList::new)
+            .thenConsumeWhile(e -> !(e instanceof VerificationEvent.Completed))
+            .consumeRecordedWith(recorded -> {
+                List<VerificationEvent> all = List.copyOf(recorded);
+                long lastOps = -1;
+                boolean producers = false;
+                for (VerificationEvent e : all) {
+                    if (isPhase(e, "producers")) producers = true;
+                    if (e instanceof VerificationEvent.Throughput t) {
+                        // throughput only while the producers run, never going back
+                        assertTrue(producers);
+                        assertTrue(t.executedOps() >= lastOps);
+                        lastOps = t.executedOps();
+                    }
+                }
+                assertTrue(all.stream().anyMatch(e -> e instanceof VerificationEvent.Throughput), all.toString());
+            })
+            .expectNextMatches(e -> e instanceof VerificationEvent.Completed)
+            .expectComplete()
+            .verify(WAIT);
+    }
+
+    @Test
+    void testNothingIsDeliveredBeyondDemand() {
+        Flux<VerificationEvent> events = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+            .withThreads(2)
+            .withOperations(60)
+            .withObjectType("queue")
+            .runStream(Duration.ofMillis(1));
+
+        // samples are skipped while there is no demand; phases and the result wait for it
+        StepVerifier.create(events, 1)
+            .expectNextMatches(e -> isPhase(e, "producers"))
+            .expectNoEvent(Duration.ofMillis(300))
+            .thenRequest(Long.MAX_VALUE)
+            .thenConsumeWhile(e -> !(e instanceof VerificationEvent.Completed))
+            .expectNextMatches(e -> e instanceof VerificationEvent.Completed)
+            .expectComplete()
+            .verify(WAIT);
+    }
+
+    @Test
+    void testCancellationStopsProducersAndSearch() throws InterruptedException {
+        CountDownLatch searched = new CountDownLatch(1);
+        AtomicReference<VerificationResult.SearchProgress> last = new AtomicReference<>();
+        Flux<VerificationEvent> events = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+            .withThreads(2)
+            .withOperations(1_000_000)
+            .withObjectType("queue")
+            .withProgressListener(Duration.ofSeconds(1), progress -> {
+                last.set(progress);
+                searched.countDown();
+            })
+            .runStream(Duration.ofMillis(10));
+
+        StepVerifier.create(events)
+            .expectNextMatches(e -> isPhase(e, "producers"))
+            .thenCancel()
+            .verify(WAIT);
+
+        // without the cancellation the producers alone would run for the 10 s producer timeout
+        assertTrue(searched.await(5, TimeUnit.SECONDS), "the run did not stop after the cancellation");
+        assertEquals("CANCELLED", last.get().getStop());
+    }
+
+    @Test
+    void testSampleIntervalMustBePositive() {
+        VerificationFramework.VerificationBuilder builder = VerificationFramework.verify(ConcurrentLinkedQueue.class);
+        assertThrows(IllegalArgumentException.class, () -> builder.runStream(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.runStream(null));
+    }
+}
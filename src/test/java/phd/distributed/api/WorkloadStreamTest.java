@@ -0,0 +1,95 @@
+package phd.distributed.api;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import phd.distributed.core.Executioner;
+import phd.distributed.datamodel.OperationCall;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@Tag("fast")
+class WorkloadStreamTest {
+
+    private static final DistAlgorithm MAP = new A(ConcurrentHashMap.class.getName(), "put", "get", "remove");
+
+    private static List<String> take(WorkloadPattern.OperationStream stream, int pid, int from, int count) {
+        List<String> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ops.add(stream.next(pid, from + i).toString());
+        }
+        return ops;
+    }
+
+    @Test
+    void testEachProcessIsIndependentOfTheOthers() throws InterruptedException {
+        WorkloadPattern pattern = WorkloadPattern.readHeavy(4_000, 4, 0.7, 11L)
+            .withKeys(KeyDistribution.zipfian(100, 0.99));
+
+        // one process after the other
+        WorkloadPattern.OperationStream sequential = pattern.stream(MAP, "map", 4);
+        List<List<String>> expected = new ArrayList<>();
+        for (int pid = 0; pid < 4; pid++) {
+            expected.add(take(sequential, pid, pid * 1_000, 1_000));
+        }
+
+        // every process on its own thread, in whatever order they get scheduled
+        WorkloadPattern.OperationStream concurrent = pattern.stream(MAP, "map", 4);
+        List<List<String>> actual = new ArrayList<>(List.of(List.of(), List.of(), List.of(), List.of()));
+        List<Thread> producers = new ArrayList<>();
+        for (int pid = 3; pid >= 0; pid--) {
+            int p = pid;
+            Thread t = new Thread(() -> actual.set(p, take(concurrent, p, p * 1_000, 1_000)));
+            producers.add(t);
+            t.start();
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        assertEquals(expected, actual);
+
+        // another seed, other operations
+        WorkloadPattern other = WorkloadPattern.readHeavy(4_000, 4, 0.7, 12L)
+            .withKeys(KeyDistribution.zipfian(100, 0.99));
+        assertNotEquals(expected.get(0), take(other.stream(MAP, "map", 4), 0, 0, 1_000));
+    }
+
+    @Test
+    void testGeneratedListIsTheStreamsOneAfterAnother() {
+        WorkloadPattern pattern = WorkloadPattern.writeHeavy(10, 3, 0.6, 5L);
+        List<OperationCall> list = pattern.generateOperations(MAP, "map");
+
+        WorkloadPattern.OperationStream stream = pattern.stream(MAP, "map", 3);
+        List<String> streamed = new ArrayList<>();
+        streamed.addAll(take(stream, 0, 0, 4));   // 10 ops over 3 threads: 4, 3, 3
+        streamed.addAll(take(stream, 1, 4, 3));
+        streamed.addAll(take(stream, 2, 7, 3));
+
+        assertEquals(10, list.size());
+        assertEquals(streamed, list.stream().map(OperationCall::toString).toList());
+        // and it does not depend on what was generated before
+        assertEquals(list.toString(), pattern.generateOperations(MAP, "map").toString());
+    }
+
+    @Test
+    void testExecutionerStreamsThePattern() {
+        DistAlgorithm queue = new A(ConcurrentLinkedQueue.class.getName(), "offer", "poll");
+        Executioner executioner = new Executioner(2, 200, queue, "queue", "gAIsnap");
+
+        executioner.taskProducers(WorkloadPattern.producerConsumer(200, 2, 0.6, 3L));
+
+        assertEquals(200, executioner.getExecutedOps());
+        assertEquals(VerificationResult.Verdict.LINEARIZABLE, executioner.taskVerifiers(null));
+
+        Executioner tooLong = new Executioner(2, 300, queue, "queue", "gAIsnap");
+        assertThrows(IllegalArgumentException.class,
+                     () -> tooLong.taskProducers(WorkloadPattern.producerConsumer(200, 2, 0.6, 3L)));
+    }
+}
@@ -0,0 +1,204 @@
+package phd.distributed.campaign;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class CampaignTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Tag("fast")
+    void testMatrixExpansionAndStableSeeds() {
+        Campaign campaign = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .algorithm("ConcurrentHashMap", "map", "put", "get")
+            .threads(2, 4)
+            .operations(10, 20, 30)
+            .workloads(WorkloadSpec.random(), WorkloadSpec.producerConsumer(0.7))
+            .snapshots("gAIsnap", "rAwsnap")
+            .build();
+
+        List<CampaignRun> runs = campaign.getRuns();
+        assertEquals(2 * 2 * 3 * 2 * 2, runs.size());
+        Set<String> ids = runs.stream().map(CampaignRun::id).collect(Collectors.toSet());
+        assertEquals(runs.size(), ids.size(), "run ids must be unique");
+
+        CampaignRun map = runs.stream().filter(r -> r.algorithm().equals("ConcurrentHashMap")).findFirst().orElseThrow();
+        assertEquals("map", map.objectType());
+        assertEquals(List.of("put", "get"), map.methods());
+
+        // Same campaign seed, same per-run seeds
+        Campaign again = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .threads(2, 4)
+            .operations(10, 20, 30)
+            .workloads(WorkloadSpec.random(), WorkloadSpec.producerConsumer(0.7))
+            .snapshots("gAIsnap", "rAwsnap")
+            .build();
+        for (CampaignRun r : again.getRuns()) {
+            CampaignRun same = runs.stream().filter(x -> x.id().equals(r.id())).findFirst().orElseThrow();
+            assertEquals(same.seed(), r.seed());
+        }
+    }
+
+    @Test
+    @Tag("fast")
+    void testObjectTypeFollowsTheLibraryCategory() {
+        Campaign campaign = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .algorithm("ConcurrentLinkedDeque")
+            .algorithm("ConcurrentSkipListSet")
+            .algorithm("ConcurrentSkipListMap")
+            .build();
+        assertEquals(List.of("queue", "deque", "set", "map"),
+                     campaign.getRuns().stream().map(CampaignRun::objectType).toList());
+        assertThrows(IllegalArgumentException.class, () -> Campaign.builder().algorithm("NoSuchAlgorithm"));
+    }
+
+    @Test
+    @Tag("fast")
+    void testResumeReadsBackCompletedRuns() throws Exception {
+        Campaign campaign = Campaign.builder().algorithm("ConcurrentLinkedQueue").threads(2, 3).build();
+        CampaignRun first = campaign.getRuns().get(0);
+        CampaignRun second = campaign.getRuns().get(1);
+
+        for (String name : List.of("results.csv", "results.jsonl")) {
+            Path file = dir.resolve(name);
+            try (ResultWriter writer = ResultWriter.open(file, false)) {
+                writer.write(new CampaignResult(first, "LINEARIZABLE", 1, 2, 3, 4, null));
+                writer.write(new CampaignResult(second, CampaignResult.ERROR, -1, -1, 5, -1,
+                                                "failed, with \"quotes\""));
+            }
+            // a line cut short by a crash does not count as done
+            Files.writeString(file, Files.readString(file) + "ConcurrentLinkedQueue/x",
+                              StandardOpenOption.TRUNCATE_EXISTING);
+
+            try (ResultWriter writer = ResultWriter.open(file, true)) {
+                assertEquals(Set.of(first.id(), second.id()), writer.completedRunIds(), name);
+            }
+        }
+    }
+
+    @Test
+    void testRunnerStreamsResultsAndSkipsThemOnResume() throws Exception {
+        Campaign campaign = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .algorithm("NonLinearizableQueue")
+            .threads(2)
+            .operations(12)
+            .snapshots("gAIsnap", "rAwsnap")
+            .build();
+        Path file = dir.resolve("campaign.jsonl");
+
+        CampaignRunner.Summary summary;
+        try (ResultWriter writer = ResultWriter.open(file, false)) {
+            summary = new CampaignRunner(campaign, 4).run(writer);
+        }
+        assertEquals(4, summary.executed());
+        assertEquals(0, summary.errors());
+        assertEquals(4, Files.readAllLines(file).size());
+        Set<String> verdicts = new HashSet<>();
+        for (String line : Files.readAllLines(file)) {
+            verdicts.add(line.replaceAll(".*\"verdict\":\"([A-Z]+)\".*", "$1"));
+        }
+        assertTrue(verdicts.contains("LINEARIZABLE"), verdicts.toString());
+
+        try (ResultWriter writer = ResultWriter.open(file, true)) {
+            CampaignRunner.Summary resumed = new CampaignRunner(campaign, 4).run(writer);
+            assertEquals(4, resumed.skipped());
+            assertEquals(0, resumed.executed());
+        }
+        assertEquals(4, Files.readAllLines(file).size());
+    }
+
+    @Test
+    @Tag("fast")
+    void testRunsWithinTheCoreBudgetOverlap() throws Exception {
+        // two runs of 2 producers fit together in 6 cores once 2 go to the search pool
+        Campaign campaign = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .threads(2)
+            .snapshots("gAIsnap", "rAwsnap")
+            .build();
+        CyclicBarrier bothInFlight = new CyclicBarrier(2);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CampaignRunner runner = new CampaignRunner(campaign, 6, 2, run -> {
+            try {
+                // only passes if the other run is executing at the same time
+                bothInFlight.await(10, TimeUnit.SECONDS);
+                overlapped.set(true);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                return new CampaignResult(run, CampaignResult.ERROR, -1, -1, 0, -1, "not concurrent");
+            }
+            return new CampaignResult(run, "LINEARIZABLE", 1, 1, 1, 1, null);
+        });
+        assertEquals(2, runner.costOf(campaign.getRuns().get(0)));
+
+        CampaignRunner.Summary summary;
+        try (ResultWriter writer = ResultWriter.open(dir.resolve("overlap.jsonl"), false)) {
+            summary = runner.run(writer);
+        }
+        assertTrue(overlapped.get(), "the two runs were never in flight at once");
+        assertEquals(0, summary.errors());
+        assertEquals(2, summary.linearizable());
+    }
+
+    @Test
+    @Tag("fast")
+    void testProducersAndSearchPoolStayWithinTheBudget() throws Exception {
+        Campaign campaign = Campaign.builder()
+            .algorithm("ConcurrentLinkedQueue")
+            .threads(1, 2, 5)
+            .snapshots("gAIsnap", "rAwsnap")
+            .build();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CampaignRunner runner = new CampaignRunner(campaign, 4, 2, run -> {
+            int now = inFlight.addAndGet(Math.min(2, run.threads()));
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.addAndGet(-Math.min(2, run.threads()));
+            }
+            return new CampaignResult(run, "LINEARIZABLE", 1, 1, 1, 1, null);
+        });
+        assertEquals(2, runner.producerCores());
+        for (CampaignRun run : campaign.getRuns()) {
+            assertEquals(Math.min(2, run.threads()), runner.costOf(run));
+        }
+        // con más búsqueda que núcleos queda al menos uno para producir
+        assertEquals(1, new CampaignRunner(campaign, 4, 8, run -> null).producerCores());
+
+        CampaignRunner.Summary summary;
+        try (ResultWriter writer = ResultWriter.open(dir.resolve("bound.jsonl"), false)) {
+            summary = runner.run(writer);
+        }
+        assertEquals(campaign.getRuns().size(), summary.linearizable());
+        assertTrue(peak.get() + 2 <= 4, "producers " + peak.get() + " + 2 search workers exceed 4 cores");
+    }
+}
@@ -0,0 +1,121 @@
+package phd.distributed.core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import phd.distributed.api.A;
+import phd.distributed.api.VerificationResult.Verdict;
+import phd.distributed.datamodel.MethodInf;
+import phd.distributed.datamodel.OperationCall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class EarlyAbortTest {
+
+    /** Queue whose offers take 20 ms each. */
+    public static class SlowQueue<E> extends ConcurrentLinkedQueue<E> {
+        @Override
+        public boolean offer(E e) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return super.offer(e);
+        }
+    }
+
+    // offer(a) offer(b) offer(c) poll() poll(): NonLinearizableQueue answers a, c
+    private static List<OperationCall> offersThenPolls(A alg, int ops) {
+        MethodInf offer = alg.methods().stream().filter(m -> m.getName().equals("offer")).findFirst().orElseThrow();
+        MethodInf poll = alg.methods().stream().filter(m -> m.getName().equals("poll")).findFirst().orElseThrow();
+        List<OperationCall> schedule = new ArrayList<>();
+        for (int i = 0; schedule.size() < ops; i++) {
+            schedule.add(new OperationCall(i % 5 < 3 ? i : null, i % 5 < 3 ? offer : poll));
+        }
+        return schedule;
+    }
+
+    @Test
+    @Tag("fast")
+    void testViolatingPrefixStopsTheProducers() {
+        A alg = new A("phd.distributed.verifier.NonLinearizableQueue", "offer", "poll");
+        Executioner executioner = new Executioner(1, 400, alg, "queue", "gAIsnap");
+        executioner.enableEarlyAbort(10, 0L, null);
+
+        executioner.taskProducersSeed(offersThenPolls(alg, 400));
+
+        assertTrue(executioner.isAbortedEarly());
+        assertFalse(executioner.isTruncated());
+        assertTrue(executioner.getExecutedOps() < 400, "executed " + executioner.getExecutedOps());
+        assertEquals(Verdict.VIOLATION, executioner.taskVerifiers(null));
+        // the failing prefix is the history of the run: every executed op, complete
+        assertEquals(2 * executioner.getExecutedOps(), executioner.getHistory().count());
+    }
+
+    @Test
+    void testLinearizableRunGoesThroughEveryCheckpoint() {
+        A alg = new A("java.util.concurrent.ConcurrentLinkedQueue", "offer", "poll");
+        Executioner executioner = new Executioner(2, 120, alg, "queue", "rAwsnap");
+        executioner.enableEarlyAbort(8, 0L, null);
+
+        executioner.taskProducers();
+
+        assertFalse(executioner.isAbortedEarly());
+        assertEquals(120, executioner.getExecutedOps());
+        assertEquals(Verdict.LINEARIZABLE, executioner.taskVerifiers(null));
+        assertEquals(240, executioner.getHistory().count());
+    }
+
+    @Test
+    @Tag("fast")
+    void testStoppedExecutionerRunsNothing() {
+        A alg = new A("java.util.concurrent.ConcurrentLinkedQueue", "offer", "poll");
+        Executioner executioner = new Executioner(2, 50, alg, "queue", "gAIsnap");
+        executioner.stop();
+
+        executioner.taskProducers();
+
+        assertTrue(executioner.isStopped());
+        assertEquals(0, executioner.getExecutedOps());
+    }
+
+    @Test
+    @Tag("fast")
+    void testTimedOutProducersAreReportedAsTruncated() {
+        A alg = new A(SlowQueue.class.getName(), "offer");
+        Executioner executioner = new Executioner(1, 50, alg, "queue", "gAIsnap");
+        executioner.enableEarlyAbort(4, 0L, null);
+        // 50 offers of 20 ms do not fit in 200 ms
+        executioner.setProducersWait(Duration.ofMillis(200));
+
+        executioner.taskProducers();
+
+        assertTrue(executioner.isTruncated());
+        assertFalse(executioner.isAbortedEarly());
+        assertTrue(executioner.getExecutedOps() < 50, "executed " + executioner.getExecutedOps());
+        // what was recorded is still verified
+        assertEquals(Verdict.LINEARIZABLE, executioner.taskVerifiers(null));
+    }
+
+    @Test
+    @Tag("fast")
+    void testStoppedRunIsNotTruncated() {
+        A alg = new A(SlowQueue.class.getName(), "offer");
+        Executioner executioner = new Executioner(1, 50, alg, "queue", "gAIsnap");
+        executioner.setProducersWait(Duration.ofMillis(200));
+        executioner.stop();
+
+        executioner.taskProducers();
+
+        assertFalse(executioner.isTruncated());
+    }
+}
@@ -0,0 +1,161 @@
+package phd.distributed.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import clojure.java.api.Clojure;
+import clojure.lang.IFn;
+import clojure.lang.ILookup;
+import clojure.lang.IPersistentVector;
+import clojure.lang.Keyword;
+import phd.distributed.api.VerificationResult.Verdict;
+import phd.distributed.verifier.PruningStrategy;
+import phd.distributed.verifier.SearchBudget;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class JitLinCheckerTest {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static IPersistentVector xe(String edn) {
+        return (IPersistentVector) Clojure.read(edn);
+    }
+
+    private static ILookup checkHistory(String specType, IPersistentVector xe) {
+        Clojure.var("clojure.core", "require").invoke(Clojure.read("typelin"));
+        IFn check = Clojure.var("typelin", "check-history");
+        return (ILookup) check.invoke(Keyword.intern(null, specType), xe);
+    }
+
+    private static Object rule(ILookup result) {
+        ILookup witness = (ILookup) result.valAt(Keyword.intern(null, "witness"));
+        assertNotNull(witness);
+        return witness.valAt(Keyword.intern(null, "rule"));
+    }
+
+    @Test
+    void testLinearizableQueueHistory() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :offer :arg \"1\"}"
+            + "{:type :invoke :op-id :b :tid 1 :op :poll :arg nil}"
+            + "{:type :return :op-id :a :tid 0 :res \"true\"}"
+            + "{:type :return :op-id :b :tid 1 :res \"1\"}]");
+
+        assertTrue(JitLinChecker.checkLinearizable(h, LOGGER, "queue"));
+        assertEquals(Keyword.intern(null, "search"),
+                     checkHistory("queue", h).valAt(Keyword.intern(null, "stage")));
+    }
+
+    @Test
+    void testValueDequeuedTwiceIsRejectedByPrefilter() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :offer :arg \"1\"}"
+            + "{:type :return :op-id :a :tid 0 :res \"true\"}"
+            + "{:type :invoke :op-id :b :tid 1 :op :poll :arg nil}"
+            + "{:type :return :op-id :b :tid 1 :res \"1\"}"
+            + "{:type :invoke :op-id :c :tid 2 :op :poll :arg nil}"
+            + "{:type :return :op-id :c :tid 2 :res \"1\"}]");
+
+        assertFalse(JitLinChecker.checkLinearizable(h, LOGGER, "queue"));
+        assertEquals(Keyword.intern(null, "value-consumed-twice"), rule(checkHistory("queue", h)));
+    }
+
+    @Test
+    void testValueNeverEnqueuedIsRejectedByPrefilter() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :poll :arg nil}"
+            + "{:type :return :op-id :a :tid 0 :res \"7\"}]");
+
+        assertEquals(Keyword.intern(null, "value-never-produced"), rule(checkHistory("queue", h)));
+    }
+
+    @Test
+    void testDequeueBeforeEnqueueIsRejectedByPrefilter() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :b :tid 1 :op :poll :arg nil}"
+            + "{:type :return :op-id :b :tid 1 :res \"1\"}"
+            + "{:type :invoke :op-id :a :tid 0 :op :offer :arg \"1\"}"
+            + "{:type :return :op-id :a :tid 0 :res \"true\"}]");
+
+        assertEquals(Keyword.intern(null, "consumed-before-produced"), rule(checkHistory("queue", h)));
+    }
+
+    @Test
+    void testFailedOfferIsRejectedByPrefilter() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :offer :arg \"1\"}"
+            + "{:type :return :op-id :a :tid 0 :res \"false\"}]");
+
+        assertEquals(Keyword.intern(null, "impossible-result"), rule(checkHistory("queue", h)));
+    }
+
+    @Test
+    void testSetContainsWithoutAddIsRejectedByPrefilter() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :contains :arg \"x\"}"
+            + "{:type :return :op-id :a :tid 0 :res \"true\"}"
+            + "{:type :invoke :op-id :b :tid 1 :op :add :arg \"x\"}"
+            + "{:type :return :op-id :b :tid 1 :res \"true\"}]");
+
+        assertEquals(Keyword.intern(null, "observed-before-produced"), rule(checkHistory("set", h)));
+    }
+
+    @Test
+    void testMapGetOfOverlappingPutIsAccepted() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :put :arg \"[k, v]\"}"
+            + "{:type :invoke :op-id :b :tid 1 :op :get :arg \"k\"}"
+            + "{:type :return :op-id :b :tid 1 :res \"v\"}"
+            + "{:type :return :op-id :a :tid 0 :res nil}]");
+
+        assertTrue(JitLinChecker.checkLinearizable(h, LOGGER, "map"));
+    }
+
+    @Test
+    void testSearchStillRejectsFifoViolation() {
+        // Passes the sanity rules (every value is enqueued before it is dequeued)
+        // but the order is wrong, so only the DFS can reject it.
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :offer :arg \"1\"}"
+            + "{:type :return :op-id :a :tid 0 :res \"true\"}"
+            + "{:type :invoke :op-id :b :tid 0 :op :offer :arg \"2\"}"
+            + "{:type :return :op-id :b :tid 0 :res \"true\"}"
+            + "{:type :invoke :op-id :c :tid 1 :op :poll :arg nil}"
+            + "{:type :return :op-id :c :tid 1 :res \"2\"}]");
+
+        ILookup result = checkHistory("queue", h);
+        assertEquals(Boolean.FALSE, result.valAt(Keyword.intern(null, "linearizable?")));
+        assertEquals(Keyword.intern(null, "search"), result.valAt(Keyword.intern(null, "stage")));
+    }
+
+    @Test
+    void testExhaustedBudgetGivesUnknownVerdict() {
+        IPersistentVector h = xe("["
+            + "{:type :invoke :op-id :a :tid 0 :op :offer :arg \"1\"}"
+            + "{:type :invoke :op-id :b :tid 1 :op :offer :arg \"2\"}"
+            + "{:type :return :op-id :a :tid 0 :res \"true\"}"
+            + "{:type :return :op-id :b :tid 1 :res \"true\"}]");
+
+        SearchBudget budget = new SearchBudget(1, null);
+        assertEquals(Verdict.UNKNOWN,
+                     JitLinChecker.check(h, LOGGER, "queue", PruningStrategy.getDefault(), budget));
+        assertEquals(SearchBudget.Stop.STEPS, budget.getStop());
+        assertEquals(2, budget.getTotalOps());
+
+        SearchBudget cancelled = SearchBudget.unlimited();
+        cancelled.cancel();
+        assertEquals(Verdict.UNKNOWN,
+                     JitLinChecker.check(h, LOGGER, "queue", PruningStrategy.getDefault(), cancelled));
+
+        assertEquals(Verdict.LINEARIZABLE,
+                     JitLinChecker.check(h, LOGGER, "queue", PruningStrategy.getDefault(), SearchBudget.unlimited()));
+    }
+}
@@ -0,0 +1,175 @@
+package phd.distributed.core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import phd.distributed.api.A;
+import phd.distributed.api.LoadProfile;
+import phd.distributed.api.VerificationResult.Verdict;
+import phd.distributed.datamodel.MethodInf;
+import phd.distributed.datamodel.OperationCall;
+import phd.distributed.monitoring.LatencyHistogram;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class OpenLoopTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Queue whose 5th offer stalls for 40 ms. */
+    public static class StallingQueue<E> extends ConcurrentLinkedQueue<E> {
+        private final AtomicInteger offers = new AtomicInteger();
+
+        @Override
+        public boolean offer(E e) {
+            if (offers.incrementAndGet() == 5) {
+                try {
+                    Thread.sleep(40);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.offer(e);
+        }
+    }
+
+    private static List<OperationCall> offers(A alg, int ops) {
+        MethodInf offer = alg.methods().stream().filter(m -> m.getName().equals("offer")).findFirst().orElseThrow();
+        List<OperationCall> schedule = new ArrayList<>();
+        for (int i = 0; i < ops; i++) {
+            schedule.add(new OperationCall(i, offer));
+        }
+        return schedule;
+    }
+
+    @Test
+    void testProfileRates() {
+        LoadProfile steady = LoadProfile.constant(1000);
+        assertEquals(MILLIS, steady.gapAfter(0L, new SplittableRandom(1)));
+        assertEquals(Duration.ofSeconds(2), steady.expectedDuration(2000));
+
+        // 10 ms of 5000 ops/s every 100 ms
+        LoadProfile bursty = steady.withBursts(5000, Duration.ofMillis(100), Duration.ofMillis(10));
+        assertEquals(5000.0, bursty.rateAt(5 * MILLIS));
+        assertEquals(1000.0, bursty.rateAt(50 * MILLIS));
+        assertEquals(5000.0, bursty.rateAt(105 * MILLIS));
+        assertEquals(1400.0, bursty.meanRate(), 1e-9);
+
+        // Poisson gaps keep the mean
+        LoadProfile poisson = steady.withPoissonArrivals();
+        SplittableRandom random = new SplittableRandom(7);
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += poisson.gapAfter(0L, random);
+        }
+        assertEquals(MILLIS, sum / 100_000.0, MILLIS * 0.02);
+
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.constant(0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> steady.withBursts(10, Duration.ofMillis(10), Duration.ofMillis(10)));
+    }
+
+    @Test
+    void testProducersFollowTheRate() {
+        A alg = new A("java.util.concurrent.ConcurrentLinkedQueue", "offer", "poll");
+        Executioner executioner = new Executioner(2, 100, alg, "queue", "gAIsnap");
+        assertNull(executioner.getResponseLatency());
+        // 50 ops per thread at 500 ops/s: about 100 ms
+        executioner.enableOpenLoop(LoadProfile.constant(500), 1L);
+
+        long start = System.nanoTime();
+        executioner.taskProducers();
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed >= 90 * MILLIS, "open loop ran in " + elapsed / MILLIS + " ms");
+        assertEquals(100, executioner.getExecutedOps());
+        assertEquals(100, executioner.getResponseLatency().count());
+        assertEquals(100, executioner.getServiceLatency().count());
+        // the history is still recorded through the snapshot
+        assertEquals(Verdict.LINEARIZABLE, executioner.taskVerifiers(null));
+        assertEquals(200, executioner.getHistory().count());
+    }
+
+    @Test
+    void testStallIsChargedToTheOperationsBehindIt() {
+        A alg = new A(StallingQueue.class.getName(), "offer", "poll");
+        Executioner executioner = new Executioner(1, 60, alg, "queue", "gAIsnap");
+        executioner.enableOpenLoop(LoadProfile.constant(1000), 1L);
+
+        executioner.taskProducersSeed(offers(alg, 60));
+
+        LatencyHistogram.Summary response = executioner.getResponseLatency();
+        LatencyHistogram.Summary service = executioner.getServiceLatency();
+        // one slow operation in service time...
+        assertTrue(service.max() >= 40 * MILLIS, service.toString());
+        // ...but some 40 operations were due while it ran and waited for it
+        assertTrue(response.p50() >= 5 * MILLIS, response.toString());
+        assertTrue(response.p50() > 10 * service.p50(), response + " / " + service);
+    }
+
+    @Test
+    void testPauseShiftsTheSchedule() throws InterruptedException {
+        OpenLoopDriver driver = new OpenLoopDriver(new LoadProfile[] { LoadProfile.constant(1000) }, 1L);
+        driver.start();
+        long intended = driver.awaitTurn(0, () -> false);
+        driver.completed(0, intended, System.nanoTime());
+
+        // a 50 ms checkpoint: the operations due meanwhile are not late, they move with it
+        long before = System.nanoTime();
+        Thread.sleep(50);
+        driver.pause(System.nanoTime() - before);
+        long next = driver.awaitTurn(0, () -> false);
+        driver.completed(0, next, System.nanoTime());
+
+        assertTrue(next - intended >= 50 * MILLIS, "next op due " + (next - intended) / MILLIS + " ms later");
+        assertTrue(driver.responseLatency().max() < 20 * MILLIS, driver.responseLatency().toString());
+    }
+
+    @Test
+    void testOpenLoopGoesThroughTheCheckpoints() {
+        A alg = new A("java.util.concurrent.ConcurrentLinkedQueue", "offer", "poll");
+        Executioner executioner = new Executioner(2, 200, alg, "queue", "gAIsnap");
+        executioner.enableOpenLoop(LoadProfile.constant(2000), 1L);
+        // checkpoints at 8, 16, 32, 64 and 128 operations, each one shifting the schedule
+        executioner.enableEarlyAbort(8, 0L, null);
+
+        executioner.taskProducers();
+
+        assertEquals(200, executioner.getExecutedOps());
+        assertFalse(executioner.isTruncated());
+        assertFalse(executioner.isAbortedEarly());
+        assertEquals(200, executioner.getResponseLatency().count());
+        assertEquals(Verdict.LINEARIZABLE, executioner.taskVerifiers(null));
+    }
+
+    @Test
+    void testStopEndsAWaitingProducer() throws InterruptedException {
+        A alg = new A("java.util.concurrent.ConcurrentLinkedQueue", "offer", "poll");
+        Executioner executioner = new Executioner(1, 10, alg, "queue", "gAIsnap");
+        // one op per second: the producer spends the run waiting
+        executioner.enableOpenLoop(LoadProfile.constant(1), 1L);
+
+        Thread producers = new Thread(executioner::taskProducers);
+        producers.start();
+        Thread.sleep(100);
+        executioner.stop();
+        producers.join(2000);
+
+        assertTrue(!producers.isAlive());
+        assertEquals(1, executioner.getExecutedOps());
+    }
+}
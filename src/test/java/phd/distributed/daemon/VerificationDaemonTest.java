@@ -0,0 +1,98 @@
+package phd.distributed.daemon;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class VerificationDaemonTest {
+
+    // Reading a static field of Probe would initialize it: the flag lives here
+    private static final AtomicBoolean PROBE_INITIALIZED = new AtomicBoolean();
+
+    /** Records whether a job made the daemon initialize it. */
+    public static class Probe extends ConcurrentLinkedQueue<Object> {
+        static {
+            PROBE_INITIALIZED.set(true);
+        }
+    }
+
+    @Test
+    @Tag("fast")
+    void testJobLinesUseTheBuilderDefaults() {
+        JobRequest job = JobRequest.parse("id=m algorithm=ConcurrentHashMap methods=put,get workload=read-heavy-0.8 seed=7",
+                                          "job-1");
+        assertEquals("m", job.id());
+        assertEquals("map", job.run().objectType());
+        assertEquals(List.of("put", "get"), job.run().methods());
+        assertEquals(8, job.run().threads());
+        assertEquals(1000, job.run().operations());
+        assertEquals("gAIsnap", job.run().snapshot());
+        assertEquals("read-heavy-0.8", job.run().workload().getName());
+        assertEquals(7L, job.run().seed());
+
+        assertEquals("job-2", JobRequest.parse("algorithm=phd.Foo", "job-2").id());
+        assertEquals("queue", JobRequest.parse("algorithm=phd.Foo", "job-2").run().objectType());
+        assertThrows(IllegalArgumentException.class, () -> JobRequest.parse("threads=2", "x"));
+        assertThrows(IllegalArgumentException.class, () -> JobRequest.parse("algorithm=ConcurrentHashMap colour=red", "x"));
+        assertThrows(IllegalArgumentException.class, () -> JobRequest.parse("algorithm=ConcurrentHashMap threads=two", "x"));
+    }
+
+    @Test
+    void testDaemonStreamsResultsOverOneConnection() throws Exception {
+        VerificationDaemon daemon = VerificationDaemon.start(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, false);
+        try {
+            try (VerificationClient client = VerificationClient.connect(daemon.getAddress())) {
+                assertEquals("PONG", client.command("PING"));
+                List<String> results = client.submit(List.of(
+                    "id=good algorithm=ConcurrentLinkedQueue threads=2 operations=20 seed=1",
+                    "id=bad algorithm=ConcurrentLinkedQueue threads=two"));
+                assertEquals(2, results.size(), results.toString());
+                String good = results.stream().filter(r -> r.startsWith("{\"job\":\"good\"")).findFirst().orElseThrow();
+                String bad = results.stream().filter(r -> r.startsWith("{\"job\":\"bad\"")).findFirst().orElseThrow();
+                assertTrue(good.contains("\"verdict\":\"LINEARIZABLE\""), good);
+                assertTrue(bad.contains("\"verdict\":\"ERROR\""), bad);
+            }
+            // the daemon outlives its connections
+            try (VerificationClient client = VerificationClient.connect(daemon.getAddress())) {
+                assertTrue(client.command("STATS").contains("\"completed\":1"));
+                client.shutdownDaemon();
+            }
+            daemon.awaitShutdown();
+        } finally {
+            daemon.close();
+        }
+    }
+
+    @Test
+    void testOnlyLibraryAlgorithmsAndAllowedPackagesRun() throws Exception {
+        VerificationDaemon daemon = VerificationDaemon.start(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, false, List.of("java.util.concurrent"));
+        try (VerificationClient client = VerificationClient.connect(daemon.getAddress())) {
+            assertTrue(daemon.isAllowed("ConcurrentLinkedQueue"));
+            assertFalse(daemon.isAllowed("java.util.concurrentX.Queue"));
+            List<String> results = client.submit(List.of(
+                "id=probe algorithm=" + Probe.class.getName() + " threads=1 operations=4",
+                "id=allowed algorithm=java.util.concurrent.ConcurrentLinkedDeque methods=offer,poll"
+                    + " threads=2 operations=20 seed=1"));
+            String probe = results.stream().filter(r -> r.startsWith("{\"job\":\"probe\"")).findFirst().orElseThrow();
+            String allowed = results.stream().filter(r -> r.startsWith("{\"job\":\"allowed\"")).findFirst().orElseThrow();
+            assertTrue(probe.contains("\"verdict\":\"ERROR\"") && probe.contains("not in the library"), probe);
+            assertFalse(PROBE_INITIALIZED.get(), "the daemon loaded a class outside the allowed packages");
+            assertTrue(allowed.contains("\"verdict\":\"LINEARIZABLE\""), allowed);
+        } finally {
+            daemon.close();
+        }
+    }
+}
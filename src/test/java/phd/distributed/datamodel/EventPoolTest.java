@@ -0,0 +1,113 @@
+package phd.distributed.datamodel;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class EventPoolTest {
+
+    @Test
+    void testObtainedEventCarriesFields() {
+        Event e = EventPool.obtain(3, "payload", 42);
+        assertEquals(3, e.getId());
+        assertSame("payload", e.getEvent());
+        assertEquals(42, e.getCounter());
+        EventPool.release(e);
+    }
+
+    @Test
+    void testForeignEventsAreNotRecycled() {
+        Event e = new Event(1, "x", 1);
+        int before = EventPool.available();
+        EventPool.release(e);
+
+        assertEquals(before, EventPool.available());
+        assertSame("x", e.getEvent());
+    }
+
+    @Test
+    void testReleasedEventIsReusedOnlyWhenPoolingIsOn() {
+        Event first = EventPool.obtain(1, "a", 1);
+        EventPool.release(first);
+        Event second = EventPool.obtain(2, "b", 2);
+
+        if (EventPool.isEnabled()) {
+            assertSame(first, second);
+        } else {
+            assertNotSame(first, second);
+        }
+        assertSame("b", second.getEvent());
+    }
+
+    @Test
+    void testFreeRingIsBoundedAndFifo() {
+        EventPool.FreeRing ring = new EventPool.FreeRing(3);
+        Event[] events = new Event[4];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(i, null, i);
+            assertTrue(ring.offer(events[i]));
+        }
+        // la capacidad se redondea a potencia de dos
+        assertFalse(ring.offer(new Event(9, null, 9)));
+        assertEquals(4, ring.size());
+
+        for (Event e : events) {
+            assertSame(e, ring.poll());
+        }
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void testFreeRingNeverHandsAnEventOutTwice() throws InterruptedException {
+        EventPool.FreeRing ring = new EventPool.FreeRing(64);
+        int threads = 4;
+        int rounds = 20_000;
+        for (int i = 0; i < 32; i++) {
+            ring.offer(new Event(i, null, i));
+        }
+        Set<Event> inHand = ConcurrentHashMap.newKeySet();
+        AtomicInteger twice = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int r = 0; r < rounds; r++) {
+                    Event e = ring.poll();
+                    if (e != null) {
+                        if (!inHand.add(e)) {
+                            twice.incrementAndGet();
+                        }
+                        inHand.remove(e);
+                        ring.offer(e);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        assertEquals(0, twice.get());
+        // a failed offer only loses the event to the GC, it never duplicates it
+        int left = ring.size();
+        Set<Event> drained = new HashSet<>();
+        for (Event e; (e = ring.poll()) != null; ) {
+            assertTrue(drained.add(e), "event handed out twice");
+        }
+        assertEquals(left, drained.size());
+        assertTrue(left <= 32);
+    }
+}
@@ -0,0 +1,82 @@
+package phd.distributed.datamodel;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import clojure.lang.IPersistentVector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class ValueCodecTest {
+
+    private final ValueCodec codec = new ValueCodec();
+
+    @Test
+    void testScalarsBecomeCanonicalTypes() {
+        assertNull(codec.encode(null));
+        assertEquals(Boolean.TRUE, codec.encode(true));
+        assertEquals(3L, codec.encode(3));
+        assertEquals(3L, codec.encode((short) 3));
+        assertEquals(3L, codec.encode(3L));
+        assertEquals(1.5d, codec.encode(1.5f));
+        assertEquals((long) 'a', codec.encode('a'));
+        assertEquals("RED", codec.encode(Color.RED));
+    }
+
+    @Test
+    void testStringsAreDeduplicated() {
+        String a = new String("obj-1");
+        String b = new String("obj-1");
+        assertSame(codec.encode(a), codec.encode(b));
+    }
+
+    @Test
+    void testArraysAndListsBecomeTuples() {
+        Object pair = codec.encode(new Object[] {"k", 7});
+        assertTrue(pair instanceof IPersistentVector);
+        assertEquals(List.of("k", 7L), pair);
+        assertEquals(List.of(1L, 2L), codec.encode(new int[] {1, 2}));
+        assertEquals(codec.encode(List.of("k", 7)), pair);
+    }
+
+    @Test
+    void testOtherObjectsGetStableIds() {
+        Object id1 = codec.encode(new Point(1, 2));
+        Object id2 = codec.encode(new Point(1, 2));
+        Object id3 = codec.encode(new Point(2, 1));
+
+        assertTrue(id1 instanceof Long);
+        assertEquals(id1, id2);
+        assertNotEquals(id1, id3);
+    }
+
+    @Test
+    void testCaptureSharesNothingAndEncodeFinishesIt() {
+        Point p = new Point(1, 2);
+        // objects and strings are kept as they are until the history is built
+        assertSame(p, ValueCodec.capture(p));
+        Integer seven = 7;
+        assertSame(seven, ValueCodec.capture(seven));
+        assertEquals(7L, codec.encode(ValueCodec.capture(seven)));
+        // mutable containers are copied when recorded
+        Object[] reused = {"k", p};
+        Object captured = ValueCodec.capture(reused);
+        reused[0] = "other";
+
+        assertEquals(codec.encode(new Object[] {"k", new Point(1, 2)}), codec.encode(captured));
+        assertEquals(codec.encode(p), codec.encode(ValueCodec.capture(new Point(1, 2))));
+        assertEquals(3L, codec.encode(ValueCodec.capture((byte) 3)));
+    }
+
+    private enum Color { RED }
+
+    private record Point(int x, int y) { }
+}
@@ -2,8 +2,15 @@ package phd.distributed.logging;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
 import phd.distributed.datamodel.Event;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -52,4 +59,128 @@ class AsyncEventLoggerTest {
 
         Thread.sleep(1000); // Allow processing
     }
+
+    @TempDir
+    Path dir;
+
+    // Records what it is given; the first write waits until the gate opens, so the
+    // consumer is stuck and the queue fills up
+    static final class GatedSink implements EventSink {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<String> lines = new ArrayList<>();
+
+        @Override
+        public void write(int threadId, Object payload, int counter) {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (lines) {
+                lines.add("T" + threadId + ": " + payload + " [" + counter + "]");
+            }
+        }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() { }
+
+        List<String> lines() {
+            synchronized (lines) {
+                return new ArrayList<>(lines);
+            }
+        }
+    }
+
+    // One event the consumer takes and blocks on, then a queue of 4 to fill
+    private static GatedSink stuckConsumer(AsyncEventLogger logger, GatedSink sink) throws InterruptedException {
+        logger.logEvent(new Event(0, 0, 0));
+        assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+        return sink;
+    }
+
+    private static void awaitLines(GatedSink sink, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.lines().size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, sink.lines().size());
+    }
+
+    @Test
+    @Tag("fast")
+    void testDropPolicyCountsEveryLostEvent() throws InterruptedException {
+        GatedSink sink = new GatedSink();
+        AsyncEventLogger logger = new AsyncEventLogger(4, OverflowPolicy.DROP, sink, dir.resolve("unused.spill"));
+        stuckConsumer(logger, sink);
+
+        for (int i = 1; i <= 10; i++) {
+            logger.logEvent(new Event(1, i, i));
+        }
+
+        AsyncEventLogger.Statistics stats = logger.getStatistics();
+        assertEquals(4, stats.queueDepth());
+        assertEquals(6, stats.dropped());
+        assertEquals(0, stats.blocked());
+
+        sink.gate.countDown();
+        awaitLines(sink, 5);
+        logger.shutdown();
+    }
+
+    @Test
+    @Tag("fast")
+    void testSpillPolicyKeepsEveryEventInOrder() throws InterruptedException {
+        GatedSink sink = new GatedSink();
+        AsyncEventLogger logger = new AsyncEventLogger(4, OverflowPolicy.SPILL, sink, dir.resolve("events.spill"));
+        stuckConsumer(logger, sink);
+
+        for (int i = 1; i <= 20; i++) {
+            logger.logEvent(new Event(1, i % 3 == 0 ? "v" + i : i, i));
+        }
+
+        AsyncEventLogger.Statistics stats = logger.getStatistics();
+        assertEquals(4, stats.queueDepth());
+        assertEquals(16, stats.spillDepth());
+        assertEquals(16, logger.getSpillDepth());
+        assertEquals(16, stats.spilled());
+        assertEquals(0, stats.dropped());
+
+        sink.gate.countDown();
+        awaitLines(sink, 21);
+        List<String> lines = sink.lines();
+        for (int i = 1; i <= 20; i++) {
+            assertEquals("T1: " + (i % 3 == 0 ? "v" + i : i) + " [" + i + "]", lines.get(i));
+        }
+        assertEquals(0, logger.getStatistics().spillDepth());
+        logger.shutdown();
+    }
+
+    @Test
+    @Tag("fast")
+    void testBlockPolicyWaitsForRoom() throws InterruptedException {
+        GatedSink sink = new GatedSink();
+        AsyncEventLogger logger = new AsyncEventLogger(4, OverflowPolicy.BLOCK, sink, dir.resolve("unused.spill"));
+        stuckConsumer(logger, sink);
+        for (int i = 1; i <= 4; i++) {
+            logger.logEvent(new Event(1, i, i));
+        }
+
+        Thread producer = new Thread(() -> logger.logEvent(new Event(1, 5, 5)));
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive(), "the producer should wait for a free slot");
+
+        sink.gate.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        awaitLines(sink, 6);
+        assertEquals(1, logger.getStatistics().blocked());
+        assertEquals(0, logger.getStatistics().dropped());
+        logger.shutdown();
+    }
 }
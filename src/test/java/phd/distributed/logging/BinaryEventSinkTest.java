@@ -0,0 +1,74 @@
+package phd.distributed.logging;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import phd.distributed.datamodel.MethodInf;
+import phd.distributed.datamodel.OperationCall;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@Tag("fast")
+class BinaryEventSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDecodedEventsMatchTheTextFormat() throws Exception {
+        MethodInf offer = new MethodInf(ArrayDeque.class.getMethod("offer", Object.class), 0);
+        MethodInf poll = new MethodInf(ArrayDeque.class.getMethod("poll"), 1);
+        Path file = dir.resolve("events.bin");
+
+        // 2 records per buffer: the sink flushes several times on its own
+        try (BinaryEventSink sink = new BinaryEventSink(file, 2)) {
+            sink.write(0, new OperationCall(5, offer), 1);
+            sink.write(1, new OperationCall(null, poll), 2);
+            sink.write(0, true, 3);
+            sink.write(1, null, 4);
+            sink.write(1, new OperationCall("x", offer), 5);
+            sink.write(1, -7L, 6);
+        }
+
+        StringBuilder out = new StringBuilder();
+        assertEquals(6, EventLogDecoder.decode(file, out));
+        assertEquals("""
+            T0: op offer(5) [1]
+            T1: op poll(null) [2]
+            T0: true [3]
+            T1: null [4]
+            T1: op offer(x) [5]
+            T1: -7 [6]
+            """, out.toString());
+    }
+
+    @Test
+    void testSymbolsAreWrittenOnce() throws Exception {
+        MethodInf offer = new MethodInf(ArrayDeque.class.getMethod("offer", Object.class), 0);
+        Path file = dir.resolve("events.bin");
+
+        try (BinaryEventSink sink = new BinaryEventSink(file, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                sink.write(i % 4, new OperationCall(i, offer), i);
+            }
+        }
+
+        // header + one symbol ("offer") + fixed-width records
+        long symbol = 3 * Integer.BYTES + "offer".length();
+        assertEquals(Long.BYTES + Integer.BYTES + symbol + 1000L * BinaryEventSink.RECORD_BYTES, Files.size(file));
+        assertEquals(1000, EventLogDecoder.decode(file, new StringBuilder()));
+    }
+
+    @Test
+    void testDecoderRejectsOtherFiles() throws Exception {
+        Path file = dir.resolve("events.txt");
+        Files.writeString(file, "T0: op offer(5) [1]\n");
+        assertThrows(java.io.IOException.class, () -> EventLogDecoder.decode(file, new StringBuilder()));
+    }
+}
@@ -0,0 +1,121 @@
+package phd.distributed.logging;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import phd.distributed.datamodel.Event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class DisruptorEventLoggerTest {
+
+    private static final int THREADS = 4;
+    private static final int EVENTS = 5_000;
+
+    // Written by the single consumer thread, read after shutdown
+    static final class CollectingSink implements EventSink {
+        final Map<Integer, List<Integer>> counters = new HashMap<>();
+        volatile boolean closed = false;
+
+        @Override
+        public void write(int threadId, Object payload, int counter) {
+            counters.computeIfAbsent(threadId, t -> new ArrayList<>()).add(counter);
+        }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static void produce(DisruptorEventLogger logger) throws InterruptedException {
+        Thread[] producers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < EVENTS; i++) {
+                    logger.logEvent(new Event(id, i, i));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread p : producers) {
+            p.join();
+        }
+    }
+
+    private static void assertEveryEventInOrder(CollectingSink sink) {
+        assertTrue(sink.closed);
+        assertEquals(THREADS, sink.counters.size());
+        for (List<Integer> counters : sink.counters.values()) {
+            assertEquals(EVENTS, counters.size());
+            for (int i = 0; i < EVENTS; i++) {
+                assertEquals(i, counters.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testPerProducerRingsDeliverEveryEvent() throws InterruptedException {
+        for (LoggerWaitStrategy wait : List.of(LoggerWaitStrategy.BLOCKING, LoggerWaitStrategy.SLEEPING)) {
+            CollectingSink sink = new CollectingSink();
+            // rings smaller than the events of a thread: producers wait for the consumer
+            DisruptorEventLogger logger = new DisruptorEventLogger(sink, true, wait, 256);
+            produce(logger);
+            logger.shutdown();
+            assertEveryEventInOrder(sink);
+        }
+    }
+
+    @Test
+    void testRingsOfFinishedThreadsAreDropped() throws InterruptedException {
+        CollectingSink sink = new CollectingSink();
+        ProducerRings rings = new ProducerRings(sink, LoggerWaitStrategy.BLOCKING, 64);
+        // register the ring of this thread first, or the count could drop to 0
+        rings.publish(new Event(1, "y", 1));
+        Thread producer = new Thread(() -> rings.publish(new Event(0, "x", 1)));
+        producer.start();
+        producer.join();
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (rings.ringCount() > 1 && System.nanoTime() < deadline) {
+            rings.publish(new Event(1, "y", 2));   // wakes the consumer up
+            Thread.sleep(5);
+        }
+        // only the ring of this thread is left
+        assertEquals(1, rings.ringCount());
+        rings.shutdown();
+        assertEquals(List.of(1), sink.counters.get(0));
+    }
+
+    @Test
+    void testSharedRingWithEachWaitStrategy() throws InterruptedException {
+        for (LoggerWaitStrategy wait : LoggerWaitStrategy.values()) {
+            CollectingSink sink = new CollectingSink();
+            DisruptorEventLogger logger = new DisruptorEventLogger(sink, false, wait, 256);
+            produce(logger);
+            logger.shutdown();
+            assertEveryEventInOrder(sink);
+        }
+    }
+
+    @Test
+    void testWaitStrategyNames() {
+        assertEquals(LoggerWaitStrategy.BUSY_SPIN, LoggerWaitStrategy.fromString("busy-spin"));
+        assertEquals(LoggerWaitStrategy.YIELDING, LoggerWaitStrategy.fromString("Yielding"));
+        assertThrows(IllegalArgumentException.class, () -> LoggerWaitStrategy.fromString("lazy"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ProducerRings(new CollectingSink(), LoggerWaitStrategy.BLOCKING, 100));
+    }
+}
@@ -0,0 +1,101 @@
+package phd.distributed.logging;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class GarbageFreeLoggingTest {
+
+    private static final int WARM_UP = 100_000;
+    private static final int EVENTS = 20_000;
+
+    @TempDir
+    static Path dir;
+
+    // Contexto propio con log4j2-async.xml, independiente del de los demás tests
+    private static LoggerContext context;
+
+    @BeforeAll
+    static void startContext() throws Exception {
+        System.setProperty("phd.log.dir", dir.toString());
+        System.setProperty("phd.log.xe", "warn");
+        context = new LoggerContext("garbage-free-test", null,
+                                    GarbageFreeLoggingTest.class.getResource("/log4j2-async.xml").toURI());
+        context.start();
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.stop();
+        System.clearProperty("phd.log.dir");
+        System.clearProperty("phd.log.xe");
+    }
+
+    @Test
+    void testRecordingEventsAllocateNothingOnTheCallingThread() throws InterruptedException {
+        Logger recording = context.getLogger(PhaseLoggers.RECORDING_NAME);
+        Object[] results = {Boolean.TRUE, 17, null, "x"};
+        long[] allocated = {-1};
+        // hilo propio, como los productores: el worker de JUnit puede estar ejecutando otro test anidado
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < WARM_UP; i++) {
+                recording.info("Thread {} executed {} and obtained {}", i & 63, "offer", results[i & 3]);
+            }
+            com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < EVENTS; i++) {
+                recording.info("Thread {} executed {} and obtained {}", i & 63, "offer", results[i & 3]);
+            }
+            allocated[0] = threads.getCurrentThreadAllocatedBytes() - before;
+        }, "recording-producer");
+        producer.start();
+        producer.join();
+
+        // less than a byte per event: nothing per event, at most a one-off allocation
+        assertTrue(allocated[0] >= 0 && allocated[0] < EVENTS,
+                   allocated[0] + " bytes allocated for " + EVENTS + " events");
+    }
+
+    @Test
+    void testPhaseLevelsComeFromSystemProperties() {
+        assertTrue(context.getLogger(PhaseLoggers.RECORDING_NAME).isInfoEnabled());
+        assertFalse(context.getLogger(PhaseLoggers.XE_NAME).isInfoEnabled());
+        assertTrue(context.getLogger(PhaseLoggers.XE_NAME).isWarnEnabled());
+        assertFalse(context.getLogger(PhaseLoggers.VERIFICATION_NAME).isDebugEnabled());
+    }
+
+    @Test
+    void testEventsAreWrittenAsJsonLines() throws Exception {
+        context.getLogger(PhaseLoggers.VERIFICATION_NAME).info("X_E history ({} events)", 42);
+
+        Path file = dir.resolve("recording.json");
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String line = null;
+        while (line == null && System.nanoTime() < deadline) {
+            List<String> lines = Files.exists(file) ? Files.readAllLines(file) : List.of();
+            line = lines.stream().filter(l -> l.contains("X_E history (42 events)")).findFirst().orElse(null);
+            if (line == null) {
+                Thread.sleep(10);
+            }
+        }
+        assertTrue(line != null, "event not written to " + file);
+        assertTrue(line.startsWith("{\"timeMillis\":"), line);
+        assertTrue(line.contains("\"phase\":\"" + PhaseLoggers.VERIFICATION_NAME + "\""), line);
+        assertTrue(line.contains("\"level\":\"INFO\""), line);
+    }
+}
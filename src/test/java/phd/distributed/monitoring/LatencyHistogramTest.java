@@ -0,0 +1,108 @@
+package phd.distributed.monitoring;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsKeepTheRelativeError() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            long v = random.nextLong(1L << 40);
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKETS, "index " + index);
+            long high = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(high >= v, v + " -> " + high);
+            assertTrue(high - v <= Math.max(1L, v >> LatencyHistogram.SUB_BITS), v + " -> " + high);
+        }
+        // small values are exact
+        for (long v = 0; v < 128; v++) {
+            assertEquals(v, LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(v)));
+        }
+    }
+
+    @Test
+    void testShardsOfSeveralThreadsMergeOnRead() throws Exception {
+        LatencyHistogram h = new LatencyHistogram("test");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            // together the threads record 1..100000 us once each
+            threads[t] = new Thread(() -> {
+                for (int v = 1 + offset; v <= 100_000; v += threads.length) {
+                    h.record(v * 1_000L);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        LatencyHistogram.Summary s = h.summary();
+        assertEquals(100_000, s.count());
+        assertEquals(100_000_000L, s.max());
+        assertEquals(50_000_500.0, s.mean(), 1.0);
+        assertNear(50_000_000L, s.p50());
+        assertNear(99_000_000L, s.p99());
+        assertNear(99_900_000L, s.p999());
+        assertEquals(s.p99(), h.valueAtPercentile(99.0));
+    }
+
+    @Test
+    void testMetricsReportIncludesPercentiles() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.recordLatency("latency.offer.apply", 1_500);
+        metrics.recordLatency("latency.offer.apply", 2_500);
+
+        assertEquals(1, metrics.latencySummaries().size());
+        assertEquals(2, metrics.histogram("latency.offer.apply").summary().count());
+        assertTrue(metrics.report().contains("latency.offer.apply: n=2"), metrics.report());
+        LatencyHistogram cached = metrics.histogram("latency.offer.apply");
+        metrics.reset();
+        // the instance a hot path keeps is still the one the metrics read
+        assertSame(cached, metrics.histogram("latency.offer.apply"));
+        assertEquals(0, metrics.latencySummaries().get(0).count());
+        cached.record(3_000);
+        assertEquals(1, metrics.latencySummaries().get(0).count());
+        assertEquals(3_000, metrics.latencySummaries().get(0).max());
+    }
+
+    @Test
+    void testShardsOfFinishedThreadsAreRetired() throws Exception {
+        LatencyHistogram h = new LatencyHistogram("test");
+        for (int round = 0; round < 20; round++) {
+            Thread t = new Thread(() -> {
+                for (int v = 1; v <= 100; v++) {
+                    h.record(v);
+                }
+            });
+            t.start();
+            t.join();
+        }
+
+        // one retired shard for the 20 threads, nothing is lost
+        assertEquals(1, h.shardCount());
+        LatencyHistogram.Summary s = h.summary();
+        assertEquals(2_000, s.count());
+        assertEquals(100, s.max());
+        assertEquals(50.5, s.mean(), 1e-9);
+
+        h.record(1_000);
+        assertEquals(2, h.shardCount());
+        assertEquals(2_001, h.summary().count());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 64, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,93 @@
+package phd.distributed.monitoring;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@Tag("fast")
+class MetricsExporterTest {
+
+    private static PerformanceMetrics sampleMetrics(AtomicLong depth) {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.incrementCounter("logging.events.dropped");
+        metrics.incrementCounter("logging.events.dropped");
+        metrics.recordTime("verification.time", 1_500_000_000L);
+        metrics.registerGauge("logging.async.queue.depth", depth::get);
+        for (long v = 1; v <= 100; v++) {
+            metrics.recordLatency("latency.offer.apply", v * 1_000);
+        }
+        return metrics;
+    }
+
+    @Test
+    void testPrometheusTextOfASnapshot() {
+        String text = MetricsExporter.prometheusText(sampleMetrics(new AtomicLong(7)).snapshot());
+
+        assertTrue(text.contains("# TYPE phd_logging_events_dropped_total counter\nphd_logging_events_dropped_total 2\n"),
+                   text);
+        assertTrue(text.contains("phd_verification_time_seconds_total 1.5\n"), text);
+        assertTrue(text.contains("# TYPE phd_logging_async_queue_depth gauge\nphd_logging_async_queue_depth 7\n"), text);
+        assertTrue(text.contains("# TYPE phd_latency_offer_apply_seconds summary\n"), text);
+        assertTrue(text.contains("phd_latency_offer_apply_seconds{quantile=\"0.99\"} "), text);
+        assertTrue(text.contains("phd_latency_offer_apply_seconds_count 100\n"), text);
+        assertTrue(text.contains("phd_latency_offer_apply_max_seconds 1.0E-4\n"), text);
+    }
+
+    @Test
+    void testGaugesAreReadAtEachSnapshot() {
+        AtomicLong depth = new AtomicLong(3);
+        PerformanceMetrics metrics = sampleMetrics(depth);
+        assertEquals(3L, metrics.snapshot().gauges().get("logging.async.queue.depth"));
+        depth.set(11);
+        assertEquals(11L, metrics.snapshot().gauges().get("logging.async.queue.depth"));
+
+        // reset() keeps the gauges, they belong to long-lived components
+        metrics.reset();
+        assertEquals(11L, metrics.snapshot().gauges().get("logging.async.queue.depth"));
+        metrics.removeGauge("logging.async.queue.depth");
+        assertTrue(metrics.snapshot().gauges().isEmpty());
+    }
+
+    @Test
+    void testServesHttpAndJmx() throws Exception {
+        AtomicLong depth = new AtomicLong(5);
+        PerformanceMetrics metrics = sampleMetrics(depth);
+        MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsExporter.OBJECT_NAME);
+
+        try (MetricsExporter exporter = MetricsExporter.start(metrics, new InetSocketAddress("127.0.0.1", 0), true)) {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://127.0.0.1:" + exporter.getPort() + "/metrics");
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                                         HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+            assertTrue(response.body().contains("phd_logging_async_queue_depth 5\n"), response.body());
+
+            HttpResponse<String> post = client.send(
+                HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, post.statusCode());
+
+            depth.set(9);
+            assertEquals(9L, mbeans.getAttribute(name, "gauge.logging.async.queue.depth"));
+            assertEquals(2L, mbeans.getAttribute(name, "counter.logging.events.dropped"));
+            assertEquals(100L, mbeans.getAttribute(name, "histogram.latency.offer.apply.count"));
+        }
+        assertFalse(mbeans.isRegistered(name));
+    }
+}
@@ -0,0 +1,87 @@
+package phd.distributed.monitoring.jfr;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import phd.distributed.api.VerificationFramework;
+import phd.distributed.api.VerificationResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+// las grabaciones JFR son de toda la JVM: ninguna otra verificación debe correr a la vez
+@Isolated
+class FlightRecorderEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRunEmitsPhaseBuildAndSearchEvents() throws Exception {
+        Path file = dir.resolve("run.jfr");
+        VerificationResult result;
+        try (Recording recording = new Recording()) {
+            recording.enable(RunPhaseEvent.class);
+            recording.enable(BuildXEEvent.class);
+            recording.enable(SearchEvent.class);
+            recording.start();
+            result = VerificationFramework.verify(ConcurrentLinkedQueue.class)
+                .withThreads(2)
+                .withOperations(30)
+                .withSeed(11)
+                .run();
+            recording.stop();
+            recording.dump(file);
+        }
+        assertTrue(result.isLinearizable());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> phases = ofType(events, "phd.distributed.RunPhase");
+        assertEquals(List.of(RunPhaseEvent.PRODUCERS, RunPhaseEvent.VERIFICATION),
+                     phases.stream().map(e -> e.getString("phase")).toList());
+        assertEquals("LINEARIZABLE", phases.get(1).getString("verdict"));
+        assertEquals(30L, phases.get(0).getLong("operations"));
+
+        RecordedEvent build = ofType(events, "phd.distributed.BuildXE").get(0);
+        assertEquals(60, build.getInt("events"));
+        assertEquals("CollectFAInc", build.getString("snapshot"));
+
+        RecordedEvent search = ofType(events, "phd.distributed.Search").get(0);
+        assertEquals("LINEARIZABLE", search.getString("verdict"));
+        assertEquals("search", search.getString("stage"));
+        assertEquals(30, search.getInt("operations"));
+        assertTrue(search.getLong("nodes") > 0);
+        assertTrue(search.getInt("maxDepth") == 30);
+    }
+
+    @Test
+    void testOperationsAreOnlySampledWhileARecordingEnablesThem() {
+        assertFalse(OperationEvent.sampled());
+        try (Recording recording = new Recording()) {
+            recording.enable(OperationEvent.class);
+            recording.start();
+            boolean any = false;
+            for (int i = 0; i < 100_000 && !any; i++) {
+                any = OperationEvent.sampled();
+            }
+            assertTrue(any);
+            recording.stop();
+        }
+        assertFalse(OperationEvent.sampled());
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
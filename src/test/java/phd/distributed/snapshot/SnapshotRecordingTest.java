@@ -0,0 +1,197 @@
+package phd.distributed.snapshot;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import clojure.lang.IPersistentVector;
+import clojure.lang.Keyword;
+import phd.distributed.datamodel.Event;
+import phd.distributed.datamodel.MethodInf;
+import phd.distributed.datamodel.OperationCall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Tag("unit")
+@Tag("fast")
+class SnapshotRecordingTest {
+
+    private static final Keyword TYPE = Keyword.intern(null, "type");
+    private static final Keyword OP_ID = Keyword.intern(null, "op-id");
+    private static final Keyword OP = Keyword.intern(null, "op");
+    private static final Keyword ARG = Keyword.intern(null, "arg");
+    private static final Keyword RES = Keyword.intern(null, "res");
+
+    private final MethodInf offer;
+    private final MethodInf poll;
+
+    SnapshotRecordingTest() throws NoSuchMethodException {
+        offer = new MethodInf(ArrayDeque.class.getMethod("offer", Object.class), 0);
+        poll = new MethodInf(ArrayDeque.class.getMethod("poll"), 1);
+    }
+
+    @Test
+    void testOpIdsPackThreadAndIndex() {
+        long id = OpIds.encode(7, 3);
+        assertEquals(7, OpIds.tid(id));
+        assertEquals(3, OpIds.index(id));
+        assertEquals(Keyword.intern(null, "-7-3"), OpIds.opId(id));
+    }
+
+    @Test
+    void testMethodIdsComeFromTheAlgorithm() {
+        MethodTable table = new MethodTable();
+        table.registerAll(List.of(offer, poll));
+        assertEquals(0, table.idOf(offer));
+        assertEquals(1, table.idOf(poll));
+
+        // A method built by hand, or clashing with a registered id, gets a fresh one
+        MethodInf other = new MethodInf(poll.getMethod());
+        int id = table.idOf(other);
+        assertFalse(id == 0 || id == 1);
+        assertEquals(id, table.idOf(other));
+        assertEquals("poll", table.name(id));
+    }
+
+    @Test
+    void testThreadLogGrowsPastItsCapacity() {
+        ThreadLog log = new ThreadLog(2, 1, 0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(OpIds.encode(2, i + 1), log.invoke(0, (long) i, i));
+            log.ret(true, i, null);
+        }
+        assertEquals(100, log.invoked());
+        assertEquals(99L, log.arg(99));
+        assertFalse(log.ret(false, 0, null), "no pending invocation");
+    }
+
+    @Test
+    void testCollectFAIncRecordsScalarsWithoutBoxing() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        int ops = 2_000;
+        CollectFAInc snap = new CollectFAInc(1, 2 * ops);
+        snap.registerMethods(List.of(offer, poll));
+        // fuera de la caché de Integer: capturarlos como Long asignaría en cada llamada
+        Integer value = 1_000;
+        OperationCall call = new OperationCall(value, offer);
+        snap.write(0, call);
+        snap.snapshot(0, value);
+
+        // the event loggers may take one Event per call: measure what that costs
+        Event[] events = new Event[2 * ops];
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(0, call, i);
+        }
+        long eventBytes = threads.getCurrentThreadAllocatedBytes() - start;
+
+        start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ops; i++) {
+            snap.write(0, call);
+            snap.snapshot(0, value);
+        }
+        long recordingBytes = threads.getCurrentThreadAllocatedBytes() - start;
+
+        assertTrue(recordingBytes <= eventBytes + 4096,
+                   "recording allocated " + recordingBytes + " bytes, its events alone " + eventBytes);
+    }
+
+    @Test
+    void testCollectFAIncOrdersEventsByCounter() {
+        CollectFAInc snap = new CollectFAInc(2, 4);
+        snap.registerMethods(List.of(offer, poll));
+
+        snap.write(0, new OperationCall(5, offer));
+        snap.write(1, new OperationCall(null, poll));
+        snap.snapshot(1, null);
+        snap.snapshot(0, true);
+
+        IPersistentVector xe = snap.buildXE();
+        assertEquals(4, xe.count());
+        assertEvent(xe, 0, "invoke", "-0-1");
+        assertEquals(Keyword.intern(null, "offer"), event(xe, 0).get(OP));
+        assertEquals(5L, event(xe, 0).get(ARG));
+        assertEvent(xe, 1, "invoke", "-1-1");
+        assertEvent(xe, 2, "return", "-1-1");
+        assertEvent(xe, 3, "return", "-0-1");
+        assertEquals(Boolean.TRUE, event(xe, 3).get(RES));
+    }
+
+    @Test
+    void testCollectRAWOrdersSequentialOperations() {
+        CollectRAW snap = new CollectRAW(2, 4);
+        snap.registerMethods(List.of(offer, poll));
+
+        snap.write(0, new OperationCall(5, offer));
+        snap.snapshot(0, true);
+        snap.write(1, new OperationCall(null, poll));
+        snap.snapshot(1, 5);
+
+        IPersistentVector xe = snap.buildXE();
+        assertEquals(4, xe.count());
+        assertEvent(xe, 0, "invoke", "-0-1");
+        assertEvent(xe, 1, "return", "-0-1");
+        assertEvent(xe, 2, "invoke", "-1-1");
+        assertEvent(xe, 3, "return", "-1-1");
+        assertEquals(5L, event(xe, 3).get(RES));
+        assertNotEquals(null, event(xe, 2).get(OP));
+    }
+
+    @Test
+    void testSnapshotsRecordedConcurrentlyStayIndependent() throws Exception {
+        int opsPerThread = 50;
+        Snapshot[] snaps = {
+            new CollectFAInc(2), new CollectRAW(2), new CollectFAInc(2), new CollectRAW(2)
+        };
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < snaps.length; s++) {
+            Snapshot snap = snaps[s];
+            OperationCall call = new OperationCall(s, offer);
+            for (int tid = 0; tid < 2; tid++) {
+                int id = tid;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < opsPerThread; i++) {
+                        snap.write(id, call);
+                        snap.snapshot(id, true);
+                    }
+                }));
+            }
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        for (int s = 0; s < snaps.length; s++) {
+            IPersistentVector xe = snaps[s].buildXE();
+            assertEquals(2 * 2 * opsPerThread, xe.count(), "events of snapshot " + s);
+            for (int i = 0; i < xe.count(); i++) {
+                if (Keyword.intern(null, "invoke").equals(event(xe, i).get(TYPE))) {
+                    assertEquals((long) s, event(xe, i).get(ARG), "argument recorded by snapshot " + s);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> event(IPersistentVector xe, int i) {
+        return (Map<Object, Object>) xe.nth(i);
+    }
+
+    private static void assertEvent(IPersistentVector xe, int i, String type, String opId) {
+        assertEquals(Keyword.intern(null, type), event(xe, i).get(TYPE), "type of event " + i);
+        assertEquals(Keyword.intern(null, opId), event(xe, i).get(OP_ID), "op-id of event " + i);
+    }
+}
@@ -0,0 +1,230 @@
+package phd.distributed.verifier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import clojure.java.api.Clojure;
+import clojure.lang.IFn;
+import clojure.lang.ILookup;
+import clojure.lang.Keyword;
+import phd.distributed.core.JitLinChecker;
+import phd.distributed.datamodel.Event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential test: every strategy must give the same verdict as the
+ * unpruned search on random small histories.
+ */
+@Tag("unit")
+class PruningStrategyTest {
+
+    private static final int HISTORIES = 300;
+    private static final int THREADS = 3;
+    private static final int OPS_PER_THREAD = 3;
+    private static final String[] VALUES = {"1", "2", "3"};
+
+    private static final Keyword LINEARIZABLE = Keyword.intern(null, "linearizable?");
+
+    private static boolean check(String specType, Object xe, PruningStrategy pruning) {
+        return check(specType, xe, JitLinChecker.searchOptions(pruning, 1));
+    }
+
+    private static boolean check(String specType, Object xe, Object options) {
+        Clojure.var("clojure.core", "require").invoke(Clojure.read("typelin"));
+        IFn checkFn = Clojure.var("typelin", "check-history");
+        ILookup ret = (ILookup) checkFn.invoke(Keyword.intern(null, specType), xe, options);
+        return Boolean.TRUE.equals(ret.valAt(LINEARIZABLE));
+    }
+
+    @Test
+    @Tag("fast")
+    void testPruneKeepsEveryEvent() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            events.add(new Event(i % 2, "op-" + i, i));
+        }
+        assertSame(events, new NoPruning().prune(events));
+        assertEquals(events, new PartialOrderReduction().prune(events));
+        assertEquals(events, new AdvancedPruningStrategies.DependencyAwarePruning().prune(events));
+        assertEquals(events, new AdvancedPruningStrategies.AdaptivePruning(events.size()).prune(events));
+    }
+
+    @Test
+    @Tag("fast")
+    @SuppressWarnings({"deprecation", "removal"})
+    void testDeprecatedStrategiesStaySound() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            events.add(new Event(i % 2, "op-" + i, i));
+        }
+        AdvancedPruningStrategies.SamplingPruning sampling = new AdvancedPruningStrategies.SamplingPruning(0.5);
+        assertEquals(events, sampling.prune(events));
+        assertTrue(sampling.memoizeConfigurations());
+        assertEquals(0.5, sampling.getSampleRate());
+
+        AdvancedPruningStrategies.AdaptivePruning adaptive = new AdvancedPruningStrategies.AdaptivePruning();
+        assertEquals(events, adaptive.prune(events));
+        assertTrue(adaptive.memoizeConfigurations());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"queue", "deque", "set", "map"})
+    void testReductionsAgreeWithUnprunedChecker(String specType) {
+        Random random = new Random(42);
+        PruningStrategy[] strategies = {
+            new PartialOrderReduction(),
+            new AdvancedPruningStrategies.DependencyAwarePruning(),
+            new AdvancedPruningStrategies.AdaptivePruning(0)
+        };
+
+        int linearizable = 0;
+        for (int h = 0; h < HISTORIES; h++) {
+            Object xe = Clojure.read(randomHistory(specType, random, THREADS, OPS_PER_THREAD));
+            boolean expected = check(specType, xe, new NoPruning());
+            if (expected) linearizable++;
+
+            for (PruningStrategy strategy : strategies) {
+                assertEquals(expected, check(specType, xe, strategy),
+                    strategy.getClass().getSimpleName() + " disagrees on " + xe);
+            }
+        }
+
+        // The generator must exercise both verdicts for the comparison to mean anything.
+        assertTrue(linearizable > 0, "no linearizable history generated");
+        assertFalse(linearizable == HISTORIES, "no violation generated");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"queue", "set", "map"})
+    void testParallelSearchAgreesWithSequential(String specType) {
+        Random random = new Random(7);
+        Object parallel = Clojure.read("{:memo? true :eager-read-only? true"
+                                       + " :parallelism 4 :parallel-min-ops 0}");
+        Object parallelUnpruned = Clojure.read("{:parallelism 4 :parallel-min-ops 0}");
+
+        for (int h = 0; h < 50; h++) {
+            Object xe = Clojure.read(randomHistory(specType, random, 4, 8));
+            boolean expected = check(specType, xe, new PartialOrderReduction());
+            assertEquals(expected, check(specType, xe, parallel), "parallel search disagrees on " + xe);
+        }
+        for (int h = 0; h < 50; h++) {
+            Object xe = Clojure.read(randomHistory(specType, random, THREADS, OPS_PER_THREAD));
+            assertEquals(check(specType, xe, new NoPruning()), check(specType, xe, parallelUnpruned),
+                "unpruned parallel search disagrees on " + xe);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Random history generator
+    // ------------------------------------------------------------
+
+    /**
+     * Runs threads x opsPerThread random operations against a sequential model:
+     * each op is invoked, applied to the model at some later step and then
+     * returned, with random interleaving between threads. Some results are
+     * corrupted so that both verdicts show up.
+     */
+    private static String randomHistory(String specType, Random random, int threads, int opsPerThread) {
+        Deque<String> queue = new ArrayDeque<>();   // also the deque
+        Set<String> set = new HashSet<>();
+        Map<String, String> map = new HashMap<>();
+
+        int[] done = new int[threads];
+        String[][] pending = new String[threads][];   // {opId, op, arg}
+        Object[] results = new Object[threads];
+        boolean[] applied = new boolean[threads];
+
+        StringBuilder sb = new StringBuilder("[");
+        int remaining = threads * opsPerThread;
+        while (remaining > 0) {
+            int t = random.nextInt(threads);
+            if (pending[t] == null) {
+                if (done[t] == opsPerThread) continue;
+                String[] op = randomOp(specType, random);
+                String opId = ":t" + t + "-" + done[t];
+                pending[t] = new String[] {opId, op[0], op[1]};
+                applied[t] = false;
+                sb.append("{:type :invoke :op-id ").append(opId).append(" :tid ").append(t)
+                  .append(" :op :").append(op[0]).append(" :arg ").append(edn(op[1])).append("}");
+            } else if (!applied[t]) {
+                results[t] = apply(specType, pending[t][1], pending[t][2], queue, set, map);
+                if (random.nextInt(10) == 0) {
+                    results[t] = VALUES[random.nextInt(VALUES.length)];
+                }
+                applied[t] = true;
+            } else {
+                sb.append("{:type :return :op-id ").append(pending[t][0]).append(" :tid ").append(t)
+                  .append(" :res ").append(edn(results[t])).append("}");
+                pending[t] = null;
+                done[t]++;
+                remaining--;
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    private static String[] randomOp(String specType, Random random) {
+        String v = VALUES[random.nextInt(VALUES.length)];
+        return switch (specType) {
+            case "queue" -> random.nextBoolean() ? new String[] {"offer", v} : new String[] {"poll", null};
+            case "deque" -> switch (random.nextInt(4)) {
+                case 0 -> new String[] {"offerFirst", v};
+                case 1 -> new String[] {"offerLast", v};
+                case 2 -> new String[] {"pollFirst", null};
+                default -> new String[] {"pollLast", null};
+            };
+            case "set" -> new String[] {new String[] {"add", "remove", "contains"}[random.nextInt(3)], v};
+            default -> switch (random.nextInt(3)) {
+                case 0 -> new String[] {"put", "[" + v + ", " + VALUES[random.nextInt(VALUES.length)] + "]"};
+                case 1 -> new String[] {"get", v};
+                default -> new String[] {"remove", v};
+            };
+        };
+    }
+
+    private static Object apply(String specType, String op, String arg,
+                                Deque<String> queue, Set<String> set, Map<String, String> map) {
+        return switch (specType) {
+            case "queue" -> op.equals("offer") ? queue.offer(arg) : queue.poll();
+            case "deque" -> switch (op) {
+                case "offerFirst" -> queue.offerFirst(arg);
+                case "offerLast" -> queue.offerLast(arg);
+                case "pollFirst" -> queue.pollFirst();
+                default -> queue.pollLast();
+            };
+            case "set" -> switch (op) {
+                case "add" -> set.add(arg);
+                case "remove" -> set.remove(arg);
+                default -> set.contains(arg);
+            };
+            default -> switch (op) {
+                case "put" -> {
+                    String[] kv = arg.substring(1, arg.length() - 1).split(", ");
+                    yield map.put(kv[0], kv[1]);
+                }
+                case "get" -> map.get(arg);
+                default -> map.remove(arg);
+            };
+        };
+    }
+
+    private static String edn(Object value) {
+        return value == null ? "nil" : "\"" + value + "\"";
+    }
+}